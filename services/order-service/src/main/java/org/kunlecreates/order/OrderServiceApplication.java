@@ -1,9 +1,19 @@
 package org.kunlecreates.order;
 
+import org.kunlecreates.common.latency.LatencyEndpoint;
+import org.kunlecreates.common.latency.LatencyHistograms;
+import org.kunlecreates.common.latency.RouteLatencyFilter;
+import org.kunlecreates.common.persistence.PersistenceMetricsConfig;
+import org.kunlecreates.common.web.RequestCostFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Import({PersistenceMetricsConfig.class, LatencyHistograms.class, LatencyEndpoint.class, RouteLatencyFilter.class,
+        RequestCostFilter.class})
 public class OrderServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(OrderServiceApplication.class, args);
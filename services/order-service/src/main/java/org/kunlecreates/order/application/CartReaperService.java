@@ -0,0 +1,147 @@
+package org.kunlecreates.order.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kunlecreates.common.lease.Lease;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.CartItemRepository;
+import org.kunlecreates.order.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expires OPEN carts nobody has touched for {@code idle-timeout}: each is marked ABANDONED and its
+ * items deleted, so active-cart lookups and the cart tables stop growing with every visitor.
+ *
+ * Work goes a batch of carts per transaction. The batch is picked with {@code UPDLOCK, READPAST}
+ * from the {@code (status, updated_at)} index (V13), so carts a live request is changing are
+ * skipped instead of waited on, and adding to a cart at the same moment either lands before the
+ * reaper (the cart is no longer idle) or finds it closed. Locks are held for one batch only.
+ * Each abandoned cart's item count and value are published as metrics for analytics. Shards are
+ * reaped in turn by whichever replica holds the shard's {@value #JOB} lease.
+ */
+@Service
+public class CartReaperService {
+    private static final Logger logger = LoggerFactory.getLogger(CartReaperService.class);
+    // SQL Server accepts at most 2100 parameters per statement, and each cart id is one
+    private static final int MAX_BATCH_SIZE = 1000;
+    static final String JOB = "cart-reaper";
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final LeaseManager leaseManager;
+    private final Counter abandonedCarts;
+    private final Counter deletedItems;
+    private final DistributionSummary abandonedValue;
+    private final boolean enabled;
+    private final Duration idleTimeout;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public CartReaperService(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            LeaseManager leaseManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.cart-reaper.enabled:true}") boolean enabled,
+            @Value("${order.cart-reaper.idle-timeout:P14D}") Duration idleTimeout,
+            @Value("${order.cart-reaper.batch-size:100}") int batchSize,
+            @Value("${order.cart-reaper.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.leaseManager = leaseManager;
+        this.abandonedCarts = Counter.builder("order.carts.abandoned")
+                .description("OPEN carts expired after sitting idle")
+                .register(meterRegistry);
+        this.deletedItems = Counter.builder("order.carts.abandoned.items")
+                .description("Items deleted from abandoned carts")
+                .register(meterRegistry);
+        this.abandonedValue = DistributionSummary.builder("order.carts.abandoned.value")
+                .description("Value of each abandoned cart at its item prices")
+                .baseUnit("cents")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.idleTimeout = idleTimeout;
+        this.batchSize = Math.min(Math.max(batchSize, 1), MAX_BATCH_SIZE);
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Abandon idle carts in batches until none are left or the per-run cap is reached.
+     *
+     * @return the number of carts abandoned
+     */
+    @Scheduled(fixedDelayString = "${order.cart-reaper.interval-ms:900000}",
+               initialDelayString = "${order.cart-reaper.interval-ms:900000}")
+    public int reapIdleCarts() {
+        if (!enabled) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(idleTimeout);
+        int reaped = shardRouter.eachShard(() -> leaseManager.runExclusively(JOB, lease -> reapShard(cutoff, lease)).orElse(0))
+                .stream().mapToInt(Integer::intValue).sum();
+        if (reaped > 0) {
+            logger.info("Abandoned {} carts idle since before {}", reaped, cutoff);
+        }
+        return reaped;
+    }
+
+    private int reapShard(Instant cutoff, Lease lease) {
+        int reaped = 0;
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            Batch batch = transactionTemplate.execute(status -> {
+                leaseManager.fence(lease);
+                return reapBatch(cutoff);
+            });
+            if (batch == null || batch.carts() == 0) {
+                break;
+            }
+            // Published once the batch has committed
+            abandonedCarts.increment(batch.carts());
+            deletedItems.increment(batch.items());
+            batch.valuesCents().forEach(abandonedValue::record);
+            reaped += batch.carts();
+            if (batch.carts() < batchSize) {
+                break;
+            }
+        }
+        return reaped;
+    }
+
+    private Batch reapBatch(Instant cutoff) {
+        List<Long> idle = cartRepository.lockIdleOpenCartIds(cutoff, batchSize);
+        if (idle.isEmpty()) {
+            return Batch.EMPTY;
+        }
+        Map<Long, Long> values = new HashMap<>();
+        cartItemRepository.valueByCart(idle)
+                .forEach(value -> values.put(value.getCartId(), value.getValueCents() == null ? 0 : value.getValueCents()));
+        cartRepository.markAbandoned(idle, Instant.now());
+        int deleted = cartItemRepository.deleteByCartIds(idle);
+        // Empty carts are abandoned too, worth nothing
+        return new Batch(idle.size(), deleted, idle.stream().map(id -> values.getOrDefault(id, 0L)).toList());
+    }
+
+    private record Batch(int carts, int items, List<Long> valuesCents) {
+        static final Batch EMPTY = new Batch(0, 0, List.of());
+    }
+}
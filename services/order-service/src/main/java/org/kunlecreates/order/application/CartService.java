@@ -3,29 +3,65 @@ package org.kunlecreates.order.application;
 import org.kunlecreates.order.domain.Cart;
 import org.kunlecreates.order.domain.CartItem;
 import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderItem;
+import org.kunlecreates.order.infrastructure.jfr.CartCheckoutEvent;
+import org.kunlecreates.order.infrastructure.product.ProductCatalog;
+import org.kunlecreates.order.infrastructure.product.ProductServiceClient;
 import org.kunlecreates.order.repository.CartItemRepository;
 import org.kunlecreates.order.repository.CartRepository;
+import org.kunlecreates.order.repository.OrderEventRepository;
+import org.kunlecreates.order.repository.OrderItemRepository;
 import org.kunlecreates.order.repository.OrderRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class CartService {
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final ProductServiceClient productServiceClient;
+    private final StockReservationService stockReservations;
+    private final ProductCatalog productCatalog;
+    private final OrderSummaryService orderSummaries;
+    private final OrderMetrics orderMetrics;
 
     public CartService(
             CartRepository cartRepository, 
             CartItemRepository cartItemRepository,
-            OrderRepository orderRepository) {
+            OrderRepository orderRepository,
+            OrderItemRepository orderItemRepository,
+            OrderEventRepository orderEventRepository,
+            ProductServiceClient productServiceClient,
+            StockReservationService stockReservations,
+            ProductCatalog productCatalog,
+            OrderSummaryService orderSummaries,
+            OrderMetrics orderMetrics) {
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderEventRepository = orderEventRepository;
+        this.productServiceClient = productServiceClient;
+        this.stockReservations = stockReservations;
+        this.productCatalog = productCatalog;
+        this.orderSummaries = orderSummaries;
+        this.orderMetrics = orderMetrics;
     }
+    /** The user's OPEN cart with its items loaded, created if there is none. */
+    @Transactional
     public Cart getOrCreateActiveCart(String userRef) {
         return cartRepository.findByUserRefAndStatus(userRef, "OPEN")
                 .orElseGet(() -> cartRepository.save(new Cart(userRef)));
@@ -36,15 +72,30 @@ public class CartService {
         return cartRepository.findById(cartId);
     }
 
+    /** {@link #findById} with the items loaded in the same select, for rendering the cart. */
+    @Transactional(readOnly = true)
+    public Optional<Cart> findWithItems(Long cartId) {
+        return cartRepository.findWithItemsById(cartId);
+    }
+
     @Transactional
     public CartItem addItem(Long cartId, String productRef, Integer quantity, Long unitPriceCents) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new IllegalArgumentException("Cart not found"));
         
-        if (!cart.isOpen()) {
+        // Adding counts as activity for the abandoned-cart reaper; 0 rows means it just closed the cart
+        if (!cart.isOpen() || cartRepository.touchOpen(cartId, Instant.now()) == 0) {
             throw new IllegalStateException("Cart is closed");
         }
 
+        // Price from the local catalog snapshot when it is available; the client price is only a fallback
+        if (productCatalog.isLoaded()) {
+            ProductCatalog.Product product = productCatalog.find(productRef)
+                    .filter(ProductCatalog.Product::active)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown or inactive product: " + productRef));
+            unitPriceCents = product.priceCents();
+        }
+
         Optional<CartItem> existing = cartItemRepository.findByCartIdAndProductRef(cartId, productRef);
         
         if (existing.isPresent()) {
@@ -61,6 +112,7 @@ public class CartService {
     public void updateItemQuantity(Long itemId, Integer quantity) {
         CartItem item = cartItemRepository.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("Cart item not found"));
+        cartRepository.touchOpen(item.getCart().getId(), Instant.now());
         item.setQuantity(quantity);
         cartItemRepository.save(item);
     }
@@ -72,9 +124,11 @@ public class CartService {
 
     @Transactional
     public void clearCart(Long cartId) {
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new IllegalArgumentException("Cart not found"));
-        cartItemRepository.deleteAll(cart.getItems());
+        if (!cartRepository.existsById(cartId)) {
+            throw new IllegalArgumentException("Cart not found");
+        }
+        // One DELETE for the whole cart rather than one per line
+        cartItemRepository.deleteByCartIds(List.of(cartId));
     }
 
     @Transactional
@@ -85,8 +139,15 @@ public class CartService {
         cartRepository.save(cart);
     }
 
+    /**
+     * Turn an open cart into a PENDING order in one transaction:
+     * an in-memory admission check, one select for the cart and its items, one batch stock reservation call,
+     * one insert for the order, one batched insert for the order items, and one update to close the cart.
+     */
     @Transactional
     public Order checkout(Long cartId, String userId) {
+        CartCheckoutEvent event = orderMetrics.begin(new CartCheckoutEvent());
+        event.cartId = cartId != null ? cartId : 0;
         // Use JOIN FETCH to eagerly load cart items within transaction
         Cart cart = cartRepository.findByIdWithItems(cartId)
                 .orElseThrow(() -> new IllegalArgumentException("Cart not found"));
@@ -102,19 +163,60 @@ public class CartService {
         
         // Access items within transaction (already loaded via JOIN FETCH)
         List<CartItem> items = cart.getItems();
+        event.itemCount = items.size();
         
         if (items.isEmpty()) {
             throw new IllegalStateException("Cart is empty");
         }
         
-        // Calculate total from cart items
-        long totalCents = items.stream()
-                .mapToLong(item -> item.getUnitPriceCents() * item.getQuantity())
-                .sum();
+        // Single pass over the cart: total and per-SKU quantities for the reservation
+        long totalCents = 0;
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : items) {
+            totalCents += item.getUnitPriceCents() * item.getQuantity();
+            quantities.merge(item.getProductRef(), item.getQuantity(), Integer::sum);
+        }
+        
+        // Admit against the in-memory reservation counters before any remote call or write
+        stockReservations.acquire(quantities);
+        
+        // Reserve stock for all lines at once under a key of this attempt; cancel it if this
+        // transaction does not commit
+        String reservationId = "cart-" + cartId + "-" + UUID.randomUUID();
+        boolean reserved = productServiceClient.reserveStock(reservationId, quantities, "Cart #" + cartId + " checkout");
+        if (reserved) {
+            cancelOnRollback(reservationId, "Cart #" + cartId + " checkout rolled back");
+        }
         
         // Create order
-        Order order = new Order(cart.getUserRef(), "PENDING", totalCents);
-        order = orderRepository.save(order);
+        Order pending = new Order(cart.getUserRef(), "PENDING", totalCents);
+        pending.setStockReserved(reserved);
+        Order order = orderRepository.save(pending);
+        event.orderId = order.getId() != null ? order.getId() : 0;
+        order.recordCreated();
+        List<OrderEvent> created = order.getDomainEvents();
+        orderEventRepository.saveAll(created);
+        order.clearDomainEvents();
+        orderMetrics.countAfterCommit(created);
+        
+        // Copy cart lines into order lines with one JDBC batch
+        List<OrderItem> orderItems = items.stream()
+                .map(item -> new OrderItem(order, item.getProductRef(),
+                        productCatalog.find(item.getProductRef()).map(ProductCatalog.Product::name).orElse(null),
+                        item.getQuantity(), item.getUnitPriceCents()))
+                .toList();
+        orderItemRepository.insertAll(order.getId(), orderItems);
+        orderSummaries.recordCreated(order, orderItems);
+        
+        // Stock taken by product-service is sold from the ledger's point of view, but still
+        // expires back to product-service if the order is never paid; otherwise keep a
+        // TTL-bounded local hold until the order is paid or cancelled
+        if (reserved) {
+            stockReservations.consume(quantities);
+            stockReservations.holdUpstream(order.getId(), quantities);
+        } else {
+            stockReservations.hold(order.getId(), quantities);
+        }
         
         // Close the cart
         cart.close();
@@ -122,4 +224,18 @@ public class CartService {
         
         return order;
     }
+
+    private void cancelOnRollback(String reservationId, String reason) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    productServiceClient.cancelReservation(reservationId, reason);
+                }
+            }
+        });
+    }
 }
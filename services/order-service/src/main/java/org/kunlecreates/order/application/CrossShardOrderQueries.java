@@ -0,0 +1,132 @@
+package org.kunlecreates.order.application;
+
+import org.kunlecreates.order.domain.OrderSummary;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.interfaces.dto.OrderResponse;
+import org.kunlecreates.order.repository.OrderSummaryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin queries over every shard: each shard answers in parallel through {@link ShardRouter#fanOut}
+ * and the results are merged here.
+ *
+ * Lists come from each shard already sorted, so a page is the merge of every shard's first
+ * {@code (page + 1) * size} rows; deep pages cost more, and the window is capped at
+ * {@value #MAX_MERGE_WINDOW} rows per shard, so pages starting past it are empty. With a single
+ * shard every call goes straight to the
+ * owning service. Methods must be called outside a transaction.
+ */
+@Service
+public class CrossShardOrderQueries {
+    static final int MAX_MERGE_WINDOW = 10_000;
+
+    private static final Comparator<OrderSummary> NEWEST_FIRST =
+            Comparator.comparing(OrderSummary::getCreatedAt).reversed().thenComparing(OrderSummary::getOrderId);
+
+    private final ShardRouter shardRouter;
+    private final OrderService orderService;
+    private final OrderSummaryService orderSummaries;
+    private final int maxPageSize;
+    private final int maxExportRows;
+
+    public CrossShardOrderQueries(
+            ShardRouter shardRouter,
+            OrderService orderService,
+            OrderSummaryService orderSummaries,
+            @Value("${order.summaries.max-page-size:200}") int maxPageSize,
+            @Value("${order.summaries.max-export-rows:50000}") int maxExportRows) {
+        this.shardRouter = shardRouter;
+        this.orderService = orderService;
+        this.orderSummaries = orderSummaries;
+        this.maxPageSize = maxPageSize;
+        this.maxExportRows = maxExportRows;
+    }
+
+    /** Every order on every shard, by id. */
+    public List<OrderResponse> listOrders() {
+        if (!shardRouter.isSharded()) {
+            return orderService.listOrderResponses();
+        }
+        return shardRouter.fanOut(() -> orderService.listOrderResponses()).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(OrderResponse::id))
+                .toList();
+    }
+
+    /** One page of summary rows across all shards, newest first. */
+    public List<OrderSummary> listSummaries(int page, int size) {
+        if (!shardRouter.isSharded()) {
+            return orderSummaries.list(null, true, page, size);
+        }
+        int pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        long offset = (long) Math.max(page, 0) * pageSize;
+        if (offset >= MAX_MERGE_WINDOW) {
+            return List.of();
+        }
+        int window = (int) Math.min(offset + pageSize, MAX_MERGE_WINDOW);
+        List<OrderSummary> merged = shardRouter.fanOut(() -> orderSummaries.newest(window)).stream()
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST)
+                .toList();
+        int from = (int) Math.min(offset, merged.size());
+        return merged.subList(from, Math.min(window, merged.size()));
+    }
+
+    /** Order count and revenue per status, summed over all shards. */
+    public List<OrderSummaryRepository.StatusTotals> totalsByStatus() {
+        if (!shardRouter.isSharded()) {
+            return orderSummaries.totalsByStatus();
+        }
+        Map<String, StatusTotals> totals = new LinkedHashMap<>();
+        shardRouter.fanOut(orderSummaries::totalsByStatus).forEach(shardTotals -> shardTotals.forEach(t ->
+                totals.merge(t.getStatus(),
+                        new StatusTotals(t.getStatus(), t.getOrders(), t.getTotalCents() != null ? t.getTotalCents() : 0L),
+                        StatusTotals::plus)));
+        return List.copyOf(totals.values());
+    }
+
+    /** Rebuild the summary read model on every shard at once. */
+    public int rebuildSummaries() {
+        return shardRouter.fanOut(orderSummaries::rebuild).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Summary rows created in {@code [from, to)} across all shards, oldest first, at most
+     * {@code max-export-rows}.
+     */
+    public List<OrderSummary> exportSummaries(Instant from, Instant to) {
+        return shardRouter.fanOut(() -> orderSummaries.createdBetween(from, to, maxExportRows)).stream()
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST.reversed())
+                .limit(maxExportRows)
+                .toList();
+    }
+
+    private record StatusTotals(String status, long orders, long totalCents) implements OrderSummaryRepository.StatusTotals {
+        @Override
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public long getOrders() {
+            return orders;
+        }
+
+        @Override
+        public Long getTotalCents() {
+            return totalCents;
+        }
+
+        StatusTotals plus(StatusTotals other) {
+            return new StatusTotals(status, orders + other.orders, totalCents + other.totalCents);
+        }
+    }
+}
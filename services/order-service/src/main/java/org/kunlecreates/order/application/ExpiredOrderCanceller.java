@@ -0,0 +1,25 @@
+package org.kunlecreates.order.application;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cancels orders still PENDING when their stock hold expires, when
+ * {@code order.reservation.cancel-expired} is on. Off by default: the customer is not told, so an
+ * order placed and paid later than the hold's TTL would otherwise be lost.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.reservation", name = "cancel-expired", havingValue = "true")
+public class ExpiredOrderCanceller {
+    private final OrderService orderService;
+
+    public ExpiredOrderCanceller(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @EventListener
+    public void onStockHoldsExpired(StockHoldsExpired expired) {
+        orderService.cancelExpired(expired.orderIds());
+    }
+}
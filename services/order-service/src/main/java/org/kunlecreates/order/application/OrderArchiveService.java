@@ -0,0 +1,142 @@
+package org.kunlecreates.order.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kunlecreates.order.domain.OrderStatus;
+import org.kunlecreates.common.lease.Lease;
+import org.kunlecreates.common.lease.LeaseLostException;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the hot order tables bounded by moving finished orders to the archive tables.
+ *
+ * DELIVERED, CANCELLED and REFUNDED orders whose last change is older than {@code retention} are
+ * copied with their items and events into the {@code *_archive} tables and deleted from the hot
+ * ones, one batch per transaction. Those statuses are final, so what is still in the hot table is
+ * the progress marker: a run that stops part way resumes with the next batch, and rows already
+ * copied are skipped. {@link OrderService} reads fall back to the archive. Each shard is
+ * archived in turn, with its own per-run cap.
+ *
+ * Replicas coordinate through {@link LeaseManager}: the orders of a shard are split by id into
+ * {@code slots} hash slots, and each replica archives only the slots it holds leases on, fencing
+ * every batch, so adding replicas spreads the work rather than duplicating it.
+ */
+@Service
+public class OrderArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+    // SQL Server accepts at most 2100 parameters per statement, and each id is one
+    private static final int MAX_BATCH_SIZE = 2000;
+    static final String JOB = "order-archive";
+
+    static final List<String> ARCHIVABLE_STATUSES = List.of(
+            OrderStatus.DELIVERED.getValue(), OrderStatus.CANCELLED.getValue(), OrderStatus.REFUNDED.getValue());
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final LeaseManager leaseManager;
+    private final Counter archivedOrders;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int slots;
+
+    public OrderArchiveService(
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            LeaseManager leaseManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.archive.enabled:true}") boolean enabled,
+            @Value("${order.archive.retention:P90D}") Duration retention,
+            @Value("${order.archive.batch-size:500}") int batchSize,
+            @Value("${order.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${order.archive.slots:1}") int slots) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.leaseManager = leaseManager;
+        this.archivedOrders = Counter.builder("order.archive.archived")
+                .description("Orders moved from the hot tables to the archive")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = Math.min(Math.max(batchSize, 1), MAX_BATCH_SIZE);
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.slots = Math.max(slots, 1);
+    }
+
+    /**
+     * Archive finished orders past the retention period, in batches until none are left or the
+     * per-run cap is reached. Only the slots this instance holds leases on are archived.
+     *
+     * @return the number of orders archived
+     */
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:3600000}",
+               initialDelayString = "${order.archive.interval-ms:3600000}")
+    public int archiveDue() {
+        if (!enabled) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        int archived = shardRouter.eachShard(() -> archiveShard(cutoff)).stream().mapToInt(Integer::intValue).sum();
+        if (archived > 0) {
+            logger.info("Archived {} orders last changed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveShard(Instant cutoff) {
+        List<Lease> leases = leaseManager.claim(JOB, slots);
+        if (leases.isEmpty()) {
+            return 0;
+        }
+        List<Long> heldSlots = leases.stream().map(lease -> (long) lease.slot()).toList();
+        int archived = 0;
+        try {
+            for (int run = 0; run < maxBatchesPerRun; run++) {
+                Integer moved = transactionTemplate.execute(status -> {
+                    leases.forEach(leaseManager::fence);
+                    return archiveBatch(cutoff, heldSlots);
+                });
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                archived += moved;
+                archivedOrders.increment(moved);
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+        } catch (LeaseLostException e) {
+            logger.warn("Stopped archiving after {} orders: {}", archived, e.getMessage());
+        }
+        return archived;
+    }
+
+    private int archiveBatch(Instant cutoff, List<Long> heldSlots) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<Long> due = slots == 1
+                ? orderRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff, page)
+                : orderRepository.findArchivableIdsInSlots(ARCHIVABLE_STATUSES, cutoff, slots, heldSlots, page);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        return orderRepository.archive(due, Instant.now());
+    }
+}
@@ -0,0 +1,136 @@
+package org.kunlecreates.order.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.domain.OrderStatus;
+import org.kunlecreates.order.domain.exception.ResourceNotFoundException;
+import org.kunlecreates.order.infrastructure.jfr.OperationEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Timers and business counters for the order write paths.
+ *
+ * {@code order.operations} times order creation, status updates and cart checkout by
+ * {@code operation} and {@code outcome}. Controllers call the service through {@link #observe}, so
+ * the service's transaction, flush and commit run inside the observation and a commit that fails
+ * is reported as {@code rolled_back}, not a success. The observation registry turns it into the
+ * timer, with {@code order.operations.active} for those in flight. {@code order.created} counts
+ * orders by initial status and {@code order.status.transitions} counts status changes by
+ * {@code from} and {@code to}, both read from the order's domain events and counted only once they
+ * commit.
+ *
+ * The service hands the operation's Flight Recorder {@link OperationEvent} to {@link #begin}; it is
+ * committed with the observation's outcome when the observation stops, and costs next to nothing
+ * unless a recording has the event enabled.
+ */
+@Component
+public class OrderMetrics {
+    static final String OPERATIONS = "order.operations";
+    static final String CREATED = "order.created";
+    static final String TRANSITIONS = "order.status.transitions";
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+
+    public OrderMetrics(MeterRegistry registry, ObservationRegistry observations) {
+        this.registry = registry;
+        this.observations = observations;
+    }
+
+    /** Make {@code call}, a call into an order write path, as the {@code operation} observation. */
+    public <T> T observe(String operation, Supplier<T> call) {
+        Observation observation = Observation.createNotStarted(OPERATIONS, observations)
+                .lowCardinalityKeyValue("operation", operation)
+                .start();
+        String outcome = "success";
+        try (Observation.Scope scope = observation.openScope()) {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+            OperationEvent event = observation.getContext().get(OperationEvent.class);
+            if (event != null && event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Begin {@code event} for the operation being observed on this thread, to be committed when it
+     * ends. Outside {@link #observe} the event is returned unused.
+     */
+    public <E extends OperationEvent> E begin(E event) {
+        Observation current = observations.getCurrentObservation();
+        if (current != null) {
+            current.getContext().put(OperationEvent.class, event);
+            event.begin();
+        }
+        return event;
+    }
+
+    /** Count the orders created and status changes in {@code events} once the transaction commits. */
+    public void countAfterCommit(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<OrderEventPayload> payloads = events.stream().map(OrderEvent::decodePayload).toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            payloads.forEach(this::count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                payloads.forEach(OrderMetrics.this::count);
+            }
+        });
+    }
+
+    private void count(OrderEventPayload payload) {
+        switch (payload) {
+            case OrderEventPayload.Created created -> Counter.builder(CREATED)
+                    .description("Orders created, by initial status")
+                    .tag("status", statusTag(created.status()))
+                    .register(registry)
+                    .increment();
+            case OrderEventPayload.StatusChanged changed -> Counter.builder(TRANSITIONS)
+                    .description("Order status changes, by from/to pair")
+                    .tag("from", statusTag(changed.from()))
+                    .tag("to", statusTag(changed.to()))
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    /** Rejected requests are the caller's fault; anything else is ours. */
+    private static String outcome(RuntimeException e) {
+        if (e instanceof TransactionException) {
+            return "rolled_back";
+        }
+        return e instanceof IllegalArgumentException || e instanceof IllegalStateException
+                || e instanceof ResourceNotFoundException ? "rejected" : "error";
+    }
+
+    /** Statuses are free text on create, so unknown values share one tag to keep the series bounded. */
+    private static String statusTag(String status) {
+        try {
+            return OrderStatus.fromString(status).getValue();
+        } catch (IllegalArgumentException e) {
+            return "OTHER";
+        }
+    }
+}
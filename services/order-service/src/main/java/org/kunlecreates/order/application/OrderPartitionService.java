@@ -0,0 +1,158 @@
+package org.kunlecreates.order.application;
+
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Maintains the monthly {@code pf_order_month} partitioning of the order tables (V11).
+ *
+ * {@link #rollForward()} keeps {@code months-ahead} empty future months split in, so new rows
+ * never land in an oversized last partition and each split is metadata only. {@link #purgeArchive()}
+ * drops archive months older than {@code archive-retention-months} by switching each partition out
+ * to its {@code *_switch} staging table and truncating that, never deleting row by row. Months are
+ * UTC, like the stored timestamps. Each shard has its own partition function and is maintained
+ * in turn, by whichever replica holds that shard's {@value #JOB} lease.
+ */
+@Service
+public class OrderPartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionService.class);
+    static final String JOB = "order-partitions";
+
+    static final List<String> ARCHIVE_TABLES = List.of(
+            "order_svc.orders_archive", "order_svc.order_items_archive", "order_svc.order_events_archive");
+
+    private static final String BOUNDARIES_SQL =
+            "SELECT CAST(v.value AS DATE) FROM sys.partition_range_values v "
+            + "JOIN sys.partition_functions f ON f.function_id = v.function_id "
+            + "WHERE f.name = 'pf_order_month' ORDER BY v.boundary_id";
+    // Guarded so instances running the job at the same time do not fail on each other's split
+    private static final String SPLIT_SQL =
+            "IF NOT EXISTS (SELECT 1 FROM sys.partition_range_values v "
+            + "JOIN sys.partition_functions f ON f.function_id = v.function_id "
+            + "WHERE f.name = 'pf_order_month' AND CAST(v.value AS DATE) = ?) "
+            + "BEGIN "
+            + "ALTER PARTITION SCHEME ps_order_month NEXT USED [PRIMARY]; "
+            + "ALTER PARTITION FUNCTION pf_order_month() SPLIT RANGE (CAST(? AS DATETIME2(6))); "
+            + "END";
+    private static final String PARTITION_ROWS_SQL =
+            "SELECT COALESCE(SUM(p.rows), 0) FROM sys.partitions p "
+            + "WHERE p.object_id = OBJECT_ID(?) AND p.index_id IN (0, 1) AND p.partition_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final LeaseManager leaseManager;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int archiveRetentionMonths;
+
+    public OrderPartitionService(
+            JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            LeaseManager leaseManager,
+            @Value("${order.partitions.enabled:true}") boolean enabled,
+            @Value("${order.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${order.partitions.archive-retention-months:0}") int archiveRetentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.leaseManager = leaseManager;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(monthsAhead, 1);
+        this.archiveRetentionMonths = archiveRetentionMonths;
+    }
+
+    @Scheduled(cron = "${order.partitions.maintenance-cron:0 15 2 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        for (String shard : shardRouter.shards()) {
+            try {
+                shardRouter.onShard(shard, () -> leaseManager.runExclusively(JOB, lease -> {
+                    rollForward();
+                    return purgeArchive();
+                }));
+            } catch (DataAccessException e) {
+                logger.warn("Order partition maintenance failed on shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Split in every month from the last boundary up to {@code months-ahead} months past the
+     * current one, on the shard bound to the calling thread.
+     *
+     * @return the number of boundaries added
+     */
+    public int rollForward() {
+        List<LocalDate> boundaries = boundaries();
+        if (boundaries.isEmpty()) {
+            logger.warn("Partition function pf_order_month not found; skipping roll-forward");
+            return 0;
+        }
+        YearMonth target = YearMonth.now(ZoneOffset.UTC).plusMonths(monthsAhead);
+        int added = 0;
+        for (YearMonth month = YearMonth.from(boundaries.getLast()).plusMonths(1);
+             !month.isAfter(target);
+             month = month.plusMonths(1)) {
+            Date boundary = Date.valueOf(month.atDay(1));
+            jdbcTemplate.update(SPLIT_SQL, boundary, boundary);
+            added++;
+        }
+        if (added > 0) {
+            logger.info("Added {} monthly partitions to pf_order_month, now through {}", added, target);
+        }
+        return added;
+    }
+
+    /**
+     * Switch out and truncate every archive month that ended more than
+     * {@code archive-retention-months} ago, on the shard bound to the calling thread. Does nothing
+     * when the retention is 0.
+     *
+     * @return the number of archive rows removed
+     */
+    public long purgeArchive() {
+        if (archiveRetentionMonths <= 0) {
+            return 0;
+        }
+        LocalDate keepFrom = YearMonth.now(ZoneOffset.UTC).minusMonths(archiveRetentionMonths).atDay(1);
+        List<LocalDate> boundaries = boundaries();
+        long purged = 0;
+        // RANGE RIGHT: partition n holds rows below boundary n, so it is expired once that boundary is
+        for (int partition = 1; partition <= boundaries.size() && !boundaries.get(partition - 1).isAfter(keepFrom); partition++) {
+            for (String table : ARCHIVE_TABLES) {
+                Long rows = jdbcTemplate.queryForObject(PARTITION_ROWS_SQL, Long.class, table, partition);
+                if (rows == null || rows == 0) {
+                    continue;
+                }
+                String staging = table + "_switch";
+                // Emptying the staging table first also recovers from a run that stopped after its switch
+                jdbcTemplate.execute("TRUNCATE TABLE " + staging + "; "
+                        + "ALTER TABLE " + table + " SWITCH PARTITION " + partition + " TO " + staging + "; "
+                        + "TRUNCATE TABLE " + staging + ";");
+                purged += rows;
+            }
+        }
+        if (purged > 0) {
+            logger.info("Purged {} archived rows created before {}", purged, keepFrom);
+        }
+        return purged;
+    }
+
+    private List<LocalDate> boundaries() {
+        return jdbcTemplate.queryForList(BOUNDARIES_SQL, LocalDate.class);
+    }
+}
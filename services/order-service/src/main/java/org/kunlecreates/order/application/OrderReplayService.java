@@ -0,0 +1,223 @@
+package org.kunlecreates.order.application;
+
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderState;
+import org.kunlecreates.order.domain.OrderStateSnapshot;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardContext;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.OrderEventRepository;
+import org.kunlecreates.order.repository.OrderStateSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Rebuilds {@link OrderState} from the {@code order_events} log.
+ *
+ * Each order starts from its stored {@link OrderStateSnapshot} (if current) and folds only the
+ * events appended after it. {@link #replay(Collection)} splits the ids into batches, replays up to
+ * {@code parallelism} batches at once on a dedicated pool and streams the results in batch order,
+ * so memory stays bounded by the in-flight window however many orders are requested.
+ * {@link #snapshotDue()} periodically stores a fresh snapshot for orders whose log has grown by
+ * {@code snapshot-every} events, which bounds the replay length of any single order.
+ * Replays read the shard bound to the caller; snapshots are taken shard by shard, each by the
+ * replica holding that shard's {@value #SNAPSHOT_JOB} lease.
+ */
+@Service
+public class OrderReplayService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(OrderReplayService.class);
+    static final String SNAPSHOT_JOB = "order-snapshots";
+
+    private final OrderEventRepository eventRepository;
+    private final OrderStateSnapshotRepository snapshotRepository;
+    private final TransactionTemplate readTransaction;
+    private final ShardRouter shardRouter;
+    private final LeaseManager leaseManager;
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final int batchSize;
+    private final int snapshotEvery;
+    private final int maxSnapshotBatchesPerRun;
+
+    public OrderReplayService(
+            OrderEventRepository eventRepository,
+            OrderStateSnapshotRepository snapshotRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            LeaseManager leaseManager,
+            @Value("${order.replay.parallelism:0}") int parallelism,
+            @Value("${order.replay.batch-size:200}") int batchSize,
+            @Value("${order.replay.snapshot-every:20}") int snapshotEvery,
+            @Value("${order.replay.max-snapshot-batches-per-run:50}") int maxSnapshotBatchesPerRun) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.leaseManager = leaseManager;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "order-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = batchSize;
+        this.snapshotEvery = snapshotEvery;
+        this.maxSnapshotBatchesPerRun = maxSnapshotBatchesPerRun;
+    }
+
+    public Optional<OrderState> replay(Long orderId) {
+        return replayBatch(List.of(orderId)).stream().findFirst();
+    }
+
+    /**
+     * Rebuild the state of every listed order. Orders with no events are omitted.
+     * The stream is lazy: batches are submitted as it is consumed, never more than
+     * {@code parallelism} ahead of the consumer.
+     */
+    public Stream<OrderState> replay(Collection<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            batches.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        Iterator<List<OrderState>> results = new Iterator<>() {
+            private final ArrayDeque<CompletableFuture<List<OrderState>>> inFlight = new ArrayDeque<>();
+            private int nextBatch;
+
+            private void fill() {
+                while (inFlight.size() < parallelism && nextBatch < batches.size()) {
+                    List<Long> batch = batches.get(nextBatch++);
+                    inFlight.add(CompletableFuture.supplyAsync(ShardContext.propagate(() -> replayBatch(batch)), workers));
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return !inFlight.isEmpty();
+            }
+
+            @Override
+            public List<OrderState> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return inFlight.poll().join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED), false)
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Store snapshots for orders whose log has grown by {@code snapshot-every} events since
+     * their last one. Runs in batches until nothing is due or the per-run cap is reached.
+     *
+     * @return the number of snapshots written
+     */
+    @Scheduled(fixedDelayString = "${order.replay.snapshot-interval-ms:300000}",
+               initialDelayString = "${order.replay.snapshot-interval-ms:300000}")
+    public int snapshotDue() {
+        int written = shardRouter.eachShard(() -> leaseManager.runExclusively(SNAPSHOT_JOB, lease -> snapshotShard()).orElse(0))
+                .stream().mapToInt(Integer::intValue).sum();
+        if (written > 0) {
+            logger.info("Stored {} order state snapshots", written);
+        }
+        return written;
+    }
+
+    private int snapshotShard() {
+        int written = 0;
+        for (int run = 0; run < maxSnapshotBatchesPerRun; run++) {
+            List<Long> due = eventRepository.findOrderIdsDueForSnapshot(snapshotEvery, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            List<OrderStateSnapshot> snapshots = replayBatch(due).stream().map(OrderStateSnapshot::new).toList();
+            snapshotRepository.saveAll(snapshots);
+            written += snapshots.size();
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        return written;
+    }
+
+    private List<OrderState> replayBatch(List<Long> orderIds) {
+        return readTransaction.execute(status -> {
+            Map<Long, OrderStateSnapshot> snapshots = snapshotRepository.findAllById(orderIds).stream()
+                    .collect(Collectors.toMap(OrderStateSnapshot::getOrderId, Function.identity()));
+            // Snapshots from another fold version are ignored, so those orders need their whole log
+            Set<Long> stale = snapshots.values().stream()
+                    .filter(snapshot -> !snapshot.isCurrent())
+                    .map(OrderStateSnapshot::getOrderId)
+                    .collect(Collectors.toSet());
+            List<Long> tails = stale.isEmpty() ? orderIds
+                    : orderIds.stream().filter(id -> !stale.contains(id)).toList();
+
+            Map<Long, List<OrderEvent>> eventsByOrder = new HashMap<>();
+            if (!tails.isEmpty()) {
+                eventRepository.findUnsnapshottedByOrderIdIn(tails)
+                        .forEach(event -> eventsByOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event));
+            }
+            if (!stale.isEmpty()) {
+                eventRepository.findByOrderIdInOrderByOrderIdAscSequenceAsc(stale)
+                        .forEach(event -> eventsByOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event));
+            }
+
+            List<OrderState> states = new ArrayList<>(orderIds.size());
+            for (Long orderId : orderIds) {
+                OrderStateSnapshot snapshot = snapshots.get(orderId);
+                OrderState start = snapshot != null && snapshot.isCurrent() ? snapshot.toState() : OrderState.empty(orderId);
+                List<OrderEvent> events = eventsByOrder.getOrDefault(orderId, List.of());
+                if (start.sequence() == 0 && events.isEmpty()) {
+                    continue;
+                }
+                states.add(start.applyAll(events));
+            }
+            return states;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
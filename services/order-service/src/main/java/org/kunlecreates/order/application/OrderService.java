@@ -6,20 +6,29 @@ import org.kunlecreates.order.domain.Order;
 import org.kunlecreates.order.domain.OrderEvent;
 import org.kunlecreates.order.domain.OrderItem;
 import org.kunlecreates.order.domain.OrderStatus;
+import org.kunlecreates.order.infrastructure.jfr.OrderCreateEvent;
+import org.kunlecreates.order.infrastructure.jfr.OrderStatusUpdateEvent;
 import org.kunlecreates.order.infrastructure.notification.NotificationClient;
+import org.kunlecreates.order.infrastructure.notification.OrderSnapshot;
+import org.kunlecreates.order.infrastructure.notification.StatusNotificationCoalescer;
+import org.kunlecreates.order.infrastructure.product.ProductCatalog;
 import org.kunlecreates.order.infrastructure.product.ProductServiceClient;
+import org.kunlecreates.order.interfaces.dto.OrderResponse;
 import org.kunlecreates.order.repository.OrderEventRepository;
 import org.kunlecreates.order.repository.OrderItemRepository;
 import org.kunlecreates.order.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -32,6 +41,12 @@ public class OrderService {
     private final PaymentService paymentService;
     private final NotificationClient notificationClient;
     private final ProductServiceClient productServiceClient;
+    private final StockReservationService stockReservations;
+    private final ProductCatalog productCatalog;
+    private final StatusNotificationCoalescer statusNotifications;
+    private final OrderTrackingHub trackingHub;
+    private final OrderSummaryService orderSummaries;
+    private final OrderMetrics orderMetrics;
 
     public OrderService(
             OrderRepository orderRepository, 
@@ -39,13 +54,25 @@ public class OrderService {
             OrderItemRepository orderItemRepository,
             PaymentService paymentService,
             NotificationClient notificationClient,
-            ProductServiceClient productServiceClient) {
+            ProductServiceClient productServiceClient,
+            StockReservationService stockReservations,
+            ProductCatalog productCatalog,
+            StatusNotificationCoalescer statusNotifications,
+            OrderTrackingHub trackingHub,
+            OrderSummaryService orderSummaries,
+            OrderMetrics orderMetrics) {
         this.orderRepository = orderRepository;
         this.orderEventRepository = orderEventRepository;
         this.orderItemRepository = orderItemRepository;
         this.paymentService = paymentService;
         this.notificationClient = notificationClient;
         this.productServiceClient = productServiceClient;
+        this.stockReservations = stockReservations;
+        this.productCatalog = productCatalog;
+        this.statusNotifications = statusNotifications;
+        this.trackingHub = trackingHub;
+        this.orderSummaries = orderSummaries;
+        this.orderMetrics = orderMetrics;
     }
 
     @Transactional(readOnly = true)
@@ -53,11 +80,40 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
+    /** Every order on the bound shard, rendered by the query itself, by id. */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> listOrderResponses() {
+        return orderRepository.findAllResponses();
+    }
+
+    /** One user's orders on the bound shard, rendered by the query itself, by id. */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> listOrderResponses(String userRef) {
+        return orderRepository.findResponsesByUserRef(userRef);
+    }
+
+    /** Falls back to the archive, where finished orders move after {@code order.archive.retention}. */
     @Transactional(readOnly = true)
     public Optional<Order> findById(Long id) {
-        return orderRepository.findById(id);
+        return orderRepository.findById(id).or(() -> orderRepository.findArchivedById(id));
+    }
+
+    /** {@link #findById} rendered by the query itself, without loading the entity. */
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findResponseById(Long id) {
+        return orderRepository.findResponseById(id).or(() -> orderRepository.findArchivedResponseById(id));
     }
     
+    /** The {@code userRef} owning an order on the bound shard, hot or archived. */
+    @Transactional(readOnly = true)
+    public Optional<String> findOwner(Long id) {
+        return orderRepository.findOwnerById(id).stream().findFirst();
+    }
+
+    /**
+     * With items, the order total is the sum of the priced lines (see {@link #price}); the
+     * client's {@code total} is only used for an order without items.
+     */
     @Transactional
     public Order createOrder(String userRef, Long userId, String status, double total, String jwtToken,
                            String shippingRecipient, String shippingStreet1, String shippingStreet2,
@@ -66,6 +122,9 @@ public class OrderService {
                            String paymentMethodType, String paymentLast4, String paymentBrand,
                            String customerEmail, String customerName,
                            List<OrderItemInput> items) {
+        OrderCreateEvent event = orderMetrics.begin(new OrderCreateEvent());
+        event.status = status;
+        event.itemCount = items != null ? items.size() : 0;
         String ref;
         if (userRef != null && !userRef.isBlank()) {
             ref = userRef;
@@ -74,14 +133,16 @@ public class OrderService {
         } else {
             throw new IllegalArgumentException("Either userRef or userId must be provided");
         }
-        long cents = Math.round(total * 100);
-            if (status == null || status.isBlank()) {
-                throw new IllegalArgumentException("Order status is required");
-            }
-            if (cents < 0) {
-                throw new IllegalArgumentException("Order total cannot be negative");
-            }
-            Order o = new Order(ref, status, cents);
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("Order status is required");
+        }
+        List<PricedItem> priced = items == null ? List.of() : items.stream().map(this::price).toList();
+        long cents = priced.isEmpty() ? Math.round(total * 100)
+                : priced.stream().mapToLong(item -> item.unitPriceCents() * item.quantity()).sum();
+        if (cents < 0) {
+            throw new IllegalArgumentException("Order total cannot be negative");
+        }
+        Order o = new Order(ref, status, cents);
         
         o.setShippingRecipient(shippingRecipient);
         o.setShippingStreet1(shippingStreet1);
@@ -98,29 +159,68 @@ public class OrderService {
         o.setCustomerEmail(customerEmail);
         o.setCustomerName(customerName);
         
+        // PENDING orders hold their stock until paid, cancelled or expired; admission is in-memory
+        Map<String, Integer> held = Map.of();
+        if (OrderStatus.PENDING.getValue().equalsIgnoreCase(status) && items != null && !items.isEmpty()) {
+            held = new LinkedHashMap<>();
+            for (OrderItemInput item : items) {
+                held.merge(item.productRef(), item.quantity(), Integer::sum);
+            }
+            stockReservations.acquire(held);
+        }
+        
         Order saved = orderRepository.save(o);
+        event.orderId = saved.getId() != null ? saved.getId() : 0;
+        saved.recordCreated();
+        List<OrderEvent> created = saved.getDomainEvents();
+        orderEventRepository.saveAll(created);
+        saved.clearDomainEvents();
+        orderMetrics.countAfterCommit(created);
         
         // Persist order line items
-        if (items != null && !items.isEmpty()) {
-            List<OrderItem> orderItems = items.stream()
-                    .map(item -> new OrderItem(saved, item.productRef(), item.productName(), item.quantity(),
-                            Math.round(item.unitPrice() * 100)))
+        List<OrderItem> orderItems = List.of();
+        if (!priced.isEmpty()) {
+            orderItems = priced.stream()
+                    .map(item -> new OrderItem(saved, item.productRef(), item.productName(),
+                            item.quantity(), item.unitPriceCents()))
                     .toList();
             orderItemRepository.saveAll(orderItems);
             logger.debug("Saved {} items for order {}", orderItems.size(), saved.getId());
         }
+        if (!held.isEmpty()) {
+            stockReservations.hold(saved.getId(), held);
+        }
+        orderSummaries.recordCreated(saved, orderItems);
         
         // Send order confirmation email asynchronously (non-blocking)
         if (jwtToken != null) {
-            notificationClient.sendOrderConfirmation(saved, jwtToken);
+            notificationClient.sendOrderConfirmation(OrderSnapshot.of(saved, orderItems), jwtToken);
         }
         
         return saved;
     }
 
+    /**
+     * Price a line item, taking name and unit price from the local catalog snapshot when it is loaded.
+     * Unknown or inactive SKUs are rejected; before the first load the client-supplied values are kept.
+     */
+    private PricedItem price(OrderItemInput item) {
+        if (!productCatalog.isLoaded()) {
+            return new PricedItem(item.productRef(), item.productName(), item.quantity(),
+                    Math.round(item.unitPrice() * 100));
+        }
+        ProductCatalog.Product product = productCatalog.find(item.productRef())
+                .filter(ProductCatalog.Product::active)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown or inactive product: " + item.productRef()));
+        String name = product.name() != null && !product.name().isBlank() ? product.name() : item.productName();
+        return new PricedItem(item.productRef(), name, item.quantity(), product.priceCents());
+    }
+
     /** Simple input record for order line items, used within the application layer */
     public record OrderItemInput(String productRef, String productName, int quantity, double unitPrice) {}
 
+    private record PricedItem(String productRef, String productName, int quantity, long unitPriceCents) {}
+
     @Transactional
     public Order processCheckout(Long userId, double total, String jwtToken,
                                 String shippingRecipient, String shippingStreet1, String shippingStreet2,
@@ -141,10 +241,14 @@ public class OrderService {
     
     @Transactional
     public Order updateStatus(Long orderId, OrderStatus newStatus, String jwtToken) {
+        OrderStatusUpdateEvent event = orderMetrics.begin(new OrderStatusUpdateEvent());
+        event.orderId = orderId != null ? orderId : 0;
+        event.toStatus = newStatus.getValue();
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
         
         OrderStatus previousStatus = OrderStatus.fromString(order.getStatus());
+        event.fromStatus = previousStatus.getValue();
         order.transitionTo(newStatus);
         Order saved = orderRepository.save(order);
         
@@ -152,19 +256,28 @@ public class OrderService {
         if (!events.isEmpty()) {
             orderEventRepository.saveAll(events);
             order.clearDomainEvents();
+            orderSummaries.apply(events);
+            trackingHub.publishAfterCommit(events);
+            orderMetrics.countAfterCommit(events);
         }
 
         // Reconcile stock with the product service based on the transition
         List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        event.itemCount = items.size();
         if (newStatus == OrderStatus.PAID) {
-            // Decrement stock when payment is confirmed — items are now committed
-            items.forEach(item -> productServiceClient.adjustStock(
-                    item.getProductRef(), -item.getQuantity(),
-                    "Order #" + orderId + " paid"));
+            stockReservations.commit(orderId);
+            // Decrement stock when payment is confirmed — unless it was already reserved at checkout
+            if (!order.isStockReserved()) {
+                items.forEach(item -> productServiceClient.adjustStock(
+                        item.getProductRef(), -item.getQuantity(),
+                        "Order #" + orderId + " paid"));
+            }
         } else if (newStatus == OrderStatus.CANCELLED || newStatus == OrderStatus.REFUNDED) {
-            // Restore stock only if it was previously decremented (i.e. order reached PAID)
+            stockReservations.release(orderId);
+            // Restore stock only if it was previously decremented (order reached PAID or reserved it at checkout)
             boolean wasDeducted = previousStatus == OrderStatus.PAID
-                    || previousStatus == OrderStatus.SHIPPED;
+                    || previousStatus == OrderStatus.SHIPPED
+                    || order.isStockReserved();
             if (wasDeducted) {
                 items.forEach(item -> productServiceClient.adjustStock(
                         item.getProductRef(), item.getQuantity(),
@@ -172,30 +285,12 @@ public class OrderService {
             }
         }
         
-        // Send appropriate email notification based on new status
+        // Queue the email for this status; a later status within the quiet window replaces it
         if (jwtToken != null) {
-            switch (newStatus) {
-                case PAID:
-                    notificationClient.sendOrderPaidNotification(saved, jwtToken);
-                    break;
-                case SHIPPED:
-                    String trackingNumber = generateTrackingNumber(orderId);
-                    String estimatedDelivery = calculateEstimatedDelivery();
-                    notificationClient.sendShippingNotification(saved, trackingNumber, estimatedDelivery, jwtToken);
-                    break;
-                case DELIVERED:
-                    notificationClient.sendOrderDeliveredNotification(saved, jwtToken);
-                    break;
-                case CANCELLED:
-                    notificationClient.sendOrderCancelledNotification(saved, jwtToken);
-                    break;
-                case REFUNDED:
-                    notificationClient.sendOrderRefundedNotification(saved, jwtToken);
-                    break;
-                default:
-                    // No notification for other statuses
-                    break;
-            }
+            StatusNotificationCoalescer.Shipment shipment = newStatus == OrderStatus.SHIPPED
+                    ? new StatusNotificationCoalescer.Shipment(generateTrackingNumber(orderId), calculateEstimatedDelivery())
+                    : null;
+            statusNotifications.submit(newStatus, OrderSnapshot.of(saved, items), shipment, jwtToken);
         }
         
         return saved;
@@ -231,6 +326,16 @@ public class OrderService {
         if (!events.isEmpty()) {
             orderEventRepository.saveAll(events);
             order.clearDomainEvents();
+            orderSummaries.apply(events);
+            trackingHub.publishAfterCommit(events);
+            orderMetrics.countAfterCommit(events);
+        }
+        
+        // Give back stock held for this order, locally or in product-service at cart checkout
+        stockReservations.release(orderId);
+        if (order.isStockReserved()) {
+            orderItemRepository.findByOrderId(orderId).forEach(item -> productServiceClient.adjustStock(
+                    item.getProductRef(), item.getQuantity(), "Order #" + orderId + " cancelled"));
         }
         
         // Note: Cancellation notification sent separately via updateStatus method when called with CANCELLED status
@@ -238,6 +343,46 @@ public class OrderService {
         return saved;
     }
     
+    /**
+     * Stock held at cart checkout for these orders went back to product-service when their holds
+     * expired. Those still PENDING stop counting as reserved, so paying one later decrements its
+     * stock again and cancelling it restores nothing. Runs in the sweep's transaction on the swept
+     * shard; the orders themselves stay payable (see {@link ExpiredOrderCanceller} to cancel them).
+     */
+    @EventListener
+    @Transactional
+    public void onStockHoldsExpired(StockHoldsExpired expired) {
+        for (Order order : orderRepository.findAllById(expired.orderIds())) {
+            if (OrderStatus.fromString(order.getStatus()) == OrderStatus.PENDING && order.isStockReserved()) {
+                order.setStockReserved(false);
+                orderRepository.save(order);
+            }
+        }
+    }
+
+    /**
+     * Cancel the orders among {@code orderIds} that are still PENDING. Gives no stock back: the
+     * sweep that expired their holds already released it.
+     */
+    @Transactional
+    public void cancelExpired(List<Long> orderIds) {
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            if (OrderStatus.fromString(order.getStatus()) != OrderStatus.PENDING) {
+                continue;
+            }
+            order.cancel();
+            orderRepository.save(order);
+
+            List<OrderEvent> events = order.getDomainEvents();
+            orderEventRepository.saveAll(events);
+            order.clearDomainEvents();
+            orderSummaries.apply(events);
+            trackingHub.publishAfterCommit(events);
+            orderMetrics.countAfterCommit(events);
+            logger.info("Cancelled order {}: its stock hold expired", order.getId());
+        }
+    }
+    
     @Transactional
     public Order refundOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
@@ -250,6 +395,9 @@ public class OrderService {
         if (!events.isEmpty()) {
             orderEventRepository.saveAll(events);
             order.clearDomainEvents();
+            orderSummaries.apply(events);
+            trackingHub.publishAfterCommit(events);
+            orderMetrics.countAfterCommit(events);
         }
         
         // Note: Refund notification sent separately via updateStatus method when called with REFUNDED status
@@ -259,6 +407,8 @@ public class OrderService {
     
     @Transactional(readOnly = true)
     public List<OrderEvent> getOrderHistory(Long orderId) {
-        return orderEventRepository.findByOrderIdOrderByCreatedAtAsc(orderId);
+        // Every live order's log opens with ORDER_CREATED, so an empty log means archived or unknown
+        List<OrderEvent> events = orderEventRepository.findByOrderIdOrderBySequenceAsc(orderId);
+        return events.isEmpty() ? orderEventRepository.findArchivedByOrderId(orderId) : events;
     }
 }
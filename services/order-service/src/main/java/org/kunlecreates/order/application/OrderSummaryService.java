@@ -0,0 +1,183 @@
+package org.kunlecreates.order.application;
+
+import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.domain.OrderItem;
+import org.kunlecreates.order.domain.OrderSummary;
+import org.kunlecreates.order.repository.OrderEventRepository;
+import org.kunlecreates.order.repository.OrderItemRepository;
+import org.kunlecreates.order.repository.OrderRepository;
+import org.kunlecreates.order.repository.OrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code order_summaries} read model used by order lists and dashboards.
+ *
+ * Rows are inserted when an order is created and advanced in the same transaction as each batch of
+ * {@link OrderEvent}s, so the list view never reads the 25-column {@link Order} entity or filters
+ * ownership in memory. {@link #rebuild()} regenerates every row from the orders table and the
+ * event log, for repairs or after a projection change.
+ */
+@Service
+public class OrderSummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderSummaryService.class);
+
+    private final OrderSummaryRepository summaryRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildBatchSize;
+    private final int maxPageSize;
+
+    public OrderSummaryService(
+            OrderSummaryRepository summaryRepository,
+            OrderRepository orderRepository,
+            OrderItemRepository orderItemRepository,
+            OrderEventRepository orderEventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.summaries.rebuild-batch-size:500}") int rebuildBatchSize,
+            @Value("${order.summaries.max-page-size:200}") int maxPageSize) {
+        this.summaryRepository = summaryRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderEventRepository = orderEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /** Newest first; regular users only ever see their own rows, admins see all. */
+    @Transactional(readOnly = true)
+    public List<OrderSummary> list(String userRef, boolean admin, int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize));
+        return admin
+                ? summaryRepository.findAllByOrderByCreatedAtDesc(pageable)
+                : summaryRepository.findByUserRefOrderByCreatedAtDesc(userRef, pageable);
+    }
+
+    /** The newest {@code limit} rows; not capped by {@code max-page-size}, for cross-shard merges. */
+    @Transactional(readOnly = true)
+    public List<OrderSummary> newest(int limit) {
+        return summaryRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, Math.max(limit, 1)));
+    }
+
+    /** Rows created in {@code [from, to)}, oldest first, at most {@code limit}. */
+    @Transactional(readOnly = true)
+    public List<OrderSummary> createdBetween(Instant from, Instant to, int limit) {
+        return summaryRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtAsc(
+                from, to, PageRequest.of(0, Math.max(limit, 1)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderSummaryRepository.StatusTotals> totalsByStatus() {
+        return summaryRepository.totalsByStatus();
+    }
+
+    /** Insert the row for a newly saved order; joins the caller's transaction. */
+    public void recordCreated(Order order, List<OrderItem> items) {
+        int itemCount = items.stream().mapToInt(OrderItem::getQuantity).sum();
+        summaryRepository.save(new OrderSummary(order, order.getStatus(), itemCount));
+    }
+
+    /**
+     * Advance the rows touched by a batch of persisted events; joins the caller's transaction.
+     * Events already reflected in a row are skipped, as are orders with no row yet (a rebuild fills them in).
+     */
+    public void apply(List<OrderEvent> events) {
+        Map<Long, OrderSummary> summaries = summaryRepository
+                .findAllById(events.stream().map(OrderEvent::getOrderId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(OrderSummary::getOrderId, Function.identity()));
+        List<OrderSummary> changed = new ArrayList<>();
+        for (OrderEvent event : events) {
+            OrderSummary summary = summaries.get(event.getOrderId());
+            if (summary != null && event.decodePayload() instanceof OrderEventPayload.StatusChanged status
+                    && summary.apply(event.getId(), status.to(), event.getCreatedAt())) {
+                changed.add(summary);
+            }
+        }
+        if (!changed.isEmpty()) {
+            summaryRepository.saveAll(changed);
+        }
+    }
+
+    /**
+     * Regenerate every summary row. Orders are read in id order, one batch per transaction; each row
+     * starts from the status its log opens with and folds the status changes in sequence.
+     * Rows are overwritten in place, so the list view stays populated while this runs.
+     * Rows of archived orders are left as they are.
+     *
+     * @return the number of rows written
+     */
+    public int rebuild() {
+        int written = 0;
+        int pageNumber = 0;
+        while (true) {
+            final int current = pageNumber;
+            Integer count = transactionTemplate.execute(status -> rebuildBatch(current));
+            if (count == null || count == 0) {
+                break;
+            }
+            written += count;
+            pageNumber++;
+        }
+        logger.info("Rebuilt {} order summaries", written);
+        return written;
+    }
+
+    private int rebuildBatch(int pageNumber) {
+        Page<Order> orders = orderRepository.findAll(PageRequest.of(pageNumber, rebuildBatchSize, Sort.by("id")));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        Map<Long, Long> quantities = orderItemRepository.sumQuantityByOrderIdIn(ids).stream()
+                .collect(Collectors.toMap(OrderItemRepository.OrderQuantity::getOrderId,
+                        OrderItemRepository.OrderQuantity::getQuantity));
+        Map<Long, List<OrderEvent>> eventsByOrder = orderEventRepository.findByOrderIdInOrderByOrderIdAscSequenceAsc(ids).stream()
+                .collect(Collectors.groupingBy(OrderEvent::getOrderId));
+
+        List<OrderSummary> rows = new ArrayList<>(ids.size());
+        for (Order order : orders) {
+            List<OrderEvent> events = eventsByOrder.getOrDefault(order.getId(), List.of());
+            OrderSummary row = new OrderSummary(order, initialStatus(order, events),
+                    quantities.getOrDefault(order.getId(), 0L).intValue());
+            for (OrderEvent event : events) {
+                if (event.decodePayload() instanceof OrderEventPayload.StatusChanged status) {
+                    row.apply(event.getId(), status.to(), event.getCreatedAt());
+                }
+            }
+            rows.add(row);
+        }
+        summaryRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    private static String initialStatus(Order order, List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return order.getStatus();
+        }
+        return switch (events.getFirst().decodePayload()) {
+            case OrderEventPayload.Created created -> created.status();
+            case OrderEventPayload.StatusChanged status -> status.from();
+        };
+    }
+}
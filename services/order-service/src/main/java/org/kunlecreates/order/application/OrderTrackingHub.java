@@ -0,0 +1,268 @@
+package org.kunlecreates.order.application;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out of order events to server-sent event streams.
+ *
+ * Publishing only appends to each subscriber's small mailbox and, if the subscriber is idle,
+ * hands it to a fixed sender pool; the transition path never writes to a socket. A subscriber
+ * whose mailbox is full is lagging and gets disconnected instead of slowing anyone else down.
+ * Streams receive a heartbeat comment periodically and are closed after a period with no order events;
+ * clients reconnect and are replayed the full history.
+ */
+@Component
+public class OrderTrackingHub implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderTrackingHub.class);
+    private static final String EVENT_NAME = "order-event";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+    private final int mailboxCapacity;
+    private final long idleTimeoutNanos;
+    private final Duration idleTimeout;
+
+    public OrderTrackingHub(
+            MeterRegistry meterRegistry,
+            @Value("${order.tracking.sender-threads:4}") int senderThreads,
+            @Value("${order.tracking.mailbox-capacity:16}") int mailboxCapacity,
+            @Value("${order.tracking.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-tracking-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mailboxCapacity = mailboxCapacity;
+        this.idleTimeout = idleTimeout;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        Gauge.builder("order.tracking.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for an order. Live events are held until the history has been queued, and
+     * anything already in the history is skipped, so the client sees each event once and in order.
+     */
+    public SseEmitter subscribe(Long orderId, Supplier<List<OrderEvent>> history) {
+        // The emitter timeout is a backstop; idle streams are normally closed by evictIdle()
+        SseEmitter emitter = createEmitter(idleTimeout.plusMinutes(1).toMillis());
+        Subscriber subscriber = new Subscriber(orderId, emitter);
+        subscribers.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        subscriber.replay(history.get());
+        return emitter;
+    }
+
+    /** Publish events once the surrounding transaction commits, or immediately outside one. */
+    public void publishAfterCommit(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(events);
+            }
+        });
+    }
+
+    public void publish(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            Set<Subscriber> watching = subscribers.get(event.getOrderId());
+            if (watching == null) {
+                continue;
+            }
+            for (Subscriber subscriber : watching) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${order.tracking.heartbeat-interval-ms:15000}",
+               initialDelayString = "${order.tracking.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        forEachSubscriber(subscriber -> subscriber.offer(null));
+    }
+
+    @Scheduled(fixedDelayString = "${order.tracking.idle-check-interval-ms:60000}",
+               initialDelayString = "${order.tracking.idle-check-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        forEachSubscriber(subscriber -> {
+            if (now - subscriber.lastEventNanos > idleTimeoutNanos) {
+                remove(subscriber);
+                senders.execute(subscriber.emitter::complete);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        forEachSubscriber(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        subscribers.values().forEach(set -> set.forEach(action));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.orderId, (id, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Per-stream state: the emitter, a bounded mailbox and a flag saying whether a sender owns it.
+     * A null entry in the mailbox is a heartbeat. The replayed history sits at the head of the
+     * mailbox but is not counted against its capacity, so a long history does not make a stream
+     * that just connected look lagging.
+     */
+    private final class Subscriber {
+        final Long orderId;
+        final SseEmitter emitter;
+        volatile long lastEventNanos = System.nanoTime();
+        private final ArrayDeque<OrderEvent> mailbox = new ArrayDeque<>(4);
+        private int replayBacklog;
+        private boolean heartbeatPending;
+        private boolean replaying = true;
+        private boolean draining;
+        private long lastSentId;
+
+        Subscriber(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        void replay(List<OrderEvent> history) {
+            synchronized (this) {
+                for (int i = history.size() - 1; i >= 0; i--) {
+                    mailbox.addFirst(history.get(i));
+                }
+                replayBacklog = history.size();
+                replaying = false;
+            }
+            schedule();
+        }
+
+        void offer(OrderEvent event) {
+            boolean lagging = false;
+            synchronized (this) {
+                if (event == null) {
+                    heartbeatPending = true;
+                } else if (mailbox.size() - replayBacklog < mailboxCapacity) {
+                    mailbox.addLast(event);
+                } else {
+                    mailbox.clear();
+                    replayBacklog = 0;
+                    lagging = true;
+                }
+            }
+            if (lagging) {
+                // The emitter may be locked by a sender stuck on this client, so close it from the pool
+                logger.warn("Disconnecting lagging tracking stream for order {}", orderId);
+                remove(this);
+                senders.execute(emitter::complete);
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (replaying || draining || (mailbox.isEmpty() && !heartbeatPending)) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                OrderEvent event;
+                boolean heartbeat;
+                synchronized (this) {
+                    event = mailbox.pollFirst();
+                    if (event != null && replayBacklog > 0) {
+                        replayBacklog--;
+                    }
+                    heartbeat = event == null && heartbeatPending;
+                    heartbeatPending = false;
+                    if (event == null && !heartbeat) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    } else if (event.getId() == null || event.getId() > lastSentId) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getId()))
+                                .name(EVENT_NAME)
+                                .data(event, MediaType.APPLICATION_JSON));
+                        if (event.getId() != null) {
+                            lastSentId = event.getId();
+                        }
+                        lastEventNanos = System.nanoTime();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    remove(this);
+                    synchronized (this) {
+                        mailbox.clear();
+                        replayBacklog = 0;
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
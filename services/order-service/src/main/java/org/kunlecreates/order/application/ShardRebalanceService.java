@@ -0,0 +1,239 @@
+package org.kunlecreates.order.application;
+
+import org.kunlecreates.order.infrastructure.sharding.ShardRing;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Online resharding: moves users' rows between shards in batches while the service keeps running.
+ *
+ * A rebalance sets {@code datasource.shards.target-names} to the new ring (adding any new shard
+ * under {@code nodes}), then:
+ * <ol>
+ *   <li>{@link #copyMovingUsers()} copies every user whose owner differs in the target ring to
+ *       the new owner, a batch of users per transaction. The target rows of a batch are replaced
+ *       wholesale, so the copy can be re-run to catch up with writes made since; the current ring
+ *       stays authoritative throughout.</li>
+ *   <li>With {@code freeze-moving-users} on, moving users' writes are refused; a last copy then
+ *       brings their rows up to date.</li>
+ *   <li>{@code names} is switched to the target ring on every instance and the freeze lifted.</li>
+ *   <li>{@link #purgeMovedUsers()} deletes rows left on shards that no longer own them, after
+ *       checking the owner holds at least as many rows for those users.</li>
+ * </ol>
+ * Ids are unique across shards (see {@code ShardIdentityRanges}), so rows keep their ids.
+ */
+@Service
+public class ShardRebalanceService {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalanceService.class);
+
+    private static final String ORDERS_OF_USERS = "(SELECT id FROM order_svc.orders WHERE user_ref IN (:users))";
+    private static final String ARCHIVED_ORDERS_OF_USERS = "(SELECT id FROM order_svc.orders_archive WHERE user_ref IN (:users))";
+
+    /** Every table holding user data, parents before children; deletes run in reverse. */
+    static final List<UserTable> USER_TABLES = List.of(
+            new UserTable("order_svc.carts", "user_ref IN (:users)", true),
+            new UserTable("order_svc.cart_items", "cart_id IN (SELECT id FROM order_svc.carts WHERE user_ref IN (:users))", true),
+            new UserTable("order_svc.orders", "user_ref IN (:users)", true),
+            new UserTable("order_svc.order_items", "order_id IN " + ORDERS_OF_USERS, true),
+            new UserTable("order_svc.order_events", "order_id IN " + ORDERS_OF_USERS, true),
+            new UserTable("order_svc.payments", "order_id IN " + ORDERS_OF_USERS, true),
+            new UserTable("order_svc.payment_transactions", "payment_id IN (SELECT p.id FROM order_svc.payments p "
+                    + "WHERE p.order_id IN " + ORDERS_OF_USERS + ")", true),
+            new UserTable("order_svc.stock_reservations", "order_id IN " + ORDERS_OF_USERS, true),
+            new UserTable("order_svc.order_summaries", "user_ref IN (:users)", false),
+            new UserTable("order_svc.order_state_snapshots", "order_id IN " + ORDERS_OF_USERS, false),
+            new UserTable("order_svc.orders_archive", "user_ref IN (:users)", false),
+            new UserTable("order_svc.order_items_archive", "order_id IN " + ARCHIVED_ORDERS_OF_USERS, false),
+            new UserTable("order_svc.order_events_archive", "order_id IN " + ARCHIVED_ORDERS_OF_USERS, false));
+
+    private static final String USERS_PAGE_SQL =
+            "SELECT TOP (:limit) u.user_ref FROM ("
+            + "SELECT user_ref FROM order_svc.carts UNION SELECT user_ref FROM order_svc.orders "
+            + "UNION SELECT user_ref FROM order_svc.orders_archive) u "
+            + "WHERE u.user_ref > :after ORDER BY u.user_ref";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+
+    public ShardRebalanceService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${datasource.shards.rebalance-batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        // Each user is one parameter and SQL Server accepts at most 2100 per statement
+        this.batchSize = Math.min(Math.max(batchSize, 1), 1000);
+    }
+
+    /**
+     * Copy every user the target ring moves to its new shard.
+     *
+     * @throws IllegalStateException if no target ring is configured
+     */
+    public RebalanceReport copyMovingUsers() {
+        ShardRing target = shardRouter.targetRing()
+                .orElseThrow(() -> new IllegalStateException("datasource.shards.target-names is not set"));
+        RebalanceReport report = RebalanceReport.EMPTY;
+        for (String source : shardRouter.shards()) {
+            report = report.plus(forEachUserBatch(source, users -> {
+                // Only the rows this shard owns are authoritative; strays are left to the purge
+                Map<String, List<String>> byTarget = users.stream()
+                        .filter(user -> shardRouter.shardFor(user).equals(source))
+                        .filter(user -> !target.shardFor(user).equals(source))
+                        .collect(Collectors.groupingBy(target::shardFor, LinkedHashMap::new, Collectors.toList()));
+                RebalanceReport copied = RebalanceReport.EMPTY;
+                for (Map.Entry<String, List<String>> move : byTarget.entrySet()) {
+                    copied = copied.plus(copy(source, move.getKey(), move.getValue()));
+                }
+                return copied;
+            }));
+        }
+        logger.info("Copied {} users ({} rows) to their target shards", report.users(), report.rows());
+        return report;
+    }
+
+    /**
+     * Delete the rows of users a shard no longer owns under the current ring. A batch is only
+     * deleted when the owning shard holds at least as many rows of every table for those users;
+     * otherwise it is skipped and counted.
+     */
+    public RebalanceReport purgeMovedUsers() {
+        RebalanceReport report = RebalanceReport.EMPTY;
+        for (String shard : shardRouter.shards()) {
+            report = report.plus(forEachUserBatch(shard, users -> {
+                Map<String, List<String>> byOwner = users.stream()
+                        .filter(user -> !shardRouter.shardFor(user).equals(shard))
+                        .collect(Collectors.groupingBy(shardRouter::shardFor, LinkedHashMap::new, Collectors.toList()));
+                RebalanceReport purged = RebalanceReport.EMPTY;
+                for (Map.Entry<String, List<String>> stray : byOwner.entrySet()) {
+                    purged = purged.plus(purge(shard, stray.getKey(), stray.getValue()));
+                }
+                return purged;
+            }));
+        }
+        logger.info("Purged {} moved users ({} rows), skipped {}", report.users(), report.rows(), report.skippedUsers());
+        return report;
+    }
+
+    private RebalanceReport forEachUserBatch(String shard, Function<List<String>, RebalanceReport> work) {
+        RebalanceReport report = RebalanceReport.EMPTY;
+        String after = "";
+        while (true) {
+            String from = after;
+            List<String> users = shardRouter.onShard(shard, () -> jdbcTemplate.queryForList(USERS_PAGE_SQL,
+                    new MapSqlParameterSource("limit", batchSize).addValue("after", from), String.class));
+            if (users.isEmpty()) {
+                break;
+            }
+            report = report.plus(work.apply(users));
+            after = users.getLast();
+            if (users.size() < batchSize) {
+                break;
+            }
+        }
+        return report;
+    }
+
+    private RebalanceReport copy(String source, String target, List<String> users) {
+        MapSqlParameterSource params = new MapSqlParameterSource("users", users);
+        Map<UserTable, List<Map<String, Object>>> rows = shardRouter.onShard(source, () -> transactionTemplate.execute(status -> {
+            Map<UserTable, List<Map<String, Object>>> read = new LinkedHashMap<>();
+            for (UserTable table : USER_TABLES) {
+                read.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table.name() + " WHERE " + table.scope(), params));
+            }
+            return read;
+        }));
+        long copied = shardRouter.onShard(target, () -> transactionTemplate.execute(status -> {
+            deleteUsers(params);
+            long inserted = 0;
+            for (Map.Entry<UserTable, List<Map<String, Object>>> table : Objects.requireNonNull(rows).entrySet()) {
+                inserted += insert(table.getKey(), table.getValue());
+            }
+            return inserted;
+        }));
+        return new RebalanceReport(users.size(), copied, 0);
+    }
+
+    private RebalanceReport purge(String shard, String owner, List<String> users) {
+        MapSqlParameterSource params = new MapSqlParameterSource("users", users);
+        Map<String, Long> here = shardRouter.onShard(shard, () -> countRows(params));
+        Map<String, Long> there = shardRouter.onShard(owner, () -> countRows(params));
+        for (Map.Entry<String, Long> count : here.entrySet()) {
+            if (there.get(count.getKey()) < count.getValue()) {
+                logger.warn("Not purging {} users from shard {}: {} has {} rows on {} but {} here",
+                        users.size(), shard, count.getKey(), there.get(count.getKey()), owner, count.getValue());
+                return new RebalanceReport(0, 0, users.size());
+            }
+        }
+        long deleted = shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> deleteUsers(params)));
+        return new RebalanceReport(users.size(), deleted, 0);
+    }
+
+    private Map<String, Long> countRows(MapSqlParameterSource params) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (UserTable table : USER_TABLES) {
+            counts.put(table.name(), jdbcTemplate.queryForObject(
+                    "SELECT COUNT_BIG(*) FROM " + table.name() + " WHERE " + table.scope(), params, Long.class));
+        }
+        return counts;
+    }
+
+    private long deleteUsers(MapSqlParameterSource params) {
+        long deleted = 0;
+        for (UserTable table : USER_TABLES.reversed()) {
+            deleted += jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE " + table.scope(), params);
+        }
+        return deleted;
+    }
+
+    private int insert(UserTable table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> columns = new ArrayList<>(rows.getFirst().keySet());
+        String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        List<Object[]> values = rows.stream().map(row -> columns.stream().map(row::get).toArray()).toList();
+        if (table.identity()) {
+            jdbcTemplate.getJdbcTemplate().execute("SET IDENTITY_INSERT " + table.name() + " ON");
+        }
+        try {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(sql, values);
+        } finally {
+            if (table.identity()) {
+                jdbcTemplate.getJdbcTemplate().execute("SET IDENTITY_INSERT " + table.name() + " OFF");
+            }
+        }
+        return rows.size();
+    }
+
+    record UserTable(String name, String scope, boolean identity) {
+    }
+
+    public record RebalanceReport(int users, long rows, int skippedUsers) {
+        static final RebalanceReport EMPTY = new RebalanceReport(0, 0, 0);
+
+        RebalanceReport plus(RebalanceReport other) {
+            return new RebalanceReport(users + other.users, rows + other.rows, skippedUsers + other.skippedUsers);
+        }
+    }
+}
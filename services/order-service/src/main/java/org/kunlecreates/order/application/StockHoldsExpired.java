@@ -0,0 +1,9 @@
+package org.kunlecreates.order.application;
+
+import java.util.List;
+
+/**
+ * Published by {@link StockReservationService} inside the sweep transaction that deleted the
+ * expired holds of these orders, on the shard they live on.
+ */
+public record StockHoldsExpired(List<Long> orderIds) {}
@@ -0,0 +1,331 @@
+package org.kunlecreates.order.application;
+
+import org.kunlecreates.order.domain.StockReservation;
+import org.kunlecreates.common.lease.Lease;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.product.ProductServiceClient;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-bounded stock holds for PENDING orders.
+ *
+ * Admission is an in-memory check against per-SKU counters (available stock from the last
+ * product-service snapshot minus quantities already held), so no network or database round trip
+ * is needed to reject an oversold order. Each admitted hold is also written to
+ * {@code stock_reservations}, which is the record every replica shares.
+ * Holds are committed when the order is paid, released when it is cancelled or refunded,
+ * and released in batches by {@link #sweepExpired()} once their TTL has passed (see
+ * {@link StockHoldsExpired}); the orders stay PENDING unless {@code order.reservation.cancel-expired}
+ * is on. Each shard's sweep runs on the replica holding its {@value #SWEEP_JOB} lease.
+ *
+ * Orders whose stock product-service already reserved at cart checkout get upstream holds
+ * ({@link #holdUpstream}): they are not counted against the local counters, and on expiry the
+ * sweep gives their stock back to product-service.
+ *
+ * The held side of a counter is local to this replica: holds taken, paid or released on another
+ * replica only show up when {@link #resyncReserved()} resets it to the sum over
+ * {@code stock_reservations} on every shard plus this replica's own uncommitted acquisitions.
+ * Between resyncs two replicas can each admit the last units of a SKU, so admission is a fast
+ * guard rather than a guarantee; product-service still rejects the paid order it cannot fill.
+ */
+@Service
+public class StockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+    private static final long UNKNOWN = -1L;
+    static final String SWEEP_JOB = "stock-reservation-sweep";
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductServiceClient productServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final LeaseManager leaseManager;
+    private final ApplicationEventPublisher events;
+    private final Duration ttl;
+    private final int sweepBatchSize;
+    private final Map<String, SkuCounter> counters = new ConcurrentHashMap<>();
+
+    public StockReservationService(
+            StockReservationRepository reservationRepository,
+            ProductServiceClient productServiceClient,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            LeaseManager leaseManager,
+            ApplicationEventPublisher events,
+            @Value("${order.reservation.ttl:PT15M}") Duration ttl,
+            @Value("${order.reservation.sweep-batch-size:500}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productServiceClient = productServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.leaseManager = leaseManager;
+        this.events = events;
+        this.ttl = ttl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Admit a set of quantities against the in-memory counters, all or nothing.
+     * The hold is memory-only until {@link #hold} persists it; if the surrounding transaction
+     * rolls back, the acquired quantities are given back automatically. Until that transaction
+     * completes they are also counted as in flight, which {@link #resyncReserved()} keeps.
+     * @throws IllegalStateException if any SKU does not have enough unreserved stock
+     */
+    public void acquire(Map<String, Integer> quantities) {
+        List<Map.Entry<String, Integer>> acquired = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            if (!counter(line.getKey()).tryAcquire(line.getValue())) {
+                acquired.forEach(a -> counter(a.getKey()).release(a.getValue()));
+                throw new IllegalStateException("Insufficient stock for " + line.getKey());
+            }
+            acquired.add(line);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        quantities.forEach((sku, qty) -> counter(sku).inFlight.addAndGet(qty));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                quantities.forEach((sku, qty) -> {
+                    SkuCounter c = counter(sku);
+                    c.inFlight.addAndGet(-qty);
+                    if (status == STATUS_ROLLED_BACK) {
+                        c.release(qty);
+                    }
+                });
+            }
+        });
+    }
+
+    /** Persist previously acquired quantities as a TTL-bounded hold for an order. */
+    public void hold(Long orderId, Map<String, Integer> quantities) {
+        persist(orderId, quantities, false);
+    }
+
+    /**
+     * Persist a TTL-bounded hold for stock product-service already reserved for an order, so it is
+     * released there if the order is neither paid nor cancelled in time.
+     */
+    public void holdUpstream(Long orderId, Map<String, Integer> quantities) {
+        persist(orderId, quantities, true);
+    }
+
+    private void persist(Long orderId, Map<String, Integer> quantities, boolean upstream) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        List<StockReservation> rows = new ArrayList<>(quantities.size());
+        quantities.forEach((sku, qty) -> rows.add(new StockReservation(orderId, sku, qty, expiresAt, upstream)));
+        reservationRepository.saveAll(rows);
+    }
+
+    /**
+     * Record acquired quantities that were already taken out of stock in product-service,
+     * so they stop counting as held and the local view of available stock stays current.
+     */
+    public void consume(Map<String, Integer> quantities) {
+        afterCommit(() -> quantities.forEach((sku, qty) -> counter(sku).commit(qty)));
+    }
+
+    /** The order was paid: its held stock is now sold. */
+    public void commit(Long orderId) {
+        List<StockReservation> rows = reservationRepository.findByOrderId(orderId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        reservationRepository.deleteAllInBatch(rows);
+        afterCommit(() -> local(rows).forEach(r -> counter(r.getProductRef()).commit(r.getQuantity())));
+    }
+
+    /**
+     * The order was cancelled or refunded: its held stock becomes available again. Upstream holds
+     * are only dropped; the caller returns that stock to product-service.
+     */
+    public void release(Long orderId) {
+        List<StockReservation> rows = reservationRepository.findByOrderId(orderId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        reservationRepository.deleteAllInBatch(rows);
+        afterCommit(() -> local(rows).forEach(r -> counter(r.getProductRef()).release(r.getQuantity())));
+    }
+
+    /** Quantity of a SKU currently held by PENDING orders. */
+    public long reservedQuantity(String sku) {
+        SkuCounter c = counters.get(sku);
+        return c == null ? 0 : c.reserved.get();
+    }
+
+    /**
+     * Release expired holds in bounded batches, each in its own short transaction,
+     * so a large backlog never holds locks on the reservations table for long.
+     * Each batch publishes {@link StockHoldsExpired} before it commits, so the listeners' writes
+     * commit or roll back with the deleted holds.
+     * @return number of holds released
+     */
+    @Scheduled(fixedDelayString = "${order.reservation.sweep-interval-ms:30000}",
+               initialDelayString = "${order.reservation.sweep-interval-ms:30000}")
+    public int sweepExpired() {
+        int total = shardRouter.eachShard(() -> leaseManager.runExclusively(SWEEP_JOB, this::sweepShard).orElse(0))
+                .stream().mapToInt(Integer::intValue).sum();
+        if (total > 0) {
+            logger.info("Released {} expired stock reservations", total);
+        }
+        return total;
+    }
+
+    private int sweepShard(Lease lease) {
+        int total = 0;
+        while (true) {
+            Instant now = Instant.now();
+            List<StockReservation> batch = transactionTemplate.execute(status -> {
+                leaseManager.fence(lease);
+                List<StockReservation> expired = reservationRepository
+                        .findByExpiresAtBeforeOrderByExpiresAtAsc(now, PageRequest.of(0, sweepBatchSize));
+                if (!expired.isEmpty()) {
+                    reservationRepository.deleteAllInBatch(expired);
+                    events.publishEvent(new StockHoldsExpired(
+                            expired.stream().map(StockReservation::getOrderId).distinct().toList()));
+                }
+                return expired;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            local(batch).forEach(r -> counter(r.getProductRef()).release(r.getQuantity()));
+            releaseUpstream(batch);
+            total += batch.size();
+            if (batch.size() < sweepBatchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /** Refresh both sides of the counters: available stock from product-service, held from the table. */
+    @Scheduled(fixedDelayString = "${order.reservation.stock-refresh-interval-ms:60000}",
+               initialDelayString = "${order.reservation.stock-refresh-interval-ms:60000}")
+    public void refreshAvailableStock() {
+        Map<String, Integer> levels = productServiceClient.fetchStockLevels();
+        levels.forEach((sku, stock) -> counter(sku).available = stock);
+        logger.debug("Refreshed available stock for {} SKUs", levels.size());
+        resyncReserved();
+    }
+
+    /**
+     * Reset every held counter to the quantities persisted on all shards, which include the holds
+     * other replicas took, paid or released since the last resync, plus what this replica has
+     * acquired in transactions that have not completed yet. In-flight quantities are read before
+     * the table, so one committing in between is briefly counted twice rather than not at all.
+     */
+    @Scheduled(fixedDelayString = "${order.reservation.reserved-resync-interval-ms:10000}",
+               initialDelayString = "${order.reservation.reserved-resync-interval-ms:10000}")
+    public void resyncReserved() {
+        Map<String, Long> inFlight = new HashMap<>();
+        counters.forEach((sku, c) -> inFlight.put(sku, c.inFlight.get()));
+        Map<String, Long> persisted = new HashMap<>();
+        shardRouter.eachShard(reservationRepository::sumQuantityByProductRef)
+                .forEach(shard -> shard.forEach(row -> persisted.merge(row.getProductRef(), row.getQuantity(), Long::sum)));
+        persisted.keySet().forEach(this::counter);
+        counters.forEach((sku, c) -> c.reserved.set(
+                persisted.getOrDefault(sku, 0L) + inFlight.getOrDefault(sku, 0L)));
+        logger.debug("Resynced held stock for {} SKUs", persisted.size());
+    }
+
+    /** Seed available stock and the held quantities from persisted reservations. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveReservations() {
+        counters.clear();
+        refreshAvailableStock();
+        logger.info("Loaded held stock for {} SKUs", counters.size());
+    }
+
+    /** Give expired upstream holds back to product-service, one batch call per order. */
+    private void releaseUpstream(List<StockReservation> expired) {
+        Map<Long, Map<String, Integer>> byOrder = new LinkedHashMap<>();
+        expired.stream().filter(StockReservation::isUpstream).forEach(r -> byOrder
+                .computeIfAbsent(r.getOrderId(), id -> new LinkedHashMap<>())
+                .merge(r.getProductRef(), r.getQuantity(), Integer::sum));
+        byOrder.forEach((orderId, quantities) ->
+                productServiceClient.releaseStock(quantities, "Order #" + orderId + " hold expired"));
+    }
+
+    private static List<StockReservation> local(List<StockReservation> rows) {
+        return rows.stream().filter(r -> !r.isUpstream()).toList();
+    }
+
+    private SkuCounter counter(String sku) {
+        return counters.computeIfAbsent(sku, k -> new SkuCounter());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Per-SKU counters; available is {@link #UNKNOWN} until product-service has reported it.
+     * Decrements stop at zero: a hold taken on another replica may be paid or released here
+     * before a resync has counted it.
+     */
+    private static final class SkuCounter {
+        final AtomicLong reserved = new AtomicLong();
+        final AtomicLong inFlight = new AtomicLong();
+        volatile long available = UNKNOWN;
+
+        boolean tryAcquire(int qty) {
+            while (true) {
+                long held = reserved.get();
+                long limit = available;
+                if (limit != UNKNOWN && limit - held < qty) {
+                    return false;
+                }
+                if (reserved.compareAndSet(held, held + qty)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(int qty) {
+            reserved.accumulateAndGet(qty, (held, released) -> Math.max(0, held - released));
+        }
+
+        void commit(int qty) {
+            release(qty);
+            long limit = available;
+            if (limit != UNKNOWN) {
+                available = Math.max(0, limit - qty);
+            }
+        }
+    }
+}
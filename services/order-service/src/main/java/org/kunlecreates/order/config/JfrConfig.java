@@ -0,0 +1,42 @@
+package org.kunlecreates.order.config;
+
+import org.kunlecreates.common.jfr.JfrRecordingEndpoint;
+import org.kunlecreates.common.jfr.ProfilingEndpoint;
+import org.kunlecreates.order.infrastructure.jfr.CartCheckoutEvent;
+import org.kunlecreates.order.infrastructure.jfr.NotificationDispatchEvent;
+import org.kunlecreates.order.infrastructure.jfr.OrderCreateEvent;
+import org.kunlecreates.order.infrastructure.jfr.OrderStatusUpdateEvent;
+import org.kunlecreates.order.infrastructure.jfr.StockAdjustmentEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/** {@code /actuator/jfr} over this service's Flight Recorder events, and {@code /actuator/profile}. */
+@Configuration
+public class JfrConfig {
+
+    @Bean
+    public JfrRecordingEndpoint jfrRecordingEndpoint(
+            @Value("${jfr.recording.max-duration:PT15M}") Duration maxDuration,
+            @Value("${jfr.recording.max-size:64MB}") DataSize maxSize) {
+        return new JfrRecordingEndpoint("order-service", List.of(
+                OrderCreateEvent.class,
+                OrderStatusUpdateEvent.class,
+                CartCheckoutEvent.class,
+                StockAdjustmentEvent.class,
+                NotificationDispatchEvent.class), maxDuration, maxSize);
+    }
+
+    @Bean
+    public ProfilingEndpoint profilingEndpoint(
+            @Value("${jfr.profiling.max-duration:PT60S}") Duration maxDuration,
+            @Value("${jfr.profiling.cpu-sample-period:PT0.02S}") Duration cpuSamplePeriod,
+            @Value("${jfr.profiling.lock-threshold:PT0.01S}") Duration lockThreshold) {
+        // Shard fan-out, notification dispatch, tracking and replay each run on a pool of their own
+        return new ProfilingEndpoint(true, maxDuration, cpuSamplePeriod, lockThreshold);
+    }
+}
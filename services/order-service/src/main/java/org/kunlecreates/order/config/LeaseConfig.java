@@ -0,0 +1,48 @@
+package org.kunlecreates.order.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.common.lease.LeaseScope;
+import org.kunlecreates.common.lease.LeaseSql;
+import org.kunlecreates.order.infrastructure.sharding.ShardContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Job leases in {@code order_svc.job_leases} (V12). Each shard has its own lease table, so a lease
+ * is taken, renewed and released on the shard bound in {@link ShardContext} when it was claimed.
+ */
+@Configuration
+public class LeaseConfig {
+
+    private static final LeaseScope SHARDS = new LeaseScope() {
+        @Override
+        public String current() {
+            return ShardContext.current();
+        }
+
+        @Override
+        public <T> T callOn(String shard, Supplier<T> work) {
+            return ShardContext.callOn(shard, work);
+        }
+    };
+
+    @Bean
+    public LeaseManager leaseManager(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${lease.enabled:true}") boolean enabled,
+            @Value("${lease.ttl:PT30S}") Duration ttl,
+            @Value("${lease.heartbeat-interval:PT10S}") Duration heartbeatInterval,
+            @Value("${lease.instance-id:${HOSTNAME:}}") String instanceId) {
+        return new LeaseManager(jdbcTemplate, transactionManager, meterRegistry, LeaseSql.sqlServer("order_svc.job_leases"),
+                SHARDS, enabled, ttl, heartbeatInterval, instanceId);
+    }
+}
@@ -1,5 +1,6 @@
 package org.kunlecreates.order.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -42,7 +43,12 @@ public class SecurityConfig {
     public SecurityFilterChain protectedFilterChain(HttpSecurity http) throws Exception {
         http
             // NO securityMatcher needed - will match everything not matched by Order(1)
-            .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+            .authorizeHttpRequests(auth -> auth
+                // SSE streams complete on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Recordings and profiles expose request data and cost CPU; operators only
+                .requestMatchers("/actuator/jfr", "/actuator/jfr/**", "/actuator/profile", "/actuator/latency").hasRole("ADMIN")
+                .anyRequest().authenticated())
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(csrf -> csrf.disable());
@@ -0,0 +1,121 @@
+package org.kunlecreates.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.kunlecreates.order.infrastructure.sharding.ShardIdentityRanges;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.infrastructure.sharding.ShardRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One database per shard, active only when {@code datasource.shards.names} is set.
+ *
+ * Each shard in {@code names} and {@code target-names} gets a Hikari pool named
+ * {@code order-shard-<name>} from {@code datasource.shards.nodes.<name>.url}; the first current
+ * shard may leave its url unset to keep using {@code spring.datasource.url}, so the existing
+ * database becomes that shard. Pools take {@code spring.datasource.hikari.*}, then
+ * {@code datasource.shards.nodes.<name>.hikari.*}. The application {@link DataSource} routes by
+ * the shard bound in the calling thread (see {@link ShardRouter}). Flyway, when enabled, migrates
+ * every shard. {@code nodes.<name>.id-block} defaults to the shard's position in the list; pin it
+ * before removing or reordering shards so no two shards ever share an id block.
+ *
+ * Replica routing ({@code datasource.replica.url}) is per database and is not combined with shards.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.shards", name = "names")
+public class ShardDataSourceConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ShardRouter shardRouter,
+            MeterRegistry meterRegistry) {
+        if (environment.containsProperty("datasource.replica.url")) {
+            throw new IllegalStateException("datasource.replica.url cannot be combined with datasource.shards.names");
+        }
+        Binder binder = Binder.get(environment);
+        String defaultShard = shardRouter.shards().getFirst();
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (String shard : shardRouter.allShards()) {
+            pools.put(shard, shardPool(shard, shard.equals(defaultShard), properties, binder, meterRegistry));
+        }
+        return new ShardRoutingDataSource(pools, defaultShard, meterRegistry);
+    }
+
+    @Bean(initMethod = "apply")
+    public ShardIdentityRanges shardIdentityRanges(
+            ShardRoutingDataSource dataSource,
+            ShardRouter shardRouter,
+            Environment environment) {
+        Binder binder = Binder.get(environment);
+        List<String> shards = shardRouter.allShards();
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        Map<String, Integer> blocks = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            String shard = shards.get(i);
+            pools.put(shard, dataSource.shard(shard));
+            blocks.put(shard, binder.bind(nodePrefix(shard) + ".id-block", Integer.class).orElse(i));
+        }
+        return new ShardIdentityRanges(pools, blocks);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(
+            ShardRoutingDataSource dataSource,
+            ShardRouter shardRouter,
+            ShardIdentityRanges shardIdentityRanges) {
+        return flyway -> {
+            for (String shard : shardRouter.allShards()) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(dataSource.shard(shard))
+                        .load()
+                        .migrate();
+            }
+            // Tables created by this migration were skipped when the ranges were first applied
+            shardIdentityRanges.apply();
+        };
+    }
+
+    private static HikariDataSource shardPool(String shard, boolean defaultShard, DataSourceProperties properties,
+                                              Binder binder, MeterRegistry meterRegistry) {
+        String prefix = nodePrefix(shard);
+        String url = binder.bind(prefix + ".url", String.class).orElse(null);
+        if (url == null && !defaultShard) {
+            throw new IllegalStateException(prefix + ".url is not set");
+        }
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url != null ? url : properties.determineUrl())
+                .username(binder.bind(prefix + ".username", String.class).orElseGet(properties::determineUsername))
+                .password(binder.bind(prefix + ".password", String.class).orElseGet(properties::determinePassword))
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        binder.bind(prefix + ".hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("order-shard-" + shard);
+        // These pools are not beans, so the actuator does not bind their hikaricp.* metrics itself
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    private static String nodePrefix(String shard) {
+        return "datasource.shards.nodes." + shard;
+    }
+}
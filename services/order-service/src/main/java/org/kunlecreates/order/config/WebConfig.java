@@ -0,0 +1,23 @@
+package org.kunlecreates.order.config;
+
+import org.kunlecreates.order.interfaces.ShardBindingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final ShardBindingInterceptor shardBindingInterceptor;
+
+    public WebConfig(ShardBindingInterceptor shardBindingInterceptor) {
+        this.shardBindingInterceptor = shardBindingInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(shardBindingInterceptor)
+                .addPathPatterns("/api/order/**", "/api/cart/**")
+                // Rebalance endpoints pick their shards themselves and must work during a freeze
+                .excludePathPatterns("/api/order/shards/**");
+    }
+}
@@ -1,6 +1,8 @@
 package org.kunlecreates.order.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.LazyGroup;
+
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,33 +32,55 @@ public class Order {
     @Column(name = "shipping_recipient", length = 255)
     private String shippingRecipient;
     
+    // Address and card details are only read to render an order, so loading an order for a status
+    // change or a sweep leaves them in the database; needs the build-time bytecode enhancement.
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_street1", length = 255)
     private String shippingStreet1;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_street2", length = 255)
     private String shippingStreet2;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_city", length = 100)
     private String shippingCity;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_state", length = 100)
     private String shippingState;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_postal_code", length = 20)
     private String shippingPostalCode;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_country", length = 100)
     private String shippingCountry;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "shipping_phone", length = 20)
     private String shippingPhone;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "payment_method_type", length = 50)
     private String paymentMethodType;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "payment_last4", length = 4)
     private String paymentLast4;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("delivery")
     @Column(name = "payment_brand", length = 50)
     private String paymentBrand;
 
@@ -65,6 +89,13 @@ public class Order {
 
     @Column(name = "customer_name", length = 255)
     private String customerName;
+
+    @Column(name = "stock_reserved", nullable = false)
+    private boolean stockReserved;
+
+    /** Sequence number of the last event appended to this order's log. */
+    @Column(name = "event_sequence", nullable = false)
+    private long eventSequence;
     
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
@@ -123,16 +154,35 @@ public class Order {
 
     public String getCustomerName() { return customerName; }
     public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    /** True when stock was already taken at checkout, so the PAID transition must not decrement it again. */
+    public boolean isStockReserved() { return stockReserved; }
+    public void setStockReserved(boolean stockReserved) { this.stockReserved = stockReserved; }
     
     public double getTotal() { 
         return (totalCents == null) ? 0.0 : totalCents / 100.0; 
     }
     
     public Instant getCreatedAt() { return createdAt; }
+
+    public long getEventSequence() { return eventSequence; }
     
     public void clearDomainEvents() {
         domainEvents.clear();
     }
+
+    /**
+     * Open this order's event log with the state it was created in.
+     * Call after the first save so the event carries the generated id.
+     */
+    public void recordCreated() {
+        domainEvents.add(new OrderEvent(
+            this.id,
+            ++eventSequence,
+            new OrderEventPayload.Created(this.userRef, this.status, this.totalCents, this.currency),
+            this.createdAt
+        ));
+    }
     
     public void transitionTo(OrderStatus newStatus) {
         OrderStatus currentStatus = OrderStatus.fromString(this.status);
@@ -149,8 +199,8 @@ public class Order {
         
         domainEvents.add(new OrderEvent(
             this.id,
-            previousStatus,
-            this.status,
+            ++eventSequence,
+            new OrderEventPayload.StatusChanged(previousStatus, this.status),
             this.updatedAt
         ));
     }
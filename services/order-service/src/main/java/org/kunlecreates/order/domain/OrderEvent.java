@@ -1,45 +1,88 @@
 package org.kunlecreates.order.domain;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
 import java.time.Instant;
 
+/**
+ * One entry in an order's append-only event log. {@code sequence} numbers each order's events
+ * from 1 without gaps, and (order_id, seq_no) is unique, so two writers racing on the same order
+ * cannot both append. Rows are never updated or deleted.
+ */
 @Entity
+@Immutable
 @Table(name = "order_events", schema = "order_svc")
 public class OrderEvent {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "order_id", nullable = false)
+    @Column(name = "order_id", nullable = false, updatable = false)
     private Long orderId;
 
-    @Column(name = "type", nullable = false, length = 64)
+    @Column(name = "seq_no", nullable = false, updatable = false)
+    private Long sequence;
+
+    @Column(name = "type", nullable = false, updatable = false, length = 64)
     private String type;
 
-    @Column(name = "payload")
+    @Column(name = "schema_version", nullable = false, updatable = false)
+    private Integer schemaVersion;
+
+    @Column(name = "payload", updatable = false)
     private String payload;
 
-    @Column(name = "created_at", nullable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
     protected OrderEvent() {}
-    
-    public OrderEvent(Long orderId, String type, String payload) { 
-        this.orderId = orderId; 
-        this.type = type; 
-        this.payload = payload; 
-    }
-    
-    public OrderEvent(Long orderId, String previousStatus, String newStatus, Instant occurredAt) {
+
+    public OrderEvent(Long orderId, long sequence, OrderEventPayload payload, Instant occurredAt) {
         this.orderId = orderId;
-        this.type = "STATUS_CHANGED";
-        this.payload = String.format("{\"from\":\"%s\",\"to\":\"%s\"}", previousStatus, newStatus);
+        this.sequence = sequence;
+        this.type = payload.type();
+        this.schemaVersion = OrderEventPayload.CURRENT_VERSION;
+        this.payload = encode(payload);
         this.createdAt = occurredAt;
     }
-    
+
     public Long getId() { return id; }
     public Long getOrderId() { return orderId; }
+    public Long getSequence() { return sequence; }
     public String getType() { return type; }
+    public Integer getSchemaVersion() { return schemaVersion; }
     public String getPayload() { return payload; }
     public Instant getCreatedAt() { return createdAt; }
+
+    /**
+     * The typed payload. Each stored schema version is mapped onto the current record here,
+     * so rows written by older releases never need rewriting.
+     */
+    public OrderEventPayload decodePayload() {
+        if (schemaVersion == null || schemaVersion != OrderEventPayload.CURRENT_VERSION) {
+            throw new IllegalStateException("Unsupported " + type + " payload version " + schemaVersion);
+        }
+        try {
+            return switch (type) {
+                case OrderEventPayload.Created.TYPE -> objectMapper.readValue(payload, OrderEventPayload.Created.class);
+                case OrderEventPayload.StatusChanged.TYPE -> objectMapper.readValue(payload, OrderEventPayload.StatusChanged.class);
+                default -> throw new IllegalStateException("Unknown order event type " + type);
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable " + type + " payload on order event " + id, e);
+        }
+    }
+
+    private static String encode(OrderEventPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode " + payload.type() + " payload", e);
+        }
+    }
 }
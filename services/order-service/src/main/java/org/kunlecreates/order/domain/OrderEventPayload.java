@@ -0,0 +1,28 @@
+package org.kunlecreates.order.domain;
+
+/**
+ * Typed body of an {@link OrderEvent}. The event row stores the type name, the payload schema
+ * version and the JSON form of one of these records.
+ */
+public sealed interface OrderEventPayload {
+
+    /** Schema version written for new events of every type. */
+    int CURRENT_VERSION = 1;
+
+    String type();
+
+    /** First event of every order: the state it was created in. */
+    record Created(String userRef, String status, long totalCents, String currency) implements OrderEventPayload {
+        public static final String TYPE = "ORDER_CREATED";
+
+        @Override
+        public String type() { return TYPE; }
+    }
+
+    record StatusChanged(String from, String to) implements OrderEventPayload {
+        public static final String TYPE = "STATUS_CHANGED";
+
+        @Override
+        public String type() { return TYPE; }
+    }
+}
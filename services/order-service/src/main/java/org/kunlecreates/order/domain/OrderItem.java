@@ -10,7 +10,7 @@ public class OrderItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
@@ -49,4 +49,5 @@ public class OrderItem {
     public String getProductName() { return productName; }
     public Integer getQuantity() { return quantity; }
     public Long getUnitPriceCents() { return unitPriceCents; }
+    public String getCurrency() { return currency; }
 }
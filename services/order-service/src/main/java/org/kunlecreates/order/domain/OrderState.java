@@ -0,0 +1,57 @@
+package org.kunlecreates.order.domain;
+
+import java.time.Instant;
+
+/**
+ * An order's state as rebuilt from its event log. Immutable; {@link #apply(OrderEvent)} returns
+ * the next state, so a replay is a left fold over the events in sequence order and can run on
+ * any thread. {@code sequence} is the last event folded in.
+ */
+public record OrderState(
+    Long orderId,
+    String userRef,
+    String status,
+    long totalCents,
+    String currency,
+    Instant placedAt,
+    Instant updatedAt,
+    long sequence
+) {
+    /** Before the first event: nothing is known except the id. */
+    public static OrderState empty(Long orderId) {
+        return new OrderState(orderId, null, null, 0L, null, null, null, 0L);
+    }
+
+    /**
+     * Fold one event in. Events at or below {@link #sequence()} were already applied and are skipped;
+     * a gap means the log was read incompletely and is reported rather than silently bridged.
+     */
+    public OrderState apply(OrderEvent event) {
+        long next = event.getSequence();
+        if (next <= sequence) {
+            return this;
+        }
+        if (next != sequence + 1) {
+            throw new IllegalStateException(String.format(
+                "Order %d event log has a gap: expected sequence %d, got %d", orderId, sequence + 1, next));
+        }
+        Instant at = event.getCreatedAt();
+        return switch (event.decodePayload()) {
+            case OrderEventPayload.Created created -> new OrderState(
+                orderId, created.userRef(), created.status(), created.totalCents(), created.currency(),
+                placedAt, at, next);
+            case OrderEventPayload.StatusChanged changed -> new OrderState(
+                orderId, userRef, changed.to(), totalCents, currency,
+                placedAt == null && OrderStatus.PAID.getValue().equals(changed.to()) ? at : placedAt,
+                at, next);
+        };
+    }
+
+    public OrderState applyAll(Iterable<OrderEvent> events) {
+        OrderState state = this;
+        for (OrderEvent event : events) {
+            state = state.apply(event);
+        }
+        return state;
+    }
+}
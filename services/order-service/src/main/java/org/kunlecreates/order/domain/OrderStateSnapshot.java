@@ -0,0 +1,74 @@
+package org.kunlecreates.order.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Latest folded {@link OrderState} for one order, so a replay only reads the events after
+ * {@code sequence}. Rows written under another {@link #CURRENT_VERSION} of the fold are ignored
+ * and the order is replayed from its first event.
+ */
+@Entity
+@Table(name = "order_state_snapshots", schema = "order_svc")
+public class OrderStateSnapshot {
+    /** Bump when {@link OrderState#apply(OrderEvent)} changes meaning, to invalidate stored snapshots. */
+    public static final int CURRENT_VERSION = 1;
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "seq_no", nullable = false)
+    private Long sequence;
+
+    @Column(name = "schema_version", nullable = false)
+    private Integer schemaVersion;
+
+    @Column(name = "user_ref", length = 64)
+    private String userRef;
+
+    @Column(name = "status", length = 32)
+    private String status;
+
+    @Column(name = "total_cents", nullable = false)
+    private Long totalCents;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "placed_at")
+    private Instant placedAt;
+
+    @Column(name = "state_updated_at")
+    private Instant stateUpdatedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    protected OrderStateSnapshot() {}
+
+    public OrderStateSnapshot(OrderState state) {
+        this.orderId = state.orderId();
+        this.sequence = state.sequence();
+        this.schemaVersion = CURRENT_VERSION;
+        this.userRef = state.userRef();
+        this.status = state.status();
+        this.totalCents = state.totalCents();
+        this.currency = state.currency();
+        this.placedAt = state.placedAt();
+        this.stateUpdatedAt = state.updatedAt();
+    }
+
+    public boolean isCurrent() {
+        return schemaVersion != null && schemaVersion == CURRENT_VERSION;
+    }
+
+    public OrderState toState() {
+        return new OrderState(orderId, userRef, status, totalCents, currency, placedAt, stateUpdatedAt, sequence);
+    }
+
+    public Long getOrderId() { return orderId; }
+    public Long getSequence() { return sequence; }
+    public Integer getSchemaVersion() { return schemaVersion; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,94 @@
+package org.kunlecreates.order.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Read-side row for order lists and dashboards: only the fields a list view renders.
+ * Written when an order is created and advanced by each {@link OrderEvent}; the normalized
+ * {@link Order} stays the source of truth and the table can be rebuilt from it and its events.
+ */
+@Entity
+@Table(name = "order_summaries", schema = "order_svc")
+public class OrderSummary {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_ref", nullable = false, length = 64)
+    private String userRef;
+
+    @Column(name = "customer_name", length = 255)
+    private String customerName;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "total_cents", nullable = false)
+    private Long totalCents;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency = "USD";
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "placed_at")
+    private Instant placedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "last_event_id")
+    private Long lastEventId;
+
+    protected OrderSummary() {}
+
+    public OrderSummary(Order order, String status, int itemCount) {
+        this.orderId = order.getId();
+        this.userRef = order.getUserRef();
+        String name = order.getCustomerName();
+        this.customerName = (name == null || name.isEmpty()) ? order.getShippingRecipient() : name;
+        this.status = status;
+        this.totalCents = order.getTotalCents();
+        this.currency = order.getCurrency();
+        this.itemCount = itemCount;
+        this.placedAt = order.getPlacedAt();
+        this.createdAt = order.getCreatedAt();
+        this.updatedAt = order.getCreatedAt();
+    }
+
+    /**
+     * Advance the row to the status carried by an event. Events at or below {@link #getLastEventId()}
+     * were already applied and are ignored, so replaying a batch twice is harmless.
+     */
+    public boolean apply(Long eventId, String newStatus, Instant occurredAt) {
+        if (eventId != null && lastEventId != null && eventId <= lastEventId) {
+            return false;
+        }
+        this.status = newStatus;
+        this.updatedAt = occurredAt;
+        if (placedAt == null && OrderStatus.PAID.getValue().equals(newStatus)) {
+            this.placedAt = occurredAt;
+        }
+        if (eventId != null) {
+            this.lastEventId = eventId;
+        }
+        return true;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public String getUserRef() { return userRef; }
+    public String getCustomerName() { return customerName; }
+    public String getStatus() { return status; }
+    public Long getTotalCents() { return totalCents; }
+    public String getCurrency() { return currency; }
+    public Integer getItemCount() { return itemCount; }
+    public Instant getPlacedAt() { return placedAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public Long getLastEventId() { return lastEventId; }
+}
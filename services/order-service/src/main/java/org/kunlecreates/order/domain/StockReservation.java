@@ -0,0 +1,58 @@
+package org.kunlecreates.order.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Stock held for one line of a PENDING order until it is paid, cancelled or the hold expires.
+ * Rows only exist while the hold is active; committing or releasing deletes them.
+ * An upstream hold is stock already reserved in product-service at cart checkout; it is only
+ * here so that expiry returns it.
+ */
+@Entity
+@Table(name = "stock_reservations", schema = "order_svc")
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_ref", nullable = false, length = 64)
+    private String productRef;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "upstream", nullable = false)
+    private boolean upstream;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    protected StockReservation() {}
+
+    public StockReservation(Long orderId, String productRef, Integer quantity, Instant expiresAt) {
+        this(orderId, productRef, quantity, expiresAt, false);
+    }
+
+    public StockReservation(Long orderId, String productRef, Integer quantity, Instant expiresAt, boolean upstream) {
+        this.orderId = orderId;
+        this.productRef = productRef;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+        this.upstream = upstream;
+    }
+
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public String getProductRef() { return productRef; }
+    public Integer getQuantity() { return quantity; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public boolean isUpstream() { return upstream; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,124 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Count-based circuit breaker for one downstream.
+ *
+ * CLOSED records the outcome of the last {@code windowSize} calls and opens once at least
+ * {@code minimumCalls} have been seen and the failure rate reaches the threshold. OPEN rejects
+ * every call until {@code openDuration} has passed, then HALF_OPEN lets a few trial calls through:
+ * one failure re-opens the breaker, all trials succeeding closes it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+    private volatile Instant openedAt = Instant.EPOCH;
+
+    // Ring buffer of recent outcomes, guarded by this
+    private final boolean[] failures;
+    private int position;
+    private int recorded;
+    private int failureCount;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, Clock clock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.failures = new boolean[windowSize];
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /** @return true if the call may proceed; callers must then report its outcome */
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                halfOpenPermits.set(halfOpenCalls);
+                halfOpenSuccesses.set(0);
+            }
+        }
+        return halfOpenPermits.getAndUpdate(p -> p > 0 ? p - 1 : 0) > 0;
+    }
+
+    public void onSuccess() {
+        if (state.get() == State.HALF_OPEN) {
+            if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                reset();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (record(true)) {
+            open();
+        }
+    }
+
+    /** Return a permission that was acquired but never used, e.g. when the call was cancelled. */
+    public void releasePermission() {
+        if (state.get() == State.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    private synchronized boolean record(boolean failure) {
+        if (recorded == windowSize && failures[position]) {
+            failureCount--;
+        }
+        failures[position] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        position = (position + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+        return recorded >= minimumCalls && (double) failureCount / recorded >= failureRateThreshold;
+    }
+
+    private void open() {
+        openedAt = clock.instant();
+        state.set(State.OPEN);
+    }
+
+    private synchronized void reset() {
+        Arrays.fill(failures, false);
+        position = 0;
+        recorded = 0;
+        failureCount = 0;
+    }
+}
@@ -0,0 +1,309 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounded dispatch stage for fire-and-forget calls to one downstream.
+ *
+ * At most {@code maxInFlight} requests are subscribed at once; the rest wait in a FIFO queue of
+ * {@code capacity} entries. When the queue is full the overflow policy decides what happens:
+ * DROP_OLDEST evicts the head, REJECT refuses the new request, SPILL appends it to a JSON-lines file
+ * that {@link #replaySpilled()} feeds back later. Under SPILL, requests rejected by the downstream's
+ * breaker or bulkhead are spilled too rather than lost. Credential headers ({@code Authorization},
+ * {@code X-Internal-Api-Key}) are never written to the spill file; replayed requests get the
+ * downstream's {@code replayCredentials} instead. A request that carried credentials is not spilled
+ * when the downstream has none to replay it with, since it could only be replayed unauthenticated.
+ *
+ * {@link #shutdown()} stops intake, waits for queued and in-flight work to finish, and spills (or
+ * reports) whatever is left when the timeout expires.
+ */
+public class DispatchQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchQueue.class);
+    static final String METRIC_PREFIX = "http.client.dispatch";
+
+    /** Lower-case names of the headers that are stripped before a request is spilled. */
+    static final Set<String> CREDENTIAL_HEADERS = Set.of("authorization", "x-internal-api-key");
+
+    public enum OverflowPolicy { DROP_OLDEST, REJECT, SPILL }
+
+    /**
+     * @param spillDirectory    where SPILL writes overflow, or null when spilling is disabled
+     * @param replayCredentials headers added to every replayed request in place of the stripped ones
+     */
+    public record Settings(int maxInFlight, int capacity, OverflowPolicy overflowPolicy,
+                           Path spillDirectory, Map<String, String> replayCredentials, Duration shutdownTimeout) {
+        public Settings {
+            replayCredentials = replayCredentials == null ? Map.of() : Map.copyOf(replayCredentials);
+        }
+    }
+
+    private record Entry(DispatchRequest request, Instant enqueuedAt) {}
+
+    private final Downstream downstream;
+    private final Settings settings;
+    private final Semaphore inFlight;
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter dropped;
+    private final Counter rejected;
+    private final Counter spilled;
+    private final Counter failed;
+    private boolean accepting = true;
+
+    DispatchQueue(Downstream downstream, Settings settings, MeterRegistry registry) {
+        this.downstream = downstream;
+        this.settings = settings;
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        this.spillFile = settings.spillDirectory() == null ? null
+                : settings.spillDirectory().resolve(downstream.getName() + ".jsonl");
+        String name = downstream.getName();
+        this.dropped = overflowCounter(registry, name, "dropped");
+        this.rejected = overflowCounter(registry, name, "rejected");
+        this.spilled = overflowCounter(registry, name, "spilled");
+        this.failed = Counter.builder(METRIC_PREFIX + ".failed").tag("downstream", name).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", this, DispatchQueue::depth)
+                .tag("downstream", name).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queue.oldest.age", this, DispatchQueue::oldestAgeSeconds)
+                .tag("downstream", name).baseUnit("seconds").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", inFlight, s -> settings.maxInFlight() - s.availablePermits())
+                .tag("downstream", name).register(registry);
+    }
+
+    /**
+     * Queue a request for background delivery.
+     * @return false if the request was refused (REJECT policy, or shutting down without SPILL)
+     */
+    public boolean submit(DispatchRequest request) {
+        Entry evicted = null;
+        boolean overflowed = false;
+        synchronized (queue) {
+            if (!accepting || queue.size() >= settings.capacity()) {
+                switch (overflowPolicy()) {
+                    case DROP_OLDEST -> {
+                        if (!accepting) {
+                            rejected.increment();
+                            logger.warn("Dispatch queue {} is shutting down, dropping: {}", downstream.getName(), request.description());
+                            return false;
+                        }
+                        evicted = queue.pollFirst();
+                        dropped.increment();
+                    }
+                    case REJECT -> {
+                        rejected.increment();
+                        logger.warn("Dispatch queue {} is full, rejecting: {}", downstream.getName(), request.description());
+                        return false;
+                    }
+                    case SPILL -> overflowed = true;
+                }
+            }
+            if (!overflowed) {
+                queue.addLast(new Entry(request, Instant.now()));
+            }
+        }
+        if (overflowed) {
+            // Written outside the queue lock so disk IO never stalls other submitters or the pump
+            spill(List.of(request));
+            return true;
+        }
+        if (evicted != null) {
+            logger.warn("Dispatch queue {} is full, dropped oldest: {}", downstream.getName(), evicted.request().description());
+        }
+        pump();
+        return true;
+    }
+
+    public int depth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    double oldestAgeSeconds() {
+        synchronized (queue) {
+            Entry head = queue.peekFirst();
+            return head == null ? 0.0 : Duration.between(head.enqueuedAt(), Instant.now()).toMillis() / 1000.0;
+        }
+    }
+
+    /** Feed spilled requests back through the queue, unless the downstream is still rejecting calls. */
+    public void replaySpilled() {
+        if (spillFile == null || downstream.circuitState() == CircuitBreaker.State.OPEN) {
+            return;
+        }
+        List<String> lines;
+        synchronized (spillLock) {
+            if (!Files.exists(spillFile)) {
+                return;
+            }
+            Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+            try {
+                Files.move(spillFile, replaying, StandardCopyOption.REPLACE_EXISTING);
+                lines = Files.readAllLines(replaying, StandardCharsets.UTF_8);
+                Files.delete(replaying);
+            } catch (IOException e) {
+                logger.error("Failed to read dispatch spill file {}: {}", spillFile, e.getMessage());
+                return;
+            }
+        }
+        logger.info("Replaying {} spilled requests for {}", lines.size(), downstream.getName());
+        for (String line : lines) {
+            try {
+                submit(objectMapper.readValue(line, DispatchRequest.class).withHeaders(settings.replayCredentials()));
+            } catch (JsonProcessingException e) {
+                logger.error("Skipping unreadable spilled request for {}: {}", downstream.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /** Stop accepting work and wait up to the shutdown timeout for queued and in-flight requests to finish. */
+    public void shutdown() {
+        synchronized (queue) {
+            accepting = false;
+        }
+        Instant deadline = Instant.now().plus(settings.shutdownTimeout());
+        while (Instant.now().isBefore(deadline) && !idle()) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<DispatchRequest> remaining = new ArrayList<>();
+        synchronized (queue) {
+            queue.forEach(entry -> remaining.add(entry.request()));
+            queue.clear();
+        }
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (overflowPolicy() == OverflowPolicy.SPILL) {
+            spill(remaining);
+        } else {
+            logger.warn("Dispatch queue {} shut down with {} undelivered requests", downstream.getName(), remaining.size());
+        }
+    }
+
+    private boolean idle() {
+        synchronized (queue) {
+            return queue.isEmpty() && inFlight.availablePermits() == settings.maxInFlight();
+        }
+    }
+
+    private void pump() {
+        while (inFlight.tryAcquire()) {
+            Entry entry;
+            synchronized (queue) {
+                entry = queue.pollFirst();
+            }
+            if (entry == null) {
+                inFlight.release();
+                // Work added between the poll and the release would otherwise wait for the next submit
+                synchronized (queue) {
+                    if (queue.isEmpty()) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            execute(entry.request());
+        }
+    }
+
+    private void execute(DispatchRequest request) {
+        downstream.call(Mono.defer(() -> send(request)))
+                .doOnSuccess(response -> logger.debug("{} delivered to {}", request.description(), downstream.getName()))
+                .doOnError(error -> {
+                    if (error instanceof DownstreamUnavailableException && overflowPolicy() == OverflowPolicy.SPILL) {
+                        spill(List.of(request));
+                        return;
+                    }
+                    failed.increment();
+                    logger.error("{} failed: {}", request.description(), error.getMessage());
+                })
+                .onErrorResume(error -> Mono.empty())
+                .doFinally(signal -> {
+                    inFlight.release();
+                    pump();
+                })
+                .subscribe();
+    }
+
+    private Mono<String> send(DispatchRequest request) {
+        WebClient.RequestBodySpec spec = downstream.webClient()
+                .method(HttpMethod.valueOf(request.method()))
+                .uri(request.uriTemplate(), request.uriVariables().toArray());
+        request.headers().forEach((name, value) -> spec.header(name, value));
+        WebClient.RequestHeadersSpec<?> ready = request.body() != null ? spec.bodyValue(request.body()) : spec;
+        return ready.retrieve().bodyToMono(String.class);
+    }
+
+    private void spill(List<DispatchRequest> requests) {
+        if (spillFile == null) {
+            failed.increment(requests.size());
+            logger.error("No spill directory configured for {}, dropping {} requests", downstream.getName(), requests.size());
+            return;
+        }
+        try {
+            List<String> lines = new ArrayList<>(requests.size());
+            for (DispatchRequest request : requests) {
+                DispatchRequest stripped = request.withoutHeaders(CREDENTIAL_HEADERS);
+                if (stripped != request && settings.replayCredentials().isEmpty()) {
+                    failed.increment();
+                    logger.error("Not spilling {} for {}: it carries credentials that cannot be restored on replay",
+                            request.description(), downstream.getName());
+                    continue;
+                }
+                lines.add(objectMapper.writeValueAsString(stripped));
+            }
+            if (lines.isEmpty()) {
+                return;
+            }
+            synchronized (spillLock) {
+                Files.createDirectories(spillFile.getParent());
+                Files.write(spillFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            spilled.increment(lines.size());
+        } catch (IOException e) {
+            failed.increment(requests.size());
+            logger.error("Failed to spill {} requests for {}: {}", requests.size(), downstream.getName(), e.getMessage());
+        }
+    }
+
+    private OverflowPolicy overflowPolicy() {
+        return settings.overflowPolicy();
+    }
+
+    private static Counter overflowCounter(MeterRegistry registry, String downstream, String action) {
+        return Counter.builder(METRIC_PREFIX + ".overflow")
+                .tag("downstream", downstream).tag("action", action).register(registry);
+    }
+}
@@ -0,0 +1,54 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A fire-and-forget request held by a {@link DispatchQueue}. Kept as plain data rather than a
+ * prepared Mono so it can be written to the spill file and replayed after a restart.
+ *
+ * @param description  short text for logs, e.g. "Stock adjustment for SKU ABC-1"
+ * @param method       HTTP method name
+ * @param uriTemplate  path relative to the downstream base URL, may contain {placeholders}
+ * @param uriVariables values for the placeholders, in order
+ * @param headers      request headers
+ * @param body         JSON-serializable body, or null
+ */
+public record DispatchRequest(
+        String description,
+        String method,
+        String uriTemplate,
+        List<String> uriVariables,
+        Map<String, String> headers,
+        Object body
+) {
+    public DispatchRequest {
+        uriVariables = uriVariables == null ? List.of() : List.copyOf(uriVariables);
+        headers = headers == null ? Map.of() : Map.copyOf(headers);
+    }
+
+    /** This request without the named headers, matched case-insensitively. */
+    public DispatchRequest withoutHeaders(Set<String> names) {
+        Map<String, String> kept = new LinkedHashMap<>();
+        headers.forEach((name, value) -> {
+            if (!names.contains(name.toLowerCase(Locale.ROOT))) {
+                kept.put(name, value);
+            }
+        });
+        return kept.size() == headers.size() ? this
+                : new DispatchRequest(description, method, uriTemplate, uriVariables, kept, body);
+    }
+
+    /** This request with {@code added} headers set, replacing any of the same name. */
+    public DispatchRequest withHeaders(Map<String, String> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        Map<String, String> merged = new LinkedHashMap<>(headers);
+        merged.putAll(added);
+        return new DispatchRequest(description, method, uriTemplate, uriVariables, merged, body);
+    }
+}
@@ -0,0 +1,185 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kunlecreates.common.latency.LatencyHistograms;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A configured WebClient for one named downstream plus the guards every call to it goes through:
+ * circuit breaker, bulkhead (max concurrent calls), response timeout, optional retries and metrics,
+ * including a {@link LatencyHistograms} series per downstream.
+ *
+ * Wrap each request with {@link #call} for non-idempotent requests or {@link #idempotentCall} for
+ * requests that may safely be repeated. Rejections fail fast with {@link DownstreamUnavailableException}
+ * so a degraded downstream does not tie up threads or buffer work in memory. Fire-and-forget requests
+ * go through {@link #dispatch}, which bounds how many are in flight or queued.
+ */
+public class Downstream {
+
+    static final String METRIC_PREFIX = "http.client.downstream";
+
+    private final String name;
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Duration timeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final MeterRegistry registry;
+    private final LatencyHistograms latency;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter retries;
+    private final DispatchQueue dispatchQueue;
+
+    Downstream(String name, WebClient webClient, CircuitBreaker circuitBreaker, int maxConcurrentCalls,
+               Duration timeout, int maxRetries, Duration retryBackoff, DispatchQueue.Settings dispatch,
+               MeterRegistry registry, LatencyHistograms latency) {
+        this.name = name;
+        this.webClient = webClient;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.timeout = timeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.registry = registry;
+        this.latency = latency;
+        this.circuitOpenRejections = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("downstream", name).tag("reason", "circuit_open").register(registry);
+        this.bulkheadRejections = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("downstream", name).tag("reason", "bulkhead_full").register(registry);
+        this.retries = Counter.builder(METRIC_PREFIX + ".retries")
+                .tag("downstream", name).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .tag("downstream", name).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".bulkhead.in.flight", bulkhead,
+                        s -> maxConcurrentCalls - s.availablePermits())
+                .tag("downstream", name).register(registry);
+        this.dispatchQueue = new DispatchQueue(this, dispatch, registry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public DispatchQueue dispatchQueue() {
+        return dispatchQueue;
+    }
+
+    /**
+     * Send a request in the background through the bounded dispatch queue.
+     * @return false if the queue refused it
+     */
+    public boolean dispatch(DispatchRequest request) {
+        return dispatchQueue.submit(request);
+    }
+
+    /** Guard a request that must not be repeated automatically. */
+    public <T> Mono<T> call(Mono<T> request) {
+        return guarded(request);
+    }
+
+    /** Guard a request that may be retried with jittered exponential backoff on transient failures. */
+    public <T> Mono<T> idempotentCall(Mono<T> request) {
+        if (maxRetries <= 0) {
+            return guarded(request);
+        }
+        return guarded(request).retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                .jitter(0.5)
+                .filter(Downstream::isTransient)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private <T> Mono<T> guarded(Mono<T> request) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                return Mono.error(new DownstreamUnavailableException(name, "circuit breaker open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                bulkheadRejections.increment();
+                return Mono.error(new DownstreamUnavailableException(name, "too many concurrent calls"));
+            }
+            Timer.Sample sample = Timer.start(registry);
+            long start = System.nanoTime();
+            AtomicBoolean completed = new AtomicBoolean();
+            return request
+                    .timeout(timeout)
+                    .doOnSuccess(value -> {
+                        completed.set(true);
+                        circuitBreaker.onSuccess();
+                        sample.stop(timer("success"));
+                        latency.record(LatencyHistograms.DOWNSTREAMS, name, System.nanoTime() - start);
+                    })
+                    .doOnError(error -> {
+                        completed.set(true);
+                        if (isTransient(error)) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                        sample.stop(timer(outcome(error)));
+                        latency.record(LatencyHistograms.DOWNSTREAMS, name, System.nanoTime() - start);
+                    })
+                    .doFinally(signal -> {
+                        if (!completed.get()) {
+                            circuitBreaker.releasePermission();
+                        }
+                        bulkhead.release();
+                    });
+        });
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder(METRIC_PREFIX + ".requests")
+                .tag("downstream", name)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Timeouts, connection failures and 5xx/429 responses count against the breaker and may be retried;
+     * other 4xx responses are the caller's fault and do neither.
+     */
+    static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException;
+    }
+
+    private static String outcome(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() ? "server_error" : "client_error";
+        }
+        return "io_error";
+    }
+}
@@ -0,0 +1,141 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.kunlecreates.common.latency.LatencyHistograms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Builds one {@link Downstream} per remote service, each with its own named Reactor Netty connection pool.
+ *
+ * Settings are read from {@code http.client.downstreams.<name>.*} and fall back to
+ * {@code http.client.defaults.*}. Pools are bounded both in connections and in pending acquires, so a slow
+ * downstream fails new requests quickly instead of queueing them without limit. Pool gauges are published
+ * by Reactor Netty under {@code reactor.netty.connection.provider.*}, tagged with the pool name.
+ * Each downstream also gets a {@link DispatchQueue} for fire-and-forget calls. Its SPILL policy needs an
+ * explicit {@code dispatch.spill-directory} on a volume private to the pod; without one it falls back to
+ * DROP_OLDEST rather than writing to a shared temporary directory.
+ */
+@Component
+public class DownstreamClients implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamClients.class);
+
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    private final LatencyHistograms latencyHistograms;
+    private final Environment environment;
+    private final List<ConnectionProvider> providers = new CopyOnWriteArrayList<>();
+    private final List<Downstream> downstreams = new CopyOnWriteArrayList<>();
+
+    public DownstreamClients(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry,
+                             LatencyHistograms latencyHistograms, Environment environment) {
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+        this.latencyHistograms = latencyHistograms;
+        this.environment = environment;
+    }
+
+    public Downstream create(String name, String baseUrl) {
+        return create(name, baseUrl, Map.of());
+    }
+
+    /**
+     * @param replayCredentials headers that authenticate this service to the downstream, added to
+     *                          requests replayed from the spill file, which never stores credentials
+     */
+    public Downstream create(String name, String baseUrl, Map<String, String> replayCredentials) {
+        int maxConnections = setting(name, "max-connections", Integer.class, 50);
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(setting(name, "pending-acquire-max-count", Integer.class, maxConnections * 2))
+                .pendingAcquireTimeout(setting(name, "pending-acquire-timeout", Duration.class, Duration.ofSeconds(2)))
+                .maxIdleTime(setting(name, "max-idle-time", Duration.class, Duration.ofSeconds(30)))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+        providers.add(provider);
+
+        Duration timeout = setting(name, "response-timeout", Duration.class, Duration.ofSeconds(5));
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        (int) setting(name, "connect-timeout", Duration.class, Duration.ofSeconds(2)).toMillis())
+                .responseTimeout(timeout);
+        WebClient webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                setting(name, "circuit-breaker.window-size", Integer.class, 20),
+                setting(name, "circuit-breaker.minimum-calls", Integer.class, 10),
+                setting(name, "circuit-breaker.failure-rate-threshold", Double.class, 0.5),
+                setting(name, "circuit-breaker.open-duration", Duration.class, Duration.ofSeconds(30)),
+                setting(name, "circuit-breaker.half-open-calls", Integer.class, 3),
+                Clock.systemUTC());
+        int maxConcurrentCalls = setting(name, "bulkhead.max-concurrent-calls", Integer.class, maxConnections);
+        logger.info("HTTP downstream {} -> {} (max connections: {}, max concurrent calls: {}, timeout: {})",
+                name, baseUrl, maxConnections, maxConcurrentCalls, timeout);
+        DispatchQueue.OverflowPolicy overflowPolicy = setting(name, "dispatch.overflow-policy",
+                DispatchQueue.OverflowPolicy.class, DispatchQueue.OverflowPolicy.DROP_OLDEST);
+        String spillDirectory = setting(name, "dispatch.spill-directory", String.class, "");
+        if (overflowPolicy == DispatchQueue.OverflowPolicy.SPILL && spillDirectory.isBlank()) {
+            throw new IllegalStateException("HTTP downstream " + name
+                    + " has overflow policy SPILL but no dispatch.spill-directory to spill to");
+        }
+        DispatchQueue.Settings dispatch = new DispatchQueue.Settings(
+                setting(name, "dispatch.max-in-flight", Integer.class, Math.max(1, maxConcurrentCalls / 2)),
+                setting(name, "dispatch.queue-capacity", Integer.class, 1000),
+                overflowPolicy,
+                spillDirectory.isBlank() ? null : Path.of(spillDirectory),
+                replayCredentials,
+                setting(name, "dispatch.shutdown-timeout", Duration.class, Duration.ofSeconds(20)));
+        Downstream downstream = new Downstream(name, webClient, circuitBreaker, maxConcurrentCalls, timeout,
+                setting(name, "retry.max-retries", Integer.class, 1),
+                setting(name, "retry.backoff", Duration.class, Duration.ofMillis(100)),
+                dispatch, meterRegistry, latencyHistograms);
+        downstreams.add(downstream);
+        return downstream;
+    }
+
+    /** Re-submit requests that were spilled to disk while a downstream was overloaded or unavailable. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${http.client.dispatch-replay-interval-ms:30000}",
+               initialDelayString = "${http.client.dispatch-replay-interval-ms:30000}")
+    public void replaySpilled() {
+        downstreams.forEach(downstream -> downstream.dispatchQueue().replaySpilled());
+    }
+
+    private <T> T setting(String downstream, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("http.client.downstreams." + downstream + "." + key, type);
+        return value != null ? value : environment.getProperty("http.client.defaults." + key, type, defaultValue);
+    }
+
+    /**
+     * Drain dispatch queues before the connection pools go away. The web server has already stopped
+     * taking requests by now when graceful shutdown is enabled.
+     */
+    @Override
+    public void destroy() {
+        downstreams.forEach(downstream -> downstream.dispatchQueue().shutdown());
+        providers.forEach(provider -> provider.disposeLater().block(Duration.ofSeconds(5)));
+    }
+}
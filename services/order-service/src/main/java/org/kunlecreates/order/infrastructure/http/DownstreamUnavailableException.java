@@ -0,0 +1,18 @@
+package org.kunlecreates.order.infrastructure.http;
+
+/**
+ * Raised without making a request when a downstream's circuit breaker is open or its bulkhead is full.
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+
+    private final String downstream;
+
+    public DownstreamUnavailableException(String downstream, String reason) {
+        super(downstream + " unavailable: " + reason);
+        this.downstream = downstream;
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+}
@@ -0,0 +1,21 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(CartCheckoutEvent.NAME)
+@Label("Cart Checkout")
+@Description("CartService.checkout, to the end of its transaction")
+public class CartCheckoutEvent extends OperationEvent {
+    public static final String NAME = "shopease.order.CartCheckout";
+
+    @Label("Cart ID")
+    public long cartId;
+
+    @Label("Order ID")
+    public long orderId;
+
+    @Label("Item Count")
+    public int itemCount;
+}
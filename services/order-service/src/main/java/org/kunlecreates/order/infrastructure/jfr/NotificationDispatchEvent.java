@@ -0,0 +1,18 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(NotificationDispatchEvent.NAME)
+@Label("Notification Dispatch")
+@Description("NotificationClient handing one email to the notification-service dispatch queue")
+public class NotificationDispatchEvent extends OperationEvent {
+    public static final String NAME = "shopease.order.NotificationDispatch";
+
+    @Label("Notification")
+    public String notification;
+
+    @Label("Order ID")
+    public long orderId;
+}
@@ -0,0 +1,19 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the order-service Flight Recorder events. The event's duration is the operation's;
+ * {@link #outcome} says how it ended. Stack traces are off to keep the events cheap enough to
+ * leave enabled under production load; the thread and timestamps locate them in a recording.
+ */
+@Category({"ShopEase", "Order Service"})
+@StackTrace(false)
+public abstract class OperationEvent extends Event {
+
+    @Label("Outcome")
+    public String outcome;
+}
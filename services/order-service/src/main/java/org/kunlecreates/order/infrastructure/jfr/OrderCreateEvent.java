@@ -0,0 +1,21 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(OrderCreateEvent.NAME)
+@Label("Order Create")
+@Description("OrderService.createOrder, to the end of its transaction")
+public class OrderCreateEvent extends OperationEvent {
+    public static final String NAME = "shopease.order.Create";
+
+    @Label("Order ID")
+    public long orderId;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Status")
+    public String status;
+}
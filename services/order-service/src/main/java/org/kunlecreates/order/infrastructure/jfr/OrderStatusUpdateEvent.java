@@ -0,0 +1,24 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(OrderStatusUpdateEvent.NAME)
+@Label("Order Status Update")
+@Description("OrderService.updateStatus, to the end of its transaction")
+public class OrderStatusUpdateEvent extends OperationEvent {
+    public static final String NAME = "shopease.order.StatusUpdate";
+
+    @Label("Order ID")
+    public long orderId;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("From Status")
+    public String fromStatus;
+
+    @Label("To Status")
+    public String toStatus;
+}
@@ -0,0 +1,18 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(StockAdjustmentEvent.NAME)
+@Label("Stock Adjustment")
+@Description("ProductServiceClient.adjustStock handing one adjustment to the product-service dispatch queue")
+public class StockAdjustmentEvent extends OperationEvent {
+    public static final String NAME = "shopease.order.StockAdjustment";
+
+    @Label("SKU")
+    public String sku;
+
+    @Label("Delta")
+    public int delta;
+}
@@ -1,48 +1,36 @@
 package org.kunlecreates.order.infrastructure.notification;
 
-import org.kunlecreates.order.domain.Order;
-import org.kunlecreates.order.domain.OrderItem;
-import org.kunlecreates.order.repository.OrderItemRepository;
+import org.kunlecreates.order.infrastructure.http.DispatchRequest;
+import org.kunlecreates.order.infrastructure.http.Downstream;
+import org.kunlecreates.order.infrastructure.http.DownstreamClients;
+import org.kunlecreates.order.infrastructure.jfr.NotificationDispatchEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Component
 public class NotificationClient {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificationClient.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM dd, yyyy HH:mm:ss z")
-            .withZone(ZoneId.systemDefault());
     
-    private final WebClient webClient;
+    private final Downstream downstream;
     private final JwtDecoder jwtDecoder;
-    private final OrderItemRepository orderItemRepository;
     private final boolean enabled;
     
     public NotificationClient(
             @Value("${notification.service.url:http://localhost:8003}") String notificationServiceUrl,
             @Value("${notification.service.enabled:true}") boolean enabled,
-            WebClient.Builder webClientBuilder,
-            JwtDecoder jwtDecoder,
-            OrderItemRepository orderItemRepository
+            DownstreamClients downstreamClients,
+            JwtDecoder jwtDecoder
     ) {
-        this.webClient = webClientBuilder
-                .baseUrl(notificationServiceUrl)
-                .build();
+        this.downstream = downstreamClients.create("notification-service", notificationServiceUrl);
         this.jwtDecoder = jwtDecoder;
-        this.orderItemRepository = orderItemRepository;
         this.enabled = enabled;
         logger.info("NotificationClient initialized with URL: {} (enabled: {})", notificationServiceUrl, enabled);
     }
@@ -102,12 +90,12 @@ public class NotificationClient {
      * Prefers the email stored on the order (set at creation time from the customer's JWT),
      * falls back to extracting from the provided JWT for backwards compatibility.
      */
-    private String resolveCustomerEmail(Order order, String jwtToken) {
-        String stored = order.getCustomerEmail();
+    private String resolveCustomerEmail(OrderSnapshot order, String jwtToken) {
+        String stored = order.customerEmail();
         if (stored != null && !stored.isEmpty()) {
             return stored;
         }
-        logger.warn("Order {} has no stored customer email, falling back to JWT extraction", order.getId());
+        logger.warn("Order {} has no stored customer email, falling back to JWT extraction", order.orderId());
         return extractEmailFromJwt(jwtToken);
     }
 
@@ -115,13 +103,13 @@ public class NotificationClient {
      * Resolve the customer display name for notifications.
      * Prefers the name stored on the order, falls back to JWT extraction or shipping recipient.
      */
-    private String resolveCustomerName(Order order, String jwtToken) {
-        String stored = order.getCustomerName();
+    private String resolveCustomerName(OrderSnapshot order, String jwtToken) {
+        String stored = order.customerName();
         if (stored != null && !stored.isEmpty() && !stored.equals("Customer")) {
             return stored;
         }
         // Try shipping recipient as a human-readable fallback
-        String recipient = order.getShippingRecipient();
+        String recipient = order.shippingRecipient();
         if (recipient != null && !recipient.isEmpty()) {
             return recipient;
         }
@@ -130,9 +118,9 @@ public class NotificationClient {
 
     /**
      * Send order confirmation email
-     * Extracts customer name and email from JWT token claims
+     * Uses the line items captured in the snapshot; customer details fall back to JWT claims
      */
-    public void sendOrderConfirmation(Order order, String jwtToken) {
+    public void sendOrderConfirmation(OrderSnapshot order, String jwtToken) {
         if (!enabled) {
             logger.debug("Notification service disabled, skipping order confirmation email");
             return;
@@ -142,50 +130,32 @@ public class NotificationClient {
             String userEmail = resolveCustomerEmail(order, jwtToken);
             String customerName = resolveCustomerName(order, jwtToken);
             
-            // Fetch order items from database
-            List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
-            List<OrderItemDto> itemDtos = orderItems.stream()
-                    .map(item -> new OrderItemDto(
-                            item.getProductName() != null ? item.getProductName() : item.getProductRef(),
-                            item.getQuantity(),
-                            item.getUnitPriceCents() / 100.0
-                    ))
-                    .collect(Collectors.toList());
-            
-            logger.debug("Fetched {} order items for order {}", itemDtos.size(), order.getId());
-            
             OrderConfirmationRequest request = new OrderConfirmationRequest(
-                    order.getId().intValue(),
+                    order.orderId().intValue(),
                     customerName,
                     userEmail,
-                    order.getTotal(),
-                    itemDtos,
-                    formatInstant(order.getCreatedAt())
+                    order.total(),
+                    order.items(),
+                    order.orderDate()
             );
             
-            webClient.post()
-                    .uri("/api/notification/order-confirmation")
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmailResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnSuccess(response -> logger.info("Order confirmation email sent for order {}: {}", 
-                            order.getId(), response.message_id()))
-                    .doOnError(error -> logger.error("Failed to send order confirmation email for order {}: {}", 
-                            order.getId(), error.getMessage()))
-                    .onErrorResume(throwable -> Mono.empty())
-                    .subscribe();
+            send("/api/notification/order-confirmation", request, jwtToken, order.orderId(), "order confirmation");
                     
         } catch (Exception e) {
-            logger.error("Error sending order confirmation for order {}: {}", order.getId(), e.getMessage());
+            logger.error("Error sending order confirmation for order {}: {}", order.orderId(), e.getMessage());
         }
     }
     
     /**
      * Send shipping notification email
      */
-    public void sendShippingNotification(Order order, String trackingNumber, String estimatedDelivery, String jwtToken) {
+    public void sendShippingNotification(OrderSnapshot order, String trackingNumber, String estimatedDelivery, String jwtToken) {
+        sendShippingNotification(order, trackingNumber, estimatedDelivery, List.of(), jwtToken);
+    }
+
+    /** @param superseded earlier statuses this notification stands in for, oldest first */
+    public void sendShippingNotification(OrderSnapshot order, String trackingNumber, String estimatedDelivery,
+                                         List<String> superseded, String jwtToken) {
         if (!enabled) {
             logger.debug("Notification service disabled, skipping shipping notification email");
             return;
@@ -196,36 +166,30 @@ public class NotificationClient {
             String customerName = resolveCustomerName(order, jwtToken);
             
             ShippingNotificationRequest request = new ShippingNotificationRequest(
-                    order.getId().intValue(),
+                    order.orderId().intValue(),
                     customerName,
                     userEmail,
                     trackingNumber,
-                    estimatedDelivery
+                    estimatedDelivery,
+                    superseded
             );
             
-            webClient.post()
-                    .uri("/api/notification/shipping")
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmailResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnSuccess(response -> logger.info("Shipping notification email sent for order {}: {}", 
-                            order.getId(), response.message_id()))
-                    .doOnError(error -> logger.error("Failed to send shipping notification email for order {}: {}", 
-                            order.getId(), error.getMessage()))
-                    .onErrorResume(throwable -> Mono.empty())
-                    .subscribe();
+            send("/api/notification/shipping", request, jwtToken, order.orderId(), "shipping notification");
                     
         } catch (Exception e) {
-            logger.error("Error sending shipping notification for order {}: {}", order.getId(), e.getMessage());
+            logger.error("Error sending shipping notification for order {}: {}", order.orderId(), e.getMessage());
         }
     }
     
     /**
      * Send payment confirmation email
      */
-    public void sendOrderPaidNotification(Order order, String jwtToken) {
+    public void sendOrderPaidNotification(OrderSnapshot order, String jwtToken) {
+        sendOrderPaidNotification(order, List.of(), jwtToken);
+    }
+
+    /** @param superseded earlier statuses this notification stands in for, oldest first */
+    public void sendOrderPaidNotification(OrderSnapshot order, List<String> superseded, String jwtToken) {
         if (!enabled) {
             logger.debug("Notification service disabled, skipping payment confirmation email");
             return;
@@ -236,35 +200,29 @@ public class NotificationClient {
             String customerName = resolveCustomerName(order, jwtToken);
             
             OrderPaidRequest request = new OrderPaidRequest(
-                    order.getId().intValue(),
+                    order.orderId().intValue(),
                     customerName,
                     userEmail,
-                    order.getTotal()
+                    order.total(),
+                    superseded
             );
             
-            webClient.post()
-                    .uri("/api/notification/order-paid")
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmailResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnSuccess(response -> logger.info("Payment confirmation email sent for order {}: {}", 
-                            order.getId(), response.message_id()))
-                    .doOnError(error -> logger.error("Failed to send payment confirmation email for order {}: {}", 
-                            order.getId(), error.getMessage()))
-                    .onErrorResume(throwable -> Mono.empty())
-                    .subscribe();
+            send("/api/notification/order-paid", request, jwtToken, order.orderId(), "payment confirmation");
                     
         } catch (Exception e) {
-            logger.error("Error sending payment confirmation for order {}: {}", order.getId(), e.getMessage());
+            logger.error("Error sending payment confirmation for order {}: {}", order.orderId(), e.getMessage());
         }
     }
     
     /**
      * Send delivery confirmation email
      */
-    public void sendOrderDeliveredNotification(Order order, String jwtToken) {
+    public void sendOrderDeliveredNotification(OrderSnapshot order, String jwtToken) {
+        sendOrderDeliveredNotification(order, List.of(), jwtToken);
+    }
+
+    /** @param superseded earlier statuses this notification stands in for, oldest first */
+    public void sendOrderDeliveredNotification(OrderSnapshot order, List<String> superseded, String jwtToken) {
         if (!enabled) {
             logger.debug("Notification service disabled, skipping delivery confirmation email");
             return;
@@ -275,34 +233,28 @@ public class NotificationClient {
             String customerName = resolveCustomerName(order, jwtToken);
             
             OrderDeliveredRequest request = new OrderDeliveredRequest(
-                    order.getId().intValue(),
+                    order.orderId().intValue(),
                     customerName,
-                    userEmail
+                    userEmail,
+                    superseded
             );
             
-            webClient.post()
-                    .uri("/api/notification/order-delivered")
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmailResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnSuccess(response -> logger.info("Delivery confirmation email sent for order {}: {}", 
-                            order.getId(), response.message_id()))
-                    .doOnError(error -> logger.error("Failed to send delivery confirmation email for order {}: {}", 
-                            order.getId(), error.getMessage()))
-                    .onErrorResume(throwable -> Mono.empty())
-                    .subscribe();
+            send("/api/notification/order-delivered", request, jwtToken, order.orderId(), "delivery confirmation");
                     
         } catch (Exception e) {
-            logger.error("Error sending delivery confirmation for order {}: {}", order.getId(), e.getMessage());
+            logger.error("Error sending delivery confirmation for order {}: {}", order.orderId(), e.getMessage());
         }
     }
     
     /**
      * Send cancellation notification email
      */
-    public void sendOrderCancelledNotification(Order order, String jwtToken) {
+    public void sendOrderCancelledNotification(OrderSnapshot order, String jwtToken) {
+        sendOrderCancelledNotification(order, List.of(), jwtToken);
+    }
+
+    /** @param superseded earlier statuses this notification stands in for, oldest first */
+    public void sendOrderCancelledNotification(OrderSnapshot order, List<String> superseded, String jwtToken) {
         if (!enabled) {
             logger.debug("Notification service disabled, skipping cancellation notification email");
             return;
@@ -313,34 +265,28 @@ public class NotificationClient {
             String customerName = resolveCustomerName(order, jwtToken);
             
             OrderCancelledRequest request = new OrderCancelledRequest(
-                    order.getId().intValue(),
+                    order.orderId().intValue(),
                     customerName,
-                    userEmail
+                    userEmail,
+                    superseded
             );
             
-            webClient.post()
-                    .uri("/api/notification/order-cancelled")
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmailResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnSuccess(response -> logger.info("Cancellation notification email sent for order {}: {}", 
-                            order.getId(), response.message_id()))
-                    .doOnError(error -> logger.error("Failed to send cancellation notification email for order {}: {}", 
-                            order.getId(), error.getMessage()))
-                    .onErrorResume(throwable -> Mono.empty())
-                    .subscribe();
+            send("/api/notification/order-cancelled", request, jwtToken, order.orderId(), "cancellation notification");
                     
         } catch (Exception e) {
-            logger.error("Error sending cancellation notification for order {}: {}", order.getId(), e.getMessage());
+            logger.error("Error sending cancellation notification for order {}: {}", order.orderId(), e.getMessage());
         }
     }
     
     /**
      * Send refund confirmation email
      */
-    public void sendOrderRefundedNotification(Order order, String jwtToken) {
+    public void sendOrderRefundedNotification(OrderSnapshot order, String jwtToken) {
+        sendOrderRefundedNotification(order, List.of(), jwtToken);
+    }
+
+    /** @param superseded earlier statuses this notification stands in for, oldest first */
+    public void sendOrderRefundedNotification(OrderSnapshot order, List<String> superseded, String jwtToken) {
         if (!enabled) {
             logger.debug("Notification service disabled, skipping refund confirmation email");
             return;
@@ -351,35 +297,42 @@ public class NotificationClient {
             String customerName = resolveCustomerName(order, jwtToken);
             
             OrderRefundedRequest request = new OrderRefundedRequest(
-                    order.getId().intValue(),
+                    order.orderId().intValue(),
                     customerName,
                     userEmail,
-                    order.getTotal()
+                    order.total(),
+                    superseded
             );
             
-            webClient.post()
-                    .uri("/api/notification/order-refunded")
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmailResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnSuccess(response -> logger.info("Refund confirmation email sent for order {}: {}", 
-                            order.getId(), response.message_id()))
-                    .doOnError(error -> logger.error("Failed to send refund confirmation email for order {}: {}", 
-                            order.getId(), error.getMessage()))
-                    .onErrorResume(throwable -> Mono.empty())
-                    .subscribe();
+            send("/api/notification/order-refunded", request, jwtToken, order.orderId(), "refund confirmation");
                     
         } catch (Exception e) {
-            logger.error("Error sending refund confirmation for order {}: {}", order.getId(), e.getMessage());
+            logger.error("Error sending refund confirmation for order {}: {}", order.orderId(), e.getMessage());
         }
     }
     
-    private String formatInstant(Instant instant) {
-        return DATE_FORMATTER.format(instant);
+    /**
+     * Queue one notification on the notification-service dispatch queue. Fire-and-forget:
+     * delivery failures and queue overflow are logged by the queue.
+     */
+    private void send(String path, Object request, String jwtToken, Long orderId, String description) {
+        NotificationDispatchEvent event = new NotificationDispatchEvent();
+        event.begin();
+        boolean queued = downstream.dispatch(new DispatchRequest(
+                description + " email for order " + orderId,
+                "POST",
+                path,
+                List.of(),
+                Map.of("Authorization", "Bearer " + jwtToken),
+                request));
+        if (event.shouldCommit()) {
+            event.notification = description;
+            event.orderId = orderId != null ? orderId : 0;
+            event.outcome = queued ? "queued" : "refused";
+            event.commit();
+        }
     }
-    
+
     record OrderConfirmationRequest(
             Integer order_id,
             String customer_name,
@@ -400,38 +353,37 @@ public class NotificationClient {
             String customer_name,
             String customer_email,
             String tracking_number,
-            String estimated_delivery
+            String estimated_delivery,
+            List<String> superseded
     ) {}
     
     record OrderPaidRequest(
             Integer order_id,
             String customer_name,
             String customer_email,
-            Double order_total
+            Double order_total,
+            List<String> superseded
     ) {}
     
     record OrderDeliveredRequest(
             Integer order_id,
             String customer_name,
-            String customer_email
+            String customer_email,
+            List<String> superseded
     ) {}
     
     record OrderCancelledRequest(
             Integer order_id,
             String customer_name,
-            String customer_email
+            String customer_email,
+            List<String> superseded
     ) {}
     
     record OrderRefundedRequest(
             Integer order_id,
             String customer_name,
             String customer_email,
-            Double refund_amount
-    ) {}
-    
-    record EmailResponse(
-            String message_id,
-            String status,
-            String recipient
+            Double refund_amount,
+            List<String> superseded
     ) {}
 }
@@ -0,0 +1,84 @@
+package org.kunlecreates.order.infrastructure.notification;
+
+import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderItem;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of an order holding everything a notification payload needs.
+ *
+ * Callers build it from the order and items they have already loaded, so sending a
+ * notification does not read the order again. The item DTOs and the formatted order date
+ * are computed once here and shared by every payload built from the snapshot.
+ */
+public final class OrderSnapshot {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM dd, yyyy HH:mm:ss z")
+            .withZone(ZoneId.systemDefault());
+
+    private final Long orderId;
+    private final String customerEmail;
+    private final String customerName;
+    private final String shippingRecipient;
+    private final Double total;
+    private final String orderDate;
+    private final List<NotificationClient.OrderItemDto> items;
+
+    private OrderSnapshot(Long orderId, String customerEmail, String customerName, String shippingRecipient,
+                          Double total, String orderDate, List<NotificationClient.OrderItemDto> items) {
+        this.orderId = orderId;
+        this.customerEmail = customerEmail;
+        this.customerName = customerName;
+        this.shippingRecipient = shippingRecipient;
+        this.total = total;
+        this.orderDate = orderDate;
+        this.items = items;
+    }
+
+    /** Snapshot without line items, for status notifications that do not list them. */
+    public static OrderSnapshot of(Order order) {
+        return of(order, List.of());
+    }
+
+    public static OrderSnapshot of(Order order, List<OrderItem> items) {
+        List<NotificationClient.OrderItemDto> dtos;
+        if (items.isEmpty()) {
+            dtos = List.of();
+        } else {
+            dtos = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                dtos.add(new NotificationClient.OrderItemDto(
+                        item.getProductName() != null ? item.getProductName() : item.getProductRef(),
+                        item.getQuantity(),
+                        item.getUnitPriceCents() / 100.0));
+            }
+            dtos = Collections.unmodifiableList(dtos);
+        }
+        return new OrderSnapshot(
+                order.getId(),
+                order.getCustomerEmail(),
+                order.getCustomerName(),
+                order.getShippingRecipient(),
+                order.getTotal(),
+                format(order.getCreatedAt()),
+                dtos);
+    }
+
+    private static String format(Instant instant) {
+        return instant == null ? null : DATE_FORMATTER.format(instant);
+    }
+
+    public Long orderId() { return orderId; }
+    public String customerEmail() { return customerEmail; }
+    public String customerName() { return customerName; }
+    public String shippingRecipient() { return shippingRecipient; }
+    public Double total() { return total; }
+    public String orderDate() { return orderDate; }
+    List<NotificationClient.OrderItemDto> items() { return items; }
+}
@@ -0,0 +1,223 @@
+package org.kunlecreates.order.infrastructure.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kunlecreates.order.domain.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds order status notifications for a quiet window and sends only the latest one per order.
+ *
+ * An order pushed through PAID and CANCELLED within the window produces a single cancellation
+ * email; the superseded statuses are kept on the pending entry, logged and sent in the
+ * notification's {@code superseded} field. Every new status restarts the order's window.
+ * SHIPPED is never superseded, since only its email carries the tracking details: a later status
+ * sends the waiting SHIPPED notification at once and starts a window of its own, so PAID, SHIPPED
+ * and DELIVERED in quick succession produce a shipping and a delivery email.
+ *
+ * Deadlines live on a hashed timing wheel driven by one ticker thread, so pending orders cost a
+ * map entry and a queue slot each rather than a scheduled task. A status that extends an order's
+ * window does not move its entry; the entry is re-bucketed lazily when its old slot comes round.
+ */
+@Component
+public class StatusNotificationCoalescer implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusNotificationCoalescer.class);
+
+    private final NotificationClient notificationClient;
+    private final long windowTicks;
+    private final Queue<Pending>[] wheel;
+    private final int mask;
+    private final AtomicLong currentTick = new AtomicLong();
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final ScheduledExecutorService ticker;
+
+    @Autowired
+    public StatusNotificationCoalescer(
+            NotificationClient notificationClient,
+            MeterRegistry meterRegistry,
+            @Value("${notification.coalescing.quiet-window:PT10S}") Duration quietWindow,
+            @Value("${notification.coalescing.tick:PT0.1S}") Duration tick,
+            @Value("${notification.coalescing.wheel-size:512}") int wheelSize) {
+        this(notificationClient, meterRegistry, quietWindow, tick, wheelSize, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    StatusNotificationCoalescer(NotificationClient notificationClient, MeterRegistry meterRegistry,
+                                Duration quietWindow, Duration tick, int wheelSize, boolean startTicker) {
+        this.notificationClient = notificationClient;
+        this.windowTicks = quietWindow.isZero() ? 0 : Math.max(1, quietWindow.toMillis() / Math.max(1, tick.toMillis()));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.coalesced = Counter.builder("notification.coalesced")
+                .description("Status notifications superseded by a later status for the same order")
+                .register(meterRegistry);
+        Gauge.builder("notification.coalescing.pending", pending, ConcurrentHashMap::size).register(meterRegistry);
+        if (startTicker && windowTicks > 0) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "notification-coalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long tickMillis = Math.max(1, tick.toMillis());
+            ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    /** Details that only the SHIPPED notification carries. */
+    public record Shipment(String trackingNumber, String estimatedDelivery) {}
+
+    /**
+     * Record a status change. Statuses without a customer email are ignored; the rest replace any
+     * status still waiting for this order and restart its quiet window.
+     */
+    public void submit(OrderStatus status, OrderSnapshot snapshot, Shipment shipment, String jwtToken) {
+        if (!isNotified(status)) {
+            return;
+        }
+        if (windowTicks == 0) {
+            send(new Pending(snapshot.orderId(), status, snapshot, shipment, jwtToken));
+            return;
+        }
+        long deadline = currentTick.get() + windowTicks;
+        Pending[] shipped = new Pending[1];
+        pending.compute(snapshot.orderId(), (orderId, existing) -> {
+            if (existing == null || existing.status == OrderStatus.SHIPPED) {
+                shipped[0] = existing;
+                Pending created = new Pending(orderId, status, snapshot, shipment, jwtToken);
+                created.deadline = deadline;
+                wheel[(int) (deadline & mask)].add(created);
+                return created;
+            }
+            existing.superseded.add(existing.status);
+            existing.status = status;
+            existing.snapshot = snapshot;
+            existing.shipment = shipment;
+            existing.jwtToken = jwtToken;
+            existing.deadline = deadline;
+            coalesced.increment();
+            return existing;
+        });
+        if (shipped[0] != null) {
+            send(shipped[0]);
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /** Advance the wheel by one tick and send every entry whose quiet window has ended. */
+    void advance() {
+        long now = currentTick.incrementAndGet();
+        Queue<Pending> bucket = wheel[(int) (now & mask)];
+        // Only look at entries present now; ones re-added to this slot belong to a later round
+        for (int n = bucket.size(); n > 0; n--) {
+            Pending entry = bucket.poll();
+            if (entry == null) {
+                break;
+            }
+            Pending[] due = new Pending[1];
+            pending.computeIfPresent(entry.orderId, (orderId, current) -> {
+                if (current != entry) {
+                    return current;
+                }
+                if (current.deadline > now) {
+                    wheel[(int) (current.deadline & mask)].add(current);
+                    return current;
+                }
+                due[0] = current;
+                return null;
+            });
+            if (due[0] != null) {
+                send(due[0]);
+            }
+        }
+    }
+
+    /** Send everything still waiting; called on shutdown so no status is lost. */
+    public void flushAll() {
+        for (Long orderId : new ArrayList<>(pending.keySet())) {
+            Pending entry = pending.remove(orderId);
+            if (entry != null) {
+                send(entry);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        flushAll();
+    }
+
+    private void send(Pending entry) {
+        if (!entry.superseded.isEmpty()) {
+            logger.info("Order {} moved through {} before settling on {}; sending one notification",
+                    entry.orderId, entry.superseded, entry.status);
+        }
+        List<String> superseded = entry.superseded.stream().map(OrderStatus::getValue).toList();
+        try {
+            switch (entry.status) {
+                case PAID -> notificationClient.sendOrderPaidNotification(entry.snapshot, superseded, entry.jwtToken);
+                case SHIPPED -> notificationClient.sendShippingNotification(entry.snapshot,
+                        entry.shipment.trackingNumber(), entry.shipment.estimatedDelivery(), superseded, entry.jwtToken);
+                case DELIVERED -> notificationClient.sendOrderDeliveredNotification(entry.snapshot, superseded, entry.jwtToken);
+                case CANCELLED -> notificationClient.sendOrderCancelledNotification(entry.snapshot, superseded, entry.jwtToken);
+                case REFUNDED -> notificationClient.sendOrderRefundedNotification(entry.snapshot, superseded, entry.jwtToken);
+                default -> { }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to send {} notification for order {}: {}", entry.status, entry.orderId, e.getMessage());
+        }
+    }
+
+    private static boolean isNotified(OrderStatus status) {
+        return status != OrderStatus.PENDING;
+    }
+
+    /** Mutable per-order state; only touched inside the map's compute functions or after removal. */
+    private static final class Pending {
+        final Long orderId;
+        final List<OrderStatus> superseded = new ArrayList<>(2);
+        OrderStatus status;
+        OrderSnapshot snapshot;
+        Shipment shipment;
+        String jwtToken;
+        long deadline;
+
+        Pending(Long orderId, OrderStatus status, OrderSnapshot snapshot, Shipment shipment, String jwtToken) {
+            this.orderId = orderId;
+            this.status = status;
+            this.snapshot = snapshot;
+            this.shipment = shipment;
+            this.jwtToken = jwtToken;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.kunlecreates.order.infrastructure.product;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process snapshot of the product catalog (SKU to name, price and active flag).
+ *
+ * The snapshot is loaded in bulk from product-service and then refreshed incrementally using an
+ * (updatedAt, sku) cursor. Each refresh builds a new immutable map and publishes it with a single
+ * reference swap, so lookups never lock and never make a network call. A periodic full reload
+ * picks up products that were deleted rather than deactivated.
+ */
+@Component
+public class ProductCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private final ProductServiceClient productServiceClient;
+    private final int pageSize;
+    private final Duration fullReloadInterval;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    public ProductCatalog(
+            ProductServiceClient productServiceClient,
+            @Value("${product.catalog.page-size:500}") int pageSize,
+            @Value("${product.catalog.full-reload-interval:PT1H}") Duration fullReloadInterval) {
+        this.productServiceClient = productServiceClient;
+        this.pageSize = pageSize;
+        this.fullReloadInterval = fullReloadInterval;
+    }
+
+    /** A catalog entry as of the last refresh. */
+    public record Product(String sku, String name, long priceCents, String currency, boolean active) {}
+
+    /**
+     * True once a full load has succeeded. Until then callers should fall back to
+     * client-supplied data instead of rejecting unknown SKUs.
+     */
+    public boolean isLoaded() {
+        return snapshot.get().loadedAt != null;
+    }
+
+    public Optional<Product> find(String sku) {
+        return Optional.ofNullable(snapshot.get().products.get(sku));
+    }
+
+    public int size() {
+        return snapshot.get().products.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<String, Product> products = new HashMap<>();
+        Cursor cursor = drain(products, null);
+        if (cursor == null) {
+            logger.warn("Product catalog snapshot could not be loaded; SKU and price validation is disabled");
+            return;
+        }
+        snapshot.set(new Snapshot(Collections.unmodifiableMap(products), cursor, Instant.now()));
+        logger.info("Loaded product catalog snapshot with {} products", products.size());
+    }
+
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval-ms:30000}",
+               initialDelayString = "${product.catalog.refresh-interval-ms:30000}")
+    public void refresh() {
+        Snapshot current = snapshot.get();
+        if (current.loadedAt == null || current.loadedAt.plus(fullReloadInterval).isBefore(Instant.now())) {
+            load();
+            return;
+        }
+        Map<String, Product> changes = new HashMap<>();
+        Cursor cursor = drain(changes, current.cursor);
+        if (cursor == null || changes.isEmpty()) {
+            return;
+        }
+        Map<String, Product> next = new HashMap<>(current.products);
+        next.putAll(changes);
+        snapshot.set(new Snapshot(Collections.unmodifiableMap(next), cursor, current.loadedAt));
+        logger.debug("Applied {} product catalog changes", changes.size());
+    }
+
+    /**
+     * Read pages after {@code from} into {@code into} until a short page is returned.
+     * @return the cursor after the last row read, or null if any page failed
+     */
+    private Cursor drain(Map<String, Product> into, Cursor from) {
+        Cursor cursor = from;
+        while (true) {
+            List<ProductServiceClient.CatalogItem> page = productServiceClient.fetchCatalogPage(
+                    cursor == null ? null : cursor.updatedAt,
+                    cursor == null ? null : cursor.sku,
+                    pageSize);
+            if (page == null) {
+                return null;
+            }
+            for (ProductServiceClient.CatalogItem item : page) {
+                into.put(item.sku(), new Product(item.sku(), item.name(),
+                        item.priceCents() == null ? 0L : item.priceCents(),
+                        item.currency(),
+                        !Boolean.FALSE.equals(item.active())));
+            }
+            if (!page.isEmpty()) {
+                ProductServiceClient.CatalogItem last = page.get(page.size() - 1);
+                cursor = new Cursor(last.updatedAt(), last.sku());
+            }
+            if (page.size() < pageSize) {
+                return cursor == null ? Cursor.START : cursor;
+            }
+        }
+    }
+
+    private record Cursor(Instant updatedAt, String sku) {
+        static final Cursor START = new Cursor(null, null);
+    }
+
+    private record Snapshot(Map<String, Product> products, Cursor cursor, Instant loadedAt) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), null, null);
+    }
+}
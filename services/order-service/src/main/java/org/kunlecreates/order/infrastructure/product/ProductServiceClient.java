@@ -1,13 +1,19 @@
 package org.kunlecreates.order.infrastructure.product;
 
+import org.kunlecreates.order.infrastructure.http.DispatchRequest;
+import org.kunlecreates.order.infrastructure.http.Downstream;
+import org.kunlecreates.order.infrastructure.http.DownstreamClients;
+import org.kunlecreates.order.infrastructure.jfr.StockAdjustmentEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +26,7 @@ public class ProductServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceClient.class);
 
+    private final Downstream downstream;
     private final WebClient webClient;
     private final String internalApiKey;
     private final boolean enabled;
@@ -28,9 +35,11 @@ public class ProductServiceClient {
             @Value("${product.service.url:http://localhost:8081}") String productServiceUrl,
             @Value("${product.service.internal-api-key:}") String internalApiKey,
             @Value("${product.service.enabled:true}") boolean enabled,
-            WebClient.Builder webClientBuilder
+            DownstreamClients downstreamClients
     ) {
-        this.webClient = webClientBuilder.baseUrl(productServiceUrl).build();
+        this.downstream = downstreamClients.create("product-service", productServiceUrl,
+                internalApiKey == null || internalApiKey.isBlank() ? Map.of() : Map.of("X-Internal-Api-Key", internalApiKey));
+        this.webClient = downstream.webClient();
         this.internalApiKey = internalApiKey;
         this.enabled = enabled;
         logger.info("ProductServiceClient initialized with URL: {} (enabled: {})", productServiceUrl, enabled);
@@ -43,25 +52,198 @@ public class ProductServiceClient {
      * @param reason    Human-readable reason recorded in stock movement history
      */
     public void adjustStock(String sku, int delta, String reason) {
+        StockAdjustmentEvent event = new StockAdjustmentEvent();
+        event.begin();
+        event.sku = sku;
+        event.delta = delta;
         if (!enabled) {
             logger.debug("Product service disabled, skipping stock adjustment for SKU {}", sku);
+            commit(event, "skipped");
             return;
         }
         if (internalApiKey == null || internalApiKey.isBlank()) {
             logger.warn("INTERNAL_SERVICE_API_KEY is not configured — skipping stock adjustment for SKU {}", sku);
+            commit(event, "skipped");
             return;
         }
 
-        webClient.patch()
-                .uri("/api/product/internal/{sku}/stock", sku)
-                .header("X-Internal-Api-Key", internalApiKey)
-                .bodyValue(Map.of("adjustment", delta, "reason", reason))
-                .retrieve()
-                .bodyToMono(Object.class)
-                .timeout(Duration.ofSeconds(5))
-                .doOnSuccess(r -> logger.info("Stock adjusted for SKU {}: delta={}, reason={}", sku, delta, reason))
-                .doOnError(e -> logger.error("Failed to adjust stock for SKU {}: {}", sku, e.getMessage()))
-                .onErrorResume(e -> Mono.empty())
-                .subscribe();
+        boolean queued = downstream.dispatch(new DispatchRequest(
+                "Stock adjustment for SKU " + sku + " (delta=" + delta + ", reason=" + reason + ")",
+                "PATCH",
+                "/api/product/internal/{sku}/stock",
+                List.of(sku),
+                Map.of("X-Internal-Api-Key", internalApiKey),
+                Map.of("adjustment", delta, "reason", reason)));
+        if (!queued) {
+            logger.error("Stock adjustment for SKU {} was refused (delta={}, reason={}); reconcile it by hand",
+                    sku, delta, reason);
+        }
+        commit(event, queued ? "queued" : "refused");
+    }
+
+    private static void commit(StockAdjustmentEvent event, String outcome) {
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
     }
+
+    /**
+     * Reserve stock for every line of an order with one batch call to the product service.
+     * The product service applies the batch atomically, so either all SKUs are decremented or none,
+     * and at most once per {@code requestId}, so the call is retried like an idempotent one.
+     * When the outcome stays unknown (timeouts, 5xx) the batch is cancelled by {@code requestId}:
+     * product-service undoes it if it was applied, or ignores it if it arrives later.
+     * @param requestId  unique to this reservation attempt
+     * @param quantities SKU to quantity to take out of stock
+     * @param reason     Human-readable reason recorded in stock movement history
+     * @return true if stock was reserved; false if the product service is disabled or the outcome
+     *         is unknown, in which case stock is reconciled later when the order is paid
+     * @throws IllegalStateException if the product service rejects the batch (e.g. insufficient stock)
+     */
+    public boolean reserveStock(String requestId, Map<String, Integer> quantities, String reason) {
+        if (!enabled || quantities.isEmpty()) {
+            logger.debug("Product service disabled or nothing to reserve, skipping stock reservation");
+            return false;
+        }
+        if (internalApiKey == null || internalApiKey.isBlank()) {
+            logger.warn("INTERNAL_SERVICE_API_KEY is not configured — skipping stock reservation");
+            return false;
+        }
+
+        try {
+            downstream.idempotentCall(webClient.post()
+                            .uri("/api/product/internal/stock/batch")
+                            .header("X-Internal-Api-Key", internalApiKey)
+                            .bodyValue(batchBody(requestId, quantities, -1, reason))
+                            .retrieve()
+                            .bodyToMono(Object.class))
+                    .block();
+            logger.info("Stock reserved for {} SKUs: reason={}", quantities.size(), reason);
+            return true;
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                throw new IllegalStateException("Unable to reserve stock: " + e.getResponseBodyAsString());
+            }
+            logger.error("Failed to reserve stock ({}), cancelling and deferring to payment: {}", reason, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Failed to reserve stock ({}), cancelling and deferring to payment: {}", reason, e.getMessage());
+        }
+        cancelReservation(requestId, reason + " not confirmed");
+        return false;
+    }
+
+    /**
+     * Undo the reservation made by {@link #reserveStock} with this {@code requestId}, if product-service
+     * applied it, and keep it from being applied later. Fire-and-forget, like {@link #adjustStock}.
+     */
+    public void cancelReservation(String requestId, String reason) {
+        if (!enabled || internalApiKey == null || internalApiKey.isBlank()) {
+            return;
+        }
+        boolean queued = downstream.dispatch(new DispatchRequest(
+                "Stock reservation cancel for " + requestId + " (reason=" + reason + ")",
+                "POST",
+                "/api/product/internal/stock/batch/{requestId}/cancel",
+                List.of(requestId),
+                Map.of("X-Internal-Api-Key", internalApiKey),
+                Map.of("reason", reason)));
+        if (!queued) {
+            logger.error("Cancel of stock reservation {} was refused (reason={}); reconcile it by hand", requestId, reason);
+        }
+    }
+
+    /**
+     * Return previously reserved stock with one batch call. Fire-and-forget, like {@link #adjustStock}.
+     */
+    public void releaseStock(Map<String, Integer> quantities, String reason) {
+        if (!enabled || quantities.isEmpty() || internalApiKey == null || internalApiKey.isBlank()) {
+            return;
+        }
+        downstream.dispatch(new DispatchRequest(
+                "Stock release for " + quantities.size() + " SKUs (reason=" + reason + ")",
+                "POST",
+                "/api/product/internal/stock/batch",
+                List.of(),
+                Map.of("X-Internal-Api-Key", internalApiKey),
+                batchBody(null, quantities, 1, reason)));
+    }
+
+    /**
+     * Fetch current stock levels for all products from the public inventory summary.
+     * Used to seed the in-memory reservation counters; returns an empty map when the
+     * product service is disabled or unreachable so callers can fail open.
+     */
+    public Map<String, Integer> fetchStockLevels() {
+        if (!enabled) {
+            return Map.of();
+        }
+        try {
+            InventorySummary summary = downstream.idempotentCall(webClient.get()
+                            .uri("/api/product/inventory")
+                            .retrieve()
+                            .bodyToMono(InventorySummary.class))
+                    .block();
+            if (summary == null || summary.items() == null) {
+                return Map.of();
+            }
+            Map<String, Integer> levels = new HashMap<>(summary.items().size() * 2);
+            summary.items().stream()
+                    .filter(item -> item.sku() != null && item.stock() != null)
+                    .forEach(item -> levels.put(item.sku(), item.stock()));
+            return levels;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to fetch stock levels from product service: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Fetch one page of catalog changes ordered by (updatedAt, sku), starting after the given cursor.
+     * A null {@code updatedSince} starts from the beginning of the catalog.
+     * @return the page, or null if the product service is disabled or the call failed
+     */
+    List<CatalogItem> fetchCatalogPage(Instant updatedSince, String afterSku, int limit) {
+        if (!enabled || internalApiKey == null || internalApiKey.isBlank()) {
+            return null;
+        }
+        try {
+            return downstream.idempotentCall(webClient.get()
+                            .uri(uri -> {
+                                uri.path("/api/product/internal/catalog").queryParam("limit", limit);
+                                if (updatedSince != null) {
+                                    uri.queryParam("updatedSince", updatedSince.toString())
+                                       .queryParam("afterSku", afterSku);
+                                }
+                                return uri.build();
+                            })
+                            .header("X-Internal-Api-Key", internalApiKey)
+                            .retrieve()
+                            .bodyToFlux(CatalogItem.class)
+                            .collectList())
+                    .block();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to fetch catalog page from product service: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Object> batchBody(String requestId, Map<String, Integer> quantities, int sign, String reason) {
+        List<Map<String, Object>> adjustments = quantities.entrySet().stream()
+                .map(e -> Map.<String, Object>of("sku", e.getKey(), "adjustment", sign * e.getValue()))
+                .toList();
+        Map<String, Object> body = new HashMap<>();
+        body.put("adjustments", adjustments);
+        body.put("reason", reason);
+        if (requestId != null) {
+            body.put("requestId", requestId);
+        }
+        return body;
+    }
+
+    record InventorySummary(Integer total, List<InventoryItem> items) {}
+
+    record InventoryItem(String sku, String name, Integer stock) {}
+
+    record CatalogItem(String sku, String name, Long priceCents, String currency, Boolean active, Instant updatedAt) {}
 }
@@ -0,0 +1,59 @@
+package org.kunlecreates.order.infrastructure.sharding;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work goes to, read by {@link ShardRoutingDataSource}
+ * when a connection is taken.
+ *
+ * A shard must be bound before the transaction that uses it begins: the transaction keeps the
+ * connection it started with, so switching shards inside one would silently keep writing to the
+ * old shard. {@link #callOn} refuses to do that.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /** The bound shard, or null when none is bound. */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(String shard) {
+        CURRENT.set(Objects.requireNonNull(shard, "shard"));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Run {@code work} with {@code shard} bound, then restore whatever was bound before. */
+    public static <T> T callOn(String shard, Supplier<T> work) {
+        String previous = CURRENT.get();
+        if (!shard.equals(previous) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard + " inside a transaction on " + previous);
+        }
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /** Wrap {@code work} so it runs on the shard bound now, on whichever thread calls it. */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        String shard = CURRENT.get();
+        return shard == null ? work : () -> callOn(shard, work);
+    }
+}
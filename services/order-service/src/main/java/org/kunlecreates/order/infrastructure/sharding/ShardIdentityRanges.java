@@ -0,0 +1,58 @@
+package org.kunlecreates.order.infrastructure.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives each shard its own block of IDENTITY values, so order, cart and event ids stay unique
+ * across shards and rows keep their ids when a rebalance copies them to another shard.
+ *
+ * Shard block {@code b} starts at {@code b << 48}: 32768 blocks of 2^48 ids each. Block 0 is left
+ * alone, so the existing database keeps its ids as the first shard. Reseeding only ever moves an
+ * identity forward, so applying it again is a no-op, and tables not created yet are skipped.
+ */
+public class ShardIdentityRanges {
+    private static final Logger logger = LoggerFactory.getLogger(ShardIdentityRanges.class);
+
+    static final int BLOCK_BITS = 48;
+    static final List<String> IDENTITY_TABLES = List.of(
+            "order_svc.carts", "order_svc.cart_items", "order_svc.orders", "order_svc.order_items",
+            "order_svc.payments", "order_svc.payment_transactions", "order_svc.order_events",
+            "order_svc.stock_reservations");
+
+    private final Map<String, DataSource> shards;
+    private final Map<String, Integer> blocks;
+
+    public ShardIdentityRanges(Map<String, DataSource> shards, Map<String, Integer> blocks) {
+        if (blocks.values().stream().distinct().count() != blocks.size()) {
+            throw new IllegalArgumentException("Shards must have distinct id blocks: " + blocks);
+        }
+        this.shards = shards;
+        this.blocks = blocks;
+    }
+
+    public static long blockStart(int block) {
+        return (long) block << BLOCK_BITS;
+    }
+
+    public void apply() {
+        blocks.forEach((shard, block) -> {
+            if (block == 0) {
+                return;
+            }
+            long start = blockStart(block);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+            for (String table : IDENTITY_TABLES) {
+                jdbcTemplate.execute(String.format(
+                        "IF OBJECT_ID('%1$s', 'U') IS NOT NULL AND IDENT_CURRENT('%1$s') < %2$d "
+                        + "DBCC CHECKIDENT ('%1$s', RESEED, %2$d) WITH NO_INFOMSGS", table, start));
+            }
+            logger.info("Shard {} allocates ids from block {} ({})", shard, block, start);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package org.kunlecreates.order.infrastructure.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping a {@code userRef} to a shard name.
+ *
+ * Each shard is placed on the ring at {@code virtualNodes} points, and a key belongs to the first
+ * point at or after its own hash. Adding a shard therefore only moves the keys that land on its
+ * new points (about 1/n of them), and more points per shard even out the share each one gets.
+ * Points are MD5 based, so the mapping is the same on every instance and across restarts.
+ */
+public final class ShardRing {
+
+    private final List<String> shards;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public ShardRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        if (shards.stream().distinct().count() != shards.size()) {
+            throw new IllegalArgumentException("Duplicate shard names: " + shards);
+        }
+        this.shards = List.copyOf(shards);
+        int perShard = Math.max(virtualNodes, 1);
+        for (String shard : this.shards) {
+            for (int node = 0; node < perShard; node++) {
+                points.putIfAbsent(hash(shard + "#" + node), shard);
+            }
+        }
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardFor(String userRef) {
+        Objects.requireNonNull(userRef, "userRef");
+        if (shards.size() == 1) {
+            return shards.getFirst();
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(userRef));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
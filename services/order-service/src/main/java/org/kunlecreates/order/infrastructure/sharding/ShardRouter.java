@@ -0,0 +1,156 @@
+package org.kunlecreates.order.infrastructure.sharding;
+
+import org.kunlecreates.common.web.RequestCost;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Entry point for shard-aware work: which shard owns a {@code userRef}, running work on a shard,
+ * and fanning a query out to every shard.
+ *
+ * Shards come from {@code datasource.shards.names}; with none configured there is one shard,
+ * {@value #DEFAULT_SHARD}, and every method runs inline against the single database, so callers
+ * do not need a separate unsharded path. {@code datasource.shards.target-names} is the ring a
+ * rebalance is moving to; while it is set, users whose owner differs between the two rings are
+ * "moving", and with {@code freeze-moving-users} their writes are refused until the cut-over.
+ */
+@Component
+public class ShardRouter implements DisposableBean {
+
+    public static final String DEFAULT_SHARD = "default";
+    private static final Pattern SHARD_NAME = Pattern.compile("[a-z0-9][a-z0-9-]*");
+
+    private final ShardRing ring;
+    private final ShardRing targetRing;
+    private final boolean freezeMovingUsers;
+    private final ExecutorService fanOutPool;
+
+    public ShardRouter(
+            @Value("${datasource.shards.names:}") List<String> names,
+            @Value("${datasource.shards.target-names:}") List<String> targetNames,
+            @Value("${datasource.shards.virtual-nodes:128}") int virtualNodes,
+            @Value("${datasource.shards.fan-out-threads:8}") int fanOutThreads,
+            @Value("${datasource.shards.freeze-moving-users:false}") boolean freezeMovingUsers) {
+        this.ring = new ShardRing(names.isEmpty() ? List.of(DEFAULT_SHARD) : validated(names), virtualNodes);
+        this.targetRing = targetNames.isEmpty() ? null : new ShardRing(validated(targetNames), virtualNodes);
+        this.freezeMovingUsers = freezeMovingUsers;
+        int threads = Math.min(Math.max(fanOutThreads, 1), allShards().size());
+        this.fanOutPool = allShards().size() == 1 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Shards of the current ring, in configured order; the first is the default. */
+    public List<String> shards() {
+        return ring.shards();
+    }
+
+    /** Current shards followed by any that only the rebalance target adds. */
+    public List<String> allShards() {
+        if (targetRing == null) {
+            return ring.shards();
+        }
+        LinkedHashSet<String> all = new LinkedHashSet<>(ring.shards());
+        all.addAll(targetRing.shards());
+        return List.copyOf(all);
+    }
+
+    public boolean isSharded() {
+        return allShards().size() > 1;
+    }
+
+    public String shardFor(String userRef) {
+        return ring.shardFor(userRef);
+    }
+
+    public Optional<ShardRing> targetRing() {
+        return Optional.ofNullable(targetRing);
+    }
+
+    /** True when a rebalance target is set and it puts this user on another shard. */
+    public boolean isMoving(String userRef) {
+        return targetRing != null && !targetRing.shardFor(userRef).equals(ring.shardFor(userRef));
+    }
+
+    /** True when this user's writes must wait for the rebalance cut-over. */
+    public boolean isFrozen(String userRef) {
+        return freezeMovingUsers && isMoving(userRef);
+    }
+
+    public <T> T onShard(String shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, work);
+    }
+
+    public void onShard(String shard, Runnable work) {
+        ShardContext.callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T forUser(String userRef, Supplier<T> work) {
+        return onShard(shardFor(userRef), work);
+    }
+
+    /** Run {@code work} on each current shard in turn, e.g. for scheduled maintenance. */
+    public <T> List<T> eachShard(Supplier<T> work) {
+        List<T> results = new ArrayList<>(shards().size());
+        for (String shard : shards()) {
+            results.add(onShard(shard, work));
+        }
+        return results;
+    }
+
+    /**
+     * Run {@code work} on every current shard in parallel and return the results in shard order.
+     * The calling thread must not be inside a transaction; each shard's work opens its own.
+     * The first failure is rethrown once all shards have finished.
+     */
+    public <T> List<T> fanOut(Supplier<T> work) {
+        if (fanOutPool == null) {
+            return List.of(onShard(shards().getFirst(), work));
+        }
+        List<CompletableFuture<T>> futures = shards().stream()
+                .map(shard -> CompletableFuture.supplyAsync(RequestCost.charged(() -> onShard(shard, work)), fanOutPool))
+                .toList();
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Override
+    public void destroy() {
+        if (fanOutPool != null) {
+            fanOutPool.shutdownNow();
+        }
+    }
+
+    private static List<String> validated(List<String> names) {
+        for (String name : names) {
+            if (!SHARD_NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Shard names must be lower-case letters, digits and '-': " + name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,77 @@
+package org.kunlecreates.order.infrastructure.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the shard bound in {@link ShardContext}.
+ *
+ * Work with no shard bound (startup checks, health probes) goes to {@code defaultShard} and is
+ * counted with {@code bound=false}, so order or cart traffic that escaped routing shows up in
+ * metrics. A bound shard that is not configured fails instead of falling back.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<String, DataSource> shards;
+    private final String defaultShard;
+    private final Map<String, Counter> boundConnections = new LinkedHashMap<>();
+    private final Counter unboundConnections;
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, String defaultShard, MeterRegistry meterRegistry) {
+        if (!shards.containsKey(defaultShard)) {
+            throw new IllegalArgumentException("Default shard " + defaultShard + " is not configured");
+        }
+        this.shards = Map.copyOf(shards);
+        this.defaultShard = defaultShard;
+        shards.keySet().forEach(shard -> boundConnections.put(shard, connectionCounter(meterRegistry, shard, true)));
+        this.unboundConnections = connectionCounter(meterRegistry, defaultShard, false);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(defaultShard));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public DataSource shard(String name) {
+        DataSource dataSource = shards.get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard " + name);
+        }
+        return dataSource;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = ShardContext.current();
+        if (shard == null) {
+            unboundConnections.increment();
+            return defaultShard;
+        }
+        Counter counter = boundConnections.get(shard);
+        if (counter != null) {
+            counter.increment();
+        }
+        return shard;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Counter connectionCounter(MeterRegistry registry, String shard, boolean bound) {
+        return Counter.builder("datasource.shard.connections")
+                .description("Connections handed out per shard, and whether a shard was bound")
+                .tag("shard", shard)
+                .tag("bound", String.valueOf(bound))
+                .register(registry);
+    }
+}
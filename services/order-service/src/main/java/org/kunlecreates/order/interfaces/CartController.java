@@ -2,8 +2,10 @@ package org.kunlecreates.order.interfaces;
 
 import jakarta.validation.Valid;
 import org.kunlecreates.order.application.CartService;
+import org.kunlecreates.order.application.OrderMetrics;
 import org.kunlecreates.order.domain.Cart;
 import org.kunlecreates.order.domain.CartItem;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
 import org.kunlecreates.order.interfaces.dto.AddCartItemRequest;
 import org.kunlecreates.order.interfaces.dto.CartResponse;
 import org.kunlecreates.order.interfaces.dto.UpdateCartItemRequest;
@@ -20,9 +22,13 @@ import java.net.URI;
 @RequestMapping("/api/cart")
 public class CartController {
     private final CartService cartService;
+    private final ShardRouter shardRouter;
+    private final OrderMetrics orderMetrics;
 
-    public CartController(CartService cartService) {
+    public CartController(CartService cartService, ShardRouter shardRouter, OrderMetrics orderMetrics) {
         this.cartService = cartService;
+        this.shardRouter = shardRouter;
+        this.orderMetrics = orderMetrics;
     }
 
     private String extractUserIdFromAuth(Authentication authentication) {
@@ -36,7 +42,7 @@ public class CartController {
     public ResponseEntity<CartResponse> getCart(@PathVariable Long id, Authentication authentication) {
         String userId = extractUserIdFromAuth(authentication);
         
-        return cartService.findById(id)
+        return cartService.findWithItems(id)
                 .map(cart -> {
                     if (!cart.getUserRef().equals(userId)) {
                         return ResponseEntity.status(HttpStatus.FORBIDDEN).<CartResponse>build();
@@ -66,7 +72,9 @@ public class CartController {
             userId = body.get("user_ref");
         }
         
-        Cart cart = cartService.getOrCreateActiveCart(userId);
+        // The request is bound to the caller's shard; a cart for another user_ref lives on that user's
+        String owner = userId;
+        Cart cart = shardRouter.forUser(owner, () -> cartService.getOrCreateActiveCart(owner));
         
         URI location = uriBuilder.path("/api/cart/{id}")
                 .buildAndExpand(cart.getId())
@@ -167,7 +175,7 @@ public class CartController {
         String userId = extractUserIdFromAuth(authentication);
         
         // Create order from cart - authorization check is inside checkout method
-        org.kunlecreates.order.domain.Order order = cartService.checkout(cartId, userId);
+        org.kunlecreates.order.domain.Order order = orderMetrics.observe("checkout", () -> cartService.checkout(cartId, userId));
         
         java.util.Map<String, Object> response = new java.util.HashMap<>();
         response.put("success", true);
@@ -2,28 +2,48 @@ package org.kunlecreates.order.interfaces;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.kunlecreates.order.application.CrossShardOrderQueries;
+import org.kunlecreates.order.application.OrderMetrics;
 import org.kunlecreates.order.application.OrderService;
+import org.kunlecreates.order.application.OrderSummaryService;
+import org.kunlecreates.order.application.OrderTrackingHub;
 import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderSummary;
 import org.kunlecreates.order.interfaces.dto.CreateOrderRequest;
 import org.kunlecreates.order.interfaces.dto.OrderResponse;
+import org.kunlecreates.order.interfaces.dto.OrderStatusTotals;
+import org.kunlecreates.order.interfaces.dto.OrderSummaryResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/order")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderTrackingHub trackingHub;
+    private final OrderSummaryService orderSummaries;
+    private final CrossShardOrderQueries crossShardQueries;
+    private final OrderMetrics orderMetrics;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderTrackingHub trackingHub, OrderSummaryService orderSummaries,
+                           CrossShardOrderQueries crossShardQueries, OrderMetrics orderMetrics) {
         this.orderService = orderService;
+        this.trackingHub = trackingHub;
+        this.orderSummaries = orderSummaries;
+        this.crossShardQueries = crossShardQueries;
+        this.orderMetrics = orderMetrics;
     }
 
     /**
@@ -35,18 +55,80 @@ public class OrderController {
         String currentUserId = extractUserIdFromAuth(authentication);
         boolean isAdmin = hasRole(authentication, "ADMIN");
         
-        List<Order> orders = orderService.listOrders();
-        
-        // Admins can see all orders, regular users only see their own
-        if (!isAdmin) {
-            orders = orders.stream()
-                .filter(order -> currentUserId.equals(order.getUserRef()))
+        // Admins read every shard; a user's orders all live on the shard bound for their request,
+        // and ownership is part of the query
+        return isAdmin ? crossShardQueries.listOrders() : orderService.listOrderResponses(currentUserId);
+    }
+
+    /**
+     * PRD FR010 & FR011: Order list rows from the summary read model, newest first.
+     * Ownership is part of the query: users get their own rows, admins get everyone's.
+     */
+    @GetMapping("/summary")
+    public List<OrderSummaryResponse> listSummaries(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        String currentUserId = extractUserIdFromAuth(authentication);
+        boolean isAdmin = hasRole(authentication, "ADMIN");
+
+        List<OrderSummary> summaries = isAdmin
+                ? crossShardQueries.listSummaries(page, size)
+                : orderSummaries.list(currentUserId, false, page, size);
+        return summaries.stream()
+                .map(this::toSummaryResponse)
                 .collect(Collectors.toList());
+    }
+
+    /**
+     * Admin dashboard: order count and revenue per status
+     */
+    @GetMapping("/summary/stats")
+    public ResponseEntity<List<OrderStatusTotals>> summaryStats(Authentication authentication) {
+        if (!hasRole(authentication, "ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        
-        return orders.stream()
-                .map(this::toOrderResponse)
+        List<OrderStatusTotals> totals = crossShardQueries.totalsByStatus().stream()
+                .map(t -> new OrderStatusTotals(t.getStatus(), t.getOrders(),
+                        t.getTotalCents() != null ? t.getTotalCents() : 0L))
                 .collect(Collectors.toList());
+        return ResponseEntity.ok(totals);
+    }
+
+    /**
+     * Admin: regenerate the summary read model from orders and their event history
+     */
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSummaries(Authentication authentication) {
+        if (!hasRole(authentication, "ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(Map.of("rebuilt", crossShardQueries.rebuildSummaries()));
+    }
+
+    /**
+     * Admin export: summary rows created in [from, to) across all shards as CSV, oldest first
+     */
+    @GetMapping(path = "/summary/export", produces = "text/csv")
+    public ResponseEntity<String> exportSummaries(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            Authentication authentication) {
+        if (!hasRole(authentication, "ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        StringBuilder csv = new StringBuilder("order_id,user_ref,status,total_cents,currency,item_count,placed_at,created_at\n");
+        for (OrderSummary summary : crossShardQueries.exportSummaries(from, to)) {
+            csv.append(summary.getOrderId()).append(',')
+                .append(summary.getUserRef()).append(',')
+                .append(summary.getStatus()).append(',')
+                .append(summary.getTotalCents()).append(',')
+                .append(summary.getCurrency()).append(',')
+                .append(summary.getItemCount()).append(',')
+                .append(summary.getPlacedAt() != null ? summary.getPlacedAt() : "").append(',')
+                .append(summary.getCreatedAt()).append('\n');
+        }
+        return ResponseEntity.ok(csv.toString());
     }
 
     /**
@@ -58,13 +140,13 @@ public class OrderController {
         String currentUserId = extractUserIdFromAuth(authentication);
         boolean isAdmin = hasRole(authentication, "ADMIN");
         
-        return orderService.findById(id)
+        return orderService.findResponseById(id)
                 .map(order -> {
                     // Check ownership: user must own the order OR be an admin
-                    if (!currentUserId.equals(order.getUserRef()) && !isAdmin) {
+                    if (!currentUserId.equals(order.userRef()) && !isAdmin) {
                         return ResponseEntity.status(HttpStatus.FORBIDDEN).<OrderResponse>body(null);
                     }
-                    return ResponseEntity.ok(toOrderResponse(order));
+                    return ResponseEntity.ok(order);
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).<OrderResponse>body(null));
     }
@@ -111,17 +193,17 @@ public class OrderController {
                 : java.util.Collections.emptyList();
         
         // Create order with authenticated user's ID (ignore userId from request body for security)
-        Order created = orderService.createOrder(
+        Order created = orderMetrics.observe("create", () -> orderService.createOrder(
             authenticatedUserId, null, req.status(), req.total(), jwtToken,
             shippingRecipient, shippingStreet1, shippingStreet2, shippingCity,
             shippingState, shippingPostalCode, shippingCountry, shippingPhone,
             paymentMethodType, paymentLast4, paymentBrand,
             customerEmail, customerName, orderItems
-        );
+        ));
         
         URI location = uriBuilder.path("/api/order/{id}").buildAndExpand(created.getId()).toUri();
         
-        return ResponseEntity.created(location).body(toOrderResponse(created));
+        return ResponseEntity.created(location).body(OrderResponse.from(created));
     }
 
     /**
@@ -172,40 +254,18 @@ public class OrderController {
         return null;
     }
     
-    /**
-     * Convert Order entity to OrderResponse DTO using the customer name stored on the order,
-     * which was captured from the customer's JWT at creation time.
-     */
-    private OrderResponse toOrderResponse(Order order) {
-        String customerName = order.getCustomerName();
-        if (customerName == null || customerName.isEmpty()) {
-            customerName = order.getShippingRecipient();
-        }
-        return new OrderResponse(
-            order.getId(),
-            order.getUserRef(),
-            customerName,
-            order.getStatus(),
-            order.getTotalCents(),
-            order.getCurrency(),
-            order.getPlacedAt(),
-            order.getCreatedAt(),
-            order.getUpdatedAt(),
-            new org.kunlecreates.order.interfaces.dto.ShippingAddress(
-                order.getShippingRecipient(),
-                order.getShippingStreet1(),
-                order.getShippingStreet2(),
-                order.getShippingCity(),
-                order.getShippingState(),
-                order.getShippingPostalCode(),
-                order.getShippingCountry(),
-                order.getShippingPhone()
-            ),
-            new org.kunlecreates.order.interfaces.dto.PaymentMethod(
-                order.getPaymentMethodType(),
-                order.getPaymentLast4(),
-                order.getPaymentBrand()
-            )
+    private OrderSummaryResponse toSummaryResponse(OrderSummary summary) {
+        return new OrderSummaryResponse(
+            summary.getOrderId(),
+            summary.getUserRef(),
+            summary.getCustomerName(),
+            summary.getStatus(),
+            summary.getTotalCents(),
+            summary.getCurrency(),
+            summary.getItemCount(),
+            summary.getPlacedAt(),
+            summary.getCreatedAt(),
+            summary.getUpdatedAt()
         );
     }
     
@@ -243,7 +303,7 @@ public class OrderController {
             // Extract JWT token for notification service
             String jwtToken = extractJwtToken(httpRequest);
             
-            Order updated = orderService.updateStatus(id, newStatus, jwtToken);
+            Order updated = orderMetrics.observe("update_status", () -> orderService.updateStatus(id, newStatus, jwtToken));
             return ResponseEntity.ok(updated);
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -266,7 +326,8 @@ public class OrderController {
             if (isAdmin) {
                 Order order = orderService.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-                Order updated = orderService.updateStatus(id, org.kunlecreates.order.domain.OrderStatus.CANCELLED, jwtToken);
+                Order updated = orderMetrics.observe("update_status", () -> orderService.updateStatus(
+                        id, org.kunlecreates.order.domain.OrderStatus.CANCELLED, jwtToken));
                 return ResponseEntity.ok(updated);
             } else {
                 Order cancelled = orderService.cancelOrder(id, userId);
@@ -316,4 +377,26 @@ public class OrderController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * PRD FR010: Order tracking as server-sent events.
+     * Replays the order's history, then pushes each new event as the order transitions.
+     */
+    @GetMapping(path = "/{id}/tracking/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderTracking(
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        String userId = extractUserIdFromAuth(authentication);
+        boolean isAdmin = hasRole(authentication, "ADMIN");
+
+        return orderService.findById(id)
+                .map(order -> {
+                    if (!order.getUserRef().equals(userId) && !isAdmin) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).<SseEmitter>build();
+                    }
+                    return ResponseEntity.ok(trackingHub.subscribe(id, () -> orderService.getOrderHistory(id)));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,70 @@
+package org.kunlecreates.order.interfaces;
+
+import org.kunlecreates.order.application.ShardRebalanceService;
+import org.kunlecreates.order.infrastructure.sharding.ShardRing;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin: shard layout and the rebalance steps. Both steps are safe to re-run.
+ */
+@RestController
+@RequestMapping("/api/order/shards")
+public class ShardAdminController {
+    private final ShardRouter shardRouter;
+    private final ShardRebalanceService rebalanceService;
+
+    public ShardAdminController(ShardRouter shardRouter, ShardRebalanceService rebalanceService) {
+        this.shardRouter = shardRouter;
+        this.rebalanceService = rebalanceService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, List<String>>> shards(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(Map.of(
+                "shards", shardRouter.shards(),
+                "targetShards", shardRouter.targetRing().map(ShardRing::shards).orElse(List.of())));
+    }
+
+    /**
+     * Copy users the target ring moves to their new shard
+     */
+    @PostMapping("/rebalance/copy")
+    public ResponseEntity<ShardRebalanceService.RebalanceReport> copy(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (shardRouter.targetRing().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(rebalanceService.copyMovingUsers());
+    }
+
+    /**
+     * After the cut-over: delete rows left on shards that no longer own them
+     */
+    @PostMapping("/rebalance/purge")
+    public ResponseEntity<ShardRebalanceService.RebalanceReport> purge(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(rebalanceService.purgeMovedUsers());
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
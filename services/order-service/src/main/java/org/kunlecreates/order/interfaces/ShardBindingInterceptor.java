@@ -0,0 +1,93 @@
+package org.kunlecreates.order.interfaces;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.kunlecreates.order.application.OrderService;
+import org.kunlecreates.order.infrastructure.sharding.ShardContext;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Binds the shard for order and cart requests before the controller opens any transaction.
+ *
+ * A request runs on the shard owning the caller's {@code userRef} (the JWT subject), which holds
+ * all of that user's carts and orders. Admin requests for one order ({@code /api/order/{id}/...})
+ * run on the order owner's shard instead, found by asking every shard for the order. While a
+ * rebalance freezes moving users, their writes get 503 with Retry-After until the cut-over.
+ */
+@Component
+public class ShardBindingInterceptor implements AsyncHandlerInterceptor {
+    static final String RETRY_AFTER_SECONDS = "5";
+
+    private final ShardRouter shardRouter;
+    private final OrderService orderService;
+
+    public ShardBindingInterceptor(ShardRouter shardRouter, OrderService orderService) {
+        this.shardRouter = shardRouter;
+        this.orderService = orderService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return true;
+        }
+        String userRef = authentication.getPrincipal() instanceof Jwt jwt ? jwt.getSubject() : authentication.getName();
+        if (userRef == null) {
+            return true;
+        }
+        if (shardRouter.isFrozen(userRef) && !HttpMethod.GET.matches(request.getMethod())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return false;
+        }
+        String shard = adminOrderShard(request, handler, authentication).orElseGet(() -> shardRouter.shardFor(userRef));
+        ShardContext.bind(shard);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ShardContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+
+    private Optional<String> adminOrderShard(HttpServletRequest request, Object handler, Authentication authentication) {
+        if (!shardRouter.isSharded()
+                || !(handler instanceof HandlerMethod method) || method.getBeanType() != OrderController.class
+                || authentication.getAuthorities().stream().noneMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+            return Optional.empty();
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables != null ? variables.get("id") : null;
+        if (id == null || !id.chars().allMatch(Character::isDigit)) {
+            return Optional.empty();
+        }
+        Long orderId = Long.valueOf(id);
+        // Ids are unique across shards; during a rebalance copy the owner's current shard wins
+        return shardRouter.fanOut(() -> orderService.findOwner(orderId)).stream()
+                .flatMap(Optional::stream)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(shardRouter::shardFor);
+    }
+}
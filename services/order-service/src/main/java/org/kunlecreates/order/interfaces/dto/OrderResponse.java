@@ -1,5 +1,7 @@
 package org.kunlecreates.order.interfaces.dto;
 
+import org.kunlecreates.order.domain.Order;
+
 import java.time.Instant;
 
 public record OrderResponse(
@@ -15,10 +17,55 @@ public record OrderResponse(
     ShippingAddress shippingAddress,
     PaymentMethod paymentMethod
 ) {
+    /**
+     * Flat form for JPQL constructor expressions ({@code SELECT new ...OrderResponse(o.id, ...)}),
+     * which cannot build the nested address and payment records themselves.
+     * Falls back to the shipping recipient when no customer name was captured.
+     */
+    public OrderResponse(Long id, String userRef, String customerName, String status, Long totalCents,
+                         String currency, Instant placedAt, Instant createdAt, Instant updatedAt,
+                         String shippingRecipient, String shippingStreet1, String shippingStreet2,
+                         String shippingCity, String shippingState, String shippingPostalCode,
+                         String shippingCountry, String shippingPhone,
+                         String paymentMethodType, String paymentLast4, String paymentBrand) {
+        this(id, userRef,
+            (customerName == null || customerName.isEmpty()) ? shippingRecipient : customerName,
+            status, totalCents, currency, placedAt, createdAt, updatedAt,
+            new ShippingAddress(shippingRecipient, shippingStreet1, shippingStreet2, shippingCity,
+                shippingState, shippingPostalCode, shippingCountry, shippingPhone),
+            new PaymentMethod(paymentMethodType, paymentLast4, paymentBrand));
+    }
+
+    /** Map an order already in memory, such as one just created. */
+    public static OrderResponse from(Order order) {
+        return new OrderResponse(
+            order.getId(),
+            order.getUserRef(),
+            order.getCustomerName(),
+            order.getStatus(),
+            order.getTotalCents(),
+            order.getCurrency(),
+            order.getPlacedAt(),
+            order.getCreatedAt(),
+            order.getUpdatedAt(),
+            order.getShippingRecipient(),
+            order.getShippingStreet1(),
+            order.getShippingStreet2(),
+            order.getShippingCity(),
+            order.getShippingState(),
+            order.getShippingPostalCode(),
+            order.getShippingCountry(),
+            order.getShippingPhone(),
+            order.getPaymentMethodType(),
+            order.getPaymentLast4(),
+            order.getPaymentBrand()
+        );
+    }
+
     public double getTotal() {
         return totalCents != null ? totalCents / 100.0 : 0.0;
     }
-    
+
     public double total() {
         return getTotal();
     }
@@ -0,0 +1,8 @@
+package org.kunlecreates.order.interfaces.dto;
+
+/** Dashboard tile: order count and revenue for one status. */
+public record OrderStatusTotals(
+    String status,
+    long orders,
+    long totalCents
+) {}
@@ -0,0 +1,17 @@
+package org.kunlecreates.order.interfaces.dto;
+
+import java.time.Instant;
+
+/** List-view row served from the order summary read model. */
+public record OrderSummaryResponse(
+    Long id,
+    String userRef,
+    String customerName,
+    String status,
+    Long totalCents,
+    String currency,
+    Integer itemCount,
+    Instant placedAt,
+    Instant createdAt,
+    Instant updatedAt
+) {}
@@ -2,8 +2,12 @@ package org.kunlecreates.order.repository;
 
 import org.kunlecreates.order.domain.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,17 @@ import java.util.Optional;
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCartId(Long cartId);
     Optional<CartItem> findByCartIdAndProductRef(Long cartId, String productRef);
+
+    @Query("SELECT i.cart.id AS cartId, SUM(i.quantity * i.unitPriceCents) AS valueCents "
+            + "FROM CartItem i WHERE i.cart.id IN :cartIds GROUP BY i.cart.id")
+    List<CartValue> valueByCart(@Param("cartIds") Collection<Long> cartIds);
+
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id IN :cartIds")
+    int deleteByCartIds(@Param("cartIds") Collection<Long> cartIds);
+
+    interface CartValue {
+        Long getCartId();
+        Long getValueCents();
+    }
 }
@@ -1,17 +1,49 @@
 package org.kunlecreates.order.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.kunlecreates.order.domain.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    /** Loads the items in the same select, since the active cart is always rendered with them. */
+    @EntityGraph(attributePaths = "items")
     Optional<Cart> findByUserRefAndStatus(String userRef, String status);
+
+    /** The cart with its items in one select, for rendering; the entities are read-only. */
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Cart> findWithItemsById(Long cartId);
     
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id = :cartId")
     Optional<Cart> findByIdWithItems(@Param("cartId") Long cartId);
+
+    /** Record activity on a cart; 0 when it is no longer OPEN. */
+    @Modifying
+    @Query("UPDATE Cart c SET c.updatedAt = :now WHERE c.id = :cartId AND c.status = 'OPEN'")
+    int touchOpen(@Param("cartId") Long cartId, @Param("now") Instant now);
+
+    /**
+     * Up to {@code limit} OPEN carts last changed before {@code cutoff}, oldest first, locked until
+     * the transaction ends. Carts locked by live requests are skipped rather than waited for.
+     */
+    @Query(value = "SELECT TOP (:limit) id FROM order_svc.carts WITH (UPDLOCK, ROWLOCK, READPAST) "
+            + "WHERE status = 'OPEN' AND updated_at < :cutoff ORDER BY updated_at", nativeQuery = true)
+    List<Long> lockIdleOpenCartIds(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.status = 'ABANDONED', c.updatedAt = :now WHERE c.id IN :cartIds AND c.status = 'OPEN'")
+    int markAbandoned(@Param("cartIds") Collection<Long> cartIds, @Param("now") Instant now);
 }
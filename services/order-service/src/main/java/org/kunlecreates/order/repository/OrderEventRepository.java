@@ -1,12 +1,36 @@
 package org.kunlecreates.order.repository;
 
 import org.kunlecreates.order.domain.OrderEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
-    List<OrderEvent> findByOrderIdOrderByCreatedAtAsc(Long orderId);
+    List<OrderEvent> findByOrderIdOrderBySequenceAsc(Long orderId);
+
+    List<OrderEvent> findByOrderIdInOrderByOrderIdAscSequenceAsc(Collection<Long> orderIds);
+
+    /** The log of an order moved to the archive. */
+    @Query(value = "SELECT * FROM order_svc.order_events_archive WHERE order_id = :orderId ORDER BY seq_no",
+            nativeQuery = true)
+    List<OrderEvent> findArchivedByOrderId(@Param("orderId") Long orderId);
+
+    /** Events each order has appended since its stored snapshot (all of them when it has none). */
+    @Query("SELECT e FROM OrderEvent e LEFT JOIN OrderStateSnapshot s ON s.orderId = e.orderId "
+            + "WHERE e.orderId IN :orderIds AND e.sequence > COALESCE(s.sequence, 0) "
+            + "ORDER BY e.orderId, e.sequence")
+    List<OrderEvent> findUnsnapshottedByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /** Orders whose log has grown by at least {@code threshold} events past their snapshot. */
+    @Query("SELECT e.orderId FROM OrderEvent e LEFT JOIN OrderStateSnapshot s ON s.orderId = e.orderId "
+            + "GROUP BY e.orderId, s.sequence "
+            + "HAVING MAX(e.sequence) - COALESCE(s.sequence, 0) >= :threshold "
+            + "ORDER BY e.orderId")
+    List<Long> findOrderIdsDueForSnapshot(@Param("threshold") long threshold, Pageable pageable);
 }
@@ -2,11 +2,23 @@ package org.kunlecreates.order.repository;
 
 import org.kunlecreates.order.domain.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemRepositoryCustom {
     List<OrderItem> findByOrderId(Long orderId);
+
+    @Query("SELECT i.order.id AS orderId, SUM(i.quantity) AS quantity FROM OrderItem i "
+            + "WHERE i.order.id IN :orderIds GROUP BY i.order.id")
+    List<OrderQuantity> sumQuantityByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    interface OrderQuantity {
+        Long getOrderId();
+        Long getQuantity();
+    }
 }
@@ -0,0 +1,13 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.domain.OrderItem;
+
+import java.util.List;
+
+public interface OrderItemRepositoryCustom {
+    /**
+     * Insert all line items of one order as a single JDBC batch.
+     * IDENTITY keys stop Hibernate from batching inserts, so saveAll would issue one statement per item.
+     */
+    void insertAll(Long orderId, List<OrderItem> items);
+}
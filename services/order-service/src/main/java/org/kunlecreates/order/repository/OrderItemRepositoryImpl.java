@@ -0,0 +1,39 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.domain.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+class OrderItemRepositoryImpl implements OrderItemRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO order_svc.order_items "
+            + "(order_id, product_ref, product_name, quantity, unit_price_cents, currency, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderItemRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Long orderId, List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setLong(1, orderId);
+            ps.setString(2, item.getProductRef());
+            ps.setString(3, item.getProductName());
+            ps.setInt(4, item.getQuantity());
+            ps.setLong(5, item.getUnitPriceCents());
+            ps.setString(6, item.getCurrency());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+}
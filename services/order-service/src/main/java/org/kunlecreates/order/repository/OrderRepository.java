@@ -1,11 +1,78 @@
 package org.kunlecreates.order.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.interfaces.dto.OrderResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+    String RESPONSE_COLUMNS = "o.id, o.userRef, o.customerName, o.status, o.totalCents, o.currency, "
+            + "o.placedAt, o.createdAt, o.updatedAt, o.shippingRecipient, o.shippingStreet1, o.shippingStreet2, "
+            + "o.shippingCity, o.shippingState, o.shippingPostalCode, o.shippingCountry, o.shippingPhone, "
+            + "o.paymentMethodType, o.paymentLast4, o.paymentBrand";
+
     List<Order> findByUserRef(String userRef);
-}
\ No newline at end of file
+
+    /** An order rendered straight from its row: one select, no managed entity. */
+    @Query("SELECT new org.kunlecreates.order.interfaces.dto.OrderResponse(" + RESPONSE_COLUMNS + ") "
+            + "FROM Order o WHERE o.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<OrderResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT new org.kunlecreates.order.interfaces.dto.OrderResponse(" + RESPONSE_COLUMNS + ") "
+            + "FROM Order o WHERE o.userRef = :userRef ORDER BY o.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<OrderResponse> findResponsesByUserRef(@Param("userRef") String userRef);
+
+    @Query("SELECT new org.kunlecreates.order.interfaces.dto.OrderResponse(" + RESPONSE_COLUMNS + ") "
+            + "FROM Order o ORDER BY o.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<OrderResponse> findAllResponses();
+
+    /**
+     * Orders in one of {@code statuses} last changed before {@code cutoff}, oldest first.
+     * Orders with payment ledger rows are left in place, since those rows reference orders.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff "
+            + "AND NOT EXISTS (SELECT 1 FROM Payment p WHERE p.orderId = o.id) "
+            + "ORDER BY o.updatedAt")
+    List<Long> findArchivableIds(@Param("statuses") Collection<String> statuses,
+                                 @Param("cutoff") Instant cutoff,
+                                 Pageable pageable);
+
+    /** {@link #findArchivableIds} restricted to orders whose id falls in one of {@code slots} modulo {@code slotCount}. */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff "
+            + "AND MOD(o.id, :slotCount) IN :slots "
+            + "AND NOT EXISTS (SELECT 1 FROM Payment p WHERE p.orderId = o.id) "
+            + "ORDER BY o.updatedAt")
+    List<Long> findArchivableIdsInSlots(@Param("statuses") Collection<String> statuses,
+                                        @Param("cutoff") Instant cutoff,
+                                        @Param("slotCount") long slotCount,
+                                        @Param("slots") Collection<Long> slots,
+                                        Pageable pageable);
+
+    /**
+     * An order moved to the archive; read-only, since archived orders are never written again.
+     * Its lazy delivery fields would be fetched from the hot table, so render it with
+     * {@link #findArchivedResponseById} instead.
+     */
+    @Query(value = "SELECT * FROM order_svc.orders_archive WHERE id = :id", nativeQuery = true)
+    Optional<Order> findArchivedById(@Param("id") Long id);
+
+    /** The owner of an order, hot or archived; empty when this database does not hold it. */
+    @Query(value = "SELECT user_ref FROM order_svc.orders WHERE id = :id "
+            + "UNION ALL SELECT user_ref FROM order_svc.orders_archive WHERE id = :id", nativeQuery = true)
+    List<String> findOwnerById(@Param("id") Long id);
+}
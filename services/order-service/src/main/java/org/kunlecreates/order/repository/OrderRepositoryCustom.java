@@ -0,0 +1,24 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.interfaces.dto.OrderResponse;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface OrderRepositoryCustom {
+    /**
+     * Copy the given orders, their items and their events into the archive tables and delete them,
+     * with their state snapshots and any leftover stock reservations, from the hot tables.
+     * Joins the caller's transaction; rows already in the archive are not copied twice.
+     *
+     * @return the number of orders removed from the hot table
+     */
+    int archive(Collection<Long> orderIds, Instant archivedAt);
+
+    /**
+     * {@link OrderRepository#findResponseById} for an order moved to the archive, read straight
+     * from {@code orders_archive} in one select.
+     */
+    Optional<OrderResponse> findArchivedResponseById(Long id);
+}
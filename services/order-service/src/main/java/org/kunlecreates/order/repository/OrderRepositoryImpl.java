@@ -0,0 +1,113 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.interfaces.dto.OrderResponse;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+class OrderRepositoryImpl implements OrderRepositoryCustom {
+    private static final String ORDER_COLUMNS =
+            "id, user_ref, status, total_cents, currency, placed_at, "
+            + "shipping_recipient, shipping_street1, shipping_street2, shipping_city, shipping_state, "
+            + "shipping_postal_code, shipping_country, shipping_phone, "
+            + "payment_method_type, payment_last4, payment_brand, customer_email, customer_name, "
+            + "stock_reserved, event_sequence, created_at, updated_at";
+    private static final String ITEM_COLUMNS =
+            "id, order_id, product_ref, product_name, quantity, unit_price_cents, currency, created_at, updated_at";
+    private static final String EVENT_COLUMNS =
+            "id, order_id, seq_no, type, schema_version, payload, created_at";
+
+    // An order's rows are copied in one transaction, so an order already in orders_archive has its
+    // items and events there too; the archive indexes order id, not item or event id
+    private static final String NOT_YET_ARCHIVED =
+            " AND NOT EXISTS (SELECT 1 FROM order_svc.orders_archive a WHERE a.id = %s)";
+    private static final String COPY_ITEMS_SQL =
+            "INSERT INTO order_svc.order_items_archive (" + ITEM_COLUMNS + ") "
+            + "SELECT " + ITEM_COLUMNS + " FROM order_svc.order_items i WHERE i.order_id IN (:ids)"
+            + NOT_YET_ARCHIVED.formatted("i.order_id");
+    private static final String COPY_EVENTS_SQL =
+            "INSERT INTO order_svc.order_events_archive (" + EVENT_COLUMNS + ") "
+            + "SELECT " + EVENT_COLUMNS + " FROM order_svc.order_events e WHERE e.order_id IN (:ids)"
+            + NOT_YET_ARCHIVED.formatted("e.order_id");
+    private static final String COPY_ORDERS_SQL =
+            "INSERT INTO order_svc.orders_archive (" + ORDER_COLUMNS + ", archived_at) "
+            + "SELECT " + ORDER_COLUMNS + ", :archivedAt FROM order_svc.orders o WHERE o.id IN (:ids)"
+            + NOT_YET_ARCHIVED.formatted("o.id");
+
+    // Children first: snapshots, events and items reference orders
+    private static final String[] DELETE_SQL = {
+            "DELETE FROM order_svc.order_state_snapshots WHERE order_id IN (:ids)",
+            "DELETE FROM order_svc.stock_reservations WHERE order_id IN (:ids)",
+            "DELETE FROM order_svc.order_events WHERE order_id IN (:ids)",
+            "DELETE FROM order_svc.order_items WHERE order_id IN (:ids)"
+    };
+    private static final String DELETE_ORDERS_SQL = "DELETE FROM order_svc.orders WHERE id IN (:ids)";
+
+    private static final String ARCHIVED_RESPONSE_SQL =
+            "SELECT id, user_ref, customer_name, status, total_cents, currency, placed_at, created_at, updated_at, "
+            + "shipping_recipient, shipping_street1, shipping_street2, shipping_city, shipping_state, "
+            + "shipping_postal_code, shipping_country, shipping_phone, payment_method_type, payment_last4, payment_brand "
+            + "FROM order_svc.orders_archive WHERE id = :id";
+    private static final RowMapper<OrderResponse> RESPONSE_MAPPER = (rs, rowNum) -> new OrderResponse(
+            rs.getLong("id"),
+            rs.getString("user_ref"),
+            rs.getString("customer_name"),
+            rs.getString("status"),
+            rs.getLong("total_cents"),
+            rs.getString("currency"),
+            instant(rs, "placed_at"),
+            instant(rs, "created_at"),
+            instant(rs, "updated_at"),
+            rs.getString("shipping_recipient"),
+            rs.getString("shipping_street1"),
+            rs.getString("shipping_street2"),
+            rs.getString("shipping_city"),
+            rs.getString("shipping_state"),
+            rs.getString("shipping_postal_code"),
+            rs.getString("shipping_country"),
+            rs.getString("shipping_phone"),
+            rs.getString("payment_method_type"),
+            rs.getString("payment_last4"),
+            rs.getString("payment_brand"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    OrderRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int archive(Collection<Long> orderIds, Instant archivedAt) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("archivedAt", Timestamp.from(archivedAt));
+        jdbcTemplate.update(COPY_ITEMS_SQL, params);
+        jdbcTemplate.update(COPY_EVENTS_SQL, params);
+        jdbcTemplate.update(COPY_ORDERS_SQL, params);
+        for (String sql : DELETE_SQL) {
+            jdbcTemplate.update(sql, params);
+        }
+        return jdbcTemplate.update(DELETE_ORDERS_SQL, params);
+    }
+
+    @Override
+    public Optional<OrderResponse> findArchivedResponseById(Long id) {
+        return jdbcTemplate.query(ARCHIVED_RESPONSE_SQL, Map.of("id", id), RESPONSE_MAPPER).stream().findFirst();
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,9 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.domain.OrderStateSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderStateSnapshotRepository extends JpaRepository<OrderStateSnapshot, Long> {
+}
@@ -0,0 +1,30 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.domain.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+    List<OrderSummary> findByUserRefOrderByCreatedAtDesc(String userRef, Pageable pageable);
+
+    List<OrderSummary> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    List<OrderSummary> findByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtAsc(
+            Instant from, Instant to, Pageable pageable);
+
+    @Query("SELECT s.status AS status, COUNT(s) AS orders, SUM(s.totalCents) AS totalCents "
+            + "FROM OrderSummary s GROUP BY s.status")
+    List<StatusTotals> totalsByStatus();
+
+    interface StatusTotals {
+        String getStatus();
+        long getOrders();
+        Long getTotalCents();
+    }
+}
@@ -0,0 +1,27 @@
+package org.kunlecreates.order.repository;
+
+import org.kunlecreates.order.domain.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderId(Long orderId);
+
+    List<StockReservation> findByExpiresAtBeforeOrderByExpiresAtAsc(Instant cutoff, Pageable pageable);
+
+    /** Quantities held locally per SKU; upstream holds are already out of product-service's stock. */
+    @Query("SELECT r.productRef AS productRef, SUM(r.quantity) AS quantity FROM StockReservation r "
+            + "WHERE r.upstream = false GROUP BY r.productRef")
+    List<SkuQuantity> sumQuantityByProductRef();
+
+    interface SkuQuantity {
+        String getProductRef();
+        Long getQuantity();
+    }
+}
@@ -0,0 +1,79 @@
+-- V10__create_order_archive.sql
+-- Cold storage for finished orders. DELIVERED, CANCELLED and REFUNDED orders whose last change is
+-- older than order.archive.retention are moved here, with their items and events, in batches by
+-- order-service; single-order reads fall back to these tables. The archive keeps the hot ids and
+-- has no foreign keys, identity columns or check constraints, and is page compressed since it is
+-- written once and read rarely.
+-- ix_orders_status_updated_at lets the archiver find due orders without scanning orders.
+
+IF OBJECT_ID('order_svc.orders_archive', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.orders_archive (
+        id                    BIGINT NOT NULL PRIMARY KEY,
+        user_ref              NVARCHAR(64) NOT NULL,
+        status                NVARCHAR(32) NOT NULL,
+        total_cents           BIGINT NOT NULL,
+        currency              NCHAR(3) NOT NULL,
+        placed_at             DATETIME2(6) NULL,
+        shipping_recipient    VARCHAR(255) NULL,
+        shipping_street1      VARCHAR(255) NULL,
+        shipping_street2      VARCHAR(255) NULL,
+        shipping_city         VARCHAR(100) NULL,
+        shipping_state        VARCHAR(100) NULL,
+        shipping_postal_code  VARCHAR(20) NULL,
+        shipping_country      VARCHAR(100) NULL,
+        shipping_phone        VARCHAR(20) NULL,
+        payment_method_type   VARCHAR(50) NULL,
+        payment_last4         VARCHAR(4) NULL,
+        payment_brand         VARCHAR(50) NULL,
+        customer_email        VARCHAR(255) NULL,
+        customer_name         VARCHAR(255) NULL,
+        stock_reserved        BIT NOT NULL,
+        event_sequence        BIGINT NOT NULL,
+        created_at            DATETIME2(6) NOT NULL,
+        updated_at            DATETIME2(6) NOT NULL,
+        archived_at           DATETIME2(6) NOT NULL
+    ) WITH (DATA_COMPRESSION = PAGE);
+    CREATE INDEX ix_orders_archive_user_ref ON order_svc.orders_archive(user_ref) WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_items_archive', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.order_items_archive (
+        id                 BIGINT NOT NULL PRIMARY KEY,
+        order_id           BIGINT NOT NULL,
+        product_ref        NVARCHAR(64) NOT NULL,
+        product_name       NVARCHAR(255) NULL,
+        quantity           INT NOT NULL,
+        unit_price_cents   BIGINT NOT NULL,
+        currency           NCHAR(3) NOT NULL,
+        created_at         DATETIME2(6) NOT NULL,
+        updated_at         DATETIME2(6) NOT NULL
+    ) WITH (DATA_COMPRESSION = PAGE);
+    CREATE INDEX ix_order_items_archive_order_id ON order_svc.order_items_archive(order_id) WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_events_archive', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.order_events_archive (
+        id              BIGINT NOT NULL PRIMARY KEY,
+        order_id        BIGINT NOT NULL,
+        seq_no          BIGINT NOT NULL,
+        type            NVARCHAR(64) NOT NULL,
+        schema_version  INT NOT NULL,
+        payload         NVARCHAR(MAX) NULL,
+        created_at      DATETIME2(6) NOT NULL
+    ) WITH (DATA_COMPRESSION = PAGE);
+    CREATE UNIQUE INDEX ux_order_events_archive_order_seq ON order_svc.order_events_archive(order_id, seq_no)
+        WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orders_status_updated_at'
+               AND object_id = OBJECT_ID('order_svc.orders'))
+BEGIN
+    CREATE INDEX ix_orders_status_updated_at ON order_svc.orders(status, updated_at);
+END
+GO
@@ -0,0 +1,182 @@
+-- V11__partition_by_created_month.sql
+-- Monthly partitioning on created_at for the order tables.
+--   * pf_order_month / ps_order_month: RANGE RIGHT, one partition per calendar month, from the
+--     oldest row's month to three months ahead. order-service splits new months in ahead of time
+--     (OrderPartitionService), so a split always lands on an empty partition and moves no rows.
+--   * orders and order_events are clustered on (created_at, id) on the scheme, so time-window
+--     queries read only the months they ask for; their non-unique indexes are aligned. Their
+--     primary keys (referenced by foreign keys) and the (order_id, seq_no) log key must stay
+--     unique on columns without created_at, so they stay on [PRIMARY]; these tables are emptied
+--     by the status-aware archiver (V10), not by SWITCH.
+--   * the archive tables are fully aligned: clustered on (created_at, id) and no unique index
+--     without created_at. A whole month is removed by switching its partition out to the
+--     matching *_switch staging table and truncating that, without touching rows one by one.
+-- Rebuilding the clustered indexes rewrites orders and order_events once; run off-peak.
+
+IF NOT EXISTS (SELECT 1 FROM sys.partition_functions WHERE name = 'pf_order_month')
+BEGIN
+    DECLARE @oldest DATETIME2(6) = (SELECT MIN(m) FROM (
+        SELECT MIN(created_at) AS m FROM order_svc.orders
+        UNION ALL SELECT MIN(created_at) FROM order_svc.order_events
+        UNION ALL SELECT MIN(created_at) FROM order_svc.orders_archive
+        UNION ALL SELECT MIN(created_at) FROM order_svc.order_events_archive) t);
+    DECLARE @now DATETIME2(6) = SYSUTCDATETIME();
+    DECLARE @month DATE = DATEFROMPARTS(YEAR(COALESCE(@oldest, @now)), MONTH(COALESCE(@oldest, @now)), 1);
+    DECLARE @last DATE = DATEADD(MONTH, 3, DATEFROMPARTS(YEAR(@now), MONTH(@now), 1));
+    DECLARE @boundaries NVARCHAR(MAX) = N'';
+    WHILE @month <= @last
+    BEGIN
+        SET @boundaries += CASE WHEN @boundaries = N'' THEN N'' ELSE N', ' END
+                         + N'''' + CONVERT(NCHAR(10), @month, 23) + N'''';
+        SET @month = DATEADD(MONTH, 1, @month);
+    END
+    EXEC (N'CREATE PARTITION FUNCTION pf_order_month (DATETIME2(6)) AS RANGE RIGHT FOR VALUES (' + @boundaries + N')');
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.partition_schemes WHERE name = 'ps_order_month')
+BEGIN
+    CREATE PARTITION SCHEME ps_order_month AS PARTITION pf_order_month ALL TO ([PRIMARY]);
+END
+GO
+
+-- orders ---------------------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'cx_orders_created_at'
+               AND object_id = OBJECT_ID('order_svc.orders'))
+BEGIN
+    -- Foreign keys to orders depend on its primary key, which is rebuilt as nonclustered
+    DECLARE @dropForeignKeys NVARCHAR(MAX) = N'';
+    DECLARE @addForeignKeys NVARCHAR(MAX) = N'';
+    SELECT @dropForeignKeys += N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+                             + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N'; ',
+           @addForeignKeys += N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+                            + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' ADD CONSTRAINT ' + QUOTENAME(fk.name)
+                            + N' FOREIGN KEY (' + QUOTENAME(COL_NAME(fkc.parent_object_id, fkc.parent_column_id))
+                            + N') REFERENCES order_svc.orders(id); '
+    FROM sys.foreign_keys fk
+    JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+    WHERE fk.referenced_object_id = OBJECT_ID('order_svc.orders');
+
+    DECLARE @dropPrimaryKey NVARCHAR(MAX) = (
+        SELECT N'ALTER TABLE order_svc.orders DROP CONSTRAINT ' + QUOTENAME(name)
+        FROM sys.key_constraints WHERE parent_object_id = OBJECT_ID('order_svc.orders') AND type = 'PK');
+
+    EXEC sp_executesql @dropForeignKeys;
+    IF @dropPrimaryKey IS NOT NULL EXEC sp_executesql @dropPrimaryKey;
+
+    CREATE CLUSTERED INDEX cx_orders_created_at ON order_svc.orders(created_at, id) ON ps_order_month(created_at);
+    ALTER TABLE order_svc.orders ADD CONSTRAINT pk_orders PRIMARY KEY NONCLUSTERED (id) ON [PRIMARY];
+
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orders_user_ref' AND object_id = OBJECT_ID('order_svc.orders'))
+        DROP INDEX ix_orders_user_ref ON order_svc.orders;
+    CREATE INDEX ix_orders_user_ref ON order_svc.orders(user_ref) ON ps_order_month(created_at);
+
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orders_status_updated_at' AND object_id = OBJECT_ID('order_svc.orders'))
+        DROP INDEX ix_orders_status_updated_at ON order_svc.orders;
+    CREATE INDEX ix_orders_status_updated_at ON order_svc.orders(status, updated_at) ON ps_order_month(created_at);
+
+    EXEC sp_executesql @addForeignKeys;
+END
+GO
+
+-- order_events ---------------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'cx_order_events_created_at'
+               AND object_id = OBJECT_ID('order_svc.order_events'))
+BEGIN
+    DECLARE @dropPrimaryKey NVARCHAR(MAX) = (
+        SELECT N'ALTER TABLE order_svc.order_events DROP CONSTRAINT ' + QUOTENAME(name)
+        FROM sys.key_constraints WHERE parent_object_id = OBJECT_ID('order_svc.order_events') AND type = 'PK');
+    IF @dropPrimaryKey IS NOT NULL EXEC sp_executesql @dropPrimaryKey;
+
+    CREATE CLUSTERED INDEX cx_order_events_created_at ON order_svc.order_events(created_at, id) ON ps_order_month(created_at);
+    ALTER TABLE order_svc.order_events ADD CONSTRAINT pk_order_events PRIMARY KEY NONCLUSTERED (id) ON [PRIMARY];
+
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_order_events_order_id' AND object_id = OBJECT_ID('order_svc.order_events'))
+        DROP INDEX ix_order_events_order_id ON order_svc.order_events;
+    CREATE INDEX ix_order_events_order_id ON order_svc.order_events(order_id) ON ps_order_month(created_at);
+END
+GO
+
+-- orders_archive -------------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.key_constraints WHERE name = 'pk_orders_archive')
+BEGIN
+    DECLARE @dropPrimaryKey NVARCHAR(MAX) = (
+        SELECT N'ALTER TABLE order_svc.orders_archive DROP CONSTRAINT ' + QUOTENAME(name)
+        FROM sys.key_constraints WHERE parent_object_id = OBJECT_ID('order_svc.orders_archive') AND type = 'PK');
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orders_archive_user_ref' AND object_id = OBJECT_ID('order_svc.orders_archive'))
+        DROP INDEX ix_orders_archive_user_ref ON order_svc.orders_archive;
+    IF @dropPrimaryKey IS NOT NULL EXEC sp_executesql @dropPrimaryKey;
+
+    ALTER TABLE order_svc.orders_archive ADD CONSTRAINT pk_orders_archive PRIMARY KEY CLUSTERED (created_at, id)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+    CREATE INDEX ix_orders_archive_id ON order_svc.orders_archive(id)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+    CREATE INDEX ix_orders_archive_user_ref ON order_svc.orders_archive(user_ref)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+END
+GO
+
+-- order_items_archive --------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.key_constraints WHERE name = 'pk_order_items_archive')
+BEGIN
+    DECLARE @dropPrimaryKey NVARCHAR(MAX) = (
+        SELECT N'ALTER TABLE order_svc.order_items_archive DROP CONSTRAINT ' + QUOTENAME(name)
+        FROM sys.key_constraints WHERE parent_object_id = OBJECT_ID('order_svc.order_items_archive') AND type = 'PK');
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_order_items_archive_order_id' AND object_id = OBJECT_ID('order_svc.order_items_archive'))
+        DROP INDEX ix_order_items_archive_order_id ON order_svc.order_items_archive;
+    IF @dropPrimaryKey IS NOT NULL EXEC sp_executesql @dropPrimaryKey;
+
+    ALTER TABLE order_svc.order_items_archive ADD CONSTRAINT pk_order_items_archive PRIMARY KEY CLUSTERED (created_at, id)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+    CREATE INDEX ix_order_items_archive_order_id ON order_svc.order_items_archive(order_id)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+END
+GO
+
+-- order_events_archive -------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.key_constraints WHERE name = 'pk_order_events_archive')
+BEGIN
+    DECLARE @dropPrimaryKey NVARCHAR(MAX) = (
+        SELECT N'ALTER TABLE order_svc.order_events_archive DROP CONSTRAINT ' + QUOTENAME(name)
+        FROM sys.key_constraints WHERE parent_object_id = OBJECT_ID('order_svc.order_events_archive') AND type = 'PK');
+    -- Uniqueness of (order_id, seq_no) is enforced on the hot table before rows get here
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_order_events_archive_order_seq' AND object_id = OBJECT_ID('order_svc.order_events_archive'))
+        DROP INDEX ux_order_events_archive_order_seq ON order_svc.order_events_archive;
+    IF @dropPrimaryKey IS NOT NULL EXEC sp_executesql @dropPrimaryKey;
+
+    ALTER TABLE order_svc.order_events_archive ADD CONSTRAINT pk_order_events_archive PRIMARY KEY CLUSTERED (created_at, id)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+    CREATE INDEX ix_order_events_archive_order_seq ON order_svc.order_events_archive(order_id, seq_no)
+        WITH (DATA_COMPRESSION = PAGE) ON ps_order_month(created_at);
+END
+GO
+
+-- SWITCH targets: same columns, indexes and compression as the archive tables, unpartitioned
+IF OBJECT_ID('order_svc.orders_archive_switch', 'U') IS NULL
+BEGIN
+    SELECT TOP 0 * INTO order_svc.orders_archive_switch FROM order_svc.orders_archive;
+    ALTER TABLE order_svc.orders_archive_switch ADD CONSTRAINT pk_orders_archive_switch PRIMARY KEY CLUSTERED (created_at, id)
+        WITH (DATA_COMPRESSION = PAGE);
+    CREATE INDEX ix_orders_archive_switch_id ON order_svc.orders_archive_switch(id) WITH (DATA_COMPRESSION = PAGE);
+    CREATE INDEX ix_orders_archive_switch_user_ref ON order_svc.orders_archive_switch(user_ref) WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_items_archive_switch', 'U') IS NULL
+BEGIN
+    SELECT TOP 0 * INTO order_svc.order_items_archive_switch FROM order_svc.order_items_archive;
+    ALTER TABLE order_svc.order_items_archive_switch ADD CONSTRAINT pk_order_items_archive_switch PRIMARY KEY CLUSTERED (created_at, id)
+        WITH (DATA_COMPRESSION = PAGE);
+    CREATE INDEX ix_order_items_archive_switch_order_id ON order_svc.order_items_archive_switch(order_id) WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_events_archive_switch', 'U') IS NULL
+BEGIN
+    SELECT TOP 0 * INTO order_svc.order_events_archive_switch FROM order_svc.order_events_archive;
+    ALTER TABLE order_svc.order_events_archive_switch ADD CONSTRAINT pk_order_events_archive_switch PRIMARY KEY CLUSTERED (created_at, id)
+        WITH (DATA_COMPRESSION = PAGE);
+    CREATE INDEX ix_order_events_archive_switch_order_seq ON order_svc.order_events_archive_switch(order_id, seq_no)
+        WITH (DATA_COMPRESSION = PAGE);
+END
+GO
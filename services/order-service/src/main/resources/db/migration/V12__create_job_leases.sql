@@ -0,0 +1,16 @@
+-- V12__create_job_leases.sql
+-- Leases for background jobs, so each job (or each hash slot of a job) runs on one replica at a time.
+-- A lease is held until expires_at, which its holder pushes forward on every heartbeat; fencing_token
+-- goes up on every takeover. Rows named 'member:<instance>' record which replicas are alive, for
+-- splitting slotted jobs evenly. Expired rows are reused in place, so the table stays small.
+
+IF OBJECT_ID('order_svc.job_leases', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.job_leases (
+        lease_name     NVARCHAR(200) NOT NULL PRIMARY KEY,
+        holder         NVARCHAR(200) NOT NULL,
+        fencing_token  BIGINT NOT NULL,
+        expires_at     DATETIME2(6) NOT NULL,
+        heartbeat_at   DATETIME2(6) NOT NULL
+    );
+END
@@ -0,0 +1,36 @@
+-- V13__index_carts_for_reaper.sql
+-- Indexes for the abandoned-cart reaper (CartReaperService) and the active-cart lookup.
+--   * (status, updated_at) finds OPEN carts idle past the threshold, oldest first, from the index
+--     alone (id is the clustered key, so it is carried in every index row).
+--   * cart_items(cart_id) INCLUDE (quantity, unit_price_cents) lets the reaper value and delete a
+--     batch of carts' items by seeking rather than scanning the whole table under its locks.
+--   * (user_ref, status) replaces the user_ref index, so finding a user's OPEN cart no longer
+--     reads through all of their checked-out and abandoned ones.
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_carts_status_updated_at'
+               AND object_id = OBJECT_ID('order_svc.carts'))
+BEGIN
+    CREATE INDEX ix_carts_status_updated_at ON order_svc.carts(status, updated_at);
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_cart_items_cart_id'
+               AND object_id = OBJECT_ID('order_svc.cart_items'))
+BEGIN
+    CREATE INDEX ix_cart_items_cart_id ON order_svc.cart_items(cart_id) INCLUDE (quantity, unit_price_cents);
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_carts_user_ref_status'
+               AND object_id = OBJECT_ID('order_svc.carts'))
+BEGIN
+    CREATE INDEX ix_carts_user_ref_status ON order_svc.carts(user_ref, status);
+END
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_carts_user_ref'
+           AND object_id = OBJECT_ID('order_svc.carts'))
+BEGIN
+    DROP INDEX ix_carts_user_ref ON order_svc.carts;
+END
+GO
@@ -0,0 +1,7 @@
+-- V14__add_upstream_to_stock_reservations.sql
+-- Orders whose stock was reserved in product-service at cart checkout also get TTL-bounded hold
+-- rows, flagged upstream, so a PENDING order that is never paid gives that stock back on expiry.
+-- Upstream rows are already out of product-service's stock, so they are not counted as held locally.
+
+IF NOT EXISTS (SELECT * FROM sys.columns WHERE object_id = OBJECT_ID('order_svc.stock_reservations') AND name = 'upstream')
+    ALTER TABLE order_svc.stock_reservations ADD upstream BIT NOT NULL CONSTRAINT df_sr_upstream DEFAULT 0;
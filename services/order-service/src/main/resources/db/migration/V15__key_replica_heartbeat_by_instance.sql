@@ -0,0 +1,13 @@
+-- V15__key_replica_heartbeat_by_instance.sql
+-- Each order-service instance now owns its own heartbeat row. With one shared row, a beat written
+-- by an instance whose clock runs ahead made another instance's unreplicated beats look applied.
+-- The old row only ever held the latest beat, so it is dropped rather than migrated.
+
+IF COL_LENGTH('order_svc.replica_heartbeat', 'instance_id') IS NULL
+BEGIN
+    DROP TABLE order_svc.replica_heartbeat;
+    CREATE TABLE order_svc.replica_heartbeat (
+        instance_id  NVARCHAR(128) NOT NULL PRIMARY KEY,
+        beat_at      DATETIME2(6) NOT NULL
+    );
+END
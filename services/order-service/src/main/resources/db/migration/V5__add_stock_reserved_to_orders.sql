@@ -0,0 +1,6 @@
+-- V5__add_stock_reserved_to_orders.sql
+-- Flag orders whose stock was reserved in product-service at cart checkout.
+-- Such orders must not be decremented again on PAID, and must be restored when a PENDING order is cancelled.
+
+IF NOT EXISTS (SELECT * FROM sys.columns WHERE object_id = OBJECT_ID('order_svc.orders') AND name = 'stock_reserved')
+    ALTER TABLE order_svc.orders ADD stock_reserved BIT NOT NULL CONSTRAINT df_orders_stock_reserved DEFAULT 0;
@@ -0,0 +1,18 @@
+-- V6__create_stock_reservations.sql
+-- Time-bounded stock holds for PENDING orders. order-service keeps per-SKU counters in memory
+-- and persists each active hold here so the counters can be rebuilt after a restart.
+-- Rows are deleted when the order is paid, cancelled, or the hold expires.
+
+IF OBJECT_ID('order_svc.stock_reservations', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.stock_reservations (
+        id           BIGINT IDENTITY(1,1) PRIMARY KEY,
+        order_id     BIGINT NOT NULL,
+        product_ref  NVARCHAR(64) NOT NULL,
+        quantity     INT NOT NULL CONSTRAINT chk_sr_qty CHECK (quantity > 0),
+        expires_at   DATETIME2(6) NOT NULL,
+        created_at   DATETIME2(6) NOT NULL CONSTRAINT df_sr_created DEFAULT SYSUTCDATETIME()
+    );
+    CREATE INDEX ix_stock_reservations_order_id ON order_svc.stock_reservations(order_id);
+    CREATE INDEX ix_stock_reservations_expires_at ON order_svc.stock_reservations(expires_at);
+END
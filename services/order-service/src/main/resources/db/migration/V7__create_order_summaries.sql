@@ -0,0 +1,44 @@
+-- V7__create_order_summaries.sql
+-- Denormalized read model for order lists and dashboards. order-service inserts a row when an
+-- order is created and advances it with each order event; orders stays the normalized write model.
+-- The covering index serves "my orders, newest first" without touching order_svc.orders.
+
+IF OBJECT_ID('order_svc.order_summaries', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.order_summaries (
+        order_id       BIGINT NOT NULL PRIMARY KEY,
+        user_ref       NVARCHAR(64) NOT NULL,
+        customer_name  VARCHAR(255) NULL,
+        status         NVARCHAR(32) NOT NULL,
+        total_cents    BIGINT NOT NULL,
+        currency       NCHAR(3) NOT NULL CONSTRAINT df_os_currency DEFAULT N'USD',
+        item_count     INT NOT NULL CONSTRAINT df_os_item_count DEFAULT 0,
+        placed_at      DATETIME2(6) NULL,
+        created_at     DATETIME2(6) NOT NULL,
+        updated_at     DATETIME2(6) NOT NULL,
+        last_event_id  BIGINT NULL
+    );
+    CREATE INDEX ix_order_summaries_user_created ON order_svc.order_summaries(user_ref, created_at DESC)
+        INCLUDE (customer_name, status, total_cents, currency, item_count, placed_at, updated_at);
+    CREATE INDEX ix_order_summaries_created ON order_svc.order_summaries(created_at DESC)
+        INCLUDE (user_ref, customer_name, status, total_cents, currency, item_count, placed_at, updated_at);
+    CREATE INDEX ix_order_summaries_status ON order_svc.order_summaries(status) INCLUDE (total_cents);
+END
+GO
+
+-- Backfill existing orders; later repairs go through POST /api/order/summary/rebuild
+INSERT INTO order_svc.order_summaries
+    (order_id, user_ref, customer_name, status, total_cents, currency, item_count, placed_at, created_at, updated_at, last_event_id)
+SELECT o.id,
+       o.user_ref,
+       COALESCE(NULLIF(o.customer_name, ''), o.shipping_recipient),
+       o.status,
+       o.total_cents,
+       o.currency,
+       COALESCE((SELECT SUM(i.quantity) FROM order_svc.order_items i WHERE i.order_id = o.id), 0),
+       o.placed_at,
+       o.created_at,
+       o.updated_at,
+       (SELECT MAX(e.id) FROM order_svc.order_events e WHERE e.order_id = o.id)
+FROM order_svc.orders o
+WHERE NOT EXISTS (SELECT 1 FROM order_svc.order_summaries s WHERE s.order_id = o.id);
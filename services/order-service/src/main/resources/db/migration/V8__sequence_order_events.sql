@@ -0,0 +1,85 @@
+-- V8__sequence_order_events.sql
+-- Turns order_events into an append-only, per-order sequenced log with versioned payloads:
+--   * seq_no numbers each order's events from 1; (order_id, seq_no) is unique so concurrent
+--     writers on one order cannot both append the same position.
+--   * schema_version records the payload shape so old rows can be read without rewriting.
+--   * every order's log opens with an ORDER_CREATED event; existing orders get one backfilled.
+--   * orders.event_sequence holds the last sequence number handed out for that order.
+-- order_state_snapshots stores a folded state per order so replays only read the recent tail.
+
+IF COL_LENGTH('order_svc.order_events', 'seq_no') IS NULL
+BEGIN
+    ALTER TABLE order_svc.order_events ADD seq_no BIGINT NULL;
+END
+GO
+
+IF COL_LENGTH('order_svc.order_events', 'schema_version') IS NULL
+BEGIN
+    ALTER TABLE order_svc.order_events ADD schema_version INT NOT NULL CONSTRAINT df_oe_schema_version DEFAULT 1;
+END
+GO
+
+IF COL_LENGTH('order_svc.orders', 'event_sequence') IS NULL
+BEGIN
+    ALTER TABLE order_svc.orders ADD event_sequence BIGINT NOT NULL CONSTRAINT df_orders_event_sequence DEFAULT 0;
+END
+GO
+
+-- Existing events keep their relative order and move up one place to make room for ORDER_CREATED
+WITH numbered AS (
+    SELECT seq_no, ROW_NUMBER() OVER (PARTITION BY order_id ORDER BY created_at, id) AS rn
+    FROM order_svc.order_events
+    WHERE seq_no IS NULL
+)
+UPDATE numbered SET seq_no = rn + 1;
+GO
+
+INSERT INTO order_svc.order_events (order_id, seq_no, type, schema_version, payload, created_at)
+SELECT o.id,
+       1,
+       N'ORDER_CREATED',
+       1,
+       (SELECT o.user_ref AS userRef,
+               COALESCE((SELECT JSON_VALUE(e.payload, '$.from')
+                         FROM order_svc.order_events e
+                         WHERE e.order_id = o.id AND e.seq_no = 2), o.status) AS status,
+               o.total_cents AS totalCents,
+               o.currency AS currency
+        FOR JSON PATH, WITHOUT_ARRAY_WRAPPER),
+       o.created_at
+FROM order_svc.orders o
+WHERE NOT EXISTS (SELECT 1 FROM order_svc.order_events e WHERE e.order_id = o.id AND e.seq_no = 1);
+GO
+
+UPDATE o SET event_sequence = m.max_seq
+FROM order_svc.orders o
+JOIN (SELECT order_id, MAX(seq_no) AS max_seq FROM order_svc.order_events GROUP BY order_id) m
+  ON m.order_id = o.id
+WHERE o.event_sequence <> m.max_seq;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_order_events_order_seq'
+               AND object_id = OBJECT_ID('order_svc.order_events'))
+BEGIN
+    ALTER TABLE order_svc.order_events ALTER COLUMN seq_no BIGINT NOT NULL;
+    CREATE UNIQUE INDEX ux_order_events_order_seq ON order_svc.order_events(order_id, seq_no);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_state_snapshots', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.order_state_snapshots (
+        order_id          BIGINT NOT NULL PRIMARY KEY,
+        seq_no            BIGINT NOT NULL,
+        schema_version    INT NOT NULL,
+        user_ref          NVARCHAR(64) NULL,
+        status            NVARCHAR(32) NULL,
+        total_cents       BIGINT NOT NULL,
+        currency          NCHAR(3) NULL,
+        placed_at         DATETIME2(6) NULL,
+        state_updated_at  DATETIME2(6) NULL,
+        created_at        DATETIME2(6) NOT NULL CONSTRAINT df_oss_created DEFAULT SYSUTCDATETIME(),
+        CONSTRAINT fk_oss_order FOREIGN KEY (order_id) REFERENCES order_svc.orders(id)
+    );
+END
+GO
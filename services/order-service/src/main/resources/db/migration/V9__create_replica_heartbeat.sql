@@ -0,0 +1,13 @@
+-- V9__create_replica_heartbeat.sql
+-- One-row heartbeat for read-replica lag measurement. When replica routing is enabled each
+-- order-service instance writes the current time here on the primary and reads it back from the
+-- replica; read-only transactions fall back to the primary while the replica trails too far.
+
+IF OBJECT_ID('order_svc.replica_heartbeat', 'U') IS NULL
+BEGIN
+    CREATE TABLE order_svc.replica_heartbeat (
+        id       INT NOT NULL PRIMARY KEY CONSTRAINT chk_rh_single_row CHECK (id = 1),
+        beat_at  DATETIME2(6) NOT NULL
+    );
+    INSERT INTO order_svc.replica_heartbeat (id, beat_at) VALUES (1, SYSUTCDATETIME());
+END
@@ -0,0 +1,91 @@
+package org.kunlecreates.order.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.domain.OrderState;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replay throughput of the event fold (payload decode + {@link OrderState#apply}), in events per
+ * second per core. Database reads are excluded; this is the CPU cost a replay worker pays per event.
+ *
+ * Skipped in the normal build. Run with:
+ * <pre>mvn test -Dtest=OrderReplayBenchmarkTest -Dbenchmark=true [-Dbenchmark.orders=50000]</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderReplayBenchmarkTest {
+
+    private static final String[] LIFECYCLE = {"PENDING", "PAID", "SHIPPED", "DELIVERED", "REFUNDED"};
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    void replayThroughput() {
+        int orders = Integer.getInteger("benchmark.orders", 20_000);
+        List<List<OrderEvent>> logs = buildLogs(orders);
+        long eventsPerRound = logs.stream().mapToLong(List::size).sum();
+
+        ToLongFunction<List<List<OrderEvent>>> serial = all -> {
+            long checksum = 0;
+            for (List<OrderEvent> log : all) {
+                checksum += OrderState.empty(log.getFirst().getOrderId()).applyAll(log).sequence();
+            }
+            return checksum;
+        };
+        int cores = ForkJoinPool.getCommonPoolParallelism() + 1;
+        ToLongFunction<List<List<OrderEvent>>> parallel = all -> all.parallelStream()
+                .mapToLong(log -> OrderState.empty(log.getFirst().getOrderId()).applyAll(log).sequence())
+                .sum();
+
+        double serialRate = measure(serial, logs, eventsPerRound);
+        double parallelRate = measure(parallel, logs, eventsPerRound);
+
+        System.out.printf("order replay: %d orders, %d events per round%n", orders, eventsPerRound);
+        System.out.printf("  1 thread : %,.0f events/s%n", serialRate);
+        System.out.printf("  %d threads: %,.0f events/s (%,.0f events/s per core)%n",
+                cores, parallelRate, parallelRate / cores);
+
+        assertThat(serialRate).isPositive();
+        assertThat(parallelRate).isPositive();
+    }
+
+    private static double measure(ToLongFunction<List<List<OrderEvent>>> replay, List<List<OrderEvent>> logs,
+                                  long eventsPerRound) {
+        long expected = eventsPerRound;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            assertThat(replay.applyAsLong(logs)).isEqualTo(expected);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            assertThat(replay.applyAsLong(logs)).isEqualTo(expected);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return eventsPerRound * MEASURED_ROUNDS / seconds;
+    }
+
+    /** One log per order: ORDER_CREATED followed by the full status lifecycle. */
+    private static List<List<OrderEvent>> buildLogs(int orders) {
+        Instant now = Instant.now();
+        List<List<OrderEvent>> logs = new ArrayList<>(orders);
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            List<OrderEvent> log = new ArrayList<>(LIFECYCLE.length);
+            log.add(new OrderEvent(orderId, 1,
+                    new OrderEventPayload.Created("user-" + (orderId % 1000), LIFECYCLE[0], 1999L, "USD"), now));
+            for (int i = 1; i < LIFECYCLE.length; i++) {
+                log.add(new OrderEvent(orderId, i + 1,
+                        new OrderEventPayload.StatusChanged(LIFECYCLE[i - 1], LIFECYCLE[i]), now));
+            }
+            logs.add(log);
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,205 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.kunlecreates.common.latency.LatencyHistograms;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DispatchQueueTest {
+
+    @Mock
+    private WebClient webClient;
+
+    @Mock
+    private WebClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
+    @Mock
+    private WebClient.RequestHeadersSpec<?> requestHeadersSpec;
+
+    @Mock
+    private WebClient.ResponseSpec responseSpec;
+
+    @TempDir
+    Path spillDirectory;
+
+    private SimpleMeterRegistry registry;
+    private final List<Sinks.One<String>> responses = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        when(webClient.method(any(HttpMethod.class))).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestBodySpec);
+        when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn((WebClient.RequestHeadersSpec) requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        // Each request stays in flight until the test completes its sink
+        when(responseSpec.bodyToMono(String.class)).thenAnswer(invocation -> {
+            Sinks.One<String> sink = Sinks.one();
+            responses.add(sink);
+            return sink.asMono();
+        });
+    }
+
+    @Test
+    void submit_shouldLimitRequestsInFlightAndQueueTheRest() {
+        DispatchQueue queue = downstream(2, 10, DispatchQueue.OverflowPolicy.REJECT).dispatchQueue();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.submit(request(i))).isTrue();
+        }
+
+        assertThat(responses).hasSize(2);
+        assertThat(queue.depth()).isEqualTo(3);
+        assertThat(registry.get("http.client.dispatch.queue.depth").gauge().value()).isEqualTo(3.0);
+
+        responses.get(0).tryEmitValue("ok");
+
+        assertThat(responses).hasSize(3);
+        assertThat(queue.depth()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_whenFullWithRejectPolicy_shouldRefuseNewRequests() {
+        DispatchQueue queue = downstream(1, 1, DispatchQueue.OverflowPolicy.REJECT).dispatchQueue();
+        queue.submit(request(1));
+        queue.submit(request(2));
+
+        assertThat(queue.submit(request(3))).isFalse();
+        assertThat(queue.depth()).isEqualTo(1);
+        assertThat(registry.get("http.client.dispatch.overflow").tag("action", "rejected").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void submit_whenFullWithDropOldestPolicy_shouldEvictHeadOfQueue() {
+        DispatchQueue queue = downstream(1, 2, DispatchQueue.OverflowPolicy.DROP_OLDEST).dispatchQueue();
+        queue.submit(request(1));
+        queue.submit(request(2));
+        queue.submit(request(3));
+
+        assertThat(queue.submit(request(4))).isTrue();
+
+        assertThat(queue.depth()).isEqualTo(2);
+        assertThat(registry.get("http.client.dispatch.overflow").tag("action", "dropped").counter().count())
+                .isEqualTo(1.0);
+        responses.get(0).tryEmitValue("ok");
+        verify(requestBodySpec).bodyValue(Map.of("n", 3));
+    }
+
+    @Test
+    void spilledRequests_shouldBeReplayedOnceQueueHasRoom() throws Exception {
+        DispatchQueue queue = downstream(1, 1, DispatchQueue.OverflowPolicy.SPILL).dispatchQueue();
+        queue.submit(request(1));
+        queue.submit(request(2));
+        queue.submit(request(3));
+
+        assertThat(Files.readAllLines(spillDirectory.resolve("test.jsonl"))).hasSize(1);
+
+        responses.get(0).tryEmitValue("ok");
+        responses.get(1).tryEmitValue("ok");
+        queue.replaySpilled();
+
+        assertThat(spillDirectory.resolve("test.jsonl")).doesNotExist();
+        assertThat(responses).hasSize(3);
+        verify(webClient, times(3)).method(HttpMethod.POST);
+    }
+
+    @Test
+    void shutdown_shouldSpillWorkThatDidNotFinishInTime() throws Exception {
+        DispatchQueue queue = downstream(1, 10, DispatchQueue.OverflowPolicy.SPILL).dispatchQueue();
+        queue.submit(request(1));
+        queue.submit(request(2));
+        queue.submit(request(3));
+
+        queue.shutdown();
+
+        assertThat(queue.depth()).isZero();
+        assertThat(Files.readAllLines(spillDirectory.resolve("test.jsonl"))).hasSize(2);
+        assertThat(queue.submit(request(4))).isTrue();
+        assertThat(Files.readAllLines(spillDirectory.resolve("test.jsonl"))).hasSize(3);
+    }
+
+    @Test
+    void spill_shouldNotWriteCredentialsAndReplayShouldRestoreThem() throws Exception {
+        DispatchQueue queue = downstream(1, 1, DispatchQueue.OverflowPolicy.SPILL,
+                Map.of("Authorization", "Bearer service")).dispatchQueue();
+        queue.submit(request(1));
+        queue.submit(request(2));
+        queue.submit(new DispatchRequest("request 3", "POST", "/api/test", List.of(),
+                Map.of("X-Internal-Api-Key", "secret", "X-Request-Id", "r3"), Map.of("n", 3)));
+
+        String spilled = Files.readString(spillDirectory.resolve("test.jsonl"));
+        assertThat(spilled).doesNotContain("secret", "Bearer", "Authorization").contains("X-Request-Id");
+
+        responses.get(0).tryEmitValue("ok");
+        responses.get(1).tryEmitValue("ok");
+        queue.replaySpilled();
+
+        verify(requestBodySpec).header("X-Request-Id", "r3");
+        verify(requestBodySpec).header("Authorization", "Bearer service");
+        verify(requestBodySpec, never()).header("X-Internal-Api-Key", "secret");
+    }
+
+    @Test
+    void spill_withoutReplayCredentials_shouldDropCredentialedRequests() {
+        DispatchQueue queue = downstream(1, 1, DispatchQueue.OverflowPolicy.SPILL, Map.of()).dispatchQueue();
+        queue.submit(request(1));
+        queue.submit(request(2));
+        queue.submit(request(3));
+
+        assertThat(spillDirectory.resolve("test.jsonl")).doesNotExist();
+        assertThat(registry.get("http.client.dispatch.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    private Downstream downstream(int maxInFlight, int capacity, DispatchQueue.OverflowPolicy policy) {
+        return downstream(maxInFlight, capacity, policy, Map.of("Authorization", "Bearer t"));
+    }
+
+    private Downstream downstream(int maxInFlight, int capacity, DispatchQueue.OverflowPolicy policy,
+                                  Map<String, String> replayCredentials) {
+        return new Downstream("test", webClient,
+                new CircuitBreaker(10, 10, 0.5, Duration.ofMinutes(1), 1, Clock.systemUTC()),
+                10, Duration.ofSeconds(5), 0, Duration.ofMillis(1),
+                new DispatchQueue.Settings(maxInFlight, capacity, policy, spillDirectory, replayCredentials,
+                        Duration.ofMillis(100)),
+                registry, new LatencyHistograms(Duration.ofMinutes(1), Duration.ZERO));
+    }
+
+    private static DispatchRequest request(int n) {
+        return new DispatchRequest("request " + n, "POST", "/api/test", List.of(),
+                Map.of("Authorization", "Bearer t"), Map.of("n", n));
+    }
+}
@@ -0,0 +1,158 @@
+package org.kunlecreates.order.infrastructure.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.common.latency.LatencyHistograms;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownstreamTest {
+
+    private SimpleMeterRegistry registry;
+    private LatencyHistograms latency;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        latency = new LatencyHistograms(Duration.ofMinutes(1), Duration.ZERO);
+    }
+
+    @Test
+    void completedCalls_shouldBeRecordedInTheLatencyHistograms() {
+        Downstream downstream = downstream(new CircuitBreaker(4, 4, 0.5, Duration.ofMinutes(1), 1, Clock.systemUTC()), 10, 0);
+
+        downstream.call(Mono.just("ok").delayElement(Duration.ofMillis(20))).block();
+        assertThatThrownBy(() -> downstream.call(Mono.error(serverError())).block())
+                .isInstanceOf(WebClientResponseException.class);
+        latency.rollover();
+
+        LatencyHistograms.SeriesReport test = latency.report().series().get(LatencyHistograms.DOWNSTREAMS).get("test");
+        assertThat(test.lastInterval().recorded().count()).isEqualTo(2);
+        assertThat(test.lastInterval().recorded().max()).isGreaterThanOrEqualTo(20.0);
+    }
+
+    @Test
+    void circuitBreaker_shouldOpenAfterFailureRateThresholdAndRejectCalls() {
+        Downstream downstream = downstream(new CircuitBreaker(4, 4, 0.5, Duration.ofMinutes(1), 1, Clock.systemUTC()), 10, 0);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> failing = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(serverError());
+        });
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> downstream.call(failing).block()).isInstanceOf(WebClientResponseException.class);
+        }
+
+        assertThat(downstream.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> downstream.call(failing).block()).isInstanceOf(DownstreamUnavailableException.class);
+        assertThat(attempts).hasValue(4);
+        assertThat(registry.get("http.client.downstream.rejected").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void circuitBreaker_shouldCloseAfterSuccessfulTrialCalls() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 0.5, Duration.ofSeconds(30), 1, clock);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void clientErrors_shouldNotOpenBreakerOrBeRetried() {
+        Downstream downstream = downstream(new CircuitBreaker(2, 2, 0.5, Duration.ofMinutes(1), 1, Clock.systemUTC()), 10, 3);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> rejected = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null));
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> downstream.idempotentCall(rejected).block()).isInstanceOf(WebClientResponseException.class);
+        }
+
+        assertThat(attempts).hasValue(3);
+        assertThat(downstream.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void idempotentCall_shouldRetryTransientFailures() {
+        Downstream downstream = downstream(new CircuitBreaker(10, 10, 0.5, Duration.ofMinutes(1), 1, Clock.systemUTC()), 10, 2);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> flaky = Mono.defer(() -> attempts.incrementAndGet() < 3 ? Mono.error(serverError()) : Mono.just("ok"));
+
+        assertThat(downstream.idempotentCall(flaky).block()).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+        assertThat(registry.get("http.client.downstream.retries").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void bulkhead_shouldRejectCallsBeyondMaxConcurrency() {
+        Downstream downstream = downstream(new CircuitBreaker(10, 10, 0.5, Duration.ofMinutes(1), 1, Clock.systemUTC()), 1, 0);
+        Sinks.One<String> pending = Sinks.one();
+        downstream.call(pending.asMono()).subscribe();
+
+        assertThatThrownBy(() -> downstream.call(Mono.just("second")).block())
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("too many concurrent calls");
+
+        pending.tryEmitValue("first");
+        assertThat(downstream.call(Mono.just("third")).block()).isEqualTo("third");
+    }
+
+    private Downstream downstream(CircuitBreaker breaker, int maxConcurrentCalls, int maxRetries) {
+        return new Downstream("test", null, breaker, maxConcurrentCalls, Duration.ofSeconds(5),
+                maxRetries, Duration.ofMillis(1),
+                new DispatchQueue.Settings(1, 10, DispatchQueue.OverflowPolicy.REJECT, null, Map.of(), Duration.ZERO), registry, latency);
+    }
+
+    private static WebClientResponseException serverError() {
+        return WebClientResponseException.create(503, "Service Unavailable", null, null, null);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.kunlecreates.order.infrastructure.jfr;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.common.jfr.JfrRecordingEndpoint;
+import org.kunlecreates.order.application.OrderMetrics;
+import org.kunlecreates.order.config.JfrConfig;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrConfig().jfrRecordingEndpoint(Duration.ofMinutes(1), DataSize.ofMegabytes(8));
+    private final OrderMetrics orderMetrics = new OrderMetrics(new SimpleMeterRegistry(), ObservationRegistry.create());
+
+    @AfterEach
+    void stopRecording() {
+        endpoint.stop(0);
+    }
+
+    @Test
+    void recordsEveryOrderServiceEvent() {
+        assertThat(endpoint.start().events()).containsExactly(OrderCreateEvent.NAME, OrderStatusUpdateEvent.NAME,
+                CartCheckoutEvent.NAME, StockAdjustmentEvent.NAME, NotificationDispatchEvent.NAME);
+    }
+
+    @Test
+    void summaryCountsEventsByTypeAndListsTheSlowestWithTheirFields() {
+        endpoint.start();
+        for (int i = 1; i <= 3; i++) {
+            long orderId = i;
+            orderMetrics.observe("create", () -> {
+                OrderCreateEvent event = orderMetrics.begin(new OrderCreateEvent());
+                event.orderId = orderId;
+                event.itemCount = 2;
+                event.status = "PENDING";
+                pause(orderId * 5);
+                return null;
+            });
+        }
+        assertThatThrownBy(() -> orderMetrics.observe("update_status", () -> {
+            orderMetrics.begin(new OrderStatusUpdateEvent());
+            throw new IllegalArgumentException("Order not found");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        JfrRecordingEndpoint.Summary summary = endpoint.stop(2);
+
+        assertThat(summary.events()).containsKeys(OrderCreateEvent.NAME, OrderStatusUpdateEvent.NAME);
+        assertThat(summary.events().get(OrderCreateEvent.NAME).count()).isEqualTo(3);
+        assertThat(summary.events().get(OrderCreateEvent.NAME).maxMillis()).isGreaterThanOrEqualTo(15);
+        assertThat(summary.slowest()).hasSize(2);
+        assertThat(summary.slowest().get(0).fields())
+                .containsEntry("orderId", 3L)
+                .containsEntry("itemCount", 2)
+                .containsEntry("status", "PENDING")
+                .containsEntry("outcome", "success");
+        assertThat(summary.slowest().get(1).fields()).containsEntry("orderId", 2L);
+        assertThat(endpoint.status().recording()).isFalse();
+    }
+
+    @Test
+    void failedOperationsRecordTheirOutcome() {
+        endpoint.start();
+        assertThatThrownBy(() -> orderMetrics.observe("update_status", () -> {
+            orderMetrics.begin(new OrderStatusUpdateEvent()).orderId = 7;
+            throw new IllegalStateException("Invalid transition");
+        })).isInstanceOf(IllegalStateException.class);
+
+        JfrRecordingEndpoint.Summary summary = endpoint.stop(null);
+
+        assertThat(summary.slowest())
+                .filteredOn(event -> event.event().equals(OrderStatusUpdateEvent.NAME))
+                .singleElement()
+                .satisfies(event -> assertThat(event.fields())
+                        .containsEntry("orderId", 7L)
+                        .containsEntry("outcome", "rejected"));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,25 +1,31 @@
 package org.kunlecreates.order.infrastructure.notification;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kunlecreates.order.domain.Order;
 import org.kunlecreates.order.domain.OrderItem;
-import org.kunlecreates.order.repository.OrderItemRepository;
+import org.kunlecreates.order.infrastructure.http.DownstreamClients;
+import org.kunlecreates.common.latency.LatencyHistograms;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -38,9 +44,6 @@ class NotificationClientTest {
     @Mock
     private JwtDecoder jwtDecoder;
 
-    @Mock
-    private OrderItemRepository orderItemRepository;
-
     @Mock
     private WebClient.RequestBodyUriSpec requestBodyUriSpec;
 
@@ -56,12 +59,18 @@ class NotificationClientTest {
     private NotificationClient enabledClient;
     private NotificationClient disabledClient;
 
+    private DownstreamClients downstreamClients;
+
     @BeforeEach
     void setUp() {
+        when(webClientBuilder.clone()).thenReturn(webClientBuilder);
         when(webClientBuilder.baseUrl(any(String.class))).thenReturn(webClientBuilder);
+        when(webClientBuilder.clientConnector(any())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
+        downstreamClients = new DownstreamClients(webClientBuilder, new SimpleMeterRegistry(),
+                new LatencyHistograms(Duration.ofMinutes(1), Duration.ZERO), new MockEnvironment());
 
-        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(webClient.method(any(HttpMethod.class))).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(any(String.class))).thenReturn(requestBodySpec);
         when(requestBodySpec.header(any(String.class), any(String.class))).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any())).thenReturn((WebClient.RequestHeadersSpec) requestHeadersSpec);
@@ -71,40 +80,42 @@ class NotificationClientTest {
         enabledClient = new NotificationClient(
                 "http://notification:8003",
                 true,
-                webClientBuilder,
-                jwtDecoder,
-                orderItemRepository
+                downstreamClients,
+                jwtDecoder
         );
 
         disabledClient = new NotificationClient(
                 "http://notification:8003",
                 false,
-                webClientBuilder,
-                jwtDecoder,
-                orderItemRepository
+                downstreamClients,
+                jwtDecoder
         );
     }
 
     @Test
     void sendOrderConfirmation_shouldSkipWhenDisabled() {
-        disabledClient.sendOrderConfirmation(buildOrder(1L, "user@shop.com", "User Name"), "jwt");
-        verify(webClient, never()).post();
+        disabledClient.sendOrderConfirmation(OrderSnapshot.of(buildOrder(1L, "user@shop.com", "User Name")), "jwt");
+        verify(webClient, never()).method(any(HttpMethod.class));
     }
 
     @Test
     void sendOrderConfirmation_shouldUseStoredCustomerDataAndItems() {
         Order order = buildOrder(2L, "stored@shop.com", "Stored User");
-        when(orderItemRepository.findByOrderId(2L)).thenReturn(List.of(
+        OrderSnapshot snapshot = OrderSnapshot.of(order, List.of(
                 new OrderItem(order, "SKU-1", "Coffee", 2, 1200L),
-                new OrderItem(order, "SKU-2", "Milk", 1, 500L)
+                new OrderItem(order, "SKU-2", null, 1, 500L)
         ));
 
-        enabledClient.sendOrderConfirmation(order, "jwt-token");
+        enabledClient.sendOrderConfirmation(snapshot, "jwt-token");
 
-        verify(orderItemRepository).findByOrderId(2L);
         verify(requestBodyUriSpec).uri("/api/notification/order-confirmation");
         verify(requestBodySpec).header("Authorization", "Bearer jwt-token");
-        verify(requestBodySpec).bodyValue(any(NotificationClient.OrderConfirmationRequest.class));
+        verify(requestBodySpec).bodyValue(argThat((NotificationClient.OrderConfirmationRequest request) ->
+                request.customer_email().equals("stored@shop.com")
+                        && request.items().equals(List.of(
+                                new NotificationClient.OrderItemDto("Coffee", 2, 12.0),
+                                new NotificationClient.OrderItemDto("SKU-2", 1, 5.0)))
+                        && request.order_date() != null));
     }
 
     @Test
@@ -116,9 +127,8 @@ class NotificationClientTest {
                 .claim("fullName", "Jwt User")
                 .build();
         when(jwtDecoder.decode("jwt-token")).thenReturn(jwt);
-        when(orderItemRepository.findByOrderId(3L)).thenReturn(List.of());
 
-        enabledClient.sendOrderConfirmation(order, "jwt-token");
+        enabledClient.sendOrderConfirmation(OrderSnapshot.of(order), "jwt-token");
 
         verify(jwtDecoder).decode("jwt-token");
         verify(requestBodySpec).bodyValue(any(NotificationClient.OrderConfirmationRequest.class));
@@ -128,9 +138,8 @@ class NotificationClientTest {
     void sendOrderConfirmation_shouldUseFallbackValuesWhenJwtDecodeFails() {
         Order order = buildOrder(4L, null, null);
         when(jwtDecoder.decode("bad-jwt")).thenThrow(new RuntimeException("invalid token"));
-        when(orderItemRepository.findByOrderId(4L)).thenReturn(List.of());
 
-        enabledClient.sendOrderConfirmation(order, "bad-jwt");
+        enabledClient.sendOrderConfirmation(OrderSnapshot.of(order), "bad-jwt");
 
         verify(jwtDecoder).decode("bad-jwt");
         verify(requestBodySpec).bodyValue(any(NotificationClient.OrderConfirmationRequest.class));
@@ -140,7 +149,7 @@ class NotificationClientTest {
     void sendShippingNotification_shouldExecuteHappyPath() {
         Order order = buildOrder(5L, "ship@shop.com", "Shipper");
 
-        enabledClient.sendShippingNotification(order, "TRK123", "Tomorrow", "jwt-token");
+        enabledClient.sendShippingNotification(OrderSnapshot.of(order), "TRK123", "Tomorrow", "jwt-token");
 
         verify(requestBodyUriSpec).uri("/api/notification/shipping");
         verify(requestBodySpec).bodyValue(any(NotificationClient.ShippingNotificationRequest.class));
@@ -149,7 +158,7 @@ class NotificationClientTest {
     @Test
     void sendOrderPaidNotification_shouldExecuteHappyPath() {
         Order order = buildOrder(6L, "paid@shop.com", "Paid User");
-        enabledClient.sendOrderPaidNotification(order, "jwt-token");
+        enabledClient.sendOrderPaidNotification(OrderSnapshot.of(order), "jwt-token");
         verify(requestBodyUriSpec).uri("/api/notification/order-paid");
         verify(requestBodySpec).bodyValue(any(NotificationClient.OrderPaidRequest.class));
     }
@@ -157,15 +166,23 @@ class NotificationClientTest {
     @Test
     void sendOrderDeliveredNotification_shouldExecuteHappyPath() {
         Order order = buildOrder(7L, "delivered@shop.com", "Delivered User");
-        enabledClient.sendOrderDeliveredNotification(order, "jwt-token");
+        enabledClient.sendOrderDeliveredNotification(OrderSnapshot.of(order), "jwt-token");
         verify(requestBodyUriSpec).uri("/api/notification/order-delivered");
         verify(requestBodySpec).bodyValue(any(NotificationClient.OrderDeliveredRequest.class));
     }
 
+    @Test
+    void sendOrderDeliveredNotification_shouldCarryTheSupersededStatuses() {
+        Order order = buildOrder(7L, "delivered@shop.com", "Delivered User");
+        enabledClient.sendOrderDeliveredNotification(OrderSnapshot.of(order), List.of("PAID", "SHIPPED"), "jwt-token");
+        verify(requestBodySpec).bodyValue(argThat((NotificationClient.OrderDeliveredRequest request) ->
+                request.superseded().equals(List.of("PAID", "SHIPPED"))));
+    }
+
     @Test
     void sendOrderCancelledNotification_shouldExecuteHappyPath() {
         Order order = buildOrder(8L, "cancelled@shop.com", "Cancelled User");
-        enabledClient.sendOrderCancelledNotification(order, "jwt-token");
+        enabledClient.sendOrderCancelledNotification(OrderSnapshot.of(order), "jwt-token");
         verify(requestBodyUriSpec).uri("/api/notification/order-cancelled");
         verify(requestBodySpec).bodyValue(any(NotificationClient.OrderCancelledRequest.class));
     }
@@ -173,7 +190,7 @@ class NotificationClientTest {
     @Test
     void sendOrderRefundedNotification_shouldExecuteHappyPath() {
         Order order = buildOrder(9L, "refunded@shop.com", "Refunded User");
-        enabledClient.sendOrderRefundedNotification(order, "jwt-token");
+        enabledClient.sendOrderRefundedNotification(OrderSnapshot.of(order), "jwt-token");
         verify(requestBodyUriSpec).uri("/api/notification/order-refunded");
         verify(requestBodySpec).bodyValue(any(NotificationClient.OrderRefundedRequest.class));
     }
@@ -0,0 +1,133 @@
+package org.kunlecreates.order.infrastructure.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderStatus;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class StatusNotificationCoalescerTest {
+
+    @Mock
+    private NotificationClient notificationClient;
+
+    private StatusNotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        // 1s window on a 100ms tick: entries are due 10 ticks after their last status
+        coalescer = new StatusNotificationCoalescer(notificationClient, new SimpleMeterRegistry(),
+                Duration.ofSeconds(1), Duration.ofMillis(100), 8, false);
+    }
+
+    @Test
+    void statusesWithinWindow_shouldSendOnlyTheLatestWithTheSupersededOnes() {
+        OrderSnapshot snapshot = snapshot(1L);
+        coalescer.submit(OrderStatus.PAID, snapshot, null, "jwt");
+        advance(3);
+        coalescer.submit(OrderStatus.CANCELLED, snapshot, null, "jwt");
+
+        advance(9);
+        verifyNoInteractions(notificationClient);
+
+        advance(1);
+        verify(notificationClient).sendOrderCancelledNotification(snapshot, List.of("PAID"), "jwt");
+        verify(notificationClient, never()).sendOrderPaidNotification(any(), anyList(), anyString());
+        assertThat(coalescer.pendingCount()).isZero();
+    }
+
+    @Test
+    void shippedFollowedByAnotherStatus_shouldStillSendTheShippingDetails() {
+        OrderSnapshot snapshot = snapshot(7L);
+        coalescer.submit(OrderStatus.PAID, snapshot, null, "jwt");
+        advance(3);
+        coalescer.submit(OrderStatus.SHIPPED, snapshot, new StatusNotificationCoalescer.Shipment("TRACK-7", "Soon"), "jwt");
+        advance(3);
+        coalescer.submit(OrderStatus.DELIVERED, snapshot, null, "jwt");
+
+        verify(notificationClient).sendShippingNotification(snapshot, "TRACK-7", "Soon", List.of("PAID"), "jwt");
+
+        advance(10);
+        verify(notificationClient).sendOrderDeliveredNotification(snapshot, List.of(), "jwt");
+        verify(notificationClient, never()).sendOrderPaidNotification(any(), anyList(), anyString());
+        assertThat(coalescer.pendingCount()).isZero();
+    }
+
+    @Test
+    void windowLongerThanWheel_shouldWaitForDeadlineNotSlot() {
+        OrderSnapshot snapshot = snapshot(2L);
+        coalescer.submit(OrderStatus.SHIPPED, snapshot, new StatusNotificationCoalescer.Shipment("TRACK-2", "Soon"), "jwt");
+
+        // The wheel has 8 slots, so the entry's slot comes round at tick 2 before its deadline at tick 10
+        advance(9);
+        verifyNoInteractions(notificationClient);
+
+        advance(1);
+        verify(notificationClient).sendShippingNotification(snapshot, "TRACK-2", "Soon", List.of(), "jwt");
+    }
+
+    @Test
+    void differentOrders_shouldEachGetTheirNotification() {
+        OrderSnapshot first = snapshot(3L);
+        OrderSnapshot second = snapshot(4L);
+        coalescer.submit(OrderStatus.PAID, first, null, "jwt-1");
+        coalescer.submit(OrderStatus.CANCELLED, second, null, "jwt-2");
+
+        advance(10);
+
+        verify(notificationClient).sendOrderPaidNotification(first, List.of(), "jwt-1");
+        verify(notificationClient).sendOrderCancelledNotification(second, List.of(), "jwt-2");
+    }
+
+    @Test
+    void flushAll_shouldSendPendingNotificationsImmediately() {
+        OrderSnapshot snapshot = snapshot(5L);
+        coalescer.submit(OrderStatus.REFUNDED, snapshot, null, "jwt");
+
+        coalescer.flushAll();
+
+        verify(notificationClient).sendOrderRefundedNotification(eq(snapshot), eq(List.of()), eq("jwt"));
+        assertThat(coalescer.pendingCount()).isZero();
+    }
+
+    @Test
+    void zeroWindow_shouldSendWithoutBuffering() {
+        StatusNotificationCoalescer immediate = new StatusNotificationCoalescer(notificationClient,
+                new SimpleMeterRegistry(), Duration.ZERO, Duration.ofMillis(100), 8, false);
+        OrderSnapshot snapshot = snapshot(6L);
+
+        immediate.submit(OrderStatus.PAID, snapshot, null, "jwt");
+
+        verify(notificationClient).sendOrderPaidNotification(snapshot, List.of(), "jwt");
+        assertThat(immediate.pendingCount()).isZero();
+    }
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            coalescer.advance();
+        }
+    }
+
+    private static OrderSnapshot snapshot(Long orderId) {
+        Order order = new Order("user-1", "PAID", 1000L);
+        ReflectionTestUtils.setField(order, "id", orderId);
+        return OrderSnapshot.of(order);
+    }
+}
@@ -0,0 +1,93 @@
+package org.kunlecreates.order.infrastructure.product;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductCatalogTest {
+
+    private static final Instant T1 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant T2 = Instant.parse("2026-01-01T00:00:05Z");
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ProductCatalog(productServiceClient, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    void load_shouldPageThroughCatalogUntilShortPage() {
+        when(productServiceClient.fetchCatalogPage(isNull(), isNull(), eq(2))).thenReturn(List.of(
+                item("SKU-A", 1000L, true, T1), item("SKU-B", 2000L, true, T1)));
+        when(productServiceClient.fetchCatalogPage(eq(T1), eq("SKU-B"), eq(2))).thenReturn(List.of(
+                item("SKU-C", 3000L, false, T2)));
+
+        catalog.load();
+
+        assertThat(catalog.isLoaded()).isTrue();
+        assertThat(catalog.size()).isEqualTo(3);
+        assertThat(catalog.find("SKU-B")).get().extracting(ProductCatalog.Product::priceCents).isEqualTo(2000L);
+        assertThat(catalog.find("SKU-C")).get().extracting(ProductCatalog.Product::active).isEqualTo(false);
+    }
+
+    @Test
+    void load_whenProductServiceUnavailable_shouldStayUnloaded() {
+        when(productServiceClient.fetchCatalogPage(any(), any(), anyInt())).thenReturn(null);
+
+        catalog.load();
+
+        assertThat(catalog.isLoaded()).isFalse();
+        assertThat(catalog.find("SKU-A")).isEmpty();
+    }
+
+    @Test
+    void refresh_shouldApplyChangesAfterCursor() {
+        when(productServiceClient.fetchCatalogPage(isNull(), isNull(), eq(2))).thenReturn(List.of(
+                item("SKU-A", 1000L, true, T1)));
+        catalog.load();
+        when(productServiceClient.fetchCatalogPage(eq(T1), eq("SKU-A"), eq(2))).thenReturn(List.of(
+                item("SKU-A", 1500L, true, T2)));
+
+        catalog.refresh();
+
+        assertThat(catalog.find("SKU-A")).get().extracting(ProductCatalog.Product::priceCents).isEqualTo(1500L);
+    }
+
+    @Test
+    void refresh_whenFetchFails_shouldKeepPreviousSnapshot() {
+        when(productServiceClient.fetchCatalogPage(isNull(), isNull(), eq(2))).thenReturn(List.of(
+                item("SKU-A", 1000L, true, T1)));
+        catalog.load();
+        when(productServiceClient.fetchCatalogPage(eq(T1), eq("SKU-A"), eq(2))).thenReturn(null);
+
+        catalog.refresh();
+
+        assertThat(catalog.isLoaded()).isTrue();
+        assertThat(catalog.find("SKU-A")).get().extracting(ProductCatalog.Product::priceCents).isEqualTo(1000L);
+    }
+
+    private static ProductServiceClient.CatalogItem item(String sku, long priceCents, boolean active, Instant updatedAt) {
+        return new ProductServiceClient.CatalogItem(sku, sku + " name", priceCents, "USD", active, updatedAt);
+    }
+}
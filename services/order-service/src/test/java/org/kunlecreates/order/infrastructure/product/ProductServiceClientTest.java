@@ -1,18 +1,30 @@
 package org.kunlecreates.order.infrastructure.product;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.infrastructure.http.DownstreamClients;
+import org.kunlecreates.common.latency.LatencyHistograms;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,12 +50,22 @@ class ProductServiceClientTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    private DownstreamClients downstreamClients;
+
     @BeforeEach
     void setUp() {
+        when(webClientBuilder.clone()).thenReturn(webClientBuilder);
         when(webClientBuilder.baseUrl(any(String.class))).thenReturn(webClientBuilder);
+        when(webClientBuilder.clientConnector(any())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
-        when(webClient.patch()).thenReturn(requestBodyUriSpec);
+        downstreamClients = new DownstreamClients(webClientBuilder, new SimpleMeterRegistry(),
+                new LatencyHistograms(Duration.ofMinutes(1), Duration.ZERO), new MockEnvironment());
+        when(webClient.method(any(HttpMethod.class))).thenReturn(requestBodyUriSpec);
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(eq("/api/product/internal/stock/batch"))).thenReturn(requestBodySpec);
         when(requestBodyUriSpec.uri(eq("/api/product/internal/{sku}/stock"), any(String.class))).thenReturn(requestBodySpec);
+        when(requestBodyUriSpec.uri(eq("/api/product/internal/stock/batch/{requestId}/cancel"), any(String.class)))
+                .thenReturn(requestBodySpec);
         when(requestBodySpec.header(any(String.class), any(String.class))).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any())).thenReturn((WebClient.RequestHeadersSpec) requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
@@ -56,12 +78,12 @@ class ProductServiceClientTest {
                 "http://product:8081",
                 "api-key",
                 false,
-                webClientBuilder
+                downstreamClients
         );
 
         client.adjustStock("SKU-1", -2, "Order paid");
 
-        verify(webClient, never()).patch();
+        verify(webClient, never()).method(any(HttpMethod.class));
     }
 
     @Test
@@ -70,12 +92,12 @@ class ProductServiceClientTest {
                 "http://product:8081",
                 "   ",
                 true,
-                webClientBuilder
+                downstreamClients
         );
 
         client.adjustStock("SKU-1", -2, "Order paid");
 
-        verify(webClient, never()).patch();
+        verify(webClient, never()).method(any(HttpMethod.class));
     }
 
     @Test
@@ -84,14 +106,82 @@ class ProductServiceClientTest {
                 "http://product:8081",
                 "secret-key",
                 true,
-                webClientBuilder
+                downstreamClients
         );
 
         client.adjustStock("SKU-2", 3, "Order cancelled");
 
-        verify(webClient).patch();
+        verify(webClient).method(HttpMethod.PATCH);
         verify(requestBodyUriSpec).uri("/api/product/internal/{sku}/stock", "SKU-2");
         verify(requestBodySpec).header("X-Internal-Api-Key", "secret-key");
         verify(requestBodySpec).bodyValue(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void reserveStock_shouldSkipWhenDisabled() {
+        ProductServiceClient client = new ProductServiceClient(
+                "http://product:8081",
+                "api-key",
+                false,
+                downstreamClients
+        );
+
+        boolean reserved = client.reserveStock("cart-1-a", Map.of("SKU-1", 2), "Cart #1 checkout");
+
+        assertThat(reserved).isFalse();
+        verify(webClient, never()).post();
+    }
+
+    @Test
+    void reserveStock_shouldPostSingleBatchRequest() {
+        when(responseSpec.bodyToMono(any(Class.class))).thenReturn((Mono) Mono.just(Map.of()));
+        ProductServiceClient client = new ProductServiceClient(
+                "http://product:8081",
+                "secret-key",
+                true,
+                downstreamClients
+        );
+
+        boolean reserved = client.reserveStock("cart-1-a", Map.of("SKU-1", 2, "SKU-2", 1), "Cart #1 checkout");
+
+        assertThat(reserved).isTrue();
+        verify(webClient).post();
+        verify(requestBodyUriSpec).uri("/api/product/internal/stock/batch");
+        verify(requestBodySpec).header("X-Internal-Api-Key", "secret-key");
+        verify(requestBodySpec).bodyValue(argThat((Map<String, Object> body) -> "cart-1-a".equals(body.get("requestId"))));
+    }
+
+    @Test
+    void reserveStock_whenTheOutcomeIsUnknown_shouldCancelTheBatchAndReportNotReserved() {
+        when(responseSpec.bodyToMono(any(Class.class))).thenReturn((Mono) Mono.error(
+                new java.util.concurrent.TimeoutException("Did not observe any item or terminal signal")));
+        ProductServiceClient client = new ProductServiceClient(
+                "http://product:8081",
+                "secret-key",
+                true,
+                downstreamClients
+        );
+
+        boolean reserved = client.reserveStock("cart-1-a", Map.of("SKU-1", 2), "Cart #1 checkout");
+
+        assertThat(reserved).isFalse();
+        verify(requestBodyUriSpec, timeout(2000)).uri("/api/product/internal/stock/batch/{requestId}/cancel", "cart-1-a");
+    }
+
+    @Test
+    void reserveStock_whenProductServiceRejects_shouldThrow() {
+        when(responseSpec.bodyToMono(any(Class.class))).thenReturn((Mono) Mono.error(
+                org.springframework.web.reactive.function.client.WebClientResponseException.create(
+                        400, "Bad Request", null, "Insufficient stock for sku SKU-1".getBytes(), null)));
+        ProductServiceClient client = new ProductServiceClient(
+                "http://product:8081",
+                "secret-key",
+                true,
+                downstreamClients
+        );
+
+        assertThatThrownBy(() -> client.reserveStock("cart-1-a", Map.of("SKU-1", 5), "Cart #1 checkout"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient stock");
+    }
+}
@@ -0,0 +1,132 @@
+package org.kunlecreates.order.infrastructure.sharding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardRouterTest {
+
+    private static final List<String> USERS = IntStream.range(0, 20_000).mapToObj(i -> "user-" + i).toList();
+
+    private ShardRouter router;
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.destroy();
+        }
+        ShardContext.clear();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void ring_shouldSpreadUsersEvenlyAcrossShards() {
+        ShardRing ring = new ShardRing(List.of("s0", "s1", "s2", "s3"), 128);
+
+        Map<String, Long> perShard = USERS.stream().collect(Collectors.groupingBy(ring::shardFor, Collectors.counting()));
+
+        assertThat(perShard).hasSize(4);
+        assertThat(perShard.values()).allSatisfy(count -> assertThat(count).isBetween(4_000L, 6_000L));
+    }
+
+    @Test
+    void ring_addingAShard_shouldOnlyMoveUsersOntoTheNewShard() {
+        ShardRing before = new ShardRing(List.of("s0", "s1", "s2"), 128);
+        ShardRing after = new ShardRing(List.of("s0", "s1", "s2", "s3"), 128);
+
+        List<String> moved = USERS.stream().filter(user -> !before.shardFor(user).equals(after.shardFor(user))).toList();
+
+        assertThat(moved).allSatisfy(user -> assertThat(after.shardFor(user)).isEqualTo("s3"));
+        assertThat(moved.size()).isBetween(USERS.size() / 6, USERS.size() / 3);
+    }
+
+    @Test
+    void router_withoutShards_shouldUseTheDefaultShardInline() {
+        router = new ShardRouter(List.of(), List.of(), 128, 4, false);
+
+        assertThat(router.isSharded()).isFalse();
+        assertThat(router.shardFor("anyone")).isEqualTo(ShardRouter.DEFAULT_SHARD);
+        String caller = Thread.currentThread().getName();
+        assertThat(router.fanOut(() -> Thread.currentThread().getName())).containsExactly(caller);
+    }
+
+    @Test
+    void fanOut_shouldRunOnEveryShardWithItBound() {
+        router = new ShardRouter(List.of("s0", "s1", "s2"), List.of(), 128, 4, false);
+
+        assertThat(router.fanOut(ShardContext::current)).containsExactly("s0", "s1", "s2");
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    void fanOut_whenAShardFails_shouldRethrowItsException() {
+        router = new ShardRouter(List.of("s0", "s1"), List.of(), 128, 2, false);
+
+        assertThatThrownBy(() -> router.fanOut(() -> {
+            if ("s1".equals(ShardContext.current())) {
+                throw new IllegalStateException("s1 is down");
+            }
+            return 1;
+        })).isInstanceOf(IllegalStateException.class).hasMessage("s1 is down");
+    }
+
+    @Test
+    void onShard_insideATransaction_shouldRefuseToSwitchShards() {
+        router = new ShardRouter(List.of("s0", "s1"), List.of(), 128, 2, false);
+        ShardContext.bind("s0");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThatThrownBy(() -> router.onShard("s1", () -> 1)).isInstanceOf(IllegalStateException.class);
+        assertThat(router.onShard("s0", () -> 1)).isEqualTo(1);
+    }
+
+    @Test
+    void targetRing_shouldMarkOnlyUsersChangingShardAsMoving() {
+        router = new ShardRouter(List.of("s0", "s1"), List.of("s0", "s1", "s2"), 128, 2, true);
+        ShardRing target = router.targetRing().orElseThrow();
+
+        Map<Boolean, List<String>> moving = USERS.stream().collect(Collectors.partitioningBy(router::isFrozen));
+
+        assertThat(router.allShards()).containsExactly("s0", "s1", "s2");
+        assertThat(moving.get(true)).isNotEmpty().allSatisfy(user -> assertThat(target.shardFor(user)).isEqualTo("s2"));
+        assertThat(moving.get(false)).allSatisfy(user -> assertThat(target.shardFor(user)).isEqualTo(router.shardFor(user)));
+    }
+
+    @Test
+    void routingDataSource_shouldUseTheBoundShardAndDefaultWhenUnbound() throws Exception {
+        Map<String, DataSource> pools = List.of("s0", "s1").stream()
+                .collect(Collectors.toMap(Function.identity(), shard -> pool()));
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(pools, "s0", new SimpleMeterRegistry());
+
+        assertThat(routing.getConnection()).isSameAs(pools.get("s0").getConnection());
+        ShardContext.bind("s1");
+        assertThat(routing.getConnection()).isSameAs(pools.get("s1").getConnection());
+        ShardContext.bind("s9");
+        assertThatThrownBy(routing::getConnection).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static DataSource pool() {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
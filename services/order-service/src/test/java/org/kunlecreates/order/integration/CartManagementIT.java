@@ -3,10 +3,14 @@ package org.kunlecreates.order.integration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.kunlecreates.order.test.JwtTestHelper;
+import org.kunlecreates.order.test.SqlBudgetExtension;
+import org.kunlecreates.order.test.SqlRecordingConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -28,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
+@Import(SqlRecordingConfig.class)
 @ActiveProfiles("test")
 class CartManagementIT {
 
@@ -49,6 +54,9 @@ class CartManagementIT {
         registry.add("spring.flyway.enabled", () -> "true");
     }
 
+    @RegisterExtension
+    final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -70,6 +78,7 @@ class CartManagementIT {
             jdbcTemplate.execute("DELETE FROM order_svc.cart_items");
             jdbcTemplate.execute("DELETE FROM order_svc.carts");
             jdbcTemplate.execute("DELETE FROM order_svc.order_items");
+            jdbcTemplate.execute("DELETE FROM order_svc.stock_reservations");
             jdbcTemplate.execute("DELETE FROM order_svc.orders");
         } catch (Exception ignored) {
         }
@@ -167,4 +176,44 @@ class CartManagementIT {
 
         assertThat(getAsOther.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
-}
\ No newline at end of file
+
+    private long createCartWithItems(HttpHeaders headers, int items) {
+        ResponseEntity<Map> cart = restTemplate.exchange("/api/cart", HttpMethod.POST,
+                new HttpEntity<>(Map.of(), headers), Map.class);
+        long cartId = ((Number) cart.getBody().get("id")).longValue();
+        for (int i = 0; i < items; i++) {
+            restTemplate.exchange("/api/cart/" + cartId + "/items", HttpMethod.POST,
+                    new HttpEntity<>(Map.of("productRef", "SKU-BUDGET-" + i, "quantity", 1, "unitPriceCents", 500), headers),
+                    Void.class);
+        }
+        return cartId;
+    }
+
+    @Test
+    void addItem_shouldStayWithinItsStatementBudget() {
+        HttpHeaders headers = authHeaders("cart-budget-3");
+        long cartId = createCartWithItems(headers, 2);
+
+        // Ownership check, cart load, activity touch, existing-line lookup and the insert
+        ResponseEntity<Void> response = sqlBudget.atMost(3, 1, 1, () -> restTemplate.exchange(
+                "/api/cart/" + cartId + "/items", HttpMethod.POST,
+                new HttpEntity<>(Map.of("productRef", "SKU-BUDGET-NEW", "quantity", 1, "unitPriceCents", 500), headers),
+                Void.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void clearCart_shouldDeleteEveryLineInOneStatement() {
+        HttpHeaders headers = authHeaders("cart-budget-4");
+        long cartId = createCartWithItems(headers, 3);
+
+        // Ownership check, cart existence check and a single bulk delete of its lines
+        ResponseEntity<Void> response = sqlBudget.atMost(2, 0, 0, 1, () -> restTemplate.exchange(
+                "/api/cart/" + cartId, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_svc.cart_items WHERE cart_id = ?", Integer.class, cartId)).isZero();
+    }
+}
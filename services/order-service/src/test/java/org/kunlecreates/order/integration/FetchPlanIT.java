@@ -0,0 +1,191 @@
+package org.kunlecreates.order.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.kunlecreates.order.test.JwtTestHelper;
+import org.kunlecreates.order.test.SqlBudgetExtension;
+import org.kunlecreates.order.test.SqlRecordingConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements issued per read endpoint, held to a budget by {@link SqlBudgetExtension}: each renders
+ * from a single select, so a lazy association touched while building the response shows up as a
+ * failure here. Order reads must also load no entities, which Hibernate statistics count.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@Import(SqlRecordingConfig.class)
+@ActiveProfiles("test")
+class FetchPlanIT {
+
+    @Container
+    static MSSQLServerContainer<?> mssql = new MSSQLServerContainer<>(
+            System.getProperty("testcontainers.mssql.image", "mcr.microsoft.com/mssql/server:2019-latest"))
+            .withPassword(System.getProperty("testcontainers.mssql.sa.password", "YourStrong!Passw0rd"))
+            .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withShmSize(268435456L))
+            .withStartupTimeout(Duration.ofMinutes(5));
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mssql::getJdbcUrl);
+        registry.add("jakarta.persistence.jdbc.url", mssql::getJdbcUrl);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.SQLServer2012Dialect");
+        registry.add("spring.datasource.username", mssql::getUsername);
+        registry.add("spring.datasource.password", mssql::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "com.microsoft.sqlserver.jdbc.SQLServerDriver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // Statistics count every thread, so keep background jobs from loading entities mid-request
+        registry.add("order.reservation.sweep-interval-ms", () -> "86400000");
+        registry.add("order.reservation.stock-refresh-interval-ms", () -> "86400000");
+    }
+
+    @RegisterExtension
+    final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cleanup();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanup();
+    }
+
+    private void cleanup() {
+        try {
+            jdbcTemplate.execute("DELETE FROM order_svc.cart_items");
+            jdbcTemplate.execute("DELETE FROM order_svc.carts");
+            jdbcTemplate.execute("DELETE FROM order_svc.order_state_snapshots");
+            jdbcTemplate.execute("DELETE FROM order_svc.order_events");
+            jdbcTemplate.execute("DELETE FROM order_svc.order_summaries");
+            jdbcTemplate.execute("DELETE FROM order_svc.order_items");
+            jdbcTemplate.execute("DELETE FROM order_svc.stock_reservations");
+            jdbcTemplate.execute("DELETE FROM order_svc.orders");
+        } catch (Exception ignored) {
+        }
+    }
+
+    private HttpHeaders authHeaders(String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + JwtTestHelper.createToken(userId));
+        return headers;
+    }
+
+    private long createCartWithItems(HttpHeaders headers, int items) {
+        ResponseEntity<Map> cart = restTemplate.exchange("/api/cart", HttpMethod.POST,
+                new HttpEntity<>(Map.of(), headers), Map.class);
+        long cartId = ((Number) cart.getBody().get("id")).longValue();
+        for (int i = 0; i < items; i++) {
+            restTemplate.exchange("/api/cart/" + cartId + "/items", HttpMethod.POST,
+                    new HttpEntity<>(Map.of("productRef", "SKU-FP-" + i, "quantity", 1, "unitPriceCents", 500), headers),
+                    Void.class);
+        }
+        return cartId;
+    }
+
+    private long createOrder(HttpHeaders headers) {
+        Map<String, Object> request = Map.of(
+                "status", "PENDING",
+                "total", 25.00,
+                "shippingAddress", Map.of("recipient", "Fetch Plan", "street1", "1 Main St", "city", "Toronto",
+                        "state", "ON", "postalCode", "M5H 2N2", "country", "Canada"),
+                "paymentMethod", Map.of("type", "CREDIT_CARD", "last4", "4242", "brand", "Visa"),
+                "items", List.of(Map.of("productRef", "SKU-FP-1", "productName", "Widget", "quantity", 1, "unitPrice", 25.00)));
+        ResponseEntity<Map> response = restTemplate.exchange("/api/order", HttpMethod.POST,
+                new HttpEntity<>(request, headers), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    @Test
+    void getCart_shouldLoadTheCartAndItsItemsInOneStatement() {
+        HttpHeaders headers = authHeaders("fetch-plan-cart");
+        long cartId = createCartWithItems(headers, 3);
+
+        ResponseEntity<Map> response = sqlBudget.atMost(1, 0, 0, () -> restTemplate.exchange(
+                "/api/cart/" + cartId, HttpMethod.GET, new HttpEntity<>(headers), Map.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((List<?>) response.getBody().get("items")).hasSize(3);
+    }
+
+    @Test
+    void getActiveCart_shouldLoadTheCartAndItsItemsInOneStatement() {
+        HttpHeaders headers = authHeaders("fetch-plan-active");
+        createCartWithItems(headers, 2);
+
+        ResponseEntity<Map> response = sqlBudget.atMost(1, 0, 0, () -> restTemplate.exchange(
+                "/api/cart/active", HttpMethod.GET, new HttpEntity<>(headers), Map.class));
+
+        assertThat((List<?>) response.getBody().get("items")).hasSize(2);
+    }
+
+    @Test
+    void getOrder_shouldRenderFromOneProjectionWithoutLoadingEntities() {
+        HttpHeaders headers = authHeaders("fetch-plan-order");
+        long orderId = createOrder(headers);
+
+        statistics.clear();
+        ResponseEntity<Map> response = sqlBudget.atMost(1, 0, 0, () -> restTemplate.exchange(
+                "/api/order/" + orderId, HttpMethod.GET, new HttpEntity<>(headers), Map.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Map<?, ?>) response.getBody().get("shippingAddress")).get("city")).isEqualTo("Toronto");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void listOrders_shouldRenderEveryOrderFromOneProjection() {
+        HttpHeaders headers = authHeaders("fetch-plan-list");
+        createOrder(headers);
+        createOrder(headers);
+        createOrder(authHeaders("fetch-plan-other"));
+
+        statistics.clear();
+        ResponseEntity<List> response = sqlBudget.atMost(1, 0, 0, () -> restTemplate.exchange(
+                "/api/order", HttpMethod.GET, new HttpEntity<>(headers), List.class));
+
+        assertThat(response.getBody()).hasSize(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
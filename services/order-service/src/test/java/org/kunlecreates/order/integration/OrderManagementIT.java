@@ -3,10 +3,14 @@ package org.kunlecreates.order.integration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.kunlecreates.order.test.JwtTestHelper;
+import org.kunlecreates.order.test.SqlBudgetExtension;
+import org.kunlecreates.order.test.SqlRecordingConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -21,7 +25,9 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -39,6 +45,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
+@Import(SqlRecordingConfig.class)
 @ActiveProfiles("test")
 public class OrderManagementIT {
 
@@ -60,6 +67,9 @@ public class OrderManagementIT {
         registry.add("spring.flyway.enabled", () -> "true");
     }
 
+    @RegisterExtension
+    final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -71,7 +81,7 @@ public class OrderManagementIT {
         // Clean orders table before each test for isolation
         // MS SQL Server doesn't support RESTART IDENTITY CASCADE - use DELETE
         try {
-            jdbcTemplate.execute("DELETE FROM order_svc.orders");
+            deleteOrders();
         } catch (Exception e) {
             // Silently ignore - table might not exist during test initialization
             System.err.println("Cleanup warning: " + e.getMessage());
@@ -83,12 +93,22 @@ public class OrderManagementIT {
         // Additional cleanup after each test completes
         // Ensures no test data persists if beforeEach fails or during debugging
         try {
-            jdbcTemplate.execute("DELETE FROM order_svc.orders");
+            deleteOrders();
         } catch (Exception e) {
             // Silently ignore - container might be stopping
         }
     }
 
+    private void deleteOrders() {
+        // Children first: items, events, snapshots and summaries reference orders
+        jdbcTemplate.execute("DELETE FROM order_svc.stock_reservations");
+        jdbcTemplate.execute("DELETE FROM order_svc.order_state_snapshots");
+        jdbcTemplate.execute("DELETE FROM order_svc.order_events");
+        jdbcTemplate.execute("DELETE FROM order_svc.order_summaries");
+        jdbcTemplate.execute("DELETE FROM order_svc.order_items");
+        jdbcTemplate.execute("DELETE FROM order_svc.orders");
+    }
+
     private Map<String, Object> createOrderRequest(String status, double total) {
         return Map.of(
                 "status", status,
@@ -421,4 +441,31 @@ public class OrderManagementIT {
         // Then: Should return 401 Unauthorized
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
     }
+
+    private HttpHeaders authHeaders(String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + JwtTestHelper.createToken(userId));
+        return headers;
+    }
+
+    private Map<String, Object> createOrderRequestWithItems(int items) {
+        Map<String, Object> request = new HashMap<>(createOrderRequest("PENDING", 10.00 * items));
+        request.put("items", IntStream.range(0, items)
+                .mapToObj(i -> Map.of("productRef", "SKU-BUDGET-" + i, "productName", "Widget " + i,
+                        "quantity", 1, "unitPrice", 10.00))
+                .toList());
+        return request;
+    }
+
+    @Test
+    void createOrder_shouldStayWithinItsStatementBudget() {
+        HttpHeaders headers = authHeaders("order-budget-1");
+
+        // Order, created event, one row per line item and per held SKU, and the summary row, which
+        // is merged by its assigned id (one select); the event sequence bump is the single update
+        ResponseEntity<Map> response = sqlBudget.atMost(1, 7, 1, () -> restTemplate.exchange(
+                "/api/order", HttpMethod.POST, new HttpEntity<>(createOrderRequestWithItems(2), headers), Map.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
 }
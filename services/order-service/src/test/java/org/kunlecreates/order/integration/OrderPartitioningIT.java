@@ -0,0 +1,255 @@
+package org.kunlecreates.order.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.order.application.OrderArchiveService;
+import org.kunlecreates.order.application.OrderPartitionService;
+import org.kunlecreates.order.application.OrderService;
+import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the monthly created_at partitioning (V11) on MS SQL Server (Testcontainers).
+ *
+ * Covers:
+ * - Partition elimination for time-window queries on orders and order_events, read from the
+ *   actual execution plan
+ * - Roll-forward of future monthly boundaries
+ * - Purging archive months by partition SWITCH
+ * - Archiving a finished order into the partitioned archive and reading it back
+ */
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+class OrderPartitioningIT {
+
+    private static final Pattern PARTITIONS_ACCESSED = Pattern.compile("<PartitionsAccessed PartitionCount=\"(\\d+)\"");
+
+    @Container
+    static MSSQLServerContainer<?> mssql = new MSSQLServerContainer<>(
+            System.getProperty("testcontainers.mssql.image", "mcr.microsoft.com/mssql/server:2019-latest"))
+            .withPassword(System.getProperty("testcontainers.mssql.sa.password", "YourStrong!Passw0rd"))
+            .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withShmSize(268435456L))
+            .withStartupTimeout(Duration.ofMinutes(5));
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mssql::getJdbcUrl);
+        registry.add("jakarta.persistence.jdbc.url", mssql::getJdbcUrl);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.SQLServer2012Dialect");
+        registry.add("spring.datasource.username", mssql::getUsername);
+        registry.add("spring.datasource.password", mssql::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "com.microsoft.sqlserver.jdbc.SQLServerDriver");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private LeaseManager leaseManager;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeEach
+    void cleanDatabase() {
+        cleanup();
+    }
+
+    @AfterEach
+    void cleanupAfterTest() {
+        cleanup();
+    }
+
+    private void cleanup() {
+        for (String table : List.of("order_events", "order_items", "order_summaries", "order_state_snapshots",
+                "stock_reservations", "orders", "orders_archive", "order_items_archive", "order_events_archive")) {
+            jdbcTemplate.execute("DELETE FROM order_svc." + table);
+        }
+    }
+
+    @Test
+    void timeWindowQueries_shouldReadOnlyTheMonthsInTheWindow() throws SQLException {
+        Instant thisMonth = monthStart(0).plus(Duration.ofHours(1));
+        for (int monthsBack = 0; monthsBack < 3; monthsBack++) {
+            Instant createdAt = thisMonth.minus(Duration.ofDays(31L * monthsBack));
+            long orderId = insertOrder("DELIVERED", createdAt, createdAt);
+            insertEvent(orderId, 1, createdAt);
+        }
+        Timestamp from = Timestamp.from(monthStart(0));
+        Timestamp to = Timestamp.from(monthStart(1));
+
+        assertThat(partitionsAccessed("SELECT SUM(total_cents) FROM order_svc.orders "
+                + "WHERE created_at >= ? AND created_at < ?", from, to)).containsOnly(1);
+        assertThat(partitionsAccessed("SELECT MAX(payload) FROM order_svc.order_events "
+                + "WHERE created_at >= ? AND created_at < ?", from, to)).containsOnly(1);
+        assertThat(partitionsAccessed("SELECT SUM(total_cents) FROM order_svc.orders "
+                + "WHERE created_at >= ?", Timestamp.from(Instant.EPOCH)))
+                .allSatisfy(count -> assertThat(count).isGreaterThan(1));
+    }
+
+    @Test
+    void rollForward_shouldKeepFutureMonthsSplitIn() {
+        OrderPartitionService partitions = new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, true, 6, 0);
+
+        partitions.rollForward();
+
+        assertThat(lastBoundary()).isEqualTo(YearMonth.now(ZoneOffset.UTC).plusMonths(6).atDay(1));
+        assertThat(partitions.rollForward()).isZero();
+    }
+
+    @Test
+    void purgeArchive_shouldSwitchOutOnlyExpiredMonths() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        // The test database starts with no history, so give it two old months to expire
+        split(current.minusMonths(15).atDay(1));
+        split(current.minusMonths(14).atDay(1));
+        insertArchivedOrder(1_000_001L, monthStart(-15).plus(Duration.ofDays(3)));
+        insertArchivedOrder(1_000_002L, monthStart(0).plus(Duration.ofHours(1)));
+
+        long purged = new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, true, 3, 12).purgeArchive();
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM order_svc.orders_archive", Long.class))
+                .containsExactly(1_000_002L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_svc.orders_archive_switch", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void archiveDue_shouldMoveFinishedOrderIntoPartitionedArchiveAndKeepItReadable() {
+        Instant longAgo = Instant.now().minus(Duration.ofDays(120));
+        long orderId = insertOrder("DELIVERED", longAgo, longAgo);
+        insertEvent(orderId, 1, longAgo);
+        long liveId = insertOrder("PAID", longAgo, longAgo);
+
+        int archived = orderArchiveService.archiveDue();
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_svc.orders WHERE id = ?", Integer.class, orderId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_svc.orders WHERE id = ?", Integer.class, liveId)).isOne();
+        Optional<Order> fromArchive = orderService.findById(orderId);
+        assertThat(fromArchive).isPresent();
+        assertThat(fromArchive.get().getStatus()).isEqualTo("DELIVERED");
+        assertThat(orderService.getOrderHistory(orderId)).extracting(OrderEvent::getSequence).containsExactly(1L);
+    }
+
+    private List<Integer> partitionsAccessed(String sql, Object... params) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET STATISTICS XML ON");
+            }
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                boolean isResultSet = statement.execute();
+                while (isResultSet || statement.getUpdateCount() != -1) {
+                    if (isResultSet) {
+                        try (ResultSet rs = statement.getResultSet()) {
+                            while (rs.next()) {
+                                String value = rs.getString(1);
+                                if (value != null && value.startsWith("<ShowPlanXML")) {
+                                    plan.append(value);
+                                }
+                            }
+                        }
+                    }
+                    isResultSet = statement.getMoreResults();
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET STATISTICS XML OFF");
+                }
+            }
+            List<Integer> counts = new ArrayList<>();
+            Matcher matcher = PARTITIONS_ACCESSED.matcher(plan);
+            while (matcher.find()) {
+                counts.add(Integer.parseInt(matcher.group(1)));
+            }
+            assertThat(counts).as("partitioned access in plan for: %s", sql).isNotEmpty();
+            return counts;
+        }
+    }
+
+    private long insertOrder(String status, Instant createdAt, Instant updatedAt) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO order_svc.orders (user_ref, status, total_cents, currency, event_sequence, created_at, updated_at) "
+                + "OUTPUT INSERTED.id VALUES ('partition-user', ?, 1000, 'USD', 1, ?, ?)",
+                Long.class, status, Timestamp.from(createdAt), Timestamp.from(updatedAt));
+    }
+
+    private void insertEvent(long orderId, long sequence, Instant createdAt) {
+        jdbcTemplate.update(
+                "INSERT INTO order_svc.order_events (order_id, seq_no, type, schema_version, payload, created_at) "
+                + "VALUES (?, ?, 'ORDER_CREATED', 1, '{\"userRef\":\"partition-user\",\"status\":\"PENDING\",\"totalCents\":1000,\"currency\":\"USD\"}', ?)",
+                orderId, sequence, Timestamp.from(createdAt));
+    }
+
+    private void insertArchivedOrder(long id, Instant createdAt) {
+        jdbcTemplate.update(
+                "INSERT INTO order_svc.orders_archive (id, user_ref, status, total_cents, currency, stock_reserved, "
+                + "event_sequence, created_at, updated_at, archived_at) "
+                + "VALUES (?, 'partition-user', 'DELIVERED', 1000, 'USD', 0, 1, ?, ?, SYSUTCDATETIME())",
+                id, Timestamp.from(createdAt), Timestamp.from(createdAt));
+    }
+
+    private void split(LocalDate boundary) {
+        jdbcTemplate.execute("ALTER PARTITION SCHEME ps_order_month NEXT USED [PRIMARY]; "
+                + "ALTER PARTITION FUNCTION pf_order_month() SPLIT RANGE ('" + boundary + "')");
+    }
+
+    private LocalDate lastBoundary() {
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(CAST(v.value AS DATE)) FROM sys.partition_range_values v "
+                + "JOIN sys.partition_functions f ON f.function_id = v.function_id WHERE f.name = 'pf_order_month'",
+                LocalDate.class);
+    }
+
+    private static Instant monthStart(int monthsFromNow) {
+        return YearMonth.now(ZoneOffset.UTC).plusMonths(monthsFromNow).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
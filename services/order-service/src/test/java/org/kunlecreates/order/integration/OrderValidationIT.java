@@ -81,6 +81,7 @@ public class OrderValidationIT {
     private void cleanup() {
         try {
             jdbcTemplate.execute("DELETE FROM order_svc.order_items");
+            jdbcTemplate.execute("DELETE FROM order_svc.stock_reservations");
             jdbcTemplate.execute("DELETE FROM order_svc.orders");
         } catch (Exception e) {
             System.err.println("Cleanup warning: " + e.getMessage());
@@ -0,0 +1,283 @@
+package org.kunlecreates.order.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.order.application.ShardRebalanceService;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.infrastructure.sharding.ShardRoutingDataSource;
+import org.kunlecreates.order.interfaces.dto.OrderSummaryResponse;
+import org.kunlecreates.order.test.JwtTestHelper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for sharding across databases on MS SQL Server (Testcontainers).
+ *
+ * One container hosts a database per shard: s0 and s1 form the current ring and the rebalance
+ * target adds s2.
+ *
+ * Covers:
+ * - Routing of a user's writes to the shard owning their userRef, with ids unique across shards
+ * - Admin summary pages merged newest first over every shard, and empty past the merge window
+ * - Rebalance: copying moving users to s2 with their ids kept, then purging them from the old
+ *   shard once the ring is switched
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@ActiveProfiles("test")
+class ShardingIT {
+
+    private static final List<String> SHARDS = List.of("s0", "s1", "s2");
+    private static final int ORDERS_PER_USER = 2;
+
+    /** Children first, so deletes never trip a foreign key. */
+    private static final List<String> TABLES = List.of(
+            "stock_reservations", "payment_transactions", "payments", "order_state_snapshots", "order_events",
+            "order_summaries", "order_items", "orders", "cart_items", "carts",
+            "order_events_archive", "order_items_archive", "orders_archive");
+
+    @Container
+    static MSSQLServerContainer<?> mssql = new MSSQLServerContainer<>(
+            System.getProperty("testcontainers.mssql.image", "mcr.microsoft.com/mssql/server:2019-latest"))
+            .withPassword(System.getProperty("testcontainers.mssql.sa.password", "YourStrong!Passw0rd"))
+            .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withShmSize(268435456L))
+            .withStartupTimeout(Duration.ofMinutes(5));
+
+    private static boolean databasesCreated;
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> shardUrl("s0"));
+        registry.add("jakarta.persistence.jdbc.url", () -> shardUrl("s0"));
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.SQLServer2012Dialect");
+        registry.add("spring.datasource.username", mssql::getUsername);
+        registry.add("spring.datasource.password", mssql::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "com.microsoft.sqlserver.jdbc.SQLServerDriver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("datasource.shards.names", () -> "s0,s1");
+        registry.add("datasource.shards.target-names", () -> "s0,s1,s2");
+        registry.add("datasource.shards.nodes.s1.url", () -> shardUrl("s1"));
+        registry.add("datasource.shards.nodes.s2.url", () -> shardUrl("s2"));
+    }
+
+    private static synchronized String shardUrl(String shard) {
+        if (!databasesCreated) {
+            try (Connection connection = DriverManager.getConnection(mssql.getJdbcUrl(), mssql.getUsername(), mssql.getPassword());
+                 Statement statement = connection.createStatement()) {
+                for (String name : SHARDS) {
+                    statement.execute("IF DB_ID('order_" + name + "') IS NULL CREATE DATABASE order_" + name);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not create the shard databases", e);
+            }
+            databasesCreated = true;
+        }
+        return mssql.getJdbcUrl() + ";databaseName=order_" + shard;
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardDataSource;
+
+    @Autowired
+    private ShardRebalanceService rebalanceService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanDatabase() {
+        cleanup();
+    }
+
+    @AfterEach
+    void cleanupAfterTest() {
+        cleanup();
+    }
+
+    private void cleanup() {
+        for (String shard : SHARDS) {
+            for (String table : TABLES) {
+                shard(shard).execute("DELETE FROM order_svc." + table);
+            }
+        }
+    }
+
+    @Test
+    void ordersAreWrittenToTheShardOwningTheUser() {
+        List<String> users = users(6, false);
+        List<Long> ids = new ArrayList<>();
+        for (String user : users) {
+            ids.addAll(createOrders(user));
+        }
+
+        for (String user : users) {
+            String owner = shardRouter.shardFor(user);
+            for (String shard : SHARDS) {
+                assertThat(countOrders(shard, user))
+                        .as("orders of %s on %s", user, shard)
+                        .isEqualTo(shard.equals(owner) ? ORDERS_PER_USER : 0);
+            }
+        }
+        assertThat(users).extracting(shardRouter::shardFor).contains("s0", "s1");
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void adminSummaryPagesMergeEveryShardNewestFirst() {
+        List<Long> created = new ArrayList<>();
+        for (String user : users(4, false)) {
+            created.addAll(createOrders(user));
+        }
+
+        List<OrderSummaryResponse> pages = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            pages.addAll(Arrays.asList(summaryPage(page, 3)));
+        }
+
+        assertThat(pages).extracting(OrderSummaryResponse::id).containsExactlyInAnyOrderElementsOf(created);
+        assertThat(pages).extracting(OrderSummaryResponse::createdAt).isSortedAccordingTo(Comparator.reverseOrder());
+        // Pages past the per-shard merge window are empty rather than repeating its last slice
+        assertThat(summaryPage(10_000 / 200, 200)).isEmpty();
+    }
+
+    @Test
+    void rebalanceCopiesMovingUsersWithTheirIdsThenPurgesThemAfterTheCutOver() {
+        List<String> staying = users(2, false);
+        List<String> moving = users(3, true);
+        for (String user : Stream.concat(staying.stream(), moving.stream()).toList()) {
+            createOrders(user);
+        }
+        Map<String, List<Long>> idsBefore = new LinkedHashMap<>();
+        for (String user : moving) {
+            idsBefore.put(user, orderIds(shardRouter.shardFor(user), user));
+        }
+
+        ShardRebalanceService.RebalanceReport copied = rebalanceService.copyMovingUsers();
+
+        assertThat(copied.users()).isEqualTo(moving.size());
+        for (String user : moving) {
+            assertThat(orderIds("s2", user)).isEqualTo(idsBefore.get(user));
+            assertThat(countEvents("s2", user)).isEqualTo(countEvents(shardRouter.shardFor(user), user));
+        }
+        for (String user : staying) {
+            assertThat(countOrders("s2", user)).isZero();
+        }
+
+        // Copying again catches up without duplicating rows
+        rebalanceService.copyMovingUsers();
+        for (String user : moving) {
+            assertThat(countOrders("s2", user)).isEqualTo(ORDERS_PER_USER);
+        }
+
+        ShardRouter cutOver = new ShardRouter(SHARDS, List.of(), 128, 2, false);
+        try {
+            ShardRebalanceService.RebalanceReport purged =
+                    new ShardRebalanceService(namedJdbcTemplate, transactionManager, cutOver, 100).purgeMovedUsers();
+
+            assertThat(purged.users()).isEqualTo(moving.size());
+            assertThat(purged.skippedUsers()).isZero();
+        } finally {
+            cutOver.destroy();
+        }
+        for (String user : moving) {
+            assertThat(countOrders(shardRouter.shardFor(user), user)).isZero();
+            assertThat(countOrders("s2", user)).isEqualTo(ORDERS_PER_USER);
+        }
+        for (String user : staying) {
+            assertThat(countOrders(shardRouter.shardFor(user), user)).isEqualTo(ORDERS_PER_USER);
+        }
+    }
+
+    /** The first {@code count} test users the target ring moves, or leaves in place. */
+    private List<String> users(int count, boolean moving) {
+        return IntStream.range(0, 10_000)
+                .mapToObj(i -> "shard-it-user-" + i)
+                .filter(user -> shardRouter.isMoving(user) == moving)
+                .limit(count)
+                .toList();
+    }
+
+    private List<Long> createOrders(String user) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(JwtTestHelper.createToken(user));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS_PER_USER; i++) {
+            ResponseEntity<Void> response = restTemplate.postForEntity("/api/order",
+                    new HttpEntity<>(Map.of("status", "PENDING", "total", 10.0 + i), headers), Void.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            String location = response.getHeaders().getLocation().toString();
+            ids.add(Long.parseLong(location.substring(location.lastIndexOf('/') + 1)));
+        }
+        return ids;
+    }
+
+    private OrderSummaryResponse[] summaryPage(int page, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(JwtTestHelper.createToken("shard-it-admin", "shard-it-admin@example.com", List.of("ADMIN")));
+        ResponseEntity<OrderSummaryResponse[]> response = restTemplate.exchange(
+                "/api/order/summary?page=" + page + "&size=" + size, HttpMethod.GET, new HttpEntity<>(headers),
+                OrderSummaryResponse[].class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private JdbcTemplate shard(String shard) {
+        return new JdbcTemplate(shardDataSource.shard(shard));
+    }
+
+    private List<Long> orderIds(String shard, String user) {
+        return shard(shard).queryForList(
+                "SELECT id FROM order_svc.orders WHERE user_ref = ? ORDER BY id", Long.class, user);
+    }
+
+    private int countOrders(String shard, String user) {
+        return shard(shard).queryForObject(
+                "SELECT COUNT(*) FROM order_svc.orders WHERE user_ref = ?", Integer.class, user);
+    }
+
+    private int countEvents(String shard, String user) {
+        return shard(shard).queryForObject("SELECT COUNT(*) FROM order_svc.order_events e "
+                + "JOIN order_svc.orders o ON o.id = e.order_id WHERE o.user_ref = ?", Integer.class, user);
+    }
+}
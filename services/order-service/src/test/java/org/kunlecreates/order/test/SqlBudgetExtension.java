@@ -0,0 +1,79 @@
+package org.kunlecreates.order.test;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.kunlecreates.order.test.SqlStatementRecorder.Kind;
+import org.kunlecreates.order.test.SqlStatementRecorder.Recording;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Holds a request to a budget of SQL statements, so an N+1 or a fetch-plan regression fails the
+ * build instead of slowing production down:
+ *
+ * <pre>{@code
+ * @RegisterExtension
+ * final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+ *
+ * ResponseEntity<Map> cart = sqlBudget.atMost(1, 0, 0, () -> restTemplate.exchange(...));
+ * }</pre>
+ *
+ * Carts and reservations are deleted on hot paths here, and deleting through a mapped collection
+ * issues one DELETE per row, so requests that remove rows also take a budget of DELETEs.
+ *
+ * The test's Spring context must {@code @Import(SqlRecordingConfig.class)}. Only statements issued
+ * on the server's request threads are counted (see {@link SqlStatementRecorder}).
+ */
+public class SqlBudgetExtension implements AfterEachCallback {
+
+    /**
+     * Run {@code request} and fail if it issued more than the given number of SELECT, INSERT or
+     * UPDATE statements.
+     *
+     * @return what {@code request} returned
+     */
+    public <T> T atMost(int selects, int inserts, int updates, Supplier<T> request) {
+        return atMost(selects, inserts, updates, Integer.MAX_VALUE, request);
+    }
+
+    /**
+     * Run {@code request} and fail if it issued more than the given number of SELECT, INSERT,
+     * UPDATE or DELETE statements.
+     *
+     * @return what {@code request} returned
+     */
+    public <T> T atMost(int selects, int inserts, int updates, int deletes, Supplier<T> request) {
+        if (!SqlStatementRecorder.isInstalled()) {
+            throw new IllegalStateException("No data source is being recorded; @Import(SqlRecordingConfig.class) on the test");
+        }
+        T result;
+        Recording recording = SqlStatementRecorder.start();
+        try (recording) {
+            result = request.get();
+        }
+        List<String> overruns = new ArrayList<>();
+        check(recording, Kind.SELECT, selects, overruns);
+        check(recording, Kind.INSERT, inserts, overruns);
+        check(recording, Kind.UPDATE, updates, overruns);
+        check(recording, Kind.DELETE, deletes, overruns);
+        if (!overruns.isEmpty()) {
+            throw new AssertionError("SQL budget exceeded:\n" + String.join("\n", overruns));
+        }
+        return result;
+    }
+
+    private static void check(Recording recording, Kind kind, int budget, List<String> overruns) {
+        if (recording.count(kind) > budget) {
+            overruns.add("  %d %s statements, budget %d:".formatted(recording.count(kind), kind, budget));
+            recording.statements(kind).forEach(sql -> overruns.add("    " + sql));
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        // A request that threw leaves nothing recording into the next test
+        SqlStatementRecorder.start().close();
+    }
+}
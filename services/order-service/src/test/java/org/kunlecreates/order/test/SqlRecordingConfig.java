@@ -0,0 +1,28 @@
+package org.kunlecreates.order.test;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Import into a {@code @SpringBootTest} to route the application's data source through
+ * {@link SqlStatementRecorder}, so {@link SqlBudgetExtension} can count its statements.
+ */
+@TestConfiguration
+public class SqlRecordingConfig {
+
+    @Bean
+    static BeanPostProcessor sqlRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the primary pool: a routing data source over it would count every statement twice
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? SqlStatementRecorder.wrap(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package org.kunlecreates.order.test;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the SQL statements the application sends through a wrapped {@link DataSource} while a
+ * recording is open. A statement is counted when it is prepared, or when a plain {@link Statement}
+ * executes it, so a batch counts once.
+ *
+ * Only servlet request threads are recorded: in a {@code RANDOM_PORT} test the request runs on the
+ * embedded Tomcat's {@value #REQUEST_THREAD_PREFIX}* threads, while the test's own setup queries and
+ * the scheduled background jobs run elsewhere and would make budgets flaky.
+ */
+public final class SqlStatementRecorder {
+    static final String REQUEST_THREAD_PREFIX = "http-nio-";
+
+    public enum Kind { SELECT, INSERT, UPDATE, DELETE, OTHER }
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private static volatile boolean installed;
+    private static volatile Recording current;
+
+    private SqlStatementRecorder() {}
+
+    /** Wrap a data source so its statements can be recorded. */
+    public static DataSource wrap(DataSource target) {
+        installed = true;
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return recording(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return recording(super.getConnection(username, password));
+            }
+        };
+    }
+
+    static boolean isInstalled() {
+        return installed;
+    }
+
+    /** Start recording; statements go to the returned recording until it is closed. */
+    static Recording start() {
+        Recording recording = new Recording();
+        current = recording;
+        return recording;
+    }
+
+    static Kind kindOf(String sql) {
+        String trimmed = sql.stripLeading();
+        while (trimmed.startsWith("(") || trimmed.startsWith("/*")) {
+            // Skip the comment naming the repository method that issued the statement
+            int skip = trimmed.startsWith("(") ? 1 : trimmed.indexOf("*/") + 2;
+            trimmed = trimmed.substring(skip).stripLeading();
+        }
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return switch (trimmed.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "SELECT", "WITH" -> Kind.SELECT;
+            case "INSERT" -> Kind.INSERT;
+            case "UPDATE", "MERGE" -> Kind.UPDATE;
+            case "DELETE" -> Kind.DELETE;
+            default -> Kind.OTHER;
+        };
+    }
+
+    private static void record(String sql) {
+        Recording recording = current;
+        if (recording != null && Thread.currentThread().getName().startsWith(REQUEST_THREAD_PREFIX)) {
+            recording.add(sql);
+        }
+    }
+
+    private static Connection recording(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                record(sql);
+            }
+        }, (method, result) -> result instanceof Statement statement && method.getName().equals("createStatement")
+                ? proxy(Statement.class, statement, (m, a) -> {
+                    if (EXECUTE_METHODS.contains(m.getName()) && a != null && a[0] instanceof String sql) {
+                        record(sql);
+                    }
+                }, (m, r) -> r)
+                : result);
+    }
+
+    private interface BeforeCall {
+        void accept(Method method, Object[] args);
+    }
+
+    private interface AfterCall {
+        Object apply(Method method, Object result);
+    }
+
+    private static <T> T proxy(Class<T> type, T target, BeforeCall before, AfterCall after) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            before.accept(method, args);
+            try {
+                return after.apply(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(SqlStatementRecorder.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    /** Statements recorded between {@link #start()} and {@link #close()}. */
+    static final class Recording implements AutoCloseable {
+        private final Map<Kind, List<String>> statements = new EnumMap<>(Kind.class);
+
+        private synchronized void add(String sql) {
+            statements.computeIfAbsent(kindOf(sql), kind -> new ArrayList<>()).add(sql);
+        }
+
+        synchronized List<String> statements(Kind kind) {
+            return List.copyOf(statements.getOrDefault(kind, List.of()));
+        }
+
+        synchronized int count(Kind kind) {
+            return statements.getOrDefault(kind, List.of()).size();
+        }
+
+        @Override
+        public void close() {
+            if (current == this) {
+                current = null;
+            }
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package org.kunlecreates.order.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kunlecreates.order.application.CartService;
+import org.kunlecreates.order.application.OrderMetrics;
 import org.kunlecreates.order.domain.Cart;
 import org.kunlecreates.order.domain.CartItem;
 import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
 import org.kunlecreates.order.interfaces.CartController;
 import org.kunlecreates.order.interfaces.dto.AddCartItemRequest;
 import org.kunlecreates.order.interfaces.dto.UpdateCartItemRequest;
@@ -20,6 +24,7 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -38,14 +43,15 @@ class CartControllerTest {
 
     @BeforeEach
     void setUp() {
-        controller = new CartController(cartService);
+        controller = new CartController(cartService, new ShardRouter(List.of(), List.of(), 128, 1, false),
+                new OrderMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
     }
 
     @Test
     void getCart_shouldReturnForbiddenWhenCartBelongsToAnotherUser() {
         Cart cart = new Cart("owner-1");
         ReflectionTestUtils.setField(cart, "id", 1L);
-        when(cartService.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartService.findWithItems(1L)).thenReturn(Optional.of(cart));
 
         ResponseEntity<?> response = controller.getCart(1L, jwtAuth("other-user"));
 
@@ -54,7 +60,7 @@ class CartControllerTest {
 
     @Test
     void getCart_shouldReturnNotFoundWhenMissing() {
-        when(cartService.findById(2L)).thenReturn(Optional.empty());
+        when(cartService.findWithItems(2L)).thenReturn(Optional.empty());
 
         ResponseEntity<?> response = controller.getCart(2L, jwtAuth("user-2"));
 
@@ -97,7 +103,7 @@ class CartControllerTest {
     void getCart_shouldReturnOkForOwner() {
         Cart cart = new Cart("owner-11");
         ReflectionTestUtils.setField(cart, "id", 11L);
-        when(cartService.findById(11L)).thenReturn(Optional.of(cart));
+        when(cartService.findWithItems(11L)).thenReturn(Optional.of(cart));
 
         ResponseEntity<?> response = controller.getCart(11L, jwtAuth("owner-11"));
 
@@ -0,0 +1,126 @@
+package org.kunlecreates.order.unit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.CartReaperService;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.CartItemRepository;
+import org.kunlecreates.order.repository.CartRepository;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CartReaperServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(cartRepository.markAbandoned(anyCollection(), any()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+        when(cartItemRepository.deleteByCartIds(anyCollection())).thenReturn(3);
+    }
+
+    @Test
+    void reapIdleCarts_shouldAbandonCartsIdlePastTheTimeoutAndDeleteTheirItems() {
+        when(cartRepository.lockIdleOpenCartIds(any(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(cartItemRepository.valueByCart(anyCollection())).thenReturn(List.of(value(1L, 2500L)));
+        Instant before = Instant.now();
+
+        int reaped = service(true, 5, 10).reapIdleCarts();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(cartRepository).lockIdleOpenCartIds(cutoff.capture(), eq(5));
+        assertThat(cutoff.getValue()).isBetween(before.minus(Duration.ofDays(14)), Instant.now().minus(Duration.ofDays(14)));
+        assertThat(reaped).isEqualTo(2);
+        verify(cartRepository).markAbandoned(eq(List.of(1L, 2L)), any());
+        verify(cartItemRepository).deleteByCartIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void reapIdleCarts_shouldPublishCountsAndValuesOfAbandonedCarts() {
+        when(cartRepository.lockIdleOpenCartIds(any(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(cartItemRepository.valueByCart(anyCollection())).thenReturn(List.of(value(1L, 2500L)));
+
+        service(true, 5, 10).reapIdleCarts();
+
+        assertThat(meterRegistry.get("order.carts.abandoned").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("order.carts.abandoned.items").counter().count()).isEqualTo(3.0);
+        DistributionSummary value = meterRegistry.get("order.carts.abandoned.value").summary();
+        assertThat(value.count()).isEqualTo(2);
+        assertThat(value.totalAmount()).isEqualTo(2500.0);
+    }
+
+    @Test
+    void reapIdleCarts_shouldCommitEachBatchSeparatelyAndStopAtThePerRunCap() {
+        when(cartRepository.lockIdleOpenCartIds(any(), anyInt()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L, 6L));
+
+        int reaped = service(true, 2, 2).reapIdleCarts();
+
+        assertThat(reaped).isEqualTo(4);
+        verify(transactionManager, times(2)).commit(any());
+        verify(cartRepository, never()).markAbandoned(eq(List.of(5L, 6L)), any());
+    }
+
+    @Test
+    void reapIdleCarts_whenDisabled_shouldNotTouchTheDatabase() {
+        assertThat(service(false, 5, 10).reapIdleCarts()).isZero();
+
+        verifyNoInteractions(cartRepository, cartItemRepository);
+    }
+
+    private CartReaperService service(boolean enabled, int batchSize, int maxBatchesPerRun) {
+        return new CartReaperService(cartRepository, cartItemRepository, transactionManager,
+                new ShardRouter(List.of(), List.of(), 128, 1, false),
+                LeaseManager.local(meterRegistry, "test"),
+                meterRegistry, enabled, Duration.ofDays(14), batchSize, maxBatchesPerRun);
+    }
+
+    private static CartItemRepository.CartValue value(Long cartId, Long valueCents) {
+        return new CartItemRepository.CartValue() {
+            @Override
+            public Long getCartId() {
+                return cartId;
+            }
+
+            @Override
+            public Long getValueCents() {
+                return valueCents;
+            }
+        };
+    }
+}
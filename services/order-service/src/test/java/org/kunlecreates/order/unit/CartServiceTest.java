@@ -1,23 +1,35 @@
 package org.kunlecreates.order.unit;
 
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.kunlecreates.order.application.CartService;
+import org.kunlecreates.order.application.OrderMetrics;
+import org.kunlecreates.order.application.OrderSummaryService;
+import org.kunlecreates.order.application.StockReservationService;
 import org.kunlecreates.order.domain.Cart;
 import org.kunlecreates.order.domain.CartItem;
 import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.infrastructure.product.ProductCatalog;
+import org.kunlecreates.order.infrastructure.product.ProductServiceClient;
 import org.kunlecreates.order.repository.CartRepository;
 import org.kunlecreates.order.repository.CartItemRepository;
+import org.kunlecreates.order.repository.OrderEventRepository;
+import org.kunlecreates.order.repository.OrderItemRepository;
 import org.kunlecreates.order.repository.OrderRepository;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -36,6 +48,31 @@ class CartServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @Mock
+    private StockReservationService stockReservations;
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private OrderSummaryService orderSummaries;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry, observationRegistry);
+
     @InjectMocks
     private CartService cartService;
 
@@ -44,6 +81,7 @@ class CartServiceTest {
 
     @BeforeEach
     void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
         testCart = new Cart("user-456");
         ReflectionTestUtils.setField(testCart, "id", 10L);
         
@@ -59,6 +97,7 @@ class CartServiceTest {
     @Test
     void addItem_toExistingCart_shouldAddNewItem() {
         when(cartRepository.findById(10L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.touchOpen(eq(10L), any())).thenReturn(1);
         when(cartItemRepository.findByCartIdAndProductRef(10L, "product-C")).thenReturn(Optional.empty());
         CartItem newItem = new CartItem(testCart, "product-C", 3, 12000L);
         when(cartItemRepository.save(any(CartItem.class))).thenReturn(newItem);
@@ -76,6 +115,7 @@ class CartServiceTest {
         ReflectionTestUtils.setField(existingItem, "id", 1L);
         
         when(cartRepository.findById(10L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.touchOpen(eq(10L), any())).thenReturn(1);
         when(cartItemRepository.findByCartIdAndProductRef(10L, "product-A"))
                 .thenReturn(Optional.of(existingItem));
         when(cartItemRepository.save(any(CartItem.class))).thenReturn(existingItem);
@@ -99,6 +139,48 @@ class CartServiceTest {
         verify(cartItemRepository, never()).save(any());
     }
 
+    @Test
+    void addItem_whenCartWasJustAbandoned_shouldThrowException() {
+        when(cartRepository.findById(10L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.touchOpen(eq(10L), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> cartService.addItem(10L, "product-C", 1, 5000L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cart is closed");
+
+        verify(cartItemRepository, never()).save(any());
+    }
+
+    @Test
+    void addItem_whenCatalogLoaded_shouldUseCatalogPrice() {
+        when(productCatalog.isLoaded()).thenReturn(true);
+        when(productCatalog.find("product-C"))
+                .thenReturn(Optional.of(new ProductCatalog.Product("product-C", "Widget", 9900L, "USD", true)));
+        when(cartRepository.findById(10L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.touchOpen(eq(10L), any())).thenReturn(1);
+        when(cartItemRepository.findByCartIdAndProductRef(10L, "product-C")).thenReturn(Optional.empty());
+        when(cartItemRepository.save(any(CartItem.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CartItem result = cartService.addItem(10L, "product-C", 1, 1L);
+
+        assertThat(result.getUnitPriceCents()).isEqualTo(9900L);
+    }
+
+    @Test
+    void addItem_whenCatalogLoadedAndProductInactive_shouldThrowException() {
+        when(productCatalog.isLoaded()).thenReturn(true);
+        when(productCatalog.find("product-X"))
+                .thenReturn(Optional.of(new ProductCatalog.Product("product-X", "Gone", 100L, "USD", false)));
+        when(cartRepository.findById(10L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.touchOpen(eq(10L), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> cartService.addItem(10L, "product-X", 1, 100L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("product-X");
+
+        verify(cartItemRepository, never()).save(any());
+    }
+
     @Test
     void updateItemQuantity_shouldModifyExistingItem() {
         CartItem item = new CartItem(testCart, "product-D", 5, 10000L);
@@ -177,6 +259,19 @@ class CartServiceTest {
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    void checkout_shouldCountPendingOrderAndTimeCheckout() {
+        ReflectionTestUtils.setField(testCart, "items", cartItems);
+        when(cartRepository.findByIdWithItems(10L)).thenReturn(Optional.of(testCart));
+        when(orderRepository.save(any(Order.class))).thenReturn(new Order("user-456", "PENDING", 17500L));
+
+        orderMetrics.observe("checkout", () -> cartService.checkout(10L, "user-456"));
+
+        assertThat(meterRegistry.get("order.created").tag("status", "PENDING").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.operations")
+                .tag("operation", "checkout").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
     @Test
     void checkout_shouldCloseCart() {
         ReflectionTestUtils.setField(testCart, "items", cartItems);
@@ -206,16 +301,89 @@ class CartServiceTest {
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    void checkout_shouldBatchInsertOrderItemsAndReserveStockOnce() {
+        CartItem duplicateSku = new CartItem(testCart, "product-A", 1, 5000L);
+        List<CartItem> items = new ArrayList<>(cartItems);
+        items.add(duplicateSku);
+        ReflectionTestUtils.setField(testCart, "items", items);
+        when(cartRepository.findByIdWithItems(10L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.reserveStock(anyString(), anyMap(), anyString())).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
+            Order o = inv.getArgument(0);
+            ReflectionTestUtils.setField(o, "id", 99L);
+            return o;
+        });
+
+        Order result = cartService.checkout(10L, "user-456");
+
+        assertThat(result.getTotalCents()).isEqualTo(22500L);
+        assertThat(result.isStockReserved()).isTrue();
+        verify(productServiceClient).reserveStock(startsWith("cart-10-"), eq(Map.of("product-A", 3, "product-B", 1)), eq("Cart #10 checkout"));
+        verify(orderItemRepository).insertAll(eq(99L), argThat(list -> list.size() == 3));
+        verify(orderItemRepository, never()).saveAll(any());
+        verify(stockReservations).acquire(Map.of("product-A", 3, "product-B", 1));
+        verify(stockReservations).consume(Map.of("product-A", 3, "product-B", 1));
+        verify(stockReservations).holdUpstream(99L, Map.of("product-A", 3, "product-B", 1));
+        verify(stockReservations, never()).hold(any(), anyMap());
+    }
+
+    @Test
+    void checkout_whenProductServiceDidNotReserve_shouldHoldStockLocally() {
+        ReflectionTestUtils.setField(testCart, "items", cartItems);
+        when(cartRepository.findByIdWithItems(10L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.reserveStock(anyString(), anyMap(), anyString())).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
+            Order o = inv.getArgument(0);
+            ReflectionTestUtils.setField(o, "id", 42L);
+            return o;
+        });
+
+        Order result = cartService.checkout(10L, "user-456");
+
+        assertThat(result.isStockReserved()).isFalse();
+        verify(stockReservations).hold(42L, Map.of("product-A", 2, "product-B", 1));
+        verify(stockReservations, never()).holdUpstream(any(), anyMap());
+    }
+
+    @Test
+    void checkout_whenInMemoryAdmissionFails_shouldNotCallProductService() {
+        ReflectionTestUtils.setField(testCart, "items", cartItems);
+        when(cartRepository.findByIdWithItems(10L)).thenReturn(Optional.of(testCart));
+        doThrow(new IllegalStateException("Insufficient stock for product-A"))
+                .when(stockReservations).acquire(anyMap());
+
+        assertThatThrownBy(() -> cartService.checkout(10L, "user-456"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient stock for product-A");
+
+        verify(productServiceClient, never()).reserveStock(anyString(), anyMap(), anyString());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void checkout_whenStockCannotBeReserved_shouldNotCreateOrder() {
+        ReflectionTestUtils.setField(testCart, "items", cartItems);
+        when(cartRepository.findByIdWithItems(10L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.reserveStock(anyString(), anyMap(), anyString()))
+                .thenThrow(new IllegalStateException("Unable to reserve stock: Insufficient stock for sku product-A"));
+
+        assertThatThrownBy(() -> cartService.checkout(10L, "user-456"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient stock");
+
+        verify(orderRepository, never()).save(any());
+        assertThat(testCart.isOpen()).isTrue();
+    }
+
     @Test
     void clearCart_shouldDeleteAllItems() {
-        Cart cart = new Cart("user-100");
-        ReflectionTestUtils.setField(cart, "items", cartItems);
-        when(cartRepository.findById(10L)).thenReturn(Optional.of(cart));
-        doNothing().when(cartItemRepository).deleteAll(anyList());
+        when(cartRepository.existsById(10L)).thenReturn(true);
 
         cartService.clearCart(10L);
 
-        verify(cartItemRepository).deleteAll(cartItems);
+        verify(cartItemRepository).deleteByCartIds(List.of(10L));
+        verify(cartItemRepository, never()).deleteAll(anyList());
     }
 
     @Test
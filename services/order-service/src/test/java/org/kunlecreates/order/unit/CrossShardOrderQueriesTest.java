@@ -0,0 +1,107 @@
+package org.kunlecreates.order.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.CrossShardOrderQueries;
+import org.kunlecreates.order.application.OrderService;
+import org.kunlecreates.order.application.OrderSummaryService;
+import org.kunlecreates.order.domain.OrderSummary;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CrossShardOrderQueriesTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderSummaryService orderSummaries;
+
+    private CrossShardOrderQueries queries;
+
+    @BeforeEach
+    void setUp() {
+        when(shardRouter.isSharded()).thenReturn(true);
+        queries = new CrossShardOrderQueries(shardRouter, orderService, orderSummaries, 200, 50_000);
+    }
+
+    @Test
+    void listSummaries_shouldMergeShardsNewestFirstAndCutThePage() {
+        // Two shards: even order ids on one, odd on the other
+        List<OrderSummary> evens = summaries(LongStream.of(10, 8, 6, 4, 2));
+        List<OrderSummary> odds = summaries(LongStream.of(9, 7, 5, 3, 1));
+        when(orderSummaries.newest(9)).thenReturn(evens, odds);
+        whenFannedOutToTwoShards();
+
+        List<OrderSummary> page = queries.listSummaries(2, 3);
+
+        assertThat(page).extracting(OrderSummary::getOrderId).containsExactly(4L, 3L, 2L);
+    }
+
+    @Test
+    void listSummaries_shouldReturnAPartialPageWhereItCrossesTheMergeWindow() {
+        when(orderSummaries.newest(10_000)).thenReturn(summaries(LongStream.iterate(10_000, id -> id > 0, id -> id - 1)));
+        when(shardRouter.fanOut(any())).thenAnswer(invocation -> List.of(((Supplier<?>) invocation.getArgument(0)).get()));
+
+        List<OrderSummary> page = queries.listSummaries(66, 150);
+
+        assertThat(page).hasSize(100);
+        assertThat(page.getFirst().getOrderId()).isEqualTo(100L);
+        assertThat(page.getLast().getOrderId()).isEqualTo(1L);
+    }
+
+    @Test
+    void listSummaries_pastTheMergeWindow_shouldBeEmptyWithoutQueryingShards() {
+        assertThat(queries.listSummaries(50, 200)).isEmpty();
+        assertThat(queries.listSummaries(Integer.MAX_VALUE, 200)).isEmpty();
+
+        verify(shardRouter, never()).fanOut(any());
+        verify(orderSummaries, never()).newest(anyInt());
+    }
+
+    private void whenFannedOutToTwoShards() {
+        when(shardRouter.fanOut(any())).thenAnswer(invocation -> {
+            Supplier<?> work = invocation.getArgument(0);
+            return List.of(work.get(), work.get());
+        });
+    }
+
+    private static List<OrderSummary> summaries(LongStream orderIds) {
+        return orderIds.mapToObj(CrossShardOrderQueriesTest::summary).toList();
+    }
+
+    private static OrderSummary summary(long orderId) {
+        // A higher id is newer
+        return new OrderSummary() {
+            @Override
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return NOW.plusSeconds(orderId);
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package org.kunlecreates.order.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.OrderArchiveService;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.OrderRepository;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderArchiveServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(orderRepository.archive(anyList(), any())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+    }
+
+    @Test
+    void archiveDue_shouldMoveOnlyFinishedOrdersPastRetention() {
+        when(orderRepository.findArchivableIds(anyCollection(), any(), any())).thenReturn(List.of(1L));
+        Instant before = Instant.now();
+
+        int archived = service(true, 2, 10).archiveDue();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> statuses = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(orderRepository).findArchivableIds(statuses.capture(), cutoff.capture(), any(Pageable.class));
+        assertThat(statuses.getValue()).containsExactlyInAnyOrder("DELIVERED", "CANCELLED", "REFUNDED");
+        assertThat(cutoff.getValue()).isBetween(before.minus(Duration.ofDays(90)), Instant.now().minus(Duration.ofDays(90)));
+        assertThat(archived).isEqualTo(1);
+        verify(orderRepository).archive(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void archiveDue_shouldCommitEachBatchSeparatelyUntilNothingIsDue() {
+        when(orderRepository.findArchivableIds(anyCollection(), any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of());
+
+        int archived = service(true, 2, 10).archiveDue();
+
+        assertThat(archived).isEqualTo(4);
+        verify(orderRepository, times(2)).archive(anyList(), any());
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(meterRegistry.get("order.archive.archived").counter().count()).isEqualTo(4.0);
+    }
+
+    @Test
+    void archiveDue_shouldStopAtPerRunCapAndResumeOnNextRun() {
+        when(orderRepository.findArchivableIds(anyCollection(), any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        OrderArchiveService service = service(true, 2, 2);
+
+        assertThat(service.archiveDue()).isEqualTo(4);
+        assertThat(service.archiveDue()).isEqualTo(1);
+        verify(orderRepository).archive(eq(List.of(5L)), any());
+    }
+
+    @Test
+    void archiveDue_whenDisabled_shouldNotTouchTheDatabase() {
+        int archived = service(false, 2, 10).archiveDue();
+
+        assertThat(archived).isZero();
+        verifyNoInteractions(orderRepository);
+    }
+
+    private OrderArchiveService service(boolean enabled, int batchSize, int maxBatchesPerRun) {
+        return new OrderArchiveService(orderRepository, transactionManager, new ShardRouter(List.of(), List.of(), 128, 1, false),
+                LeaseManager.local(meterRegistry, "test"), meterRegistry,
+                enabled, Duration.ofDays(90), batchSize, maxBatchesPerRun, 1);
+    }
+}
@@ -1,16 +1,26 @@
 package org.kunlecreates.order.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.CrossShardOrderQueries;
+import org.kunlecreates.order.application.OrderMetrics;
 import org.kunlecreates.order.application.OrderService;
+import org.kunlecreates.order.application.OrderSummaryService;
+import org.kunlecreates.order.application.OrderTrackingHub;
 import org.kunlecreates.order.domain.Order;
 import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
 import org.kunlecreates.order.domain.OrderStatus;
+import org.kunlecreates.order.domain.OrderSummary;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
 import org.kunlecreates.order.interfaces.OrderController;
 import org.kunlecreates.order.interfaces.dto.CreateOrderRequest;
 import org.kunlecreates.order.interfaces.dto.OrderResponse;
+import org.kunlecreates.order.interfaces.dto.OrderSummaryResponse;
 import org.kunlecreates.order.interfaces.dto.PaymentMethod;
 import org.kunlecreates.order.interfaces.dto.ShippingAddress;
 import org.kunlecreates.order.interfaces.dto.UpdateOrderStatusRequest;
@@ -26,10 +36,12 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,29 +57,37 @@ class OrderControllerTest {
     @Mock
     private OrderService orderService;
 
+    @Mock
+    private OrderTrackingHub trackingHub;
+
+    @Mock
+    private OrderSummaryService orderSummaries;
+
     private OrderController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new OrderController(orderService);
+        controller = new OrderController(orderService, trackingHub, orderSummaries,
+                new CrossShardOrderQueries(new ShardRouter(List.of(), List.of(), 128, 1, false), orderService, orderSummaries, 200, 50000),
+                new OrderMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
     }
 
     @Test
-    void list_shouldFilterOrdersForRegularUsers() {
+    void list_shouldQueryOnlyTheCallersOrdersForRegularUsers() {
         Order ownOrder = buildOrder(1L, "user-1", "PENDING", 2500L, "User One", "User One");
-        Order otherOrder = buildOrder(2L, "user-2", "PENDING", 3000L, "User Two", "User Two");
-        when(orderService.listOrders()).thenReturn(List.of(ownOrder, otherOrder));
+        when(orderService.listOrderResponses("user-1")).thenReturn(List.of(OrderResponse.from(ownOrder)));
 
         List<OrderResponse> result = controller.list(userAuth("user-1"));
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().userRef()).isEqualTo("user-1");
+        verify(orderService, never()).listOrderResponses();
     }
 
     @Test
     void get_shouldUseShippingRecipientWhenCustomerNameIsMissing() {
         Order order = buildOrder(5L, "user-5", "PENDING", 4200L, "", "Fallback Recipient");
-        when(orderService.findById(5L)).thenReturn(Optional.of(order));
+        when(orderService.findResponseById(5L)).thenReturn(Optional.of(OrderResponse.from(order)));
 
         ResponseEntity<OrderResponse> response = controller.get(5L, userAuth("user-5"));
 
@@ -80,7 +100,7 @@ class OrderControllerTest {
     @Test
     void get_shouldReturnForbiddenForNonOwner() {
         Order order = buildOrder(6L, "owner-1", "PENDING", 1000L, "Owner", "Owner");
-        when(orderService.findById(6L)).thenReturn(Optional.of(order));
+        when(orderService.findResponseById(6L)).thenReturn(Optional.of(OrderResponse.from(order)));
 
         ResponseEntity<OrderResponse> response = controller.get(6L, userAuth("other-user"));
 
@@ -193,7 +213,7 @@ class OrderControllerTest {
     @Test
     void getOrderTracking_shouldReturnHistoryForAdmins() {
         Order order = buildOrder(21L, "owner-21", "DELIVERED", 5000L, "Owner", "Owner");
-        List<OrderEvent> history = List.of(new OrderEvent(21L, "PAID", "SHIPPED", Instant.now()));
+        List<OrderEvent> history = List.of(new OrderEvent(21L, 2, new OrderEventPayload.StatusChanged("PAID", "SHIPPED"), Instant.now()));
         when(orderService.findById(21L)).thenReturn(Optional.of(order));
         when(orderService.getOrderHistory(21L)).thenReturn(history);
 
@@ -203,6 +223,51 @@ class OrderControllerTest {
         assertThat(response.getBody()).isEqualTo(history);
     }
 
+    @Test
+    void streamOrderTracking_shouldReturnForbiddenForOtherUsers() {
+        Order order = buildOrder(22L, "owner-22", "PAID", 1200L, "Owner", "Owner");
+        when(orderService.findById(22L)).thenReturn(Optional.of(order));
+
+        ResponseEntity<SseEmitter> response = controller.streamOrderTracking(22L, userAuth("intruder"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(trackingHub, never()).subscribe(any(), any());
+    }
+
+    @Test
+    void streamOrderTracking_shouldSubscribeOwner() {
+        Order order = buildOrder(23L, "owner-23", "PAID", 1200L, "Owner", "Owner");
+        SseEmitter emitter = new SseEmitter();
+        when(orderService.findById(23L)).thenReturn(Optional.of(order));
+        when(trackingHub.subscribe(eq(23L), any())).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = controller.streamOrderTracking(23L, userAuth("owner-23"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(emitter);
+    }
+
+    @Test
+    void listSummaries_shouldQueryOwnRowsForRegularUsers() {
+        Order order = buildOrder(30L, "user-30", "PENDING", 900L, "", "Fallback Recipient");
+        when(orderSummaries.list("user-30", false, 0, 50)).thenReturn(List.of(new OrderSummary(order, "PENDING", 3)));
+
+        List<OrderSummaryResponse> result = controller.listSummaries(0, 50, userAuth("user-30"));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.getFirst().id()).isEqualTo(30L);
+        assertThat(result.getFirst().customerName()).isEqualTo("Fallback Recipient");
+        assertThat(result.getFirst().itemCount()).isEqualTo(3);
+    }
+
+    @Test
+    void rebuildSummaries_shouldRejectNonAdmins() {
+        ResponseEntity<Map<String, Integer>> response = controller.rebuildSummaries(userAuth("user-31"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(orderSummaries, never()).rebuild();
+    }
+
     private Authentication userAuth(String userId) {
         return new TestingAuthenticationToken(userId, "password", "ROLE_USER");
     }
@@ -0,0 +1,100 @@
+package org.kunlecreates.order.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.OrderPartitionService;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ShardRouter shardRouter = new ShardRouter(List.of(), List.of(), 128, 1, false);
+
+    private final LeaseManager leaseManager =
+            LeaseManager.local(new SimpleMeterRegistry(), "test");
+
+    private final YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+    @Test
+    void rollForward_shouldSplitEveryMissingMonthThroughMonthsAhead() {
+        boundaries(current.minusMonths(1));
+
+        int added = new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, true, 3, 0).rollForward();
+
+        assertThat(added).isEqualTo(4);
+        ArgumentCaptor<Object> boundary = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(4)).update(contains("SPLIT RANGE"), boundary.capture(), any());
+        assertThat(boundary.getAllValues()).containsExactly(
+                Date.valueOf(current.atDay(1)), Date.valueOf(current.plusMonths(1).atDay(1)),
+                Date.valueOf(current.plusMonths(2).atDay(1)), Date.valueOf(current.plusMonths(3).atDay(1)));
+    }
+
+    @Test
+    void rollForward_whenPartitioningIsMissing_shouldDoNothing() {
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class))).thenReturn(List.of());
+
+        assertThat(new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, true, 3, 0).rollForward()).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(), any());
+    }
+
+    @Test
+    void purgeArchive_shouldSwitchOutOnlyExpiredPartitionsThatHoldRows() {
+        boundaries(current.minusMonths(15), current.minusMonths(14), current, current.plusMonths(1));
+        // Partition 1 (before the oldest boundary) is empty; partition 2 holds one expired month
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(), any()))
+                .thenAnswer(invocation -> (Integer) invocation.getArgument(3) == 2 ? 5L : 0L);
+
+        long purged = new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, true, 3, 12).purgeArchive();
+
+        assertThat(purged).isEqualTo(15);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).execute(sql.capture());
+        assertThat(sql.getAllValues()).allSatisfy(statement -> assertThat(statement).contains("SWITCH PARTITION 2 TO"));
+        assertThat(sql.getAllValues()).anySatisfy(statement ->
+                assertThat(statement).contains("ALTER TABLE order_svc.order_events_archive SWITCH PARTITION 2 TO order_svc.order_events_archive_switch"));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(), eq(3));
+    }
+
+    @Test
+    void purgeArchive_whenRetentionIsZero_shouldKeepEverything() {
+        assertThat(new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, true, 3, 0).purgeArchive()).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void maintain_whenDisabled_shouldNotTouchTheDatabase() {
+        new OrderPartitionService(jdbcTemplate, shardRouter, leaseManager, false, 3, 12).maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void boundaries(YearMonth... months) {
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class)))
+                .thenReturn(Arrays.stream(months).map(month -> month.atDay(1)).toList());
+    }
+}
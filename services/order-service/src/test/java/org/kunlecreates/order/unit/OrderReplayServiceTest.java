@@ -0,0 +1,142 @@
+package org.kunlecreates.order.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.OrderReplayService;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.domain.OrderState;
+import org.kunlecreates.order.domain.OrderStateSnapshot;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.OrderEventRepository;
+import org.kunlecreates.order.repository.OrderStateSnapshotRepository;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderReplayServiceTest {
+
+    @Mock
+    private OrderEventRepository eventRepository;
+
+    @Mock
+    private OrderStateSnapshotRepository snapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderReplayService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(snapshotRepository.findAllById(anyList())).thenReturn(List.of());
+        service = new OrderReplayService(eventRepository, snapshotRepository, transactionManager,
+                new ShardRouter(List.of(), List.of(), 128, 1, false),
+                LeaseManager.local(new SimpleMeterRegistry(), "test"), 2, 2, 3, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void replay_shouldStartFromSnapshotAndFoldOnlyTheTail() {
+        OrderState snapshotted = new OrderState(1L, "user-1", "PAID", 500L, "USD", Instant.now(), Instant.now(), 2L);
+        when(snapshotRepository.findAllById(anyList())).thenReturn(List.of(new OrderStateSnapshot(snapshotted)));
+        when(eventRepository.findUnsnapshottedByOrderIdIn(List.of(1L)))
+                .thenReturn(List.of(statusChanged(1L, 3, "PAID", "SHIPPED")));
+
+        OrderState state = service.replay(1L).orElseThrow();
+
+        assertThat(state.status()).isEqualTo("SHIPPED");
+        assertThat(state.sequence()).isEqualTo(3L);
+        assertThat(state.userRef()).isEqualTo("user-1");
+        verify(eventRepository, never()).findByOrderIdInOrderByOrderIdAscSequenceAsc(any());
+    }
+
+    @Test
+    void replay_shouldStreamEveryOrderInRequestOrderAcrossBatches() {
+        when(eventRepository.findUnsnapshottedByOrderIdIn(anyList())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().flatMap(id -> List.of(created(id), statusChanged(id, 2, "PENDING", "PAID")).stream()).toList();
+        });
+
+        List<OrderState> states = service.replay(LongStream.rangeClosed(1, 7).boxed().toList()).toList();
+
+        assertThat(states).extracting(OrderState::orderId).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(states).allSatisfy(state -> assertThat(state.status()).isEqualTo("PAID"));
+        verify(eventRepository, times(4)).findUnsnapshottedByOrderIdIn(anyList());
+    }
+
+    @Test
+    void replay_shouldReadWholeLogWhenSnapshotIsFromAnotherVersion() {
+        OrderStateSnapshot old = new OrderStateSnapshot(new OrderState(1L, "user-1", "PAID", 500L, "USD", null, null, 2L));
+        ReflectionTestUtils.setField(old, "schemaVersion", OrderStateSnapshot.CURRENT_VERSION - 1);
+        when(snapshotRepository.findAllById(anyList())).thenReturn(List.of(old));
+        when(eventRepository.findByOrderIdInOrderByOrderIdAscSequenceAsc(any()))
+                .thenReturn(List.of(created(1L), statusChanged(1L, 2, "PENDING", "CANCELLED")));
+
+        OrderState state = service.replay(1L).orElseThrow();
+
+        assertThat(state.status()).isEqualTo("CANCELLED");
+        verify(eventRepository, never()).findUnsnapshottedByOrderIdIn(any());
+    }
+
+    @Test
+    void replay_shouldRejectLogWithGap() {
+        when(eventRepository.findUnsnapshottedByOrderIdIn(anyList()))
+                .thenReturn(List.of(created(1L), statusChanged(1L, 3, "PAID", "SHIPPED")));
+
+        assertThatThrownBy(() -> service.replay(List.of(1L)).toList())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("gap");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotDue_shouldStoreFoldedStateForOrdersPastThreshold() {
+        when(eventRepository.findOrderIdsDueForSnapshot(eq(3L), any())).thenReturn(List.of(9L), List.of());
+        when(eventRepository.findUnsnapshottedByOrderIdIn(List.of(9L))).thenReturn(List.of(
+                created(9L), statusChanged(9L, 2, "PENDING", "PAID"), statusChanged(9L, 3, "PAID", "SHIPPED")));
+
+        int written = service.snapshotDue();
+
+        assertThat(written).isEqualTo(1);
+        ArgumentCaptor<List<OrderStateSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(captor.capture());
+        assertThat(captor.getValue().getFirst().getSequence()).isEqualTo(3L);
+        assertThat(captor.getValue().getFirst().toState().status()).isEqualTo("SHIPPED");
+    }
+
+    private static OrderEvent created(Long orderId) {
+        return new OrderEvent(orderId, 1, new OrderEventPayload.Created("user-" + orderId, "PENDING", 1000L, "USD"), Instant.now());
+    }
+
+    private static OrderEvent statusChanged(Long orderId, long sequence, String from, String to) {
+        return new OrderEvent(orderId, sequence, new OrderEventPayload.StatusChanged(from, to), Instant.now());
+    }
+}
@@ -1,24 +1,39 @@
 package org.kunlecreates.order.unit;
 
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.kunlecreates.order.application.OrderMetrics;
 import org.kunlecreates.order.application.OrderService;
+import org.kunlecreates.order.application.OrderSummaryService;
+import org.kunlecreates.order.application.OrderTrackingHub;
 import org.kunlecreates.order.application.PaymentService;
+import org.kunlecreates.order.application.StockHoldsExpired;
+import org.kunlecreates.order.application.StockReservationService;
 import org.kunlecreates.order.domain.Order;
 import org.kunlecreates.order.domain.OrderItem;
 import org.kunlecreates.order.domain.OrderStatus;
 import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.interfaces.dto.OrderResponse;
 import org.kunlecreates.order.repository.OrderRepository;
 import org.kunlecreates.order.repository.OrderEventRepository;
 import org.kunlecreates.order.repository.OrderItemRepository;
 import org.kunlecreates.order.infrastructure.notification.NotificationClient;
+import org.kunlecreates.order.infrastructure.notification.OrderSnapshot;
+import org.kunlecreates.order.infrastructure.notification.StatusNotificationCoalescer;
+import org.kunlecreates.order.infrastructure.product.ProductCatalog;
 import org.kunlecreates.order.infrastructure.product.ProductServiceClient;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.List;
 
@@ -48,6 +63,28 @@ class OrderServiceTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
+    @Mock
+    private StockReservationService stockReservations;
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private StatusNotificationCoalescer statusNotifications;
+
+    @Mock
+    private OrderTrackingHub trackingHub;
+
+    @Mock
+    private OrderSummaryService orderSummaries;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry, observationRegistry);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -55,6 +92,7 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
         testOrder = new Order("user-123", "PENDING", 10000L);
         ReflectionTestUtils.setField(testOrder, "id", 1L);
     }
@@ -114,7 +152,69 @@ class OrderServiceTest {
                 "PAYPAL", null, null,
                 "alice@example.com", "Alice Johnson", java.util.Collections.emptyList());
 
-        verify(notificationClient).sendOrderConfirmation(savedOrder, "jwt-token");
+        verify(notificationClient).sendOrderConfirmation(
+                argThat(snapshot -> snapshot.total() == 120.00 && snapshot.customerEmail() == null), eq("jwt-token"));
+    }
+
+    @Test
+    void createOrder_whenPendingWithItems_shouldAcquireAndHoldStock() {
+        Order savedOrder = new Order("user-321", "PENDING", 3000L);
+        ReflectionTestUtils.setField(savedOrder, "id", 77L);
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+
+        orderService.createOrder("user-321", null, "PENDING", 30.00, null,
+                null, null, null, null, null, null, null, null,
+                null, null, null, null, null,
+                List.of(new OrderService.OrderItemInput("SKU-1", "Apples", 2, 10.00),
+                        new OrderService.OrderItemInput("SKU-1", "Apples", 1, 10.00)));
+
+        verify(stockReservations).acquire(java.util.Map.of("SKU-1", 3));
+        verify(stockReservations).hold(77L, java.util.Map.of("SKU-1", 3));
+    }
+
+    @Test
+    void createOrder_withItems_shouldTotalThePricedLinesNotTheClientTotal() {
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Order result = orderService.createOrder("user-321", null, "PENDING", 0.01, null,
+                null, null, null, null, null, null, null, null,
+                null, null, null, null, null,
+                List.of(new OrderService.OrderItemInput("SKU-1", "Apples", 2, 10.00),
+                        new OrderService.OrderItemInput("SKU-2", "Pears", 1, 2.50)));
+
+        assertThat(result.getTotalCents()).isEqualTo(2250L);
+    }
+
+    @Test
+    void createOrder_whenCatalogIsLoaded_shouldTakeNameAndPriceFromIt() {
+        when(productCatalog.isLoaded()).thenReturn(true);
+        when(productCatalog.find("SKU-1"))
+                .thenReturn(Optional.of(new ProductCatalog.Product("SKU-1", "Gala Apples", 450L, "CAD", true)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Order result = orderService.createOrder("user-321", null, "PENDING", 0.01, null,
+                null, null, null, null, null, null, null, null,
+                null, null, null, null, null,
+                List.of(new OrderService.OrderItemInput("SKU-1", "Free Apples", 2, 0.01)));
+
+        assertThat(result.getTotalCents()).isEqualTo(900L);
+        verify(orderItemRepository).saveAll(argThat((List<OrderItem> items) -> items.size() == 1
+                && items.get(0).getProductName().equals("Gala Apples")
+                && items.get(0).getUnitPriceCents() == 450L));
+    }
+
+    @Test
+    void createOrder_whenStockCannotBeAdmitted_shouldNotSaveOrder() {
+        doThrow(new IllegalStateException("Insufficient stock for SKU-1"))
+                .when(stockReservations).acquire(anyMap());
+
+        assertThatThrownBy(() -> orderService.createOrder("user-321", null, "PENDING", 30.00, null,
+                null, null, null, null, null, null, null, null,
+                null, null, null, null, null,
+                List.of(new OrderService.OrderItemInput("SKU-1", "Apples", 3, 10.00))))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -198,10 +298,10 @@ class OrderServiceTest {
 
         orderService.updateStatus(1L, OrderStatus.SHIPPED, "jwt-token");
 
-        verify(notificationClient).sendShippingNotification(
-                eq(testOrder),
-                startsWith("TRACK-"),
-                anyString(),
+        verify(statusNotifications).submit(
+                eq(OrderStatus.SHIPPED),
+                any(OrderSnapshot.class),
+                argThat(shipment -> shipment.trackingNumber().startsWith("TRACK-")),
                 eq("jwt-token")
         );
     }
@@ -216,6 +316,43 @@ class OrderServiceTest {
         verify(orderEventRepository).saveAll(anyList());
     }
 
+    @Test
+    void createOrder_shouldCountOrderByStatusAndTimeIt() {
+        Order savedOrder = new Order("custom-ref", "PENDING", 5000L);
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+
+        orderMetrics.observe("create", () -> orderService.createOrder("custom-ref", null, "PENDING", 50.00, null,
+                null, null, null, null, null, null, null, null,
+                null, null, null, null, null, java.util.Collections.emptyList()));
+
+        assertThat(meterRegistry.get("order.created").tag("status", "PENDING").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.operations")
+                .tag("operation", "create").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void updateStatus_shouldCountTransitionByFromAndTo() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+
+        orderService.updateStatus(1L, OrderStatus.PAID, null);
+
+        assertThat(meterRegistry.get("order.status.transitions")
+                .tag("from", "PENDING").tag("to", "PAID").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void updateStatus_whenOrderNotFound_shouldTimeAsRejected() {
+        when(orderRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderMetrics.observe("update_status", () -> orderService.updateStatus(99L, OrderStatus.PAID, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(meterRegistry.get("order.operations")
+                .tag("operation", "update_status").tag("outcome", "rejected").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("order.status.transitions").counter()).isNull();
+    }
+
     @Test
     void cancelOrder_whenOrderNotFound_shouldThrowException() {
         when(orderRepository.findById(999L)).thenReturn(Optional.empty());
@@ -315,6 +452,47 @@ class OrderServiceTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void findResponseById_whenOrderWasArchived_shouldRenderItFromTheArchive() {
+        OrderResponse archived = OrderResponse.from(new Order("user-123", "DELIVERED", 10000L));
+        when(orderRepository.findResponseById(5L)).thenReturn(Optional.empty());
+        when(orderRepository.findArchivedResponseById(5L)).thenReturn(Optional.of(archived));
+
+        Optional<OrderResponse> result = orderService.findResponseById(5L);
+
+        assertThat(result).containsSame(archived);
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void findById_whenOrderWasArchived_shouldFallBackToArchive() {
+        Order archived = new Order("user-123", "DELIVERED", 10000L);
+        when(orderRepository.findById(5L)).thenReturn(Optional.empty());
+        when(orderRepository.findArchivedById(5L)).thenReturn(Optional.of(archived));
+
+        Optional<Order> result = orderService.findById(5L);
+
+        assertThat(result).containsSame(archived);
+    }
+
+    @Test
+    void getOrderHistory_whenOrderWasArchived_shouldReadArchivedLog() {
+        OrderEvent created = new OrderEvent(5L, 1, new OrderEventPayload.Created("user-123", "PENDING", 10000L, "USD"), Instant.now());
+        when(orderEventRepository.findByOrderIdOrderBySequenceAsc(5L)).thenReturn(List.of());
+        when(orderEventRepository.findArchivedByOrderId(5L)).thenReturn(List.of(created));
+
+        assertThat(orderService.getOrderHistory(5L)).containsExactly(created);
+    }
+
+    @Test
+    void getOrderHistory_whenOrderIsLive_shouldNotTouchArchive() {
+        OrderEvent created = new OrderEvent(1L, 1, new OrderEventPayload.Created("user-123", "PENDING", 10000L, "USD"), Instant.now());
+        when(orderEventRepository.findByOrderIdOrderBySequenceAsc(1L)).thenReturn(List.of(created));
+
+        assertThat(orderService.getOrderHistory(1L)).containsExactly(created);
+        verify(orderEventRepository, never()).findArchivedByOrderId(any());
+    }
+
     @Test
     void updateStatus_toDelivered_shouldSendDeliveredNotificationAndSaveEvent() {
         Order shippedOrder = new Order("user-123", "SHIPPED", 10000L);
@@ -326,7 +504,7 @@ class OrderServiceTest {
         Order result = orderService.updateStatus(2L, OrderStatus.DELIVERED, "jwt-token");
 
         assertThat(result.getStatus()).isEqualTo("DELIVERED");
-        verify(notificationClient).sendOrderDeliveredNotification(any(Order.class), eq("jwt-token"));
+        verify(statusNotifications).submit(eq(OrderStatus.DELIVERED), any(OrderSnapshot.class), isNull(), eq("jwt-token"));
         verify(orderEventRepository).saveAll(anyList());
     }
 
@@ -341,7 +519,7 @@ class OrderServiceTest {
         Order result = orderService.updateStatus(3L, OrderStatus.CANCELLED, "jwt-token");
 
         assertThat(result.getStatus()).isEqualTo("CANCELLED");
-        verify(notificationClient).sendOrderCancelledNotification(any(Order.class), eq("jwt-token"));
+        verify(statusNotifications).submit(eq(OrderStatus.CANCELLED), any(OrderSnapshot.class), isNull(), eq("jwt-token"));
         verify(orderEventRepository).saveAll(anyList());
     }
 
@@ -363,7 +541,8 @@ class OrderServiceTest {
         assertThat(result.getStatus()).isEqualTo("PAID");
         verify(productServiceClient).adjustStock("SKU-001", -2, "Order #1 paid");
         verify(productServiceClient).adjustStock("SKU-002", -1, "Order #1 paid");
-        verify(notificationClient, never()).sendOrderPaidNotification(any(Order.class), anyString());
+        verify(stockReservations).commit(1L);
+        verify(statusNotifications, never()).submit(any(), any(), any(), any());
     }
 
     @Test
@@ -382,6 +561,87 @@ class OrderServiceTest {
 
         assertThat(result.getStatus()).isEqualTo("CANCELLED");
         verify(productServiceClient).adjustStock("SKU-RESTORE", 3, "Order #10 cancelled");
+        verify(stockReservations).release(10L);
+    }
+
+    @Test
+    void updateStatus_toPaid_whenStockReservedAtCheckout_shouldNotDecrementAgain() {
+        testOrder.setStockReserved(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderItemRepository.findByOrderId(1L)).thenReturn(List.of(mock(OrderItem.class)));
+
+        Order result = orderService.updateStatus(1L, OrderStatus.PAID, null);
+
+        assertThat(result.getStatus()).isEqualTo("PAID");
+        verify(productServiceClient, never()).adjustStock(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void cancelOrder_whenStockReservedAtCheckout_shouldRestoreStock() {
+        testOrder.setStockReserved(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        OrderItem item = mock(OrderItem.class);
+        when(item.getProductRef()).thenReturn("SKU-HELD");
+        when(item.getQuantity()).thenReturn(2);
+        when(orderItemRepository.findByOrderId(1L)).thenReturn(List.of(item));
+
+        orderService.cancelOrder(1L, "user-123");
+
+        verify(productServiceClient).adjustStock("SKU-HELD", 2, "Order #1 cancelled");
+    }
+
+    @Test
+    void onStockHoldsExpired_shouldKeepOrdersPendingAndStopCountingTheirStockAsReserved() {
+        testOrder.setStockReserved(true);
+        Order paidOrder = new Order("user-123", "PAID", 5000L);
+        paidOrder.setStockReserved(true);
+        ReflectionTestUtils.setField(paidOrder, "id", 2L);
+        when(orderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(testOrder, paidOrder));
+
+        orderService.onStockHoldsExpired(new StockHoldsExpired(List.of(1L, 2L)));
+
+        assertThat(testOrder.getStatus()).isEqualTo("PENDING");
+        assertThat(testOrder.isStockReserved()).isFalse();
+        assertThat(paidOrder.isStockReserved()).isTrue();
+        verify(orderRepository).save(testOrder);
+        verify(orderRepository, never()).save(paidOrder);
+        verifyNoInteractions(orderEventRepository, productServiceClient, stockReservations);
+    }
+
+    @Test
+    void updateStatus_toPaid_afterTheCheckoutHoldExpired_shouldDecrementStock() {
+        testOrder.setStockReserved(true);
+        when(orderRepository.findAllById(List.of(1L))).thenReturn(List.of(testOrder));
+        orderService.onStockHoldsExpired(new StockHoldsExpired(List.of(1L)));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        OrderItem item = mock(OrderItem.class);
+        when(item.getProductRef()).thenReturn("SKU-EXPIRED");
+        when(item.getQuantity()).thenReturn(3);
+        when(orderItemRepository.findByOrderId(1L)).thenReturn(List.of(item));
+
+        orderService.updateStatus(1L, OrderStatus.PAID, null);
+
+        verify(productServiceClient).adjustStock("SKU-EXPIRED", -3, "Order #1 paid");
+    }
+
+    @Test
+    void cancelExpired_shouldCancelStillPendingOrdersWithoutRestoringStock() {
+        testOrder.setStockReserved(true);
+        Order paidOrder = new Order("user-123", "PAID", 5000L);
+        ReflectionTestUtils.setField(paidOrder, "id", 2L);
+        when(orderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(testOrder, paidOrder));
+
+        orderService.cancelExpired(List.of(1L, 2L));
+
+        assertThat(testOrder.getStatus()).isEqualTo("CANCELLED");
+        assertThat(paidOrder.getStatus()).isEqualTo("PAID");
+        verify(orderRepository).save(testOrder);
+        verify(orderRepository, never()).save(paidOrder);
+        verify(orderEventRepository).saveAll(argThat((List<OrderEvent> events) -> events.size() == 1));
+        verifyNoInteractions(productServiceClient, stockReservations);
     }
 
     @Test
@@ -416,6 +676,6 @@ class OrderServiceTest {
 
         assertThat(result.getStatus()).isEqualTo("REFUNDED");
         verify(productServiceClient).adjustStock("SKU-REFUND", 1, "Order #12 refunded");
-        verify(notificationClient).sendOrderRefundedNotification(any(Order.class), eq("jwt-token"));
+        verify(statusNotifications).submit(eq(OrderStatus.REFUNDED), any(OrderSnapshot.class), isNull(), eq("jwt-token"));
     }
 }
@@ -0,0 +1,146 @@
+package org.kunlecreates.order.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.OrderSummaryService;
+import org.kunlecreates.order.domain.Order;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.domain.OrderItem;
+import org.kunlecreates.order.domain.OrderSummary;
+import org.kunlecreates.order.repository.OrderEventRepository;
+import org.kunlecreates.order.repository.OrderItemRepository;
+import org.kunlecreates.order.repository.OrderRepository;
+import org.kunlecreates.order.repository.OrderSummaryRepository;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderSummaryServiceTest {
+
+    @Mock
+    private OrderSummaryRepository summaryRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new OrderSummaryService(summaryRepository, orderRepository, orderItemRepository,
+                orderEventRepository, transactionManager, 2, 200);
+    }
+
+    @Test
+    void recordCreated_shouldCountUnitsAcrossLines() {
+        Order order = order(1L, "user-1", "PENDING");
+
+        service.recordCreated(order, List.of(new OrderItem(order, "SKU-A", "Apples", 2, 100L),
+                new OrderItem(order, "SKU-B", "Bread", 3, 250L)));
+
+        ArgumentCaptor<OrderSummary> captor = ArgumentCaptor.forClass(OrderSummary.class);
+        verify(summaryRepository).save(captor.capture());
+        assertThat(captor.getValue().getItemCount()).isEqualTo(5);
+        assertThat(captor.getValue().getStatus()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void apply_shouldAdvanceStatusAndSkipEventsAlreadyApplied() {
+        Order order = order(2L, "user-2", "PENDING");
+        OrderSummary summary = new OrderSummary(order, "PENDING", 1);
+        when(summaryRepository.findAllById(anyList())).thenReturn(List.of(summary));
+
+        service.apply(List.of(event(10L, 2L, 1, "PENDING", "PAID")));
+        service.apply(List.of(event(10L, 2L, 1, "PENDING", "PAID"), event(11L, 2L, 2, "PAID", "SHIPPED")));
+
+        assertThat(summary.getStatus()).isEqualTo("SHIPPED");
+        assertThat(summary.getLastEventId()).isEqualTo(11L);
+        assertThat(summary.getPlacedAt()).isNotNull();
+    }
+
+    @Test
+    void list_shouldScopeRegularUsersToTheirOwnRowsAndCapPageSize() {
+        service.list("user-3", false, 0, 10_000);
+
+        verify(summaryRepository).findByUserRefOrderByCreatedAtDesc(eq("user-3"),
+                argThat(pageable -> pageable.getPageSize() == 200));
+        verify(summaryRepository, never()).findAllByOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_shouldFoldEventsFromTheStatusBeforeTheFirstEvent() {
+        Order paid = order(4L, "user-4", "SHIPPED");
+        Order fresh = order(5L, "user-5", "PENDING");
+        when(orderRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            List<Order> content = pageable.getPageNumber() == 0 ? List.of(paid, fresh) : List.of();
+            return (Page<Order>) new PageImpl<>(content, pageable, 2);
+        });
+        when(orderItemRepository.sumQuantityByOrderIdIn(anyList())).thenReturn(List.of(quantity(4L, 7L)));
+        when(orderEventRepository.findByOrderIdInOrderByOrderIdAscSequenceAsc(anyList())).thenReturn(List.of(
+                event(20L, 4L, 1, "PENDING", "PAID"), event(21L, 4L, 2, "PAID", "SHIPPED")));
+
+        int written = service.rebuild();
+
+        assertThat(written).isEqualTo(2);
+        ArgumentCaptor<List<OrderSummary>> captor = ArgumentCaptor.forClass(List.class);
+        verify(summaryRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(OrderSummary::getStatus).containsExactly("SHIPPED", "PENDING");
+        assertThat(captor.getValue()).extracting(OrderSummary::getItemCount).containsExactly(7, 0);
+        assertThat(captor.getValue().getFirst().getLastEventId()).isEqualTo(21L);
+    }
+
+    private Order order(Long id, String userRef, String status) {
+        Order order = new Order(userRef, status, 1000L);
+        ReflectionTestUtils.setField(order, "id", id);
+        order.setCustomerName("Customer " + id);
+        return order;
+    }
+
+    private OrderEvent event(Long id, Long orderId, long sequence, String from, String to) {
+        OrderEvent event = new OrderEvent(orderId, sequence, new OrderEventPayload.StatusChanged(from, to), Instant.now());
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+
+    private OrderItemRepository.OrderQuantity quantity(Long orderId, Long units) {
+        return new OrderItemRepository.OrderQuantity() {
+            @Override
+            public Long getOrderId() { return orderId; }
+
+            @Override
+            public Long getQuantity() { return units; }
+        };
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.kunlecreates.order.domain.Order;
 import org.kunlecreates.order.domain.OrderStatus;
 import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.kunlecreates.order.domain.OrderState;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
@@ -89,6 +91,24 @@ class OrderTest {
         assertThat(event.getPayload()).contains("\"from\":\"PENDING\"").contains("\"to\":\"PAID\"");
     }
 
+    @Test
+    void eventLog_shouldBeSequencedFromCreationAndReplayToCurrentState() {
+        testOrder.recordCreated();
+        testOrder.transitionTo(OrderStatus.PAID);
+        testOrder.transitionTo(OrderStatus.SHIPPED);
+
+        var events = testOrder.getDomainEvents();
+        assertThat(events).extracting(OrderEvent::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(events.get(0).decodePayload())
+                .isEqualTo(new OrderEventPayload.Created("user-100", "PENDING", 10000L, "USD"));
+
+        OrderState state = OrderState.empty(1L).applyAll(events);
+        assertThat(state.status()).isEqualTo("SHIPPED");
+        assertThat(state.sequence()).isEqualTo(3L);
+        assertThat(state.placedAt()).isNotNull();
+        assertThat(testOrder.getEventSequence()).isEqualTo(3L);
+    }
+
     @Test
     void transitionTo_shouldUpdateTimestamp() {
         Instant originalUpdatedAt = testOrder.getUpdatedAt();
@@ -0,0 +1,149 @@
+package org.kunlecreates.order.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.order.application.OrderTrackingHub;
+import org.kunlecreates.order.domain.OrderEvent;
+import org.kunlecreates.order.domain.OrderEventPayload;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderTrackingHubTest {
+
+    private final BlockingQueue<Object> sent = new LinkedBlockingQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blockSends;
+    private OrderTrackingHub hub;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hub.destroy();
+    }
+
+    @Test
+    void subscribe_shouldReplayHistoryThenPushLiveEventsInOrder() throws Exception {
+        hub = hub(16);
+        OrderEvent paid = event(1L, 10L, "PENDING", "PAID");
+        OrderEvent shipped = event(2L, 10L, "PAID", "SHIPPED");
+
+        hub.subscribe(10L, () -> List.of(paid));
+        hub.publish(List.of(shipped));
+
+        assertThat(next()).isSameAs(paid);
+        assertThat(next()).isSameAs(shipped);
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_shouldSkipLiveEventsAlreadyInHistory() throws Exception {
+        hub = hub(16);
+        OrderEvent paid = event(1L, 11L, "PENDING", "PAID");
+        OrderEvent shipped = event(2L, 11L, "PAID", "SHIPPED");
+
+        // An event committed while the history is loading shows up in both
+        hub.subscribe(11L, () -> {
+            hub.publish(List.of(paid));
+            return List.of(paid);
+        });
+        hub.publish(List.of(shipped));
+
+        assertThat(next()).isSameAs(paid);
+        assertThat(next()).isSameAs(shipped);
+        assertThat(sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void publish_shouldOnlyReachSubscribersOfThatOrder() throws Exception {
+        hub = hub(16);
+        hub.subscribe(12L, List::of);
+
+        hub.publish(List.of(event(3L, 99L, "PENDING", "PAID")));
+
+        assertThat(sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void laggingSubscriber_shouldBeDisconnectedWithoutBlockingPublisher() throws Exception {
+        hub = hub(2);
+        blockSends = true;
+        hub.subscribe(13L, List::of);
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= 10; id++) {
+            hub.publish(List.of(event(id, 13L, "PENDING", "PAID")));
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(hub.subscriberCount()).isZero();
+    }
+
+    @Test
+    void subscribe_withAHistoryLongerThanTheMailbox_shouldStayConnectedForLiveEvents() throws Exception {
+        hub = hub(2);
+        List<OrderEvent> history = java.util.stream.LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> event(id, 14L, "PENDING", "PENDING"))
+                .toList();
+        OrderEvent shipped = event(21L, 14L, "PAID", "SHIPPED");
+
+        blockSends = true;
+        hub.subscribe(14L, () -> history);
+        hub.publish(List.of(shipped));
+
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+        blockSends = false;
+        release.countDown();
+        for (OrderEvent replayed : history) {
+            assertThat(next()).isSameAs(replayed);
+        }
+        assertThat(next()).isSameAs(shipped);
+    }
+
+    private Object next() throws InterruptedException {
+        Object value = sent.poll(2, TimeUnit.SECONDS);
+        assertThat(value).as("event sent to subscriber").isNotNull();
+        return value;
+    }
+
+    private OrderTrackingHub hub(int mailboxCapacity) {
+        return new OrderTrackingHub(new SimpleMeterRegistry(), 1, mailboxCapacity, Duration.ofMinutes(30)) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (blockSends) {
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        builder.build().stream()
+                                .map(part -> part.getData())
+                                .filter(OrderEvent.class::isInstance)
+                                .forEach(sent::add);
+                    }
+                };
+            }
+        };
+    }
+
+    private static OrderEvent event(Long id, Long orderId, String from, String to) {
+        OrderEvent event = new OrderEvent(orderId, 1, new OrderEventPayload.StatusChanged(from, to), Instant.now());
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+}
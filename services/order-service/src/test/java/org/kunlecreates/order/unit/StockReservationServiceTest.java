@@ -0,0 +1,251 @@
+package org.kunlecreates.order.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.order.application.StockHoldsExpired;
+import org.kunlecreates.order.application.StockReservationService;
+import org.kunlecreates.order.domain.StockReservation;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.order.infrastructure.product.ProductServiceClient;
+import org.kunlecreates.order.infrastructure.sharding.ShardRouter;
+import org.kunlecreates.order.repository.StockReservationRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new StockReservationService(reservationRepository, productServiceClient,
+                transactionManager, new ShardRouter(List.of(), List.of(), 128, 1, false),
+                LeaseManager.local(new SimpleMeterRegistry(), "test"),
+                events, Duration.ofMinutes(15), 2);
+        when(productServiceClient.fetchStockLevels()).thenReturn(Map.of("SKU-A", 5, "SKU-B", 1));
+        when(reservationRepository.sumQuantityByProductRef()).thenReturn(List.of());
+        service.loadActiveReservations();
+    }
+
+    @Test
+    void acquire_withinAvailableStock_shouldCountAsReserved() {
+        service.acquire(Map.of("SKU-A", 3));
+        service.acquire(Map.of("SKU-A", 2));
+
+        assertThat(service.reservedQuantity("SKU-A")).isEqualTo(5);
+    }
+
+    @Test
+    void acquire_beyondAvailableStock_shouldRejectWholeOrder() {
+        service.acquire(Map.of("SKU-A", 4));
+
+        assertThatThrownBy(() -> service.acquire(Map.of("SKU-A", 1, "SKU-B", 2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient stock");
+
+        assertThat(service.reservedQuantity("SKU-A")).isEqualTo(4);
+        assertThat(service.reservedQuantity("SKU-B")).isZero();
+    }
+
+    @Test
+    void acquire_forSkuWithUnknownStock_shouldAdmit() {
+        service.acquire(Map.of("SKU-NEW", 100));
+
+        assertThat(service.reservedQuantity("SKU-NEW")).isEqualTo(100);
+    }
+
+    @Test
+    void hold_shouldPersistOneRowPerSkuWithTtl() {
+        service.hold(9L, Map.of("SKU-A", 2));
+
+        verify(reservationRepository).saveAll(argThat((List<StockReservation> rows) -> rows.size() == 1
+                && rows.get(0).getOrderId().equals(9L)
+                && rows.get(0).getExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(14)))));
+    }
+
+    @Test
+    void holdUpstream_shouldPersistRowsFlaggedUpstreamWithoutCountingThem() {
+        service.holdUpstream(9L, Map.of("SKU-A", 2));
+
+        verify(reservationRepository).saveAll(argThat((List<StockReservation> rows) -> rows.size() == 1
+                && rows.get(0).isUpstream()
+                && rows.get(0).getExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(14)))));
+        assertThat(service.reservedQuantity("SKU-A")).isZero();
+    }
+
+    @Test
+    void release_ofUpstreamHold_shouldDeleteRowsWithoutTouchingCountersOrProductService() {
+        service.acquire(Map.of("SKU-A", 2));
+        when(reservationRepository.findByOrderId(9L))
+                .thenReturn(List.of(new StockReservation(9L, "SKU-A", 3, Instant.now(), true)));
+
+        service.release(9L);
+
+        verify(reservationRepository).deleteAllInBatch(anyList());
+        assertThat(service.reservedQuantity("SKU-A")).isEqualTo(2);
+        verify(productServiceClient, never()).releaseStock(anyMap(), anyString());
+    }
+
+    @Test
+    void release_shouldDeleteRowsAndFreeStock() {
+        service.acquire(Map.of("SKU-A", 5));
+        when(reservationRepository.findByOrderId(9L))
+                .thenReturn(List.of(new StockReservation(9L, "SKU-A", 5, Instant.now())));
+
+        service.release(9L);
+
+        verify(reservationRepository).deleteAllInBatch(anyList());
+        assertThat(service.reservedQuantity("SKU-A")).isZero();
+        service.acquire(Map.of("SKU-A", 5));
+    }
+
+    @Test
+    void commit_shouldDeleteRowsAndReduceAvailableStock() {
+        service.acquire(Map.of("SKU-A", 3));
+        when(reservationRepository.findByOrderId(9L))
+                .thenReturn(List.of(new StockReservation(9L, "SKU-A", 3, Instant.now())));
+
+        service.commit(9L);
+
+        assertThat(service.reservedQuantity("SKU-A")).isZero();
+        assertThatThrownBy(() -> service.acquire(Map.of("SKU-A", 3)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void sweepExpired_shouldReleaseInBatches() {
+        service.acquire(Map.of("SKU-A", 3));
+        Instant past = Instant.now().minusSeconds(60);
+        when(reservationRepository.findByExpiresAtBeforeOrderByExpiresAtAsc(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(new StockReservation(1L, "SKU-A", 1, past), new StockReservation(2L, "SKU-A", 1, past)))
+                .thenReturn(List.of(new StockReservation(3L, "SKU-A", 1, past)));
+
+        int released = service.sweepExpired();
+
+        assertThat(released).isEqualTo(3);
+        assertThat(service.reservedQuantity("SKU-A")).isZero();
+        verify(reservationRepository, times(2)).deleteAllInBatch(anyList());
+        verify(events).publishEvent(new StockHoldsExpired(List.of(1L, 2L)));
+        verify(events).publishEvent(new StockHoldsExpired(List.of(3L)));
+    }
+
+    @Test
+    void sweepExpired_shouldReturnExpiredUpstreamHoldsToProductServicePerOrder() {
+        service.acquire(Map.of("SKU-A", 1));
+        Instant past = Instant.now().minusSeconds(60);
+        when(reservationRepository.findByExpiresAtBeforeOrderByExpiresAtAsc(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(new StockReservation(1L, "SKU-A", 1, past),
+                        new StockReservation(2L, "SKU-A", 2, past, true),
+                        new StockReservation(2L, "SKU-B", 1, past, true)))
+                .thenReturn(List.of());
+
+        service.sweepExpired();
+
+        assertThat(service.reservedQuantity("SKU-A")).isZero();
+        verify(productServiceClient).releaseStock(Map.of("SKU-A", 2, "SKU-B", 1), "Order #2 hold expired");
+        verify(productServiceClient, times(1)).releaseStock(anyMap(), anyString());
+    }
+
+    @Test
+    void release_ofHoldTakenOnAnotherReplica_shouldNotDriveCounterNegative() {
+        when(reservationRepository.findByOrderId(9L))
+                .thenReturn(List.of(new StockReservation(9L, "SKU-A", 3, Instant.now())));
+
+        service.release(9L);
+
+        assertThat(service.reservedQuantity("SKU-A")).isZero();
+    }
+
+    @Test
+    void loadActiveReservations_shouldRebuildCountersFromTable() {
+        when(reservationRepository.sumQuantityByProductRef()).thenReturn(List.of(held("SKU-A", 4)));
+
+        service.loadActiveReservations();
+
+        assertThat(service.reservedQuantity("SKU-A")).isEqualTo(4);
+        assertThatThrownBy(() -> service.acquire(Map.of("SKU-A", 2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void resyncReserved_shouldTakeHeldStockFromTheTable() {
+        service.acquire(Map.of("SKU-A", 2));
+        // Another replica holds 4, and this replica's hold was paid there
+        when(reservationRepository.sumQuantityByProductRef()).thenReturn(List.of(held("SKU-A", 4)));
+
+        service.resyncReserved();
+
+        assertThat(service.reservedQuantity("SKU-A")).isEqualTo(4);
+        assertThatThrownBy(() -> service.acquire(Map.of("SKU-A", 2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void resyncReserved_shouldKeepAcquisitionsOfUncommittedTransactions() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.acquire(Map.of("SKU-A", 2));
+            when(reservationRepository.sumQuantityByProductRef()).thenReturn(List.of(held("SKU-A", 1)));
+
+            service.resyncReserved();
+            assertThat(service.reservedQuantity("SKU-A")).isEqualTo(3);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            when(reservationRepository.sumQuantityByProductRef()).thenReturn(List.of(held("SKU-A", 3)));
+
+            service.resyncReserved();
+            assertThat(service.reservedQuantity("SKU-A")).isEqualTo(3);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static StockReservationRepository.SkuQuantity held(String sku, long quantity) {
+        return new StockReservationRepository.SkuQuantity() {
+            @Override
+            public String getProductRef() { return sku; }
+
+            @Override
+            public Long getQuantity() { return quantity; }
+        };
+    }
+}
@@ -17,7 +17,8 @@ BEGIN
     created_at     DATETIME2(6) NOT NULL CONSTRAINT df_carts_created DEFAULT SYSUTCDATETIME(),
     updated_at     DATETIME2(6) NOT NULL CONSTRAINT df_carts_updated DEFAULT SYSUTCDATETIME()
   );
-  CREATE INDEX ix_carts_user_ref ON order_svc.carts(user_ref);
+  CREATE INDEX ix_carts_user_ref_status ON order_svc.carts(user_ref, status);
+  CREATE INDEX ix_carts_status_updated_at ON order_svc.carts(status, updated_at);
 END
 GO
 
@@ -35,6 +36,7 @@ BEGIN
     updated_at         DATETIME2(6) NOT NULL CONSTRAINT df_ci_updated DEFAULT SYSUTCDATETIME(),
     CONSTRAINT fk_ci_cart FOREIGN KEY (cart_id) REFERENCES order_svc.carts(id)
   );
+  CREATE INDEX ix_cart_items_cart_id ON order_svc.cart_items(cart_id) INCLUDE (quantity, unit_price_cents);
 END
 GO
 
@@ -67,6 +69,12 @@ BEGIN
     -- Customer identity captured at order creation for notifications
     customer_email VARCHAR(255),
     customer_name VARCHAR(255),
+
+    -- Set when stock was reserved in product-service at cart checkout
+    stock_reserved BIT NOT NULL CONSTRAINT df_orders_stock_reserved DEFAULT 0,
+
+    -- Last sequence number handed out in this order's event log
+    event_sequence BIGINT NOT NULL CONSTRAINT df_orders_event_sequence DEFAULT 0,
     
     created_at     DATETIME2(6) NOT NULL CONSTRAINT df_orders_created DEFAULT SYSUTCDATETIME(),
     updated_at     DATETIME2(6) NOT NULL CONSTRAINT df_orders_updated DEFAULT SYSUTCDATETIME()
@@ -135,11 +143,169 @@ BEGIN
   CREATE TABLE order_svc.order_events (
     id           BIGINT IDENTITY(1,1) PRIMARY KEY,
     order_id     BIGINT NOT NULL,
+    seq_no       BIGINT NOT NULL,
     type         NVARCHAR(64) NOT NULL,
+    schema_version INT NOT NULL CONSTRAINT df_oe_schema_version DEFAULT 1,
     payload      NVARCHAR(MAX) NULL,
     created_at   DATETIME2(6) NOT NULL CONSTRAINT df_oe_created DEFAULT SYSUTCDATETIME(),
     CONSTRAINT fk_oe_order FOREIGN KEY (order_id) REFERENCES order_svc.orders(id)
   );
   CREATE INDEX ix_order_events_order_id ON order_svc.order_events(order_id);
+  CREATE UNIQUE INDEX ux_order_events_order_seq ON order_svc.order_events(order_id, seq_no);
+END
+GO
+
+-- Stock reservations (TTL holds for PENDING orders) ------------------------
+IF OBJECT_ID('order_svc.stock_reservations', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.stock_reservations (
+    id           BIGINT IDENTITY(1,1) PRIMARY KEY,
+    order_id     BIGINT NOT NULL,
+    product_ref  NVARCHAR(64) NOT NULL,
+    quantity     INT NOT NULL CONSTRAINT chk_sr_qty CHECK (quantity > 0),
+    expires_at   DATETIME2(6) NOT NULL,
+    upstream     BIT NOT NULL CONSTRAINT df_sr_upstream DEFAULT 0,
+    created_at   DATETIME2(6) NOT NULL CONSTRAINT df_sr_created DEFAULT SYSUTCDATETIME()
+  );
+  CREATE INDEX ix_stock_reservations_order_id ON order_svc.stock_reservations(order_id);
+  CREATE INDEX ix_stock_reservations_expires_at ON order_svc.stock_reservations(expires_at);
+END
+GO
+
+-- Order summaries (list/dashboard read model) ------------------------------
+IF OBJECT_ID('order_svc.order_summaries', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.order_summaries (
+    order_id       BIGINT NOT NULL PRIMARY KEY,
+    user_ref       NVARCHAR(64) NOT NULL,
+    customer_name  VARCHAR(255) NULL,
+    status         NVARCHAR(32) NOT NULL,
+    total_cents    BIGINT NOT NULL,
+    currency       NCHAR(3) NOT NULL CONSTRAINT df_os_currency DEFAULT N'USD',
+    item_count     INT NOT NULL CONSTRAINT df_os_item_count DEFAULT 0,
+    placed_at      DATETIME2(6) NULL,
+    created_at     DATETIME2(6) NOT NULL,
+    updated_at     DATETIME2(6) NOT NULL,
+    last_event_id  BIGINT NULL
+  );
+  CREATE INDEX ix_order_summaries_user_created ON order_svc.order_summaries(user_ref, created_at DESC)
+    INCLUDE (customer_name, status, total_cents, currency, item_count, placed_at, updated_at);
+  CREATE INDEX ix_order_summaries_created ON order_svc.order_summaries(created_at DESC)
+    INCLUDE (user_ref, customer_name, status, total_cents, currency, item_count, placed_at, updated_at);
+  CREATE INDEX ix_order_summaries_status ON order_svc.order_summaries(status) INCLUDE (total_cents);
+END
+GO
+
+-- Order state snapshots (bound event replay length) -------------------------
+IF OBJECT_ID('order_svc.order_state_snapshots', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.order_state_snapshots (
+    order_id          BIGINT NOT NULL PRIMARY KEY,
+    seq_no            BIGINT NOT NULL,
+    schema_version    INT NOT NULL,
+    user_ref          NVARCHAR(64) NULL,
+    status            NVARCHAR(32) NULL,
+    total_cents       BIGINT NOT NULL,
+    currency          NCHAR(3) NULL,
+    placed_at         DATETIME2(6) NULL,
+    state_updated_at  DATETIME2(6) NULL,
+    created_at        DATETIME2(6) NOT NULL CONSTRAINT df_oss_created DEFAULT SYSUTCDATETIME(),
+    CONSTRAINT fk_oss_order FOREIGN KEY (order_id) REFERENCES order_svc.orders(id)
+  );
+END
+GO
+
+-- Replica heartbeat (read-replica lag probe) ---------------------------------
+IF OBJECT_ID('order_svc.replica_heartbeat', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.replica_heartbeat (
+    instance_id  NVARCHAR(128) NOT NULL PRIMARY KEY,
+    beat_at      DATETIME2(6) NOT NULL
+  );
+END
+GO
+
+-- Order archive (finished orders past retention) ---------------------------
+IF OBJECT_ID('order_svc.orders_archive', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.orders_archive (
+    id                    BIGINT NOT NULL PRIMARY KEY,
+    user_ref              NVARCHAR(64) NOT NULL,
+    status                NVARCHAR(32) NOT NULL,
+    total_cents           BIGINT NOT NULL,
+    currency              NCHAR(3) NOT NULL,
+    placed_at             DATETIME2(6) NULL,
+    shipping_recipient    VARCHAR(255) NULL,
+    shipping_street1      VARCHAR(255) NULL,
+    shipping_street2      VARCHAR(255) NULL,
+    shipping_city         VARCHAR(100) NULL,
+    shipping_state        VARCHAR(100) NULL,
+    shipping_postal_code  VARCHAR(20) NULL,
+    shipping_country      VARCHAR(100) NULL,
+    shipping_phone        VARCHAR(20) NULL,
+    payment_method_type   VARCHAR(50) NULL,
+    payment_last4         VARCHAR(4) NULL,
+    payment_brand         VARCHAR(50) NULL,
+    customer_email        VARCHAR(255) NULL,
+    customer_name         VARCHAR(255) NULL,
+    stock_reserved        BIT NOT NULL,
+    event_sequence        BIGINT NOT NULL,
+    created_at            DATETIME2(6) NOT NULL,
+    updated_at            DATETIME2(6) NOT NULL,
+    archived_at           DATETIME2(6) NOT NULL
+  ) WITH (DATA_COMPRESSION = PAGE);
+  CREATE INDEX ix_orders_archive_user_ref ON order_svc.orders_archive(user_ref) WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_items_archive', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.order_items_archive (
+    id                 BIGINT NOT NULL PRIMARY KEY,
+    order_id           BIGINT NOT NULL,
+    product_ref        NVARCHAR(64) NOT NULL,
+    product_name       NVARCHAR(255) NULL,
+    quantity           INT NOT NULL,
+    unit_price_cents   BIGINT NOT NULL,
+    currency           NCHAR(3) NOT NULL,
+    created_at         DATETIME2(6) NOT NULL,
+    updated_at         DATETIME2(6) NOT NULL
+  ) WITH (DATA_COMPRESSION = PAGE);
+  CREATE INDEX ix_order_items_archive_order_id ON order_svc.order_items_archive(order_id) WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF OBJECT_ID('order_svc.order_events_archive', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.order_events_archive (
+    id              BIGINT NOT NULL PRIMARY KEY,
+    order_id        BIGINT NOT NULL,
+    seq_no          BIGINT NOT NULL,
+    type            NVARCHAR(64) NOT NULL,
+    schema_version  INT NOT NULL,
+    payload         NVARCHAR(MAX) NULL,
+    created_at      DATETIME2(6) NOT NULL
+  ) WITH (DATA_COMPRESSION = PAGE);
+  CREATE UNIQUE INDEX ux_order_events_archive_order_seq ON order_svc.order_events_archive(order_id, seq_no)
+    WITH (DATA_COMPRESSION = PAGE);
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orders_status_updated_at'
+             AND object_id = OBJECT_ID('order_svc.orders'))
+BEGIN
+  CREATE INDEX ix_orders_status_updated_at ON order_svc.orders(status, updated_at);
+END
+GO
+
+IF OBJECT_ID('order_svc.job_leases', 'U') IS NULL
+BEGIN
+  CREATE TABLE order_svc.job_leases (
+    lease_name     NVARCHAR(200) NOT NULL PRIMARY KEY,
+    holder         NVARCHAR(200) NOT NULL,
+    fencing_token  BIGINT NOT NULL,
+    expires_at     DATETIME2(6) NOT NULL,
+    heartbeat_at   DATETIME2(6) NOT NULL
+  );
 END
 GO
@@ -5,6 +5,7 @@ import { JwtModule } from '@nestjs/jwt';
 import { Product } from './domain/product.entity';
 import { Category } from './domain/category.entity';
 import { StockMovement } from './domain/stock-movement.entity';
+import { StockBatchRequest } from './domain/stock-batch-request.entity';
 import { ProductService } from './application/product.service';
 import { CategoryService } from './application/category.service';
 import { ProductController } from './presentation/product.controller';
@@ -21,7 +22,7 @@ import { JwtStrategy } from './config/jwt.config';
     }),
     TypeOrmModule.forRootAsync({
       useFactory: () => {
-        const entities = [Product, Category, StockMovement];
+        const entities = [Product, Category, StockMovement, StockBatchRequest];
         if (process.env.TEST_SQLITE) {
           return { type: 'sqlite', database: ':memory:', dropSchema: true, entities, synchronize: true };
         }
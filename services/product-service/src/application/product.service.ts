@@ -1,9 +1,10 @@
-import { Injectable, NotFoundException, BadRequestException } from '@nestjs/common';
+import { Injectable, NotFoundException, BadRequestException, ConflictException } from '@nestjs/common';
 import { InjectRepository } from '@nestjs/typeorm';
 import { Repository, SelectQueryBuilder } from 'typeorm';
 import { Product } from '../domain/product.entity';
 import { Category } from '../domain/category.entity';
 import { StockMovement } from '../domain/stock-movement.entity';
+import { StockBatchRequest } from '../domain/stock-batch-request.entity';
 
 export interface ProductSearchOptions {
   page?: number;
@@ -225,6 +226,109 @@ export class ProductService {
     return { sku, previous: current, new: next, stock: next, reason };
   }
 
+  /**
+   * Apply several stock adjustments atomically: either every SKU is adjusted or none is.
+   * Used by order-service to reserve or release all lines of an order in one round trip.
+   * With a requestId the batch is applied at most once: a retry gets the first answer back, and a
+   * batch cancelled with cancelStockBatch is refused.
+   */
+  async adjustStockBatch(adjustments: { sku: string; adjustment: number }[], reason: string, requestId?: string) {
+    if (!Array.isArray(adjustments) || adjustments.length === 0) {
+      throw new BadRequestException('At least one adjustment is required');
+    }
+    for (const a of adjustments) {
+      if (!Number.isInteger(a.adjustment) || a.adjustment === 0) {
+        throw new BadRequestException(`Quantity must be a non-zero integer for sku ${a.sku}`);
+      }
+    }
+    return this.products.manager.transaction(async (em) => {
+      if (requestId) {
+        const previous = await em.findOne(StockBatchRequest, { where: { requestId } });
+        if (previous?.status === 'CANCELLED') {
+          throw new ConflictException(`Stock batch ${requestId} was cancelled`);
+        }
+        if (previous) {
+          return { ...previous.result, replayed: true };
+        }
+      }
+      const results: { sku: string; previous: number; new: number; stock: number }[] = [];
+      for (const a of adjustments) {
+        const product = await em.findOne(Product, { where: { sku: a.sku } });
+        if (!product) throw new NotFoundException(`Product with sku ${a.sku} not found`);
+        const row = await em
+          .createQueryBuilder(StockMovement, 'm')
+          .select('COALESCE(SUM(m.change_qty),0)', 'stock')
+          .where('m.product_id = :pid', { pid: product.id })
+          .getRawOne<{ stock: string }>();
+        const current = parseInt(row?.stock || '0', 10);
+        const next = current + a.adjustment;
+        if (next < 0) throw new BadRequestException(`Insufficient stock for sku ${a.sku}`);
+        await em.save(em.create(StockMovement, { product, quantity: a.adjustment, reason }));
+        results.push({ sku: a.sku, previous: current, new: next, stock: next });
+      }
+      if (requestId) {
+        // A concurrent duplicate fails here on the primary key; its next retry is answered from this row
+        await em.save(em.create(StockBatchRequest, { requestId, status: 'APPLIED', adjustments, result: { reason, results } }));
+      }
+      return { reason, results };
+    });
+  }
+
+  /**
+   * Undo the batch applied under requestId, if any, and refuse it from now on.
+   * order-service calls this when it cannot tell whether its batch was applied.
+   */
+  async cancelStockBatch(requestId: string, reason: string) {
+    return this.products.manager.transaction(async (em) => {
+      const previous = await em.findOne(StockBatchRequest, { where: { requestId } });
+      if (!previous) {
+        await em.save(em.create(StockBatchRequest, { requestId, status: 'CANCELLED' }));
+        return { requestId, undone: false };
+      }
+      if (previous.status === 'CANCELLED') {
+        return { requestId, undone: false };
+      }
+      for (const a of previous.adjustments ?? []) {
+        const product = await em.findOne(Product, { where: { sku: a.sku } });
+        if (product) {
+          await em.save(em.create(StockMovement, { product, quantity: -a.adjustment, reason }));
+        }
+      }
+      previous.status = 'CANCELLED';
+      await em.save(previous);
+      return { requestId, undone: true };
+    });
+  }
+
+  /**
+   * Page through the catalog in (updatedAt, sku) order, starting after the given cursor.
+   * Returns only the fields other services need to validate SKUs and prices.
+   * updatedAt is compared at millisecond precision because that is what the cursor can carry.
+   */
+  async listCatalogChanges(since?: Date, afterSku?: string, limit = 500) {
+    const qb = this.products.createQueryBuilder('p')
+      .select(['p.sku', 'p.name', 'p.priceCents', 'p.currency', 'p.active', 'p.updatedAt']);
+    if (since) {
+      qb.where("(date_trunc('milliseconds', p.updatedAt) > :since OR (date_trunc('milliseconds', p.updatedAt) = :since AND p.sku > :afterSku))", {
+        since,
+        afterSku: afterSku ?? '',
+      });
+    }
+    const rows = await qb
+      .orderBy('p.updatedAt', 'ASC')
+      .addOrderBy('p.sku', 'ASC')
+      .take(limit)
+      .getMany();
+    return rows.map(p => ({
+      sku: p.sku,
+      name: p.name,
+      priceCents: p.priceCents,
+      currency: p.currency,
+      active: p.active,
+      updatedAt: p.updatedAt,
+    }));
+  }
+
   async getProductBySku(sku: string): Promise<Product | null> {
     return this.products.findOne({ where: { sku }, relations: ['categories', 'movements'] });
   }
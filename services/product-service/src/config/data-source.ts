@@ -4,6 +4,7 @@ import { Product } from '../domain/product.entity';
 import { Category } from '../domain/category.entity';
 import { StockMovement } from '../domain/stock-movement.entity';
 import { ProductInventory } from '../domain/product-inventory.entity';
+import { StockBatchRequest } from '../domain/stock-batch-request.entity';
 
 export const AppDataSource = new DataSource({
   type: 'postgres',
@@ -12,7 +13,7 @@ export const AppDataSource = new DataSource({
   username: process.env.PRODUCT_DB_USER || process.env.POSTGRES_USER || 'product_app',
   password: process.env.PRODUCT_DB_PASSWORD || process.env.POSTGRES_PASSWORD || 'CHANGE_ME',
   database: process.env.PRODUCT_DB_NAME || process.env.POSTGRES_DB || 'product_svc',
-  entities: [Product, Category, StockMovement, ProductInventory],
+  entities: [Product, Category, StockMovement, ProductInventory, StockBatchRequest],
   synchronize: false,
   // Explicitly disable TypeORM migrations to avoid accidental execution.
   migrationsRun: false,
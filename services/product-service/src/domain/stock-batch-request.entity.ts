@@ -0,0 +1,15 @@
+import { Entity, PrimaryColumn, Column, CreateDateColumn } from 'typeorm';
+
+/**
+ * One order-service stock batch by its request id, so a retried batch is applied at most once
+ * and a cancelled one is never applied.
+ */
+@Entity('stock_batch_requests')
+export class StockBatchRequest {
+  @PrimaryColumn({ name: 'request_id', type: 'varchar', length: 100 }) requestId!: string;
+  @Column({ type: 'varchar', length: 16 }) status!: 'APPLIED' | 'CANCELLED';
+  // What was applied, so a cancel can undo it, and what was answered, so a retry gets the same answer
+  @Column({ type: 'simple-json', nullable: true }) adjustments?: { sku: string; adjustment: number }[];
+  @Column({ type: 'simple-json', nullable: true }) result?: Record<string, any>;
+  @CreateDateColumn({ name: 'created_at', type: 'timestamptz' }) createdAt!: Date;
+}
@@ -0,0 +1,13 @@
+-- V7: Remember order-service stock batches by request id
+-- A retried batch is answered from here instead of being applied twice, and a batch cancelled
+-- before it arrived is refused.
+
+CREATE TABLE IF NOT EXISTS product_svc.stock_batch_requests (
+  request_id VARCHAR(100) PRIMARY KEY,
+  status VARCHAR(16) NOT NULL,
+  adjustments TEXT NULL,
+  result TEXT NULL,
+  created_at TIMESTAMPTZ(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS ix_stock_batch_requests_created_at ON product_svc.stock_batch_requests(created_at);
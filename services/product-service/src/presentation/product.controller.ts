@@ -1,4 +1,4 @@
-import { Controller, Get, Post, Body, Patch, Param, Query, UseGuards, Request, Delete, HttpCode, ForbiddenException, NotFoundException, ConflictException, Put } from '@nestjs/common';
+import { Controller, Get, Post, Body, Patch, Param, Query, UseGuards, Request, Delete, HttpCode, ForbiddenException, NotFoundException, ConflictException, BadRequestException, Put } from '@nestjs/common';
 import { ProductService } from '../application/product.service';
 import { CreateProductDto } from './dto/create-product.dto';
 import { UpdateProductDto } from './dto/update-product.dto';
@@ -104,6 +104,25 @@ export class ProductController {
     }
   }
 
+  /**
+   * Internal catalog feed for service-to-service snapshots.
+   * Clients pass back the updatedAt and sku of the last row they saw to fetch the next page of changes.
+   */
+  @Get('internal/catalog')
+  @UseGuards(InternalApiKeyGuard)
+  async catalogChanges(
+    @Query('updatedSince') updatedSince?: string,
+    @Query('afterSku') afterSku?: string,
+    @Query('limit') limit?: string,
+  ) {
+    const since = updatedSince ? new Date(updatedSince) : undefined;
+    if (since && isNaN(since.getTime())) {
+      throw new BadRequestException('updatedSince must be an ISO-8601 timestamp');
+    }
+    const l = Math.min(1000, Math.max(1, parseInt(limit || '500', 10) || 500));
+    return this.service.listCatalogChanges(since, afterSku, l);
+  }
+
   @Get(':sku')
   async getProductBySku(@Param('sku') sku: string) {
     const product = await this.service.getProductBySku(sku);
@@ -137,6 +156,30 @@ export class ProductController {
     return this.service.adjustStock(sku, body.adjustment, body.reason || 'Order fulfillment');
   }
 
+  /**
+   * Internal batch variant of the stock adjustment endpoint.
+   * All adjustments succeed or fail together, so order-service can reserve a whole order in one call.
+   */
+  @Post('internal/stock/batch')
+  @UseGuards(InternalApiKeyGuard)
+  @HttpCode(200)
+  async adjustStockBatchInternal(
+    @Body() body: { adjustments: { sku: string; adjustment: number }[]; reason?: string; requestId?: string },
+  ) {
+    return this.service.adjustStockBatch(body.adjustments, body.reason || 'Order fulfillment', body.requestId);
+  }
+
+  /**
+   * Undo a batch sent with a requestId, or refuse it if it has not arrived yet.
+   * Called by order-service when a reservation's outcome is unknown or its checkout rolled back.
+   */
+  @Post('internal/stock/batch/:requestId/cancel')
+  @UseGuards(InternalApiKeyGuard)
+  @HttpCode(200)
+  async cancelStockBatchInternal(@Param('requestId') requestId: string, @Body() body: { reason?: string }) {
+    return this.service.cancelStockBatch(requestId, body?.reason || 'Reservation cancelled');
+  }
+
   @Delete(':sku')
   @UseGuards(JwtAuthGuard)
   @HttpCode(200)
@@ -120,6 +120,14 @@ CREATE TABLE IF NOT EXISTS product_svc.stock_movements (
   CONSTRAINT fk_sm_product FOREIGN KEY (product_id) REFERENCES product_svc.products(id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS product_svc.stock_batch_requests (
+  request_id VARCHAR(100) PRIMARY KEY,
+  status VARCHAR(16) NOT NULL,
+  adjustments TEXT NULL,
+  result TEXT NULL,
+  created_at TIMESTAMPTZ(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Indexes ------------------------------------------------------------------
 CREATE INDEX IF NOT EXISTS ix_products_active ON product_svc.products(is_active);
 CREATE INDEX IF NOT EXISTS ix_products_price ON product_svc.products(price_cents);
@@ -1,4 +1,4 @@
-import { ConflictException, ForbiddenException, NotFoundException } from '@nestjs/common';
+import { BadRequestException, ConflictException, ForbiddenException, NotFoundException } from '@nestjs/common';
 import { ProductController } from '../../src/presentation/product.controller';
 import { ProductService } from '../../src/application/product.service';
 
@@ -14,6 +14,9 @@ describe('ProductController', () => {
       updateProduct: jest.fn(),
       getProductBySku: jest.fn(),
       adjustStock: jest.fn(),
+      adjustStockBatch: jest.fn(),
+      cancelStockBatch: jest.fn(),
+      listCatalogChanges: jest.fn(),
       deleteProduct: jest.fn(),
     } as unknown as jest.Mocked<ProductService>;
 
@@ -120,6 +123,41 @@ describe('ProductController', () => {
     expect(service.adjustStock).toHaveBeenCalledWith('SKU-9', -2, 'Order fulfillment');
   });
 
+  it('delegates internal batch stock adjustments with the default reason', async () => {
+    service.adjustStockBatch.mockResolvedValue({ results: [] } as never);
+
+    await controller.adjustStockBatchInternal({ adjustments: [{ sku: 'SKU-1', adjustment: -1 }, { sku: 'SKU-2', adjustment: -3 }] });
+
+    expect(service.adjustStockBatch).toHaveBeenCalledWith(
+      [{ sku: 'SKU-1', adjustment: -1 }, { sku: 'SKU-2', adjustment: -3 }],
+      'Order fulfillment',
+      undefined,
+    );
+  });
+
+  it('passes the batch request id through and delegates cancels by it', async () => {
+    service.adjustStockBatch.mockResolvedValue({ results: [] } as never);
+    service.cancelStockBatch.mockResolvedValue({ requestId: 'cart-1-a', undone: true } as never);
+
+    await controller.adjustStockBatchInternal({ adjustments: [{ sku: 'SKU-1', adjustment: -1 }], requestId: 'cart-1-a' });
+    await controller.cancelStockBatchInternal('cart-1-a', {});
+
+    expect(service.adjustStockBatch).toHaveBeenCalledWith([{ sku: 'SKU-1', adjustment: -1 }], 'Order fulfillment', 'cart-1-a');
+    expect(service.cancelStockBatch).toHaveBeenCalledWith('cart-1-a', 'Reservation cancelled');
+  });
+
+  it('parses the catalog cursor and clamps the page size', async () => {
+    service.listCatalogChanges.mockResolvedValue([] as never);
+
+    await controller.catalogChanges('2026-01-01T00:00:00.000Z', 'SKU-9', '5000');
+
+    expect(service.listCatalogChanges).toHaveBeenCalledWith(new Date('2026-01-01T00:00:00.000Z'), 'SKU-9', 1000);
+  });
+
+  it('rejects an invalid catalog cursor', async () => {
+    await expect(controller.catalogChanges('not-a-date')).rejects.toBeInstanceOf(BadRequestException);
+  });
+
   it('throws not found when deleting a missing product', async () => {
     service.deleteProduct.mockResolvedValue(false as never);
 
@@ -5,6 +5,7 @@ import { ProductService } from '../../src/application/product.service';
 import { Product } from '../../src/domain/product.entity';
 import { Category } from '../../src/domain/category.entity';
 import { StockMovement } from '../../src/domain/stock-movement.entity';
+import { StockBatchRequest } from '../../src/domain/stock-batch-request.entity';
 
 describe('ProductService', () => {
   let service: ProductService;
@@ -290,6 +291,179 @@ describe('ProductService', () => {
     });
   });
 
+  // adjustStockBatch() tests
+  describe('adjustStockBatch', () => {
+    const mockEntityManager = (stockBySku: Record<string, number>, batches: Record<string, any> = {}) => {
+      const products: Record<string, Product> = {};
+      Object.keys(stockBySku).forEach((sku, i) => (products[sku] = { id: i + 1, sku } as Product));
+      let currentSku = '';
+      return {
+        findOne: jest.fn(async (entity: any, opts: any) => {
+          if (entity === StockBatchRequest) {
+            return batches[opts.where.requestId] ?? null;
+          }
+          currentSku = opts.where.sku;
+          return products[currentSku] ?? null;
+        }),
+        createQueryBuilder: jest.fn(() => ({
+          select: jest.fn().mockReturnThis(),
+          where: jest.fn().mockReturnThis(),
+          getRawOne: jest.fn(async () => ({ stock: String(stockBySku[currentSku]) })),
+        })),
+        create: jest.fn((_entity: any, data: any) => data),
+        save: jest.fn(async (data: any) => data),
+      };
+    };
+
+    it('should apply every adjustment inside a single transaction', async () => {
+      const em = mockEntityManager({ 'SKU-A': 10, 'SKU-B': 4 });
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      const result = await service.adjustStockBatch(
+        [{ sku: 'SKU-A', adjustment: -2 }, { sku: 'SKU-B', adjustment: -4 }],
+        'Order #7 checkout',
+      );
+
+      expect((productRepo as any).manager.transaction).toHaveBeenCalledTimes(1);
+      expect(em.save).toHaveBeenCalledTimes(2);
+      expect(result.results).toEqual([
+        { sku: 'SKU-A', previous: 10, new: 8, stock: 8 },
+        { sku: 'SKU-B', previous: 4, new: 0, stock: 0 },
+      ]);
+    });
+
+    it('should reject the whole batch when any SKU lacks stock', async () => {
+      const em = mockEntityManager({ 'SKU-A': 10, 'SKU-B': 1 });
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      await expect(service.adjustStockBatch(
+        [{ sku: 'SKU-A', adjustment: -2 }, { sku: 'SKU-B', adjustment: -3 }],
+        'Order #8 checkout',
+      )).rejects.toThrow('Insufficient stock for sku SKU-B');
+    });
+
+    it('should record a batch sent with a request id', async () => {
+      const em = mockEntityManager({ 'SKU-A': 10 });
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      await service.adjustStockBatch([{ sku: 'SKU-A', adjustment: -2 }], 'Cart #1 checkout', 'cart-1-a');
+
+      expect(em.save).toHaveBeenCalledWith(expect.objectContaining({
+        requestId: 'cart-1-a',
+        status: 'APPLIED',
+        adjustments: [{ sku: 'SKU-A', adjustment: -2 }],
+      }));
+    });
+
+    it('should answer a retried request id without applying it again', async () => {
+      const em = mockEntityManager({ 'SKU-A': 8 }, {
+        'cart-1-a': { requestId: 'cart-1-a', status: 'APPLIED', result: { reason: 'Cart #1 checkout', results: [] } },
+      });
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      const result = await service.adjustStockBatch([{ sku: 'SKU-A', adjustment: -2 }], 'Cart #1 checkout', 'cart-1-a');
+
+      expect(result).toEqual({ reason: 'Cart #1 checkout', results: [], replayed: true });
+      expect(em.save).not.toHaveBeenCalled();
+    });
+
+    it('should refuse a request id that was cancelled', async () => {
+      const em = mockEntityManager({ 'SKU-A': 8 }, { 'cart-1-a': { requestId: 'cart-1-a', status: 'CANCELLED' } });
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      await expect(service.adjustStockBatch([{ sku: 'SKU-A', adjustment: -2 }], 'Cart #1 checkout', 'cart-1-a'))
+        .rejects.toThrow('Stock batch cart-1-a was cancelled');
+      expect(em.save).not.toHaveBeenCalled();
+    });
+
+    it('should validate quantities before opening a transaction', async () => {
+      (productRepo as any).manager = { transaction: jest.fn() };
+
+      await expect(service.adjustStockBatch([], 'Test')).rejects.toThrow('At least one adjustment is required');
+      await expect(service.adjustStockBatch([{ sku: 'SKU-A', adjustment: 0 }], 'Test'))
+        .rejects.toThrow('Quantity must be a non-zero integer for sku SKU-A');
+      expect((productRepo as any).manager.transaction).not.toHaveBeenCalled();
+    });
+  });
+
+  // cancelStockBatch() tests
+  describe('cancelStockBatch', () => {
+    const entityManager = (batch: any) => ({
+      findOne: jest.fn(async (entity: any, opts: any) =>
+        entity === StockBatchRequest ? batch : ({ id: 1, sku: opts.where.sku } as Product)),
+      create: jest.fn((_entity: any, data: any) => data),
+      save: jest.fn(async (data: any) => data),
+    });
+
+    it('should put back what an applied batch took and refuse it from then on', async () => {
+      const batch = { requestId: 'cart-1-a', status: 'APPLIED', adjustments: [{ sku: 'SKU-A', adjustment: -2 }] };
+      const em = entityManager(batch);
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      const result = await service.cancelStockBatch('cart-1-a', 'Cart #1 checkout not confirmed');
+
+      expect(result).toEqual({ requestId: 'cart-1-a', undone: true });
+      expect(em.save).toHaveBeenCalledWith(expect.objectContaining({ quantity: 2, reason: 'Cart #1 checkout not confirmed' }));
+      expect(batch.status).toBe('CANCELLED');
+    });
+
+    it('should leave a tombstone for a batch that has not arrived', async () => {
+      const em = entityManager(null);
+      (productRepo as any).manager = { transaction: jest.fn((cb: any) => cb(em)) };
+
+      const result = await service.cancelStockBatch('cart-1-a', 'Cart #1 checkout not confirmed');
+
+      expect(result).toEqual({ requestId: 'cart-1-a', undone: false });
+      expect(em.save).toHaveBeenCalledTimes(1);
+      expect(em.save).toHaveBeenCalledWith({ requestId: 'cart-1-a', status: 'CANCELLED' });
+    });
+  });
+
+  // listCatalogChanges() tests
+  describe('listCatalogChanges', () => {
+    it('should page by (updatedAt, sku) after the cursor and project catalog fields', async () => {
+      const updatedAt = new Date('2026-01-02T00:00:00.000Z');
+      const mockQueryBuilder = {
+        select: jest.fn().mockReturnThis(),
+        where: jest.fn().mockReturnThis(),
+        orderBy: jest.fn().mockReturnThis(),
+        addOrderBy: jest.fn().mockReturnThis(),
+        take: jest.fn().mockReturnThis(),
+        getMany: jest.fn().mockResolvedValue([
+          { sku: 'SKU-1', name: 'Apples', priceCents: 199, currency: 'USD', active: true, updatedAt } as any,
+        ]),
+      };
+      jest.spyOn(productRepo, 'createQueryBuilder').mockReturnValue(mockQueryBuilder as any);
+
+      const since = new Date('2026-01-01T00:00:00.000Z');
+      const result = await service.listCatalogChanges(since, 'SKU-0', 50);
+
+      expect(mockQueryBuilder.where).toHaveBeenCalledWith(
+        "(date_trunc('milliseconds', p.updatedAt) > :since OR (date_trunc('milliseconds', p.updatedAt) = :since AND p.sku > :afterSku))",
+        { since, afterSku: 'SKU-0' },
+      );
+      expect(mockQueryBuilder.take).toHaveBeenCalledWith(50);
+      expect(result).toEqual([{ sku: 'SKU-1', name: 'Apples', priceCents: 199, currency: 'USD', active: true, updatedAt }]);
+    });
+
+    it('should return the full catalog when no cursor is given', async () => {
+      const mockQueryBuilder = {
+        select: jest.fn().mockReturnThis(),
+        where: jest.fn().mockReturnThis(),
+        orderBy: jest.fn().mockReturnThis(),
+        addOrderBy: jest.fn().mockReturnThis(),
+        take: jest.fn().mockReturnThis(),
+        getMany: jest.fn().mockResolvedValue([]),
+      };
+      jest.spyOn(productRepo, 'createQueryBuilder').mockReturnValue(mockQueryBuilder as any);
+
+      await service.listCatalogChanges();
+
+      expect(mockQueryBuilder.where).not.toHaveBeenCalled();
+      expect(mockQueryBuilder.take).toHaveBeenCalledWith(500);
+    });
+  });
+
   // getStock() tests
   describe('getStock', () => {
     it('should calculate stock from multiple movements', async () => {
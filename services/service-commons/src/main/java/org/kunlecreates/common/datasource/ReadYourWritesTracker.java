@@ -0,0 +1,73 @@
+package org.kunlecreates.common.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who committed a write recently, so their reads go to the primary until the replica
+ * has had time to catch up. Callers are identified by the authenticated principal only: behind the
+ * ingress every anonymous caller has the same address, so keying them by it would pin them all
+ * after any one of them wrote. Anonymous requests and work outside a request are never pinned;
+ * reads that must be current for anyone ask for the primary instead
+ * ({@link ReplicaRoutingDataSource#requirePrimary()}).
+ * State is per instance: a caller load-balanced to another pod right after a write relies on the
+ * replica-lag bound alone.
+ */
+public class ReadYourWritesTracker {
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWritesTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public void markWrite(String key) {
+        if (key == null || window.isZero()) {
+            return;
+        }
+        long now = clock.millis();
+        if (pinnedUntil.size() > PRUNE_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until <= now);
+        }
+        pinnedUntil.put(key, now + window.toMillis());
+    }
+
+    public boolean recentlyWrote(String key) {
+        if (key == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until <= clock.millis()) {
+            pinnedUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    /** Key for the authenticated caller on this thread, or null for anyone else. */
+    public String currentKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return null;
+    }
+}
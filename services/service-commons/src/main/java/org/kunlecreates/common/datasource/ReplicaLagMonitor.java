@@ -0,0 +1,130 @@
+package org.kunlecreates.common.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the read replica trails the primary.
+ *
+ * Each instance owns one row of the heartbeat table, keyed by its instance id. Every {@code interval}
+ * the replica's copy of that row is read, then the current application time is written to the
+ * primary's copy. The lag is the age of the oldest heartbeat the replica has not applied yet, or zero
+ * when it has them all. Only this instance's clock ever writes or judges its row, so neither database
+ * clock skew nor skew between instances enters the measurement. Until the first successful probe, or
+ * after a failed one, the lag is unknown and {@link #isWithin(Duration)} is false, so reads stay on the
+ * primary. Rows of instances that stopped beating are removed on start.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final long UNKNOWN = -1L;
+    private static final int MAX_UNCONFIRMED_BEATS = 1024;
+    private static final Duration STALE_ROW_AGE = Duration.ofDays(1);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String table;
+    private final String instanceId;
+    private final Duration interval;
+    private final Clock clock;
+    private final ArrayDeque<Instant> unconfirmedBeats = new ArrayDeque<>();
+    private volatile long lagMillis = UNKNOWN;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, String table, String instanceId,
+                             Duration interval, MeterRegistry meterRegistry) {
+        this(new JdbcTemplate(primary), new JdbcTemplate(replica), table, instanceId, interval, meterRegistry,
+                Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, String table, String instanceId,
+                      Duration interval, MeterRegistry meterRegistry, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.table = table;
+        this.instanceId = instanceId;
+        this.interval = interval;
+        this.clock = clock;
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagMillis == UNKNOWN ? Double.NaN : m.lagMillis / 1000.0)
+                .description("Seconds the read replica trails the primary; NaN when unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        try {
+            primary.update("DELETE FROM " + table + " WHERE beat_at < ? AND instance_id <> ?",
+                    Timestamp.from(clock.instant().minus(STALE_ROW_AGE)), instanceId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove stale replica heartbeats: {}", e.getMessage());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /** True when the last probe succeeded and the replica was no further behind than {@code maxLag}. */
+    public boolean isWithin(Duration maxLag) {
+        long lag = lagMillis;
+        return lag != UNKNOWN && lag <= maxLag.toMillis();
+    }
+
+    synchronized void tick() {
+        try {
+            List<Timestamp> rows = replica.queryForList(
+                    "SELECT beat_at FROM " + table + " WHERE instance_id = ?", Timestamp.class, instanceId);
+            Timestamp seen = rows.isEmpty() ? null : rows.get(0);
+            if (seen != null) {
+                while (!unconfirmedBeats.isEmpty() && !unconfirmedBeats.peekFirst().isAfter(seen.toInstant())) {
+                    unconfirmedBeats.pollFirst();
+                }
+            }
+            Instant now = clock.instant();
+            lagMillis = seen == null ? UNKNOWN
+                    : unconfirmedBeats.isEmpty() ? 0L : Duration.between(unconfirmedBeats.peekFirst(), now).toMillis();
+        } catch (RuntimeException e) {
+            if (lagMillis != UNKNOWN) {
+                logger.warn("Replica lag probe failed, routing reads to the primary: {}", e.getMessage());
+            }
+            lagMillis = UNKNOWN;
+        }
+        try {
+            // Millisecond precision survives the round trip through any TIMESTAMP column unchanged
+            Instant beat = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+            if (primary.update("UPDATE " + table + " SET beat_at = ? WHERE instance_id = ?",
+                    Timestamp.from(beat), instanceId) == 0) {
+                primary.update("INSERT INTO " + table + " (instance_id, beat_at) VALUES (?, ?)",
+                        instanceId, Timestamp.from(beat));
+            }
+            unconfirmedBeats.addLast(beat);
+            if (unconfirmedBeats.size() > MAX_UNCONFIRMED_BEATS) {
+                unconfirmedBeats.pollFirst();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.kunlecreates.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * A read-only transaction still goes to the primary when the replica is further behind than
+ * {@code maxLag} (or its lag is unknown), when the same caller committed a write within the
+ * read-your-writes window, or when it asked for the primary with {@link #requirePrimary()}.
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy}: the transaction manager fetches its
+ * connection before the read-only flag is published, and the lazy proxy defers the real fetch,
+ * and so this routing decision, to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    /** Transaction resource marking a read-only transaction that must read the primary. */
+    private static final Object PRIMARY_REQUIRED = new Object();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Duration maxLag;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter requiredReads;
+    private final Counter laggingReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWrites, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+        this.writes = routeCounter(meterRegistry, Route.PRIMARY, "write");
+        this.replicaReads = routeCounter(meterRegistry, Route.REPLICA, "read");
+        this.pinnedReads = routeCounter(meterRegistry, Route.PRIMARY, "read-your-writes");
+        this.requiredReads = routeCounter(meterRegistry, Route.PRIMARY, "required");
+        this.laggingReads = routeCounter(meterRegistry, Route.PRIMARY, "replica-lag");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Send the rest of the current read-only transaction to the primary, for reads that must see
+     * the latest commit whoever made it, such as credential checks. Call before the transaction's
+     * first statement; outside a transaction it does nothing.
+     */
+    public static void requirePrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARY_REQUIRED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_REQUIRED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_REQUIRED);
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinCallerAfterCommit();
+            writes.increment();
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.hasResource(PRIMARY_REQUIRED)) {
+            requiredReads.increment();
+            return Route.PRIMARY;
+        }
+        if (readYourWrites.recentlyWrote(readYourWrites.currentKey())) {
+            pinnedReads.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isWithin(maxLag)) {
+            laggingReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+
+    private void pinCallerAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String key = readYourWrites.currentKey();
+        if (key == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.markWrite(key);
+            }
+        });
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, Route route, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out per route and routing reason")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,195 @@
+package org.kunlecreates.common.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/jfr}: an on-demand Flight Recorder recording of a service's own events, for
+ * finding which stage of a slow request took the time. Each service registers it with its event
+ * types, all named under {@code shopease.}.
+ *
+ * POST starts a recording, GET reports on it, DELETE stops it and returns, per event type, the
+ * count, total and longest duration, plus the {@code limit} slowest events with their fields.
+ * One recording runs at a time. It stops by itself after {@code jfr.recording.max-duration} and
+ * keeps at most {@code jfr.recording.max-size} on disk, so a forgotten recording costs little.
+ * Admin only (see each service's {@code SecurityConfig}).
+ */
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+    private static final String EVENT_PREFIX = "shopease.";
+    private static final Set<String> BUILT_IN_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 500;
+
+    private final String service;
+    private final List<Class<? extends Event>> events;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+    private Recording recording;
+    private Instant startedAt;
+
+    public JfrRecordingEndpoint(String service, List<Class<? extends Event>> events, Duration maxDuration, DataSize maxSize) {
+        this.service = service;
+        this.events = List.copyOf(events);
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    public record Status(boolean recording, String startedAt, String stopsBy, List<String> events) {}
+
+    public record EventTypeSummary(long count, double totalMillis, double maxMillis) {}
+
+    public record SlowEvent(String event, String startTime, double durationMillis, String thread,
+                            Map<String, Object> fields) {}
+
+    public record Summary(String startedAt, String stoppedAt, Map<String, EventTypeSummary> events,
+                          List<SlowEvent> slowest) {}
+
+    @ReadOperation
+    public synchronized Status status() {
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        return new Status(running,
+                recording != null ? startedAt.toString() : null,
+                recording != null ? startedAt.plus(maxDuration).toString() : null,
+                events.stream().map(type -> type.getAnnotation(Name.class).value()).toList());
+    }
+
+    /** Start recording, unless a recording is already running. */
+    @WriteOperation
+    public synchronized Status start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        Recording next = new Recording();
+        next.setName(service + "-events");
+        events.forEach(type -> next.enable(type).withoutThreshold());
+        next.setDuration(maxDuration);
+        next.setMaxSize(maxSize.toBytes());
+        next.setToDisk(true);
+        next.start();
+        recording = next;
+        startedAt = Instant.now();
+        return status();
+    }
+
+    /**
+     * Stop the recording, if it has not stopped by itself, and summarize it.
+     *
+     * @param limit how many of the slowest events to list, default {@value #DEFAULT_LIMIT}
+     * @return the summary, or null if nothing was recorded since the last stop
+     */
+    @DeleteOperation
+    public synchronized Summary stop(@Nullable Integer limit) {
+        if (recording == null) {
+            return null;
+        }
+        Recording stopping = recording;
+        recording = null;
+        Path file = null;
+        try {
+            if (stopping.getState() == RecordingState.RUNNING) {
+                stopping.stop();
+            }
+            file = Files.createTempFile(service + "-events", ".jfr");
+            stopping.dump(file);
+            int slowest = Math.min(Math.max(limit != null ? limit : DEFAULT_LIMIT, 0), MAX_LIMIT);
+            return summarize(file, startedAt, Instant.now(), slowest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            stopping.close();
+            if (file != null) {
+                file.toFile().delete();
+            }
+        }
+    }
+
+    static Summary summarize(Path file, Instant startedAt, Instant stoppedAt, int limit) throws IOException {
+        Map<String, TypeTotals> byType = new TreeMap<>();
+        PriorityQueue<RecordedEvent> slowest = new PriorityQueue<>(Comparator.comparing(RecordedEvent::getDuration));
+        try (RecordingFile events = new RecordingFile(file)) {
+            while (events.hasMoreEvents()) {
+                RecordedEvent event = events.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(EVENT_PREFIX)) {
+                    continue;
+                }
+                byType.computeIfAbsent(name, n -> new TypeTotals()).add(event.getDuration());
+                if (limit > 0) {
+                    slowest.add(event);
+                    if (slowest.size() > limit) {
+                        slowest.poll();
+                    }
+                }
+            }
+        }
+        Map<String, EventTypeSummary> types = new LinkedHashMap<>();
+        byType.forEach((name, totals) -> types.put(name,
+                new EventTypeSummary(totals.count, millis(totals.total), millis(totals.max))));
+        List<SlowEvent> slow = new ArrayList<>(slowest.size());
+        while (!slowest.isEmpty()) {
+            slow.add(slowEvent(slowest.poll()));
+        }
+        return new Summary(startedAt.toString(), stoppedAt.toString(), types, slow.reversed());
+    }
+
+    private static final class TypeTotals {
+        long count;
+        Duration total = Duration.ZERO;
+        Duration max = Duration.ZERO;
+
+        void add(Duration duration) {
+            count++;
+            total = total.plus(duration);
+            if (duration.compareTo(max) > 0) {
+                max = duration;
+            }
+        }
+    }
+
+    private static SlowEvent slowEvent(RecordedEvent event) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (ValueDescriptor field : event.getFields()) {
+            if (!BUILT_IN_FIELDS.contains(field.getName())) {
+                fields.put(field.getName(), event.getValue(field.getName()));
+            }
+        }
+        return new SlowEvent(event.getEventType().getName(), event.getStartTime().toString(),
+                millis(event.getDuration()),
+                event.getThread() != null ? event.getThread().getJavaName() : null,
+                fields);
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
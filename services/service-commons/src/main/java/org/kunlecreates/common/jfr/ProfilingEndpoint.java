@@ -0,0 +1,196 @@
+package org.kunlecreates.common.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/profile}: profile the running service for a few seconds and get back a flame
+ * graph's input, without a shell in the container.
+ *
+ * POST blocks for {@code seconds} while a Flight Recorder stream samples CPU ({@code cpu}, in
+ * samples), allocation ({@code alloc}, in bytes) and lock contention ({@code lock}, in
+ * microseconds blocked), then returns the samples folded into collapsed stacks: one line per
+ * distinct stack, root first, frames separated by {@code ;}, a space and the weight. The root
+ * frame names the profile, so all three share one graph. {@code events} picks a subset.
+ *
+ * A service whose work runs off the request threads, on pools of its own, can split stacks by
+ * pool: the second frame then names the pool the sample was taken on, e.g.
+ * {@code cpu;[shard-fan-out];...}, with the thread number dropped so a pool's threads share one
+ * tower. A service that works on the request threads leaves this off, so each operation's samples
+ * stay in one tower under the controller that ran it.
+ *
+ * Only one profile runs at a time (a second caller gets 429), and none runs longer than
+ * {@code jfr.profiling.max-duration} (400). Stacks are aggregated as they arrive, so memory is
+ * bounded by the number of distinct stacks rather than the length of the profile; past
+ * {@value #MAX_STACKS} of them, new stacks are counted under {@code <profile>;[other]}.
+ * Admin only (see each service's {@code SecurityConfig}).
+ */
+@WebEndpoint(id = "profile")
+public class ProfilingEndpoint {
+    static final String CPU = "cpu";
+    static final String ALLOC = "alloc";
+    static final String LOCK = "lock";
+    private static final List<String> ALL = List.of(CPU, ALLOC, LOCK);
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int MAX_STACKS = 20_000;
+    private static final Pattern THREAD_NUMBER = Pattern.compile("[-#]?\\d+$");
+
+    private final boolean byThreadPool;
+    private final Duration maxDuration;
+    private final Duration cpuSamplePeriod;
+    private final Duration lockThreshold;
+    private final Semaphore running = new Semaphore(1);
+
+    /** @param byThreadPool whether to split stacks by the thread pool they were sampled on */
+    public ProfilingEndpoint(boolean byThreadPool, Duration maxDuration, Duration cpuSamplePeriod, Duration lockThreshold) {
+        this.byThreadPool = byThreadPool;
+        this.maxDuration = maxDuration;
+        this.cpuSamplePeriod = cpuSamplePeriod;
+        this.lockThreshold = lockThreshold;
+    }
+
+    /**
+     * @param seconds how long to profile, default {@value #DEFAULT_SECONDS}
+     * @param events  comma-separated subset of {@code cpu,alloc,lock}, default all three
+     */
+    @WriteOperation(produces = "text/plain;charset=UTF-8")
+    public WebEndpointResponse<String> profile(@Nullable Integer seconds, @Nullable String events) {
+        Duration duration = Duration.ofSeconds(seconds != null ? seconds : DEFAULT_SECONDS);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            return new WebEndpointResponse<>("seconds must be between 1 and " + maxDuration.toSeconds(),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Set<String> profiles = events == null || events.isBlank() ? new LinkedHashSet<>(ALL)
+                : Arrays.stream(events.split(","))
+                        .map(event -> event.strip().toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!ALL.containsAll(profiles)) {
+            return new WebEndpointResponse<>("events must be a subset of " + String.join(",", ALL),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (!running.tryAcquire()) {
+            return new WebEndpointResponse<>("A profile is already running", WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            return new WebEndpointResponse<>(record(profiles, duration), WebEndpointResponse.STATUS_OK);
+        } finally {
+            running.release();
+        }
+    }
+
+    boolean isProfiling() {
+        return running.availablePermits() == 0;
+    }
+
+    private String record(Set<String> profiles, Duration duration) {
+        CollapsedStacks stacks = new CollapsedStacks(byThreadPool);
+        try (RecordingStream stream = new RecordingStream()) {
+            if (profiles.contains(CPU)) {
+                stream.enable("jdk.ExecutionSample").withPeriod(cpuSamplePeriod).withStackTrace();
+                stream.onEvent("jdk.ExecutionSample", event -> stacks.add(CPU, event, 1));
+            }
+            if (profiles.contains(ALLOC)) {
+                stream.enable("jdk.ObjectAllocationSample").withStackTrace();
+                stream.onEvent("jdk.ObjectAllocationSample", event -> stacks.add(ALLOC, event, event.getLong("weight")));
+            }
+            if (profiles.contains(LOCK)) {
+                for (String lockEvent : List.of("jdk.JavaMonitorEnter", "jdk.ThreadPark")) {
+                    stream.enable(lockEvent).withThreshold(lockThreshold).withStackTrace();
+                    stream.onEvent(lockEvent, event -> stacks.add(LOCK, event, event.getDuration().toNanos() / 1_000));
+                }
+            }
+            stream.startAsync();
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Flushes what was sampled so far to the handlers before returning
+            stream.stop();
+        }
+        return stacks.toString();
+    }
+
+    /** {@code http-nio-8080-exec-3} becomes {@code http-nio-8080-exec}. */
+    static String poolName(String threadName) {
+        String pool = THREAD_NUMBER.matcher(threadName).replaceFirst("");
+        return pool.isEmpty() ? threadName : pool;
+    }
+
+    /** Weights summed per collapsed stack; only touched by the stream's dispatch thread until it stops. */
+    static final class CollapsedStacks {
+        private final boolean byThreadPool;
+        private final Map<String, Long> weights = new HashMap<>();
+
+        CollapsedStacks(boolean byThreadPool) {
+            this.byThreadPool = byThreadPool;
+        }
+
+        void add(String profile, RecordedEvent event, long weight) {
+            RecordedStackTrace trace = event.getStackTrace();
+            if (trace == null || weight <= 0) {
+                return;
+            }
+            List<RecordedFrame> frames = trace.getFrames();
+            StringBuilder stack = new StringBuilder(profile);
+            if (byThreadPool) {
+                stack.append(";[").append(threadPool(event)).append(']');
+            }
+            if (trace.isTruncated()) {
+                // Flight Recorder keeps the leaf end of deep stacks
+                stack.append(";[truncated]");
+            }
+            // Frames come leaf first; collapsed stacks are root first
+            for (int i = frames.size() - 1; i >= 0; i--) {
+                stack.append(';').append(frameName(frames.get(i)));
+            }
+            String key = stack.toString();
+            if (weights.size() >= MAX_STACKS && !weights.containsKey(key)) {
+                key = profile + ";[other]";
+            }
+            weights.merge(key, weight, Long::sum);
+        }
+
+        private static String threadPool(RecordedEvent event) {
+            // Execution samples are taken from another thread; the sampled one is a field of its own
+            RecordedThread thread = event.hasField("sampledThread") ? event.getThread("sampledThread") : event.getThread();
+            String name = thread == null ? null : thread.getJavaName() != null ? thread.getJavaName() : thread.getOSName();
+            return name == null ? "unknown" : poolName(name);
+        }
+
+        private static String frameName(RecordedFrame frame) {
+            if (!frame.isJavaFrame()) {
+                return frame.getMethod().getName();
+            }
+            return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            weights.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> out.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n'));
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.kunlecreates.common.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/latency}: the {@link LatencyHistograms} percentiles per route and downstream,
+ * for the last closed interval (recorded and corrected for coordinated omission) and since start.
+ * Admin only (see {@code SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+    private final LatencyHistograms histograms;
+
+    public LatencyEndpoint(LatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @ReadOperation
+    public LatencyHistograms.Report latency() {
+        return histograms.report();
+    }
+}
@@ -0,0 +1,145 @@
+package org.kunlecreates.common.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * High-resolution latency distributions for the routes and downstreams that carry SLOs, kept in
+ * HdrHistograms to three significant digits so p99.9 is exact to within 0.1% rather than to a
+ * Prometheus bucket boundary.
+ *
+ * Writers record into a {@link Recorder}, which is wait-free, so the request path never blocks on
+ * a reader. Every {@code latency.interval-ms} the interval's histogram is swapped out, logged,
+ * kept as the latest interval and added to the totals since start.
+ *
+ * Each interval is also reported corrected for coordinated omission. A request that stalls for
+ * seconds also holds back the requests that would have arrived meanwhile, which a server never
+ * sees and so never records. The correction back-fills them at {@code latency.expected-interval}.
+ * If that is zero, the interval's observed mean gap between requests is used instead.
+ */
+@Component
+public class LatencyHistograms {
+    public static final String ROUTES = "routes";
+    public static final String DOWNSTREAMS = "downstreams";
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyHistograms.class);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final long highestTrackableMicros;
+    private final long expectedIntervalMicros;
+    private final Instant startedAt = Instant.now();
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    public LatencyHistograms(
+            @Value("${latency.highest-trackable:PT60S}") Duration highestTrackable,
+            @Value("${latency.expected-interval:PT0S}") Duration expectedInterval) {
+        this.highestTrackableMicros = TimeUnit.NANOSECONDS.toMicros(highestTrackable.toNanos());
+        this.expectedIntervalMicros = TimeUnit.NANOSECONDS.toMicros(expectedInterval.toNanos());
+    }
+
+    private record SeriesKey(String group, String name) {}
+
+    /** Percentiles in milliseconds. */
+    public record Distribution(long count, double mean, double p50, double p90, double p99, double p999,
+                               double p9999, double max) {}
+
+    public record Interval(String start, String end, Distribution recorded, Distribution corrected) {}
+
+    public record SeriesReport(Interval lastInterval, Distribution sinceStart) {}
+
+    public record Report(String startedAt, Map<String, Map<String, SeriesReport>> series) {}
+
+    /** Record one call of {@code name} in {@code group} ({@link #ROUTES} or {@link #DOWNSTREAMS}). */
+    public void record(String group, String name, long durationNanos) {
+        long micros = Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), highestTrackableMicros));
+        series.computeIfAbsent(new SeriesKey(group, name), key -> new Series()).recorder.recordValue(micros);
+    }
+
+    /** Close the current interval of every series and log it. */
+    @Scheduled(fixedRateString = "${latency.interval-ms:60000}", initialDelayString = "${latency.interval-ms:60000}")
+    public synchronized void rollover() {
+        series.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(SeriesKey::group).thenComparing(SeriesKey::name)))
+                .forEach(entry -> {
+                    Interval interval = entry.getValue().rollover();
+                    if (interval.recorded().count() > 0) {
+                        Distribution recorded = interval.recorded();
+                        logger.info("Latency {} {}: count={} p50={}ms p99={}ms p99.9={}ms max={}ms corrected p99.9={}ms",
+                                entry.getKey().group(), entry.getKey().name(), recorded.count(), recorded.p50(),
+                                recorded.p99(), recorded.p999(), recorded.max(), interval.corrected().p999());
+                    }
+                });
+    }
+
+    public synchronized Report report() {
+        Map<String, Map<String, SeriesReport>> groups = new LinkedHashMap<>();
+        groups.put(ROUTES, new LinkedHashMap<>());
+        groups.put(DOWNSTREAMS, new LinkedHashMap<>());
+        series.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(SeriesKey::name)))
+                .forEach(entry -> groups.computeIfAbsent(entry.getKey().group(), group -> new LinkedHashMap<>())
+                        .put(entry.getKey().name(), entry.getValue().report()));
+        return new Report(startedAt.toString(), groups);
+    }
+
+    /** One series' recorder plus what the reader keeps; everything but the recorder is guarded by the outer lock. */
+    private final class Series {
+        final Recorder recorder = new Recorder(1, highestTrackableMicros, SIGNIFICANT_DIGITS);
+        final Histogram sinceStart = new Histogram(1, highestTrackableMicros, SIGNIFICANT_DIGITS);
+        Interval lastInterval;
+
+        Interval rollover() {
+            Histogram interval = recorder.getIntervalHistogram();
+            sinceStart.add(interval);
+            lastInterval = new Interval(
+                    Instant.ofEpochMilli(interval.getStartTimeStamp()).toString(),
+                    Instant.ofEpochMilli(interval.getEndTimeStamp()).toString(),
+                    distribution(interval),
+                    distribution(interval.copyCorrectedForCoordinatedOmission(expectedIntervalMicros(interval))));
+            return lastInterval;
+        }
+
+        SeriesReport report() {
+            return new SeriesReport(lastInterval, distribution(sinceStart));
+        }
+    }
+
+    private long expectedIntervalMicros(Histogram interval) {
+        if (expectedIntervalMicros > 0 || interval.getTotalCount() == 0) {
+            return expectedIntervalMicros;
+        }
+        long elapsedMicros = (interval.getEndTimeStamp() - interval.getStartTimeStamp()) * 1_000;
+        return elapsedMicros / interval.getTotalCount();
+    }
+
+    static Distribution distribution(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return new Distribution(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new Distribution(histogram.getTotalCount(),
+                millis(histogram.getMean()),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getValueAtPercentile(99.99)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1_000.0;
+    }
+}
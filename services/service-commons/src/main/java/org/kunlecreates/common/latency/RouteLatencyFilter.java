@@ -0,0 +1,63 @@
+package org.kunlecreates.common.latency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records the latency of the SLO routes ({@code latency.routes}, none by default) into
+ * {@link LatencyHistograms}, keyed by method and route pattern, e.g. {@code POST /api/order}. Runs
+ * ahead of the security filters so token validation is part of the time the caller saw.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RouteLatencyFilter extends OncePerRequestFilter {
+    private final LatencyHistograms histograms;
+    private final List<PathPattern> routes;
+
+    public RouteLatencyFilter(
+            LatencyHistograms histograms,
+            @Value("${latency.routes:}") List<String> routes) {
+        this.histograms = histograms;
+        this.routes = routes.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PathPattern route = match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            histograms.record(LatencyHistograms.ROUTES, request.getMethod() + " " + route.getPatternString(),
+                    System.nanoTime() - start);
+        }
+    }
+
+    private PathPattern match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (PathPattern route : routes) {
+            if (route.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+}
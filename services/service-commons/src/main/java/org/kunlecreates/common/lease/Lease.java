@@ -0,0 +1,79 @@
+package org.kunlecreates.common.lease;
+
+/**
+ * A row of {@code job_leases} this instance holds: one job, or one hash slot of a job.
+ *
+ * The fencing token goes up every time the lease changes hands, so work stamped with an older
+ * token can be told apart from the current holder's. {@link #isHeld()} is a local check against
+ * the last successful heartbeat; {@link LeaseManager#fence(Lease)} checks the table itself.
+ */
+public final class Lease {
+    private final String name;
+    private final String job;
+    private final int slot;
+    private final int slotCount;
+    private final String scope;
+    private final String holder;
+    private final long token;
+    private volatile long validUntilNanos;
+    private volatile boolean lost;
+
+    Lease(String name, String job, int slot, int slotCount, String scope, String holder, long token, long validUntilNanos) {
+        this.name = name;
+        this.job = job;
+        this.slot = slot;
+        this.slotCount = slotCount;
+        this.scope = scope;
+        this.holder = holder;
+        this.token = token;
+        this.validUntilNanos = validUntilNanos;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String job() {
+        return job;
+    }
+
+    /** Hash slot this lease covers, from 0 to {@link #slotCount()} - 1. */
+    public int slot() {
+        return slot;
+    }
+
+    public int slotCount() {
+        return slotCount;
+    }
+
+    /** {@link LeaseScope} the lease row lives in, or null when none was bound. */
+    public String scope() {
+        return scope;
+    }
+
+    public String holder() {
+        return holder;
+    }
+
+    public long token() {
+        return token;
+    }
+
+    /** True until the lease is released, lost to another holder, or outlives its last heartbeat. */
+    public boolean isHeld() {
+        return !lost && System.nanoTime() - validUntilNanos < 0;
+    }
+
+    void extendUntil(long validUntilNanos) {
+        this.validUntilNanos = validUntilNanos;
+    }
+
+    void markLost() {
+        this.lost = true;
+    }
+
+    @Override
+    public String toString() {
+        return name + "@" + holder + "#" + token;
+    }
+}
@@ -0,0 +1,19 @@
+package org.kunlecreates.common.lease;
+
+/**
+ * Raised by {@link LeaseManager#fence(Lease)} when another instance has taken the lease over, so
+ * the transaction doing the leased work rolls back instead of committing alongside the new holder.
+ */
+public class LeaseLostException extends RuntimeException {
+
+    private final String lease;
+
+    public LeaseLostException(Lease lease) {
+        super("Lease " + lease + " is no longer held");
+        this.lease = lease.name();
+    }
+
+    public String getLease() {
+        return lease;
+    }
+}
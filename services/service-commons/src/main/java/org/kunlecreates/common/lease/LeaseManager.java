@@ -0,0 +1,306 @@
+package org.kunlecreates.common.lease;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Leases on rows of a service's {@code job_leases} table, so a background job runs on one replica at a time
+ * instead of every replica contending for the same rows.
+ *
+ * A lease is held until {@code ttl} after its last heartbeat; a background thread renews every
+ * held lease each {@code heartbeat-interval}, and a replica that stops (or loses the database)
+ * simply lets its leases run out for another to take. Expiry is judged by the database clock, so
+ * replica clocks do not need to agree. Each takeover bumps the lease's fencing token:
+ * {@link #fence(Lease)} inside the job's own transaction both checks the token and locks the row,
+ * so a holder that stalled past its expiry rolls back rather than committing next to its successor.
+ *
+ * A job can also be split into hash slots, one lease each. {@link #claim(String, int)} takes a
+ * fair share of the slots, {@code ceil(slots / live replicas)}, and gives back any above it, so work
+ * spreads out as replicas are added. Lease rows live in whichever {@link LeaseScope} is bound
+ * when they are taken. A disabled manager grants every claim locally, for single-instance setups.
+ */
+public class LeaseManager implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(LeaseManager.class);
+    static final String MEMBER_PREFIX = "member:";
+    private static final long LOCAL_LEASE_NANOS = TimeUnit.DAYS.toNanos(36_500);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final LeaseSql sql;
+    private final LeaseScope scope;
+    private final TransactionTemplate ownTransaction;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final String holder;
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+    private final Counter lostLeases;
+    private final ScheduledExecutorService heartbeats;
+
+    public LeaseManager(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            LeaseSql sql,
+            LeaseScope scope,
+            boolean enabled,
+            Duration ttl,
+            Duration heartbeatInterval,
+            String instanceId) {
+        if (heartbeatInterval.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("lease.heartbeat-interval must be shorter than lease.ttl");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sql;
+        this.scope = scope;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.holder = instanceId == null || instanceId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : instanceId;
+        Gauge.builder("job.leases.held", held, Map::size)
+                .description("Job leases held by this instance, including slot and membership leases")
+                .register(meterRegistry);
+        this.lostLeases = Counter.builder("job.leases.lost")
+                .description("Leases found taken over by another instance on heartbeat or fence")
+                .register(meterRegistry);
+        if (enabled) {
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "lease-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = heartbeatInterval.toMillis();
+            heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.heartbeats = null;
+        }
+    }
+
+    /** A manager that grants every claim locally without touching the database. */
+    public static LeaseManager local(MeterRegistry meterRegistry, String instanceId) {
+        return new LeaseManager(null, null, meterRegistry, null, LeaseScope.NONE, false,
+                Duration.ofSeconds(30), Duration.ofSeconds(10), instanceId);
+    }
+
+    /** Identifies this instance in {@code job_leases.holder}. */
+    public String holder() {
+        return holder;
+    }
+
+    /**
+     * Run {@code work} if this instance holds, or can take, the lease on {@code job}. The lease is
+     * kept afterwards, so the same replica stays the job's leader from run to run.
+     *
+     * @return the work's result, or empty when another instance holds the lease or it was lost part way
+     */
+    public <T> Optional<T> runExclusively(String job, Function<Lease, T> work) {
+        List<Lease> leases = claim(job, 1);
+        if (leases.isEmpty()) {
+            logger.debug("Skipping {}: leased by another instance", job);
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(work.apply(leases.getFirst()));
+        } catch (LeaseLostException e) {
+            logger.warn("Stopped {}: {}", job, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Take this instance's share of a job split into {@code slotCount} hash slots, releasing any
+     * slots above the share. Work for slot {@code s} is the work whose key hashes to {@code s}
+     * modulo {@code slotCount}.
+     *
+     * @return the slot leases now held, in slot order; empty when other instances hold them all
+     */
+    public List<Lease> claim(String job, int slotCount) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("slotCount must be at least 1");
+        }
+        if (!enabled) {
+            long validUntil = System.nanoTime() + LOCAL_LEASE_NANOS;
+            return IntStream.range(0, slotCount)
+                    .mapToObj(slot -> new Lease(leaseName(job, slot, slotCount), job, slot, slotCount,
+                            scope.current(), holder, 0, validUntil))
+                    .toList();
+        }
+        String bound = scope.current();
+        List<Lease> mine = new ArrayList<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            Lease lease = held.get(key(bound, leaseName(job, slot, slotCount)));
+            if (lease != null && lease.isHeld()) {
+                mine.add(lease);
+            }
+        }
+        int share = slotCount == 1 ? 1 : Math.ceilDiv(slotCount, liveMembers(bound));
+        while (mine.size() > share) {
+            release(mine.removeLast());
+        }
+        // Start at a per-instance offset so replicas do not all race for slot 0 first
+        int start = Math.floorMod(holder.hashCode(), slotCount);
+        for (int i = 0; i < slotCount && mine.size() < share; i++) {
+            int slot = (start + i) % slotCount;
+            if (mine.stream().noneMatch(lease -> lease.slot() == slot)) {
+                tryAcquire(leaseName(job, slot, slotCount), job, slot, slotCount, bound).ifPresent(mine::add);
+            }
+        }
+        mine.sort(Comparator.comparingInt(Lease::slot));
+        return mine;
+    }
+
+    /**
+     * Confirm {@code lease} is still this instance's, from inside the transaction doing its work,
+     * and lock its row until that transaction ends so no other instance can take it over meanwhile.
+     * Must run in the scope the lease was taken in.
+     *
+     * @throws LeaseLostException if the lease has expired or changed hands
+     */
+    public void fence(Lease lease) {
+        if (!enabled) {
+            return;
+        }
+        if (jdbcTemplate.update(sql.fence, params(lease)) == 0) {
+            lost(lease);
+            throw new LeaseLostException(lease);
+        }
+    }
+
+    /** Give a lease up early so another instance can take it without waiting for it to expire. */
+    public void release(Lease lease) {
+        held.remove(key(lease.scope(), lease.name()));
+        lease.markLost();
+        if (!enabled) {
+            return;
+        }
+        try {
+            inScope(lease.scope(), () -> ownTransaction.execute(status -> jdbcTemplate.update(sql.release, params(lease))));
+        } catch (DataAccessException e) {
+            logger.warn("Could not release lease {}: {}", lease, e.getMessage());
+        }
+    }
+
+    /** Renew every held lease; runs on the heartbeat thread so long jobs cannot starve it. */
+    void heartbeat() {
+        for (Lease lease : List.copyOf(held.values())) {
+            long started = System.nanoTime();
+            try {
+                Integer renewed = inScope(lease.scope(), () -> ownTransaction.execute(
+                        status -> jdbcTemplate.update(sql.renew, params(lease).addValue("ttlMs", ttl.toMillis()))));
+                if (renewed == null || renewed == 0) {
+                    lost(lease);
+                } else {
+                    lease.extendUntil(started + ttl.toNanos());
+                }
+            } catch (RuntimeException e) {
+                // Kept until the renewal succeeds or is refused; isHeld() turns false once it runs out
+                logger.warn("Could not renew lease {}: {}", lease, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        List.copyOf(held.values()).forEach(this::release);
+    }
+
+    private int liveMembers(String bound) {
+        String member = MEMBER_PREFIX + holder;
+        Lease membership = held.get(key(bound, member));
+        if (membership == null || !membership.isHeld()) {
+            tryAcquire(member, member, 0, 1, bound);
+        }
+        try {
+            Integer members = jdbcTemplate.queryForObject(sql.members, new MapSqlParameterSource(), Integer.class);
+            return members == null ? 1 : Math.max(members, 1);
+        } catch (DataAccessException e) {
+            logger.warn("Could not count lease members: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private Optional<Lease> tryAcquire(String name, String job, int slot, int slotCount, String bound) {
+        long started = System.nanoTime();
+        MapSqlParameterSource params = new MapSqlParameterSource("name", name)
+                .addValue("holder", holder)
+                .addValue("ttlMs", ttl.toMillis());
+        try {
+            Long token = ownTransaction.execute(status -> {
+                if (jdbcTemplate.update(sql.acquire, params) == 0) {
+                    try {
+                        if (jdbcTemplate.update(sql.insert, params) == 0) {
+                            return null;
+                        }
+                    } catch (DuplicateKeyException e) {
+                        return null;
+                    }
+                }
+                return jdbcTemplate.queryForObject(sql.token, params, Long.class);
+            });
+            if (token == null) {
+                return Optional.empty();
+            }
+            Lease lease = new Lease(name, job, slot, slotCount, bound, holder, token, started + ttl.toNanos());
+            held.put(key(bound, name), lease);
+            logger.debug("Acquired lease {}", lease);
+            return Optional.of(lease);
+        } catch (DataAccessException e) {
+            logger.warn("Could not acquire lease {}: {}", name, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void lost(Lease lease) {
+        if (held.remove(key(lease.scope(), lease.name()), lease)) {
+            lostLeases.increment();
+            logger.warn("Lease {} was taken over by another instance", lease);
+        }
+        lease.markLost();
+    }
+
+    private static MapSqlParameterSource params(Lease lease) {
+        return new MapSqlParameterSource("name", lease.name())
+                .addValue("holder", lease.holder())
+                .addValue("token", lease.token());
+    }
+
+    private <T> T inScope(String bound, Supplier<T> work) {
+        return bound == null ? work.get() : scope.callOn(bound, work);
+    }
+
+    static String leaseName(String job, int slot, int slotCount) {
+        return slotCount == 1 ? job : job + "#" + slot + "/" + slotCount;
+    }
+
+    private static String key(String bound, String name) {
+        return (bound == null ? "" : bound) + "|" + name;
+    }
+}
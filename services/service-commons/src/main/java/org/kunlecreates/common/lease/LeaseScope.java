@@ -0,0 +1,29 @@
+package org.kunlecreates.common.lease;
+
+import java.util.function.Supplier;
+
+/**
+ * Where lease rows live, for services that spread their tables over several databases. A lease
+ * is taken in the scope bound when it is claimed, and renewed and released in that same scope.
+ */
+public interface LeaseScope {
+
+    /** A single database: every lease lives in the one {@code job_leases} table. */
+    LeaseScope NONE = new LeaseScope() {
+        @Override
+        public String current() {
+            return null;
+        }
+
+        @Override
+        public <T> T callOn(String scope, Supplier<T> work) {
+            return work.get();
+        }
+    };
+
+    /** The scope bound on this thread, or null when none is bound. */
+    String current();
+
+    /** Run {@code work} with {@code scope} bound. */
+    <T> T callOn(String scope, Supplier<T> work);
+}
@@ -0,0 +1,51 @@
+package org.kunlecreates.common.lease;
+
+/**
+ * The statements {@link LeaseManager} runs against a service's {@code job_leases} table, in that
+ * database's dialect. Expiry is always computed from the database clock.
+ */
+public final class LeaseSql {
+
+    private static final String MEMBER_PREFIX = LeaseManager.MEMBER_PREFIX;
+
+    final String acquire;
+    final String insert;
+    final String token;
+    final String renew;
+    final String fence;
+    final String release;
+    final String members;
+
+    private LeaseSql(String table, String now, String expires, String fromDual, String insertLock) {
+        // Keeps the token while the same holder renews an unexpired lease; a takeover bumps it
+        this.acquire = "UPDATE " + table + " SET "
+                + "fencing_token = CASE WHEN holder = :holder AND expires_at > " + now + " THEN fencing_token ELSE fencing_token + 1 END, "
+                + "holder = :holder, expires_at = " + expires + ", heartbeat_at = " + now + " "
+                + "WHERE lease_name = :name AND (holder = :holder OR expires_at <= " + now + ")";
+        // Two instances inserting the same new lease at once: the loser hits the primary key and is not acquired
+        this.insert = "INSERT INTO " + table + " (lease_name, holder, fencing_token, expires_at, heartbeat_at) "
+                + "SELECT :name, :holder, 1, " + expires + ", " + now + fromDual + " "
+                + "WHERE NOT EXISTS (SELECT 1 FROM " + table + insertLock + " WHERE lease_name = :name)";
+        this.token = "SELECT fencing_token FROM " + table + " WHERE lease_name = :name AND holder = :holder";
+        this.renew = "UPDATE " + table + " SET expires_at = " + expires + ", heartbeat_at = " + now + " "
+                + "WHERE lease_name = :name AND holder = :holder AND fencing_token = :token";
+        this.fence = "UPDATE " + table + " SET heartbeat_at = " + now + " "
+                + "WHERE lease_name = :name AND holder = :holder AND fencing_token = :token AND expires_at > " + now;
+        this.release = "UPDATE " + table + " SET expires_at = " + now + " "
+                + "WHERE lease_name = :name AND holder = :holder AND fencing_token = :token";
+        this.members = "SELECT COUNT(*) FROM " + table + " WHERE lease_name LIKE '" + MEMBER_PREFIX + "%' "
+                + "AND expires_at > " + now;
+    }
+
+    /** SQL Server; {@code table} may be schema-qualified. */
+    public static LeaseSql sqlServer(String table) {
+        return new LeaseSql(table, "SYSUTCDATETIME()", "DATEADD(millisecond, :ttlMs, SYSUTCDATETIME())",
+                "", " WITH (UPDLOCK, HOLDLOCK)");
+    }
+
+    /** Oracle; {@code table} may be schema-qualified. */
+    public static LeaseSql oracle(String table) {
+        return new LeaseSql(table, "SYS_EXTRACT_UTC(SYSTIMESTAMP)",
+                "SYS_EXTRACT_UTC(SYSTIMESTAMP) + NUMTODSINTERVAL(:ttlMs / 1000, 'SECOND')", " FROM DUAL", "");
+    }
+}
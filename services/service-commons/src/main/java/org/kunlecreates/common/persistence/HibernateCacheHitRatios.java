@@ -0,0 +1,44 @@
+package org.kunlecreates.common.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Second-level and query cache hit ratios since startup, alongside the raw
+ * {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests} counters
+ * that the actuator already publishes. NaN until the cache has been asked anything.
+ */
+public class HibernateCacheHitRatios implements MeterBinder {
+    private final Statistics statistics;
+    private final String entityManagerFactory;
+
+    public HibernateCacheHitRatios(Statistics statistics, String entityManagerFactory) {
+        this.statistics = statistics;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ratio(registry, "hibernate.second.level.cache.hit.ratio", "Share of second-level cache lookups that hit",
+                Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount);
+        ratio(registry, "hibernate.cache.query.hit.ratio", "Share of query cache lookups that hit",
+                Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+    }
+
+    private void ratio(MeterRegistry registry, String name, String description,
+                       ToLongFunction<Statistics> hits, ToLongFunction<Statistics> misses) {
+        Gauge.builder(name, statistics, s -> hitRatio(hits.applyAsLong(s), misses.applyAsLong(s)))
+                .description(description)
+                .tag("entityManagerFactory", entityManagerFactory)
+                .register(registry);
+    }
+
+    static double hitRatio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
@@ -0,0 +1,69 @@
+package org.kunlecreates.common.persistence;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+/**
+ * Persistence metrics on {@code /actuator/prometheus}. Services {@code @Import} this from their
+ * application class.
+ *
+ * With {@code persistence.statistics-enabled} Hibernate keeps {@link org.hibernate.stat.Statistics};
+ * the actuator publishes the session-wide {@code hibernate.*} meters (entity loads and fetches,
+ * query executions and max time, cache requests), this adds per-HQL {@code hibernate.query.*} meters
+ * tagged {@code query} and the cache hit ratios. Every repository call is tracked so its statements
+ * carry the method's name, and Hibernate logs statements slower than
+ * {@code persistence.slow-statement-threshold} on {@code org.hibernate.SQL_SLOW}. Time per repository
+ * method is the actuator's own {@code spring.data.repository.invocations} timer.
+ */
+@Configuration
+public class PersistenceMetricsConfig {
+    private static final String ENTITY_MANAGER_FACTORY = "entityManagerFactory";
+
+    @Bean
+    public HibernatePropertiesCustomizer persistenceMetricsHibernateProperties(
+            @Value("${persistence.statistics-enabled:true}") boolean statisticsEnabled,
+            @Value("${persistence.slow-statement-threshold:PT0.2S}") Duration slowStatementThreshold) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statisticsEnabled);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RepositoryStatementInspector());
+            properties.put(AvailableSettings.LOG_SLOW_QUERY, slowStatementThreshold.toMillis());
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    RepositoryMethodTracker.install(factoryBean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateQueryMetrics(entityManagerFactory.unwrap(SessionFactory.class),
+                ENTITY_MANAGER_FACTORY, Tags.empty());
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+        return new HibernateCacheHitRatios(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+                ENTITY_MANAGER_FACTORY);
+    }
+}
@@ -0,0 +1,57 @@
+package org.kunlecreates.common.persistence;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which repository method the calling thread is inside, so the SQL it issues can be
+ * attributed to it (see {@link RepositoryStatementInspector}). Nested calls, such as a custom
+ * fragment calling another repository, report the innermost method and restore the outer one on
+ * return.
+ */
+public final class RepositoryMethodTracker implements MethodInterceptor {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    RepositoryMethodTracker(String repositoryName) {
+        this.repositoryName = repositoryName;
+    }
+
+    /**
+     * Track every method of the repository built by {@code factoryBean}. Must run before the
+     * factory bean is initialized, as that is when it builds the repository proxy.
+     */
+    public static void install(RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+        factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                // Outermost, so statements flushed when a repository-level transaction commits are tracked too
+                (proxyFactory, repository) -> proxyFactory.addAdvice(0,
+                        new RepositoryMethodTracker(repository.getRepositoryInterface().getSimpleName()))));
+    }
+
+    /** The innermost repository method on this thread, as {@code OrderRepository.findById}, or null. */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set(names.computeIfAbsent(invocation.getMethod(), method -> repositoryName + "." + method.getName()));
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
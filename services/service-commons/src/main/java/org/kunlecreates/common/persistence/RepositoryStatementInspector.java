@@ -0,0 +1,20 @@
+package org.kunlecreates.common.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Prefixes each statement Hibernate prepares with a comment naming the repository method that
+ * issued it, such as {@code OrderRepository.findResponseById}. The comment reaches the database,
+ * so its statement statistics (Query Store on SQL Server, {@code V$SQL} and AWR on Oracle)
+ * attribute time to the method, and it appears in
+ * Hibernate's slow query log ({@code hibernate.log_slow_query}). Statements issued outside a
+ * repository call, and JDBC that bypasses Hibernate, are left untagged.
+ */
+public class RepositoryStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        String method = RepositoryMethodTracker.current();
+        return method == null ? sql : "/* " + method + " */ " + sql;
+    }
+}
@@ -0,0 +1,80 @@
+package org.kunlecreates.common.web;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * What a request costs on threads other than its own. Work handed to a pool, such as
+ * order-service's shard fan-out, is wrapped with {@link #charged(Supplier)} on the request's thread; the pool thread's
+ * allocation and CPU time for that work are then added to the request's totals in
+ * {@link RequestCostFilter}.
+ */
+public final class RequestCost {
+    private static final ThreadLocal<RequestCost> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    static final boolean ALLOCATION_SUPPORTED =
+            THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    static final boolean CPU_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+    private final RequestCost enclosing;
+    private final LongAdder offThreadAllocated = new LongAdder();
+    private final LongAdder offThreadCpu = new LongAdder();
+
+    private RequestCost(RequestCost enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /** Start charging work to a request on this thread, until {@link #close()}. */
+    static RequestCost open() {
+        RequestCost cost = new RequestCost(CURRENT.get());
+        CURRENT.set(cost);
+        return cost;
+    }
+
+    void close() {
+        if (enclosing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(enclosing);
+        }
+    }
+
+    long offThreadAllocatedBytes() {
+        return offThreadAllocated.sum();
+    }
+
+    long offThreadCpuNanos() {
+        return offThreadCpu.sum();
+    }
+
+    /**
+     * {@code work}, charging what it costs to the request running on the calling thread, if any.
+     * Call on the request's thread; the returned supplier may run anywhere.
+     */
+    public static <T> Supplier<T> charged(Supplier<T> work) {
+        RequestCost cost = CURRENT.get();
+        if (cost == null) {
+            return work;
+        }
+        return () -> {
+            long allocatedBefore = threadAllocatedBytes();
+            long cpuBefore = threadCpuNanos();
+            try {
+                return work.get();
+            } finally {
+                cost.offThreadAllocated.add(threadAllocatedBytes() - allocatedBefore);
+                cost.offThreadCpu.add(threadCpuNanos() - cpuBefore);
+            }
+        };
+    }
+
+    static long threadAllocatedBytes() {
+        return ALLOCATION_SUPPORTED ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    static long threadCpuNanos() {
+        return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+}
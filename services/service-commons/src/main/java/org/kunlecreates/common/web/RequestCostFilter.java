@@ -0,0 +1,133 @@
+package org.kunlecreates.common.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what each request costs the JVM: the bytes its thread allocated and the CPU time its
+ * thread used, read from {@link com.sun.management.ThreadMXBean} before and after the request.
+ * Work a request hands to a pool through {@link RequestCost#charged} is added to the request that
+ * asked for it, such as order-service's admin reads fanning out to every shard.
+ *
+ * {@code http.server.requests.allocated} (bytes) and {@code http.server.requests.cpu} are tagged
+ * with {@code method} and the matched route pattern as {@code uri}, like {@code http.server.requests},
+ * and publish percentile histograms. Their means show, for example, how the heap allocated by one
+ * {@code GET /api/order} grows with the orders table, or what one {@code POST /api/auth/login}
+ * costs, BCrypt included.
+ *
+ * With {@code request-cost.server-timing-enabled} the values are also returned in a
+ * {@code Server-Timing} header for a browser's network panel. The body is then buffered so the
+ * header can be set after the handler ran, which is why it is meant for debugging only.
+ * Requests that go async (event streams) are not recorded, as their work runs on other threads.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestCostFilter extends OncePerRequestFilter {
+    static final String ALLOCATED = "http.server.requests.allocated";
+    static final String CPU = "http.server.requests.cpu";
+
+    private final MeterRegistry registry;
+    private final boolean serverTimingEnabled;
+
+    public RequestCostFilter(
+            MeterRegistry registry,
+            @Value("${request-cost.server-timing-enabled:false}") boolean serverTimingEnabled) {
+        this.registry = registry;
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = serverTimingEnabled && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        RequestCost cost = RequestCost.open();
+        long allocatedBefore = RequestCost.threadAllocatedBytes();
+        long cpuBefore = RequestCost.threadCpuNanos();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            cost.close();
+            if (!request.isAsyncStarted()) {
+                long allocated = RequestCost.threadAllocatedBytes() - allocatedBefore + cost.offThreadAllocatedBytes();
+                long cpu = RequestCost.threadCpuNanos() - cpuBefore + cost.offThreadCpuNanos();
+                record(request, response, allocated, cpu);
+                if (buffered != null) {
+                    buffered.setHeader("Server-Timing", serverTiming(allocated, cpu));
+                }
+            }
+            if (buffered != null) {
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long allocated, long cpu) {
+        String method = request.getMethod();
+        String uri = route(request, response);
+        if (RequestCost.ALLOCATION_SUPPORTED) {
+            DistributionSummary.builder(ALLOCATED)
+                    .description("Bytes allocated by the request's thread and the work it fanned out")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1024.0)
+                    .maximumExpectedValue(1024.0 * 1024 * 1024)
+                    .register(registry)
+                    .record(allocated);
+        }
+        if (RequestCost.CPU_SUPPORTED) {
+            Timer.builder(CPU)
+                    .description("CPU time used by the request's thread and the work it fanned out")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(cpu, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** The matched pattern keeps the series bounded; unmatched requests share one tag, as in http.server.requests. */
+    private static String route(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+
+    private String serverTiming(long allocated, long cpu) {
+        StringBuilder header = new StringBuilder();
+        if (RequestCost.CPU_SUPPORTED) {
+            header.append(String.format(Locale.ROOT, "cpu;dur=%.3f", cpu / 1_000_000.0));
+        }
+        if (RequestCost.ALLOCATION_SUPPORTED) {
+            header.append(header.isEmpty() ? "" : ", ").append("alloc;desc=\"").append(allocated).append(" bytes\"");
+        }
+        return header.toString();
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
@@ -0,0 +1,160 @@
+package org.kunlecreates.common.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final JdbcTemplate primary = mock(JdbcTemplate.class);
+    private final JdbcTemplate replica = mock(JdbcTemplate.class);
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now.get(); }
+    };
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker readYourWrites;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        when(primary.update(anyString(), any(Object[].class))).thenReturn(1);
+        lagMonitor = new ReplicaLagMonitor(primary, replica, "replica_heartbeat", "pod-a",
+                Duration.ofSeconds(1), new SimpleMeterRegistry(), clock);
+        readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(5), clock);
+        routing = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class),
+                lagMonitor, readYourWrites, Duration.ofSeconds(2), new SimpleMeterRegistry());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_beforeFirstLagProbe_shouldStayOnPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaCaughtUp_shouldUseReplica() {
+        replicaShows(null);
+        lagMonitor.tick();
+        replicaShows(now.get());
+        now.set(now.get().plusSeconds(1));
+        lagMonitor.tick();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(lagMonitor.isWithin(Duration.ZERO)).isTrue();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaTrailsPastMaxLag_shouldFallBackToPrimary() {
+        Instant applied = now.get();
+        replicaShows(applied);
+        lagMonitor.tick();
+        now.set(now.get().plusSeconds(1));
+        lagMonitor.tick();
+        now.set(now.get().plusSeconds(3));
+        lagMonitor.tick();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(lagMonitor.isWithin(Duration.ofSeconds(2))).isFalse();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    void tick_shouldOnlyWriteThisInstancesHeartbeatRow() {
+        replicaShows(null);
+        lagMonitor.tick();
+
+        verify(primary).update(contains("WHERE instance_id = ?"), eq(Timestamp.from(now.get())), eq("pod-a"));
+    }
+
+    @Test
+    void readAfterOwnCommittedWrite_shouldStayOnPrimaryForTheWindow() {
+        replicaShows(now.get().plusSeconds(60));
+        lagMonitor.tick();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user-1", "pw", "ROLE_USER"));
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        now.set(now.get().plusSeconds(6));
+        replicaShows(now.get().plusSeconds(60));
+        lagMonitor.tick();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void anonymousWrite_shouldNotPinEveryoneBehindTheSameAddress() {
+        replicaShows(now.get().plusSeconds(60));
+        lagMonitor.tick();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void readOnlyTransaction_thatRequiresThePrimary_shouldUseItUntilItCompletes() {
+        replicaShows(now.get().plusSeconds(60));
+        lagMonitor.tick();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource.requirePrimary();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    private void replicaShows(Instant beat) {
+        when(replica.queryForList(anyString(), eq(Timestamp.class), eq("pod-a")))
+                .thenReturn(beat == null ? List.of() : List.of(Timestamp.from(beat)));
+    }
+}
@@ -0,0 +1,73 @@
+package org.kunlecreates.common.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint("test-service", List.of(SampleEvent.class),
+            Duration.ofMinutes(1), DataSize.ofMegabytes(8));
+
+    @AfterEach
+    void stopRecording() {
+        endpoint.stop(0);
+    }
+
+    @Test
+    void stopWithoutARecordingReturnsNothing() {
+        assertThat(endpoint.status().recording()).isFalse();
+        assertThat(endpoint.stop(null)).isNull();
+    }
+
+    @Test
+    void startIsIdempotentWhileRecording() {
+        JfrRecordingEndpoint.Status first = endpoint.start();
+        JfrRecordingEndpoint.Status second = endpoint.start();
+
+        assertThat(first.recording()).isTrue();
+        assertThat(second.startedAt()).isEqualTo(first.startedAt());
+        assertThat(first.events()).containsExactly(SampleEvent.NAME);
+    }
+
+    @Test
+    void summaryListsTheSlowestEventsWithTheirFieldsUpToTheLimit() {
+        endpoint.start();
+        for (int i = 1; i <= 3; i++) {
+            SampleEvent event = new SampleEvent();
+            event.begin();
+            event.id = i;
+            pause(i * 5L);
+            event.commit();
+        }
+
+        JfrRecordingEndpoint.Summary summary = endpoint.stop(2);
+
+        assertThat(summary.events().get(SampleEvent.NAME).count()).isEqualTo(3);
+        assertThat(summary.events().get(SampleEvent.NAME).maxMillis()).isGreaterThanOrEqualTo(15);
+        assertThat(summary.slowest()).extracting(event -> event.fields().get("id")).containsExactly(3L, 2L);
+        assertThat(endpoint.status().recording()).isFalse();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Name(SampleEvent.NAME)
+    static class SampleEvent extends Event {
+        static final String NAME = "shopease.test.Sample";
+
+        long id;
+    }
+}
@@ -0,0 +1,92 @@
+package org.kunlecreates.common.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfilingEndpointTest {
+
+    private final ProfilingEndpoint endpoint =
+            new ProfilingEndpoint(true, Duration.ofSeconds(5), Duration.ofMillis(10), Duration.ofMillis(10));
+
+    private static volatile long sink;
+
+    @Test
+    void cpuSamplesAreFoldedIntoCollapsedStacks() {
+        AtomicBoolean done = new AtomicBoolean();
+        Thread busy = new Thread(() -> spin(done), "profiling-test-busy");
+        busy.start();
+        try {
+            WebEndpointResponse<String> response = endpoint.profile(1, "cpu");
+
+            assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+            assertThat(response.getBody().lines())
+                    .isNotEmpty()
+                    .allMatch(line -> line.matches("cpu;\\[[^;]+\\];\\S.* \\d+"))
+                    .anyMatch(line -> line.startsWith("cpu;[profiling-test-busy];")
+                            && line.contains(ProfilingEndpointTest.class.getName() + ".spin"));
+        } finally {
+            done.set(true);
+        }
+    }
+
+    @Test
+    void withoutThreadPoolsStacksStartAtTheirRootFrame() {
+        ProfilingEndpoint unsplit = new ProfilingEndpoint(false, Duration.ofSeconds(5), Duration.ofMillis(10), Duration.ofMillis(10));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread busy = new Thread(() -> spin(done), "profiling-test-busy");
+        busy.start();
+        try {
+            WebEndpointResponse<String> response = unsplit.profile(1, "cpu");
+
+            assertThat(response.getBody().lines())
+                    .isNotEmpty()
+                    .noneMatch(line -> line.startsWith("cpu;["))
+                    .anyMatch(line -> line.contains(ProfilingEndpointTest.class.getName() + ".spin"));
+        } finally {
+            done.set(true);
+        }
+    }
+
+    @Test
+    void threadsOfOnePoolShareAFrame() {
+        assertThat(ProfilingEndpoint.poolName("http-nio-8080-exec-3")).isEqualTo("http-nio-8080-exec");
+        assertThat(ProfilingEndpoint.poolName("ForkJoinPool-1-worker-12")).isEqualTo("ForkJoinPool-1-worker");
+        assertThat(ProfilingEndpoint.poolName("shard-fan-out")).isEqualTo("shard-fan-out");
+        assertThat(ProfilingEndpoint.poolName("Thread#7")).isEqualTo("Thread");
+        assertThat(ProfilingEndpoint.poolName("42")).isEqualTo("42");
+    }
+
+    @Test
+    void durationsOutsideTheLimitAreRejected() {
+        assertThat(endpoint.profile(0, null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.profile(6, null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.profile(1, "cpu,heap").getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    @Test
+    void onlyOneProfileRunsAtATime() throws Exception {
+        CompletableFuture<WebEndpointResponse<String>> first = CompletableFuture.supplyAsync(() -> endpoint.profile(2, "lock"));
+        while (!endpoint.isProfiling() && !first.isDone()) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(endpoint.profile(1, "lock").getStatus()).isEqualTo(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        assertThat(first.get().getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.isProfiling()).isFalse();
+    }
+
+    private static void spin(AtomicBoolean done) {
+        long sum = 0;
+        while (!done.get()) {
+            sum += System.nanoTime() % 7;
+        }
+        // Published so the loop is not optimized away
+        sink = sum;
+    }
+}
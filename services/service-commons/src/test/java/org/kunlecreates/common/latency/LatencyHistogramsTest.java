@@ -0,0 +1,73 @@
+package org.kunlecreates.common.latency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class LatencyHistogramsTest {
+
+    private final LatencyHistograms histograms = new LatencyHistograms(Duration.ofSeconds(60), Duration.ofMillis(10));
+
+    @Test
+    void rolloverClosesTheIntervalAndAddsItToTheTotals() {
+        for (int i = 1; i <= 1000; i++) {
+            histograms.record(LatencyHistograms.ROUTES, "POST /api/order", TimeUnit.MILLISECONDS.toNanos(i % 10 + 1));
+        }
+        histograms.rollover();
+        histograms.record(LatencyHistograms.ROUTES, "POST /api/order", TimeUnit.MILLISECONDS.toNanos(5));
+        histograms.rollover();
+
+        LatencyHistograms.SeriesReport order = histograms.report().series().get(LatencyHistograms.ROUTES).get("POST /api/order");
+        assertThat(order.lastInterval().recorded().count()).isEqualTo(1);
+        assertThat(order.sinceStart().count()).isEqualTo(1001);
+        assertThat(order.sinceStart().p50()).isCloseTo(5.0, offset(0.01));
+        assertThat(order.sinceStart().max()).isCloseTo(10.0, offset(0.01));
+    }
+
+    @Test
+    void stallsAreBackFilledWhenCorrectingForCoordinatedOmission() {
+        for (int i = 0; i < 99; i++) {
+            histograms.record(LatencyHistograms.DOWNSTREAMS, "product-service", TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        histograms.record(LatencyHistograms.DOWNSTREAMS, "product-service", TimeUnit.SECONDS.toNanos(1));
+        histograms.rollover();
+
+        LatencyHistograms.Interval interval = histograms.report().series()
+                .get(LatencyHistograms.DOWNSTREAMS).get("product-service").lastInterval();
+        // One 1s stall at a 10ms spacing hides 99 requests that would have waited 10ms..990ms
+        assertThat(interval.recorded().count()).isEqualTo(100);
+        assertThat(interval.recorded().p90()).isLessThan(2.0);
+        assertThat(interval.corrected().count()).isEqualTo(199);
+        assertThat(interval.corrected().p90()).isGreaterThan(500.0);
+    }
+
+    @Test
+    void valuesBeyondTheTrackableRangeAreClamped() {
+        histograms.record(LatencyHistograms.DOWNSTREAMS, "notification-service", TimeUnit.MINUTES.toNanos(5));
+        histograms.rollover();
+
+        assertThat(histograms.report().series().get(LatencyHistograms.DOWNSTREAMS).get("notification-service")
+                .lastInterval().recorded().max()).isCloseTo(60_000.0, offset(60.0));
+    }
+
+    @Test
+    void filterRecordsOnlyTheConfiguredRoutesByMethodAndPattern() throws Exception {
+        RouteLatencyFilter filter = new RouteLatencyFilter(histograms, List.of("/api/order", "/api/cart/*/checkout"));
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/cart/42/checkout"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/order"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/order/7"), new MockHttpServletResponse(), new MockFilterChain());
+        histograms.rollover();
+
+        assertThat(histograms.report().series().get(LatencyHistograms.ROUTES))
+                .containsOnlyKeys("POST /api/cart/*/checkout", "GET /api/order");
+    }
+}
@@ -0,0 +1,188 @@
+package org.kunlecreates.common.lease;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaseManagerTest {
+
+    private static final String ACQUIRE = "UPDATE job_leases SET fencing_token";
+    private static final String INSERT = "INSERT INTO job_leases";
+    private static final String RENEW = "UPDATE job_leases SET expires_at = DATEADD";
+    private static final String FENCE = "UPDATE job_leases SET heartbeat_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private LeaseManager leaseManager;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForObject(startsWith("SELECT fencing_token"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(7L);
+        leaseManager = new LeaseManager(jdbcTemplate, transactionManager, meterRegistry,
+                LeaseSql.sqlServer("job_leases"), LeaseScope.NONE, true, Duration.ofSeconds(30), Duration.ofSeconds(10), "pod-a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseManager.destroy();
+    }
+
+    @Test
+    void runExclusively_shouldTakeTheLeaseOnceAndKeepItAcrossRuns() {
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(1);
+
+        Optional<Long> first = leaseManager.runExclusively("job", Lease::token);
+        Optional<Long> second = leaseManager.runExclusively("job", Lease::token);
+
+        assertThat(first).contains(7L);
+        assertThat(second).contains(7L);
+        verify(jdbcTemplate, times(1)).update(startsWith(ACQUIRE), any(SqlParameterSource.class));
+        assertThat(meterRegistry.get("job.leases.held").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void runExclusively_whenAnotherInstanceHoldsTheLease_shouldSkipTheWork() {
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith(INSERT), any(SqlParameterSource.class))).thenReturn(0);
+
+        Optional<String> result = leaseManager.runExclusively("job", lease -> "ran");
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void runExclusively_whenTheFenceFails_shouldStopAndForgetTheLease() {
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith(FENCE), any(SqlParameterSource.class))).thenReturn(0);
+
+        Optional<String> result = leaseManager.runExclusively("job", lease -> {
+            leaseManager.fence(lease);
+            return "committed";
+        });
+
+        assertThat(result).isEmpty();
+        assertThat(meterRegistry.get("job.leases.lost").counter().count()).isEqualTo(1.0);
+        leaseManager.runExclusively("job", lease -> lease);
+        verify(jdbcTemplate, times(2)).update(startsWith(ACQUIRE), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void fence_whenTheLeaseWasTakenOver_shouldThrow() {
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith(FENCE), any(SqlParameterSource.class))).thenReturn(0);
+        Lease lease = leaseManager.claim("job", 1).getFirst();
+
+        assertThatThrownBy(() -> leaseManager.fence(lease)).isInstanceOf(LeaseLostException.class);
+        assertThat(lease.isHeld()).isFalse();
+    }
+
+    @Test
+    void heartbeat_shouldMarkLeasesTakenOverByAnotherInstanceAsLost() {
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(1);
+        Lease kept = leaseManager.claim("kept", 1).getFirst();
+        Lease taken = leaseManager.claim("taken", 1).getFirst();
+        when(jdbcTemplate.update(startsWith(RENEW), any(SqlParameterSource.class)))
+                .thenAnswer(invocation -> "kept".equals(((SqlParameterSource) invocation.getArgument(1)).getValue("name")) ? 1 : 0);
+
+        leaseManager.heartbeat();
+
+        assertThat(kept.isHeld()).isTrue();
+        assertThat(taken.isHeld()).isFalse();
+        assertThat(meterRegistry.get("job.leases.held").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void claim_shouldTakeAFairShareOfSlotsAndGiveBackTheRest() {
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), any(SqlParameterSource.class), eq(Integer.class)))
+                .thenReturn(1, 2);
+
+        List<Lease> alone = leaseManager.claim("job", 4);
+        List<Lease> shared = leaseManager.claim("job", 4);
+
+        assertThat(alone).hasSize(4).extracting(Lease::slot).containsExactly(0, 1, 2, 3);
+        assertThat(alone).extracting(Lease::name).contains("job#0/4", "job#3/4");
+        assertThat(shared).hasSize(2);
+        assertThat(alone).filteredOn(lease -> !shared.contains(lease)).allSatisfy(lease -> assertThat(lease.isHeld()).isFalse());
+    }
+
+    @Test
+    void claim_whenDisabled_shouldHoldEverySlotWithoutTheDatabase() {
+        LeaseManager local = LeaseManager.local(meterRegistry, "pod-a");
+
+        List<Lease> leases = local.claim("job", 3);
+
+        assertThat(leases).hasSize(3).allSatisfy(lease -> assertThat(lease.isHeld()).isTrue());
+        local.fence(leases.getFirst());
+        verify(jdbcTemplate, never()).update(any(String.class), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void release_shouldRunInTheScopeTheLeaseWasTakenIn() {
+        List<String> scopesUsed = new ArrayList<>();
+        String[] bound = {"shard-b"};
+        LeaseScope scope = new LeaseScope() {
+            @Override
+            public String current() {
+                return bound[0];
+            }
+
+            @Override
+            public <T> T callOn(String target, Supplier<T> work) {
+                scopesUsed.add(target);
+                return work.get();
+            }
+        };
+        LeaseManager scoped = new LeaseManager(jdbcTemplate, transactionManager, meterRegistry,
+                LeaseSql.sqlServer("job_leases"), scope, true, Duration.ofSeconds(30), Duration.ofSeconds(10), "pod-a");
+        when(jdbcTemplate.update(startsWith(ACQUIRE), any(SqlParameterSource.class))).thenReturn(1);
+        Lease lease = scoped.claim("job", 1).getFirst();
+        bound[0] = null;
+
+        scoped.release(lease);
+        scoped.destroy();
+
+        assertThat(lease.scope()).isEqualTo("shard-b");
+        assertThat(scopesUsed).containsExactly("shard-b");
+    }
+
+    @Test
+    void oracle_shouldReadTheDatabaseClockFromDual() {
+        LeaseSql oracle = LeaseSql.oracle("JOB_LEASES");
+
+        assertThat(oracle.insert).contains("FROM DUAL").doesNotContain("UPDLOCK");
+        assertThat(oracle.renew).startsWith("UPDATE JOB_LEASES SET expires_at = SYS_EXTRACT_UTC(SYSTIMESTAMP) + ");
+    }
+
+    @Test
+    void constructor_shouldRejectAHeartbeatNoShorterThanTheTtl() {
+        assertThatThrownBy(() -> new LeaseManager(jdbcTemplate, null, meterRegistry, LeaseSql.sqlServer("job_leases"),
+                LeaseScope.NONE, true, Duration.ofSeconds(10), Duration.ofSeconds(10), "pod-a"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package org.kunlecreates.common.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RepositoryStatementInspectorTest {
+
+    private final RepositoryStatementInspector inspector = new RepositoryStatementInspector();
+
+    @Test
+    void statementsOutsideARepositoryCallAreLeftAlone() {
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+    }
+
+    @Test
+    void statementsAreTaggedWithTheRepositoryMethod() throws Throwable {
+        AtomicReference<String> sql = new AtomicReference<>();
+        new RepositoryMethodTracker("OrderRepository").invoke(invocation("findResponseById",
+                () -> sql.set(inspector.inspect("select o.id from orders o"))));
+
+        assertThat(sql.get()).isEqualTo("/* OrderRepository.findResponseById */ select o.id from orders o");
+        assertThat(RepositoryMethodTracker.current()).isNull();
+    }
+
+    @Test
+    void nestedCallsTagTheInnermostMethodAndRestoreTheOuter() throws Throwable {
+        AtomicReference<String> inner = new AtomicReference<>();
+        AtomicReference<String> outerAfter = new AtomicReference<>();
+        RepositoryMethodTracker orders = new RepositoryMethodTracker("OrderRepository");
+        RepositoryMethodTracker items = new RepositoryMethodTracker("OrderItemRepository");
+
+        orders.invoke(invocation("findArchivedResponseById", () -> {
+            items.invoke(invocation("findByOrderId", () -> inner.set(inspector.inspect("select 1"))));
+            outerAfter.set(inspector.inspect("select 2"));
+        }));
+
+        assertThat(inner.get()).isEqualTo("/* OrderItemRepository.findByOrderId */ select 1");
+        assertThat(outerAfter.get()).isEqualTo("/* OrderRepository.findArchivedResponseById */ select 2");
+    }
+
+    @Test
+    void cacheHitRatiosAreNaNUntilTheCacheIsUsed() {
+        Statistics statistics = mock(Statistics.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new HibernateCacheHitRatios(statistics, "entityManagerFactory").bindTo(registry);
+
+        assertThat(registry.get("hibernate.cache.query.hit.ratio").gauge().value()).isNaN();
+
+        when(statistics.getQueryCacheHitCount()).thenReturn(3L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(1L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(2L);
+
+        assertThat(registry.get("hibernate.cache.query.hit.ratio")
+                .tag("entityManagerFactory", "entityManagerFactory").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("hibernate.second.level.cache.hit.ratio").gauge().value()).isZero();
+    }
+
+    private interface Body {
+        void run() throws Throwable;
+    }
+
+    private static MethodInvocation invocation(String methodName, Body body) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Repositories.class.getMethod(methodName));
+        when(invocation.proceed()).thenAnswer(call -> {
+            body.run();
+            return null;
+        });
+        return invocation;
+    }
+
+    @SuppressWarnings("unused")
+    private interface Repositories {
+        void findResponseById();
+
+        void findArchivedResponseById();
+
+        void findByOrderId();
+    }
+}
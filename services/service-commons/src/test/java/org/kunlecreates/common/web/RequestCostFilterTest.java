@@ -0,0 +1,99 @@
+package org.kunlecreates.common.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCostFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /** Allocates about 1 MB, then writes a body, as a handler matched to {@code pattern} would. */
+    private static FilterChain handler(String pattern) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            byte[][] chunks = new byte[16][];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new byte[64 * 1024];
+            }
+            response.getOutputStream().write(("[" + chunks.length + "]").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    @Test
+    void allocationAndCpuAreRecordedPerMethodAndRoute() throws Exception {
+        RequestCostFilter filter = new RequestCostFilter(registry, false);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items/7"), new MockHttpServletResponse(), handler("/api/items/{id}"));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items/8"), new MockHttpServletResponse(), handler("/api/items/{id}"));
+
+        DistributionSummary allocated = registry.get(RequestCostFilter.ALLOCATED).tag("method", "GET").tag("uri", "/api/items/{id}").summary();
+        assertThat(allocated.count()).isEqualTo(2);
+        assertThat(allocated.totalAmount()).isGreaterThan(2 * 1024 * 1024);
+        assertThat(registry.get(RequestCostFilter.CPU).tag("uri", "/api/items/{id}").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void workFannedOutToAnotherThreadIsChargedToTheRequest() throws Exception {
+        RequestCostFilter filter = new RequestCostFilter(registry, false);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/items"), new MockHttpServletResponse(), (request, response) -> {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items");
+                CompletableFuture.supplyAsync(RequestCost.charged(() -> {
+                    byte[][] chunks = new byte[64][];
+                    for (int i = 0; i < chunks.length; i++) {
+                        chunks[i] = new byte[64 * 1024];
+                    }
+                    return chunks.length;
+                }), pool).join();
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(registry.get(RequestCostFilter.ALLOCATED).tag("uri", "/api/items").summary().totalAmount())
+                .isGreaterThan(4 * 1024 * 1024);
+    }
+
+    @Test
+    void workOutsideARequestIsNotCharged() {
+        Supplier<Integer> work = () -> 1;
+
+        assertThat(RequestCost.charged(work)).isSameAs(work);
+    }
+
+    @Test
+    void unmatchedRequestsShareOneTag() throws Exception {
+        RequestCostFilter filter = new RequestCostFilter(registry, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/nope"), response, (req, res) -> response.setStatus(404));
+
+        assertThat(registry.get(RequestCostFilter.ALLOCATED).tag("uri", "NOT_FOUND").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void serverTimingHeaderIsOnlyAddedWhenEnabled() throws Exception {
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+        new RequestCostFilter(registry, false).doFilter(new MockHttpServletRequest("GET", "/api/items"), plain, handler("/api/items"));
+        MockHttpServletResponse timed = new MockHttpServletResponse();
+        new RequestCostFilter(registry, true).doFilter(new MockHttpServletRequest("GET", "/api/items"), timed, handler("/api/items"));
+
+        assertThat(plain.getHeader("Server-Timing")).isNull();
+        assertThat(timed.getHeader("Server-Timing")).matches("cpu;dur=\\d+\\.\\d{3}, alloc;desc=\"\\d+ bytes\"");
+        assertThat(timed.getContentAsString()).isEqualTo("[16]");
+    }
+}
@@ -1,10 +1,20 @@
 package org.kunlecreates.user;
 
+import org.kunlecreates.common.latency.LatencyEndpoint;
+import org.kunlecreates.common.latency.LatencyHistograms;
+import org.kunlecreates.common.latency.RouteLatencyFilter;
+import org.kunlecreates.common.persistence.PersistenceMetricsConfig;
+import org.kunlecreates.common.web.RequestCostFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication(exclude = {OAuth2ResourceServerAutoConfiguration.class})
+@Import({PersistenceMetricsConfig.class, LatencyHistograms.class, LatencyEndpoint.class, RouteLatencyFilter.class,
+        RequestCostFilter.class})
 public class UserServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(UserServiceApplication.class, args);
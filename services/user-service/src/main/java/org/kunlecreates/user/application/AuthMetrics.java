@@ -0,0 +1,136 @@
+package org.kunlecreates.user.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.kunlecreates.user.domain.exception.DuplicateUserException;
+import org.kunlecreates.user.domain.exception.EmailNotVerifiedException;
+import org.kunlecreates.user.domain.exception.InvalidCredentialsException;
+import org.kunlecreates.user.domain.exception.PasswordResetRequiredException;
+import org.kunlecreates.user.infrastructure.jfr.LoginEvent;
+import org.kunlecreates.user.infrastructure.jfr.OperationEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for login and registration.
+ *
+ * {@code auth.operations} times both by {@code operation} and {@code outcome}. Controllers call
+ * {@link AuthService} through {@link #login} and {@link #register}, so the service's transaction,
+ * flush and commit run inside the observation; the observation registry turns it into the timer,
+ * with {@code auth.operations.active} for those in flight. {@code auth.logins} counts logins by
+ * {@code outcome} and failure {@code reason}. {@code auth.password.hashing} is timed by
+ * {@link org.kunlecreates.user.infrastructure.security.InstrumentedPasswordEncoder} under the
+ * operation observed here; divided by {@code auth.operations} it is the share of login time spent
+ * hashing.
+ *
+ * The service hands a login's Flight Recorder {@link LoginEvent} to {@link #begin}; it is committed
+ * with the failure reason, or {@code success}, as its outcome when the login's observation stops.
+ */
+@Component
+public class AuthMetrics {
+    static final String OPERATIONS = "auth.operations";
+    static final String LOGINS = "auth.logins";
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+
+    public AuthMetrics(MeterRegistry registry, ObservationRegistry observations) {
+        this.registry = registry;
+        this.observations = observations;
+    }
+
+    /** Make {@code call}, a login, as an observation, counting its outcome. */
+    public <T> T login(Supplier<T> call) {
+        Observation observation = start("login");
+        String reason = null;
+        try (Observation.Scope scope = observation.openScope()) {
+            return call.get();
+        } catch (RuntimeException e) {
+            reason = loginFailureReason(e);
+            observation.error(e);
+            throw e;
+        } finally {
+            if (reason == null) {
+                countLogin("success", "none");
+                stop(observation, "success", "success");
+            } else {
+                countLogin("failure", reason);
+                stop(observation, reason.equals("error") || reason.equals("rolled_back") ? reason : "rejected", reason);
+            }
+        }
+    }
+
+    /** Make {@code call}, a registration, as an observation. */
+    public <T> T register(Supplier<T> call) {
+        Observation observation = start("register");
+        String outcome = "success";
+        try (Observation.Scope scope = observation.openScope()) {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = e instanceof TransactionException ? "rolled_back"
+                    : e instanceof DuplicateUserException ? "rejected" : "error";
+            observation.error(e);
+            throw e;
+        } finally {
+            stop(observation, outcome, outcome);
+        }
+    }
+
+    /**
+     * Begin {@code event} for the operation being observed on this thread, to be committed when it
+     * ends. Outside {@link #login} the event is returned unused.
+     */
+    public <E extends OperationEvent> E begin(E event) {
+        Observation current = observations.getCurrentObservation();
+        if (current != null) {
+            current.getContext().put(OperationEvent.class, event);
+            event.begin();
+        }
+        return event;
+    }
+
+    private Observation start(String operation) {
+        return Observation.createNotStarted(OPERATIONS, observations)
+                .lowCardinalityKeyValue("operation", operation)
+                .start();
+    }
+
+    private static void stop(Observation observation, String outcome, String eventOutcome) {
+        observation.lowCardinalityKeyValue("outcome", outcome).stop();
+        OperationEvent event = observation.getContext().get(OperationEvent.class);
+        if (event != null && event.shouldCommit()) {
+            event.outcome = eventOutcome;
+            event.commit();
+        }
+    }
+
+    private void countLogin(String outcome, String reason) {
+        Counter.builder(LOGINS)
+                .description("Login attempts, by outcome and failure reason")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /** The failures {@link AuthService#login} throws on purpose; anything else is ours. */
+    private static String loginFailureReason(RuntimeException e) {
+        if (e instanceof TransactionException) {
+            return "rolled_back";
+        }
+        if (e instanceof PasswordResetRequiredException) {
+            return "password_reset_required";
+        }
+        if (e instanceof InvalidCredentialsException) {
+            return "invalid_credentials";
+        }
+        if (e instanceof EmailNotVerifiedException) {
+            return "email_not_verified";
+        }
+        return "error";
+    }
+}
@@ -1,13 +1,17 @@
 package org.kunlecreates.user.application;
 
+import org.kunlecreates.common.datasource.ReplicaRoutingDataSource;
 import org.kunlecreates.user.domain.User;
 import org.kunlecreates.user.domain.PasswordResetToken;
 import org.kunlecreates.user.domain.exception.DuplicateUserException;
+import org.kunlecreates.user.domain.exception.EmailNotVerifiedException;
+import org.kunlecreates.user.domain.exception.InvalidCredentialsException;
 import org.kunlecreates.user.domain.exception.PasswordResetRequiredException;
 import org.kunlecreates.user.domain.exception.PasswordResetTokenException;
 import org.kunlecreates.user.repository.UserRepository;
 import org.kunlecreates.user.repository.PasswordResetTokenRepository;
 import org.kunlecreates.user.repository.RoleRepository;
+import org.kunlecreates.user.infrastructure.jfr.LoginEvent;
 import org.kunlecreates.user.infrastructure.security.JwtService;
 import org.kunlecreates.user.interfaces.dto.AuthResponse;
 import org.kunlecreates.user.interfaces.dto.CreateUserRequest;
@@ -30,6 +34,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final EmailVerificationService emailVerificationService;
+    private final AuthMetrics authMetrics;
 
     public AuthService(
         UserRepository userRepository,
@@ -37,7 +42,8 @@ public class AuthService {
         PasswordEncoder passwordEncoder,
         JwtService jwtService,
         PasswordResetTokenRepository passwordResetTokenRepository,
-        EmailVerificationService emailVerificationService
+        EmailVerificationService emailVerificationService,
+        AuthMetrics authMetrics
     ) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
@@ -45,6 +51,7 @@ public class AuthService {
         this.jwtService = jwtService;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.emailVerificationService = emailVerificationService;
+        this.authMetrics = authMetrics;
     }
 
     @Transactional
@@ -102,16 +109,20 @@ public class AuthService {
 
     @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
+        // A replica within its lag bound can still hold a password hash or reset token that just changed
+        ReplicaRoutingDataSource.requirePrimary();
+        LoginEvent event = authMetrics.begin(new LoginEvent());
         User user = userRepository.findByEmail(request.email())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid credentials"));
+        event.userId = user.getId() != null ? user.getId() : 0;
         
         if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
-            throw new IllegalArgumentException("Invalid credentials");
+            throw new InvalidCredentialsException("Invalid credentials");
         }
 
         // Check if email is verified
         if (user.getEmailVerified() == 0) {
-            throw new IllegalStateException("Email not verified. Please check your email for verification link.");
+            throw new EmailNotVerifiedException("Email not verified. Please check your email for verification link.");
         }
 
         // Enforce password reset if there exists an unused, unexpired password reset token
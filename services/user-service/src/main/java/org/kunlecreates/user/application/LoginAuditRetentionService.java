@@ -0,0 +1,94 @@
+package org.kunlecreates.user.application;
+
+import org.kunlecreates.common.lease.LeaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Enforces LOGIN_AUDIT retention by dropping whole monthly partitions (V5) rather than deleting
+ * rows, which keeps redo small and leaves the local indexes unfragmented. A partition is dropped
+ * once every row it can hold is older than {@code retention-months} whole months. Only the replica
+ * holding the {@value #JOB} lease runs the scheduled job.
+ */
+@Service
+public class LoginAuditRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(LoginAuditRetentionService.class);
+    static final String JOB = "login-audit-retention";
+
+    // Position 1 is the fixed range partition, which Oracle does not allow dropping
+    private static final String PARTITIONS_SQL =
+            "SELECT PARTITION_NAME, HIGH_VALUE FROM ALL_TAB_PARTITIONS "
+            + "WHERE TABLE_OWNER = 'USER_SVC' AND TABLE_NAME = 'LOGIN_AUDIT' AND PARTITION_POSITION > 1 "
+            + "ORDER BY PARTITION_POSITION";
+    // HIGH_VALUE is the partition bound as SQL text, e.g. TIMESTAMP' 2024-02-01 00:00:00'
+    private static final Pattern HIGH_VALUE_DATE = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern PARTITION_NAME = Pattern.compile("[A-Z0-9_$#]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LeaseManager leaseManager;
+    private final int retentionMonths;
+
+    public LoginAuditRetentionService(
+            JdbcTemplate jdbcTemplate,
+            LeaseManager leaseManager,
+            @Value("${app.login-audit.retention-months:12}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseManager = leaseManager;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(cron = "${app.login-audit.retention-cron:0 30 3 * * *}", zone = "UTC")
+    public void enforceRetention() {
+        try {
+            leaseManager.runExclusively(JOB, lease -> dropExpiredPartitions());
+        } catch (DataAccessException e) {
+            logger.warn("LOGIN_AUDIT retention failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop every monthly partition whose upper bound is at or before the first day of the month
+     * {@code retention-months} ago. Does nothing when the retention is 0.
+     *
+     * @return the names of the dropped partitions
+     */
+    public List<String> dropExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+        LocalDate keepFrom = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths).atDay(1);
+        List<Partition> partitions = jdbcTemplate.query(PARTITIONS_SQL,
+                (rs, rowNum) -> new Partition(rs.getString("PARTITION_NAME"), rs.getString("HIGH_VALUE")));
+        List<String> dropped = partitions.stream()
+                .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(keepFrom))
+                .map(Partition::name)
+                .filter(name -> PARTITION_NAME.matcher(name).matches())
+                .toList();
+        for (String name : dropped) {
+            jdbcTemplate.execute("ALTER TABLE USER_SVC.LOGIN_AUDIT DROP PARTITION " + name + " UPDATE GLOBAL INDEXES");
+        }
+        if (!dropped.isEmpty()) {
+            logger.info("Dropped {} LOGIN_AUDIT partitions older than {}", dropped.size(), keepFrom);
+        }
+        return dropped;
+    }
+
+    private record Partition(String name, String highValue) {
+        LocalDate upperBound() {
+            Matcher matcher = highValue == null ? null : HIGH_VALUE_DATE.matcher(highValue);
+            return matcher != null && matcher.find() ? LocalDate.parse(matcher.group(1)) : null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.kunlecreates.user.config;
+
+import org.kunlecreates.common.jfr.JfrRecordingEndpoint;
+import org.kunlecreates.common.jfr.ProfilingEndpoint;
+import org.kunlecreates.user.infrastructure.jfr.LoginEvent;
+import org.kunlecreates.user.infrastructure.jfr.PasswordEncoderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/** {@code /actuator/jfr} over this service's Flight Recorder events, and {@code /actuator/profile}. */
+@Configuration
+public class JfrConfig {
+
+    @Bean
+    public JfrRecordingEndpoint jfrRecordingEndpoint(
+            @Value("${jfr.recording.max-duration:PT15M}") Duration maxDuration,
+            @Value("${jfr.recording.max-size:64MB}") DataSize maxSize) {
+        return new JfrRecordingEndpoint("user-service", List.of(
+                LoginEvent.class,
+                PasswordEncoderEvent.class), maxDuration, maxSize);
+    }
+
+    @Bean
+    public ProfilingEndpoint profilingEndpoint(
+            @Value("${jfr.profiling.max-duration:PT60S}") Duration maxDuration,
+            @Value("${jfr.profiling.cpu-sample-period:PT0.02S}") Duration cpuSamplePeriod,
+            @Value("${jfr.profiling.lock-threshold:PT0.01S}") Duration lockThreshold) {
+        // Logins hash on the request threads, so their samples stay under the controller
+        return new ProfilingEndpoint(false, maxDuration, cpuSamplePeriod, lockThreshold);
+    }
+}
@@ -0,0 +1,31 @@
+package org.kunlecreates.user.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.common.lease.LeaseScope;
+import org.kunlecreates.common.lease.LeaseSql;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/** Job leases in {@code JOB_LEASES} (V6), on the service's single Oracle schema. */
+@Configuration
+public class LeaseConfig {
+
+    @Bean
+    public LeaseManager leaseManager(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${lease.enabled:true}") boolean enabled,
+            @Value("${lease.ttl:PT30S}") Duration ttl,
+            @Value("${lease.heartbeat-interval:PT10S}") Duration heartbeatInterval,
+            @Value("${lease.instance-id:${HOSTNAME:}}") String instanceId) {
+        return new LeaseManager(jdbcTemplate, transactionManager, meterRegistry, LeaseSql.oracle("JOB_LEASES"),
+                LeaseScope.NONE, enabled, ttl, heartbeatInterval, instanceId);
+    }
+}
@@ -1,5 +1,6 @@
 package org.kunlecreates.user.config;
 
+import org.kunlecreates.common.latency.LatencyHistograms;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,11 +11,21 @@ import java.time.Duration;
 @Configuration
 public class RestTemplateConfig {
     
+    /** Each call's latency is recorded in {@link LatencyHistograms} under the downstream's host name. */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, LatencyHistograms latencyHistograms) {
         return builder
                 .setConnectTimeout(Duration.ofSeconds(5))
                 .setReadTimeout(Duration.ofSeconds(10))
+                .additionalInterceptors((request, body, execution) -> {
+                    long start = System.nanoTime();
+                    try {
+                        return execution.execute(request, body);
+                    } finally {
+                        latencyHistograms.record(LatencyHistograms.DOWNSTREAMS, request.getURI().getHost(),
+                                System.nanoTime() - start);
+                    }
+                })
                 .build();
     }
 }
@@ -24,7 +24,7 @@ public class SecurityConfig {
     @Order(1)
     public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
         http
-            .securityMatcher("/actuator/**", "/error", "/api/auth/**", "/api/user/register", "/api/user/login")
+            .securityMatcher("/actuator/health/**", "/actuator/health", "/actuator/info", "/actuator/prometheus", "/error", "/api/auth/**", "/api/user/register", "/api/user/login")
             .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(csrf -> csrf.disable());
@@ -44,7 +44,10 @@ public class SecurityConfig {
     public SecurityFilterChain protectedFilterChain(HttpSecurity http) throws Exception {
         http
             // NO securityMatcher needed - will match everything not matched by Order(1)
-            .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+            .authorizeHttpRequests(auth -> auth
+                // Recordings and profiles expose request data and cost CPU; operators only
+                .requestMatchers("/actuator/jfr", "/actuator/jfr/**", "/actuator/profile", "/actuator/latency").hasRole("ADMIN")
+                .anyRequest().authenticated())
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(csrf -> csrf.disable());
@@ -5,7 +5,7 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "LOGIN_AUDIT", indexes = {
-    @Index(name = "ix_login_audit_user_id", columnList = "USER_ID"),
+    @Index(name = "ix_login_audit_user_created", columnList = "USER_ID, CREATED_AT"),
     @Index(name = "ix_login_audit_created_at", columnList = "CREATED_AT")
 })
 public class LoginAudit {
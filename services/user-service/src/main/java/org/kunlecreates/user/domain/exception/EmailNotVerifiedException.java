@@ -0,0 +1,5 @@
+package org.kunlecreates.user.domain.exception;
+
+public class EmailNotVerifiedException extends IllegalStateException {
+    public EmailNotVerifiedException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package org.kunlecreates.user.domain.exception;
+
+public class InvalidCredentialsException extends IllegalArgumentException {
+    public InvalidCredentialsException(String message) { super(message); }
+}
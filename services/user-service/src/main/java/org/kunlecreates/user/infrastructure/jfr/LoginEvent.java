@@ -0,0 +1,15 @@
+package org.kunlecreates.user.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(LoginEvent.NAME)
+@Label("Login")
+@Description("AuthService.login, to the end of its transaction; the outcome is success or the failure reason")
+public class LoginEvent extends OperationEvent {
+    public static final String NAME = "shopease.user.Login";
+
+    @Label("User ID")
+    public long userId;
+}
@@ -0,0 +1,15 @@
+package org.kunlecreates.user.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(PasswordEncoderEvent.NAME)
+@Label("Password Encoder")
+@Description("One call to the application's PasswordEncoder: hashing a password or reset token, or checking one")
+public class PasswordEncoderEvent extends OperationEvent {
+    public static final String NAME = "shopease.user.PasswordEncoder";
+
+    @Label("Operation")
+    public String operation;
+}
@@ -0,0 +1,80 @@
+package org.kunlecreates.user.infrastructure.security;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.kunlecreates.user.infrastructure.jfr.PasswordEncoderEvent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records each call to the delegate as a {@link PasswordEncoderEvent}, so a Flight Recorder
+ * recording shows how much of a slow login or reset was BCrypt work. Costs next to nothing
+ * unless a recording has the event enabled.
+ *
+ * Each call is also timed as {@code auth.password.hashing}, tagged with the {@code operation} of
+ * the login or registration being observed (see {@code AuthMetrics}), or {@code other}.
+ */
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+    static final String HASHING = "auth.password.hashing";
+
+    private final PasswordEncoder delegate;
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry, ObservationRegistry observations) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.observations = observations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordEncoderEvent event = begin("encode");
+        Timer.Sample sample = Timer.start(registry);
+        String encoded = delegate.encode(rawPassword);
+        sample.stop(hashingTimer());
+        commit(event, "encoded");
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordEncoderEvent event = begin("matches");
+        Timer.Sample sample = Timer.start(registry);
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        sample.stop(hashingTimer());
+        commit(event, matches ? "matched" : "mismatched");
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private Timer hashingTimer() {
+        Observation current = observations.getCurrentObservation();
+        KeyValue operation = current != null ? current.getContextView().getLowCardinalityKeyValue("operation") : null;
+        return Timer.builder(HASHING)
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", operation != null ? operation.getValue() : "other")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static PasswordEncoderEvent begin(String operation) {
+        PasswordEncoderEvent event = new PasswordEncoderEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    private static void commit(PasswordEncoderEvent event, String outcome) {
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
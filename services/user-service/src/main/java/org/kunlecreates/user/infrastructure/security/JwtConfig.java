@@ -7,6 +7,8 @@ import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,10 +30,10 @@ public class JwtConfig {
     private String jwtSecret;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
         // Use strength 4 for faster testing (default is 10)
         // In production, use 10-12 for better security
-        return new BCryptPasswordEncoder(4);
+        return new InstrumentedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry, observationRegistry);
     }
 
     @Bean
@@ -1,6 +1,7 @@
 package org.kunlecreates.user.interfaces;
 
 import jakarta.validation.Valid;
+import org.kunlecreates.user.application.AuthMetrics;
 import org.kunlecreates.user.application.AuthService;
 import org.kunlecreates.user.application.EmailVerificationService;
 import org.kunlecreates.user.interfaces.dto.AuthResponse;
@@ -22,16 +23,19 @@ public class AuthController {
 
     private final AuthService authService;
     private final EmailVerificationService emailVerificationService;
+    private final AuthMetrics authMetrics;
 
-    public AuthController(AuthService authService, EmailVerificationService emailVerificationService) {
+    public AuthController(AuthService authService, EmailVerificationService emailVerificationService,
+                          AuthMetrics authMetrics) {
         this.authService = authService;
         this.emailVerificationService = emailVerificationService;
+        this.authMetrics = authMetrics;
     }
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody CreateUserRequest request) {
         try {
-            AuthResponse response = authService.register(request);
+            AuthResponse response = authMetrics.register(() -> authService.register(request));
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -42,7 +46,7 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
         try {
-            AuthResponse response = authService.login(request);
+            AuthResponse response = authMetrics.login(() -> authService.login(request));
             return ResponseEntity.ok(response);
         } catch (PasswordResetRequiredException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -1,6 +1,7 @@
 package org.kunlecreates.user.interfaces;
 
 import jakarta.validation.Valid;
+import org.kunlecreates.user.application.AuthMetrics;
 import org.kunlecreates.user.application.AuthService;
 import org.kunlecreates.user.application.UserService;
 import org.kunlecreates.user.domain.User;
@@ -29,10 +30,12 @@ import java.util.Map;
 public class UserController {
     private final UserService userService;
     private final AuthService authService;
+    private final AuthMetrics authMetrics;
 
-    public UserController(UserService userService, AuthService authService) {
+    public UserController(UserService userService, AuthService authService, AuthMetrics authMetrics) {
         this.userService = userService;
         this.authService = authService;
+        this.authMetrics = authMetrics;
     }
 
     /**
@@ -98,7 +101,7 @@ public class UserController {
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody CreateUserRequest request) {
         try {
-            AuthResponse response = authService.register(request);
+            AuthResponse response = authMetrics.register(() -> authService.register(request));
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -113,7 +116,7 @@ public class UserController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
         try {
-            AuthResponse response = authService.login(request);
+            AuthResponse response = authMetrics.login(() -> authService.login(request));
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
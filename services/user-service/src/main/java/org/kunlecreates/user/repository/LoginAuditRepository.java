@@ -0,0 +1,19 @@
+package org.kunlecreates.user.repository;
+
+import org.kunlecreates.user.domain.LoginAudit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface LoginAuditRepository extends JpaRepository<LoginAudit, Long> {
+
+    // Bounded on CREATED_AT so Oracle prunes to the monthly partitions in [from, to)
+    @Query("SELECT a FROM LoginAudit a WHERE a.user.id = :userId AND a.createdAt >= :from AND a.createdAt < :to "
+            + "ORDER BY a.createdAt DESC")
+    List<LoginAudit> findByUserIdBetween(@Param("userId") Long userId,
+                                         @Param("from") Instant from,
+                                         @Param("to") Instant to);
+}
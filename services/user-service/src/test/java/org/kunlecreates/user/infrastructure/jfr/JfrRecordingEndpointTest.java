@@ -0,0 +1,81 @@
+package org.kunlecreates.user.infrastructure.jfr;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.common.jfr.JfrRecordingEndpoint;
+import org.kunlecreates.user.application.AuthMetrics;
+import org.kunlecreates.user.config.JfrConfig;
+import org.kunlecreates.user.domain.exception.InvalidCredentialsException;
+import org.kunlecreates.user.infrastructure.security.InstrumentedPasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrConfig().jfrRecordingEndpoint(Duration.ofMinutes(1), DataSize.ofMegabytes(8));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private final AuthMetrics authMetrics = new AuthMetrics(meterRegistry, observationRegistry);
+    private final PasswordEncoder passwordEncoder =
+            new InstrumentedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry, observationRegistry);
+
+    JfrRecordingEndpointTest() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+    }
+
+    @AfterEach
+    void stopRecording() {
+        endpoint.stop(0);
+    }
+
+    @Test
+    void loginsAndPasswordChecksAreSummarized() {
+        String hash = passwordEncoder.encode("secret");
+        endpoint.start();
+
+        authMetrics.login(() -> {
+            authMetrics.begin(new LoginEvent()).userId = 42;
+            return passwordEncoder.matches("secret", hash);
+        });
+        assertThatThrownBy(() -> authMetrics.login(() -> {
+            authMetrics.begin(new LoginEvent()).userId = 43;
+            if (!passwordEncoder.matches("wrong", hash)) {
+                throw new InvalidCredentialsException("Invalid credentials");
+            }
+            return null;
+        })).isInstanceOf(InvalidCredentialsException.class);
+
+        JfrRecordingEndpoint.Summary summary = endpoint.stop(50);
+
+        assertThat(summary.events().get(LoginEvent.NAME).count()).isEqualTo(2);
+        assertThat(summary.events().get(PasswordEncoderEvent.NAME).count()).isEqualTo(2);
+        assertThat(summary.slowest())
+                .filteredOn(event -> event.event().equals(LoginEvent.NAME))
+                .extracting(event -> event.fields().get("userId") + ":" + event.fields().get("outcome"))
+                .containsExactlyInAnyOrder("42:success", "43:invalid_credentials");
+        assertThat(summary.slowest())
+                .filteredOn(event -> event.event().equals(PasswordEncoderEvent.NAME))
+                .extracting(event -> event.fields().get("outcome"))
+                .containsExactlyInAnyOrder("matched", "mismatched");
+    }
+
+    @Test
+    void passwordHashingIsTimedUnderTheObservedOperation() {
+        String hash = passwordEncoder.encode("secret");
+        authMetrics.login(() -> passwordEncoder.matches("secret", hash));
+
+        assertThat(meterRegistry.get("auth.password.hashing").tag("operation", "other").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hashing").tag("operation", "login").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.operations")
+                .tag("operation", "login").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+}
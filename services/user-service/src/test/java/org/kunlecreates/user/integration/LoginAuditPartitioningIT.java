@@ -0,0 +1,151 @@
+package org.kunlecreates.user.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kunlecreates.user.application.LoginAuditRetentionService;
+import org.kunlecreates.user.domain.LoginAudit;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.kunlecreates.user.repository.LoginAuditRepository;
+import org.kunlecreates.user.test.TestContainersConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.oracle.OracleContainer;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for LOGIN_AUDIT monthly interval partitioning (V5) on Oracle Free (Testcontainers).
+ *
+ * Covers:
+ * - Partition pruning for user + time range lookups, read from EXPLAIN PLAN
+ * - Local indexes on the partitioned table
+ * - Retention by partition drop, keeping the global primary key usable
+ */
+@SpringBootTest
+@Testcontainers
+@Import(TestContainersConfig.class)
+@ActiveProfiles("test")
+class LoginAuditPartitioningIT {
+
+    @Container
+    static OracleContainer oracle = new OracleContainer("gvenzl/oracle-free:slim-faststart")
+            .withUsername("USER_SVC")
+            .withPassword("test")
+            .withStartupTimeout(Duration.ofMinutes(5));
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", oracle::getJdbcUrl);
+        registry.add("spring.datasource.username", oracle::getUsername);
+        registry.add("spring.datasource.password", oracle::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "oracle.jdbc.OracleDriver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.OracleDialect");
+        registry.add("spring.jpa.properties.hibernate.default_schema", oracle::getUsername);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoginAuditRepository loginAuditRepository;
+
+    @Autowired
+    private LeaseManager leaseManager;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        cleanupDatabase();
+        jdbcTemplate.update("INSERT INTO USERS (EMAIL, PASSWORD_HASH) VALUES ('audit-it@example.com', 'hash')");
+        userId = jdbcTemplate.queryForObject("SELECT ID FROM USERS WHERE EMAIL = 'audit-it@example.com'", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanupDatabase();
+    }
+
+    private void cleanupDatabase() {
+        jdbcTemplate.execute("DELETE FROM LOGIN_AUDIT");
+        jdbcTemplate.execute("DELETE FROM USER_ROLES");
+        jdbcTemplate.execute("DELETE FROM USERS");
+    }
+
+    @Test
+    void loginAudit_shouldBeIntervalPartitionedWithLocalIndexes() {
+        Map<String, Object> table = jdbcTemplate.queryForMap(
+                "SELECT PARTITIONING_TYPE, INTERVAL FROM USER_PART_TABLES WHERE TABLE_NAME = 'LOGIN_AUDIT'");
+        assertThat(table.get("PARTITIONING_TYPE")).isEqualTo("RANGE");
+        assertThat(String.valueOf(table.get("INTERVAL"))).contains("NUMTOYMINTERVAL(1");
+
+        List<String> localIndexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM USER_PART_INDEXES WHERE TABLE_NAME = 'LOGIN_AUDIT' AND LOCALITY = 'LOCAL'",
+                String.class);
+        assertThat(localIndexes).contains("IX_LOGIN_AUDIT_CREATED_AT", "IX_LOGIN_AUDIT_USER_CREATED");
+    }
+
+    @Test
+    void userTimeRangeLookup_shouldPruneToTheMonthsInRange() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int monthsBack = 0; monthsBack < 4; monthsBack++) {
+            insertAudit(current.minusMonths(monthsBack).atDay(2).atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+
+        jdbcTemplate.execute("EXPLAIN PLAN SET STATEMENT_ID = 'login_audit_range' FOR "
+                + "SELECT * FROM LOGIN_AUDIT WHERE USER_ID = " + userId
+                + " AND CREATED_AT >= TIMESTAMP '" + current.atDay(1) + " 00:00:00'"
+                + " AND CREATED_AT < TIMESTAMP '" + current.plusMonths(1).atDay(1) + " 00:00:00'");
+        List<Map<String, Object>> partitioned = jdbcTemplate.queryForList(
+                "SELECT OPERATION, OPTIONS, PARTITION_START, PARTITION_STOP FROM PLAN_TABLE "
+                + "WHERE STATEMENT_ID = 'login_audit_range' AND OPERATION LIKE 'PARTITION RANGE%'");
+        jdbcTemplate.execute("DELETE FROM PLAN_TABLE WHERE STATEMENT_ID = 'login_audit_range'");
+
+        assertThat(partitioned).isNotEmpty();
+        assertThat(partitioned).allSatisfy(step -> {
+            assertThat(step.get("OPTIONS")).isEqualTo("SINGLE");
+            assertThat(step.get("PARTITION_START")).isEqualTo(step.get("PARTITION_STOP"));
+        });
+
+        List<LoginAudit> found = loginAuditRepository.findByUserIdBetween(userId,
+                current.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                current.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        assertThat(found).hasSize(1);
+    }
+
+    @Test
+    void dropExpiredPartitions_shouldRemoveOldMonthsAndKeepPrimaryKeyUsable() {
+        Instant expired = YearMonth.now(ZoneOffset.UTC).minusMonths(14).atDay(5).atStartOfDay(ZoneOffset.UTC).toInstant();
+        insertAudit(expired);
+        insertAudit(Instant.now());
+
+        List<String> dropped = new LoginAuditRetentionService(jdbcTemplate, leaseManager, 12).dropExpiredPartitions();
+
+        assertThat(dropped).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOGIN_AUDIT", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT STATUS FROM USER_INDEXES WHERE TABLE_NAME = 'LOGIN_AUDIT' AND UNIQUENESS = 'UNIQUE'",
+                String.class)).isEqualTo("VALID");
+    }
+
+    private void insertAudit(Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO LOGIN_AUDIT (USER_ID, EMAIL, SUCCESS, CREATED_AT) VALUES (?, 'audit-it@example.com', 1, ?)",
+                userId, Timestamp.from(createdAt));
+    }
+}
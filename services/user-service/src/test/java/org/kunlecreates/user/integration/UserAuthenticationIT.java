@@ -3,6 +3,7 @@ package org.kunlecreates.user.integration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -19,6 +20,8 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.testcontainers.oracle.OracleContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import org.kunlecreates.user.test.SqlBudgetExtension;
+import org.kunlecreates.user.test.SqlRecordingConfig;
 import org.kunlecreates.user.test.TestContainersConfig;
 
 import java.util.Map;
@@ -41,7 +44,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
-@Import(TestContainersConfig.class)
+@Import({TestContainersConfig.class, SqlRecordingConfig.class})
 @org.springframework.test.context.ActiveProfiles("test")
 public class UserAuthenticationIT {
 
@@ -61,6 +64,9 @@ public class UserAuthenticationIT {
         registry.add("spring.jpa.properties.hibernate.default_schema", oracle::getUsername);
     }
 
+    @RegisterExtension
+    final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+
     @LocalServerPort
     private int port;
 
@@ -145,11 +151,12 @@ public class UserAuthenticationIT {
         loginRequest.put("email", "login-test@example.com");
         loginRequest.put("password", "SecurePass456!");
 
-        ResponseEntity<Map> loginResponse = restTemplate.postForEntity(
+        // The user, its eagerly fetched roles and the pending-reset check; login writes nothing
+        ResponseEntity<Map> loginResponse = sqlBudget.readOnly(3, () -> restTemplate.postForEntity(
                 baseUrl + "/login",
                 loginRequest,
                 Map.class
-        );
+        ));
 
         // Assert: Login successful
         assertThat(loginResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -224,12 +231,13 @@ public class UserAuthenticationIT {
         headers.set("Authorization", "Bearer " + token);
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Map> profileResponse = restTemplate.exchange(
+        // The user and its roles
+        ResponseEntity<Map> profileResponse = sqlBudget.readOnly(2, () -> restTemplate.exchange(
                 userBaseUrl + "/profile",
                 HttpMethod.GET,
                 entity,
                 Map.class
-        );
+        ));
 
         // Assert: Profile retrieved successfully
         assertThat(profileResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
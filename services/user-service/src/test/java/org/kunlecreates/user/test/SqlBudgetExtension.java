@@ -0,0 +1,69 @@
+package org.kunlecreates.user.test;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.kunlecreates.user.test.SqlStatementRecorder.Kind;
+import org.kunlecreates.user.test.SqlStatementRecorder.Recording;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Holds a read-only request to a budget of SQL statements, so an N+1 or a fetch-plan regression
+ * fails the build instead of slowing production down:
+ *
+ * <pre>{@code
+ * @RegisterExtension
+ * final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+ *
+ * ResponseEntity<Map> profile = sqlBudget.readOnly(2, () -> restTemplate.exchange(...));
+ * }</pre>
+ *
+ * Login and the profile reads run in read-only transactions, which are routed to the read replica
+ * when one is configured, so {@link #readOnly} also fails on any statement that writes.
+ *
+ * The test's Spring context must {@code @Import(SqlRecordingConfig.class)}. Only statements issued
+ * on the server's request threads are counted (see {@link SqlStatementRecorder}).
+ */
+public class SqlBudgetExtension implements AfterEachCallback {
+
+    /**
+     * Run {@code request} and fail if it issued more than {@code selects} SELECT statements or any
+     * INSERT, UPDATE or DELETE.
+     *
+     * @return what {@code request} returned
+     */
+    public <T> T readOnly(int selects, Supplier<T> request) {
+        if (!SqlStatementRecorder.isInstalled()) {
+            throw new IllegalStateException("No data source is being recorded; @Import(SqlRecordingConfig.class) on the test");
+        }
+        T result;
+        Recording recording = SqlStatementRecorder.start();
+        try (recording) {
+            result = request.get();
+        }
+        List<String> overruns = new ArrayList<>();
+        check(recording, Kind.SELECT, selects, overruns);
+        check(recording, Kind.INSERT, 0, overruns);
+        check(recording, Kind.UPDATE, 0, overruns);
+        check(recording, Kind.DELETE, 0, overruns);
+        if (!overruns.isEmpty()) {
+            throw new AssertionError("SQL budget exceeded:\n" + String.join("\n", overruns));
+        }
+        return result;
+    }
+
+    private static void check(Recording recording, Kind kind, int budget, List<String> overruns) {
+        if (recording.count(kind) > budget) {
+            overruns.add("  %d %s statements, budget %d:".formatted(recording.count(kind), kind, budget));
+            recording.statements(kind).forEach(sql -> overruns.add("    " + sql));
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        // A request that threw leaves nothing recording into the next test
+        SqlStatementRecorder.start().close();
+    }
+}
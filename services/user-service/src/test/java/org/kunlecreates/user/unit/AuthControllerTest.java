@@ -1,8 +1,11 @@
 package org.kunlecreates.user.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.user.application.AuthMetrics;
 import org.kunlecreates.user.application.AuthService;
 import org.kunlecreates.user.application.EmailVerificationService;
 import org.kunlecreates.user.domain.exception.PasswordResetRequiredException;
@@ -37,7 +40,8 @@ class AuthControllerTest {
 
     @BeforeEach
     void setUp() {
-        controller = new AuthController(authService, emailVerificationService);
+        controller = new AuthController(authService, emailVerificationService,
+                new AuthMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
     }
 
     @Test
@@ -1,17 +1,24 @@
 package org.kunlecreates.user.unit;
 
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.kunlecreates.user.application.AuthMetrics;
 import org.kunlecreates.user.application.AuthService;
 import org.kunlecreates.user.application.EmailVerificationService;
 import org.kunlecreates.user.domain.User;
 import org.kunlecreates.user.domain.Role;
 import org.kunlecreates.user.domain.PasswordResetToken;
 import org.kunlecreates.user.domain.exception.DuplicateUserException;
+import org.kunlecreates.user.domain.exception.EmailNotVerifiedException;
+import org.kunlecreates.user.domain.exception.InvalidCredentialsException;
 import org.kunlecreates.user.domain.exception.PasswordResetRequiredException;
 import org.kunlecreates.user.domain.exception.PasswordResetTokenException;
 import org.kunlecreates.user.repository.UserRepository;
@@ -55,6 +62,13 @@ class AuthServiceTest {
     @Mock
     private EmailVerificationService emailVerificationService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(meterRegistry, observationRegistry);
+
     @InjectMocks
     private AuthService authService;
 
@@ -63,6 +77,7 @@ class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
         testUser = new User("test@example.com", "hashedPassword");
         ReflectionTestUtils.setField(testUser, "id", 1L);
         
@@ -76,11 +91,13 @@ class AuthServiceTest {
         when(userRepository.findByEmail("existing@example.com"))
                 .thenReturn(Optional.of(testUser));
 
-        assertThatThrownBy(() -> authService.register(request))
+        assertThatThrownBy(() -> authMetrics.register(() -> authService.register(request)))
                 .isInstanceOf(DuplicateUserException.class)
                 .hasMessage("User already exists");
 
         verify(userRepository, never()).save(any());
+        assertThat(meterRegistry.get("auth.operations")
+                .tag("operation", "register").tag("outcome", "rejected").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -271,7 +288,7 @@ class AuthServiceTest {
         when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> authService.login(request))
-                .isInstanceOf(IllegalArgumentException.class)
+                .isInstanceOf(InvalidCredentialsException.class)
                 .hasMessage("Invalid credentials");
     }
 
@@ -281,9 +298,11 @@ class AuthServiceTest {
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("wrongPassword", "hashedPassword")).thenReturn(false);
 
-        assertThatThrownBy(() -> authService.login(request))
-                .isInstanceOf(IllegalArgumentException.class)
+        assertThatThrownBy(() -> authMetrics.login(() -> authService.login(request)))
+                .isInstanceOf(InvalidCredentialsException.class)
                 .hasMessage("Invalid credentials");
+        assertThat(meterRegistry.get("auth.logins")
+                .tag("outcome", "failure").tag("reason", "invalid_credentials").counter().count()).isEqualTo(1.0);
     }
 
     @Test
@@ -313,11 +332,14 @@ class AuthServiceTest {
         when(jwtService.generateToken("1", "test@example.com", List.of("CUSTOMER"), null))
                 .thenReturn("login-token");
 
-        AuthResponse response = authService.login(request);
+        AuthResponse response = authMetrics.login(() -> authService.login(request));
 
         assertThat(response.token()).isEqualTo("login-token");
         assertThat(response.userId()).isEqualTo("1");
         assertThat(response.email()).isEqualTo("test@example.com");
+        assertThat(meterRegistry.get("auth.logins").tag("outcome", "success").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("auth.operations")
+                .tag("operation", "login").tag("outcome", "success").timer().count()).isEqualTo(1);
     }
 
         @Test
@@ -454,17 +476,30 @@ class AuthServiceTest {
     }
 
     @Test
-    void login_whenEmailNotVerified_shouldThrowIllegalStateException() {
+    void login_whenEmailNotVerified_shouldThrowEmailNotVerifiedException() {
         testUser.setEmailVerified(0);
         LoginRequest request = new LoginRequest("test@example.com", "correctPassword");
 
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("correctPassword", testUser.getPasswordHash())).thenReturn(true);
 
-        assertThatThrownBy(() -> authService.login(request))
-                .isInstanceOf(IllegalStateException.class)
+        assertThatThrownBy(() -> authMetrics.login(() -> authService.login(request)))
+                .isInstanceOf(EmailNotVerifiedException.class)
                 .hasMessage("Email not verified. Please check your email for verification link.");
 
         verify(jwtService, never()).generateToken(any(), any(), any(), any());
+        assertThat(meterRegistry.get("auth.logins")
+                .tag("outcome", "failure").tag("reason", "email_not_verified").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void login_whenSomethingElseFails_shouldCountAnErrorRatherThanACredentialProblem() {
+        LoginRequest request = new LoginRequest("test@example.com", "correctPassword");
+        when(userRepository.findByEmail("test@example.com")).thenThrow(new IllegalStateException("Pool exhausted"));
+
+        assertThatThrownBy(() -> authMetrics.login(() -> authService.login(request))).isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("auth.logins")
+                .tag("outcome", "failure").tag("reason", "error").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("auth.logins").tag("reason", "email_not_verified").counter()).isNull();
     }
 }
@@ -0,0 +1,88 @@
+package org.kunlecreates.user.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.user.application.LoginAuditRetentionService;
+import org.kunlecreates.common.lease.LeaseManager;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LoginAuditRetentionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final LeaseManager leaseManager =
+            LeaseManager.local(new SimpleMeterRegistry(), "test");
+
+    private final YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+    @Test
+    void dropExpiredPartitions_shouldDropOnlyMonthsWhollyPastRetention() throws Exception {
+        partitions(
+                new String[] {"SYS_P101", highValue(current.minusMonths(13))},
+                new String[] {"SYS_P102", highValue(current.minusMonths(12))},
+                new String[] {"SYS_P103", highValue(current.minusMonths(11))},
+                new String[] {"SYS_P104", highValue(current.plusMonths(1))});
+
+        List<String> dropped = new LoginAuditRetentionService(jdbcTemplate, leaseManager, 12).dropExpiredPartitions();
+
+        assertThat(dropped).containsExactly("SYS_P101", "SYS_P102");
+        verify(jdbcTemplate).execute("ALTER TABLE USER_SVC.LOGIN_AUDIT DROP PARTITION SYS_P101 UPDATE GLOBAL INDEXES");
+        verify(jdbcTemplate).execute("ALTER TABLE USER_SVC.LOGIN_AUDIT DROP PARTITION SYS_P102 UPDATE GLOBAL INDEXES");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    void dropExpiredPartitions_whenRetentionIsZero_shouldKeepEverything() {
+        assertThat(new LoginAuditRetentionService(jdbcTemplate, leaseManager, 0).dropExpiredPartitions()).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void enforceRetention_whenDictionaryQueryFails_shouldNotPropagate() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThatCode(() -> new LoginAuditRetentionService(jdbcTemplate, leaseManager, 12).enforceRetention()).doesNotThrowAnyException();
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    private static String highValue(YearMonth month) {
+        return "TIMESTAMP' " + month.atDay(1) + " 00:00:00'";
+    }
+
+    @SuppressWarnings("unchecked")
+    private void partitions(String[]... rows) throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.length; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("PARTITION_NAME")).thenReturn(rows[i][0]);
+                when(rs.getString("HIGH_VALUE")).thenReturn(rows[i][1]);
+                mapped.add(mapper.mapRow(rs, i));
+            }
+            return mapped;
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package org.kunlecreates.user.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.kunlecreates.user.config.SecurityConfig;
 import org.kunlecreates.user.domain.exception.DuplicateUserException;
@@ -29,7 +31,7 @@ class UserConfigAndExceptionTest {
         JwtConfig config = new JwtConfig();
         ReflectionTestUtils.setField(config, "jwtSecret", "this-is-a-very-long-test-secret-for-hs256-signing");
 
-        assertThat(config.passwordEncoder()).isNotNull();
+        assertThat(config.passwordEncoder(new SimpleMeterRegistry(), ObservationRegistry.NOOP)).isNotNull();
         assertThat(config.jwtEncoder()).isNotNull();
         assertThat(config.jwtDecoder()).isNotNull();
     }
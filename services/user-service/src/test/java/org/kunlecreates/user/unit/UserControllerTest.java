@@ -1,8 +1,11 @@
 package org.kunlecreates.user.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kunlecreates.user.application.AuthMetrics;
 import org.kunlecreates.user.application.AuthService;
 import org.kunlecreates.user.application.UserService;
 import org.kunlecreates.user.domain.Role;
@@ -50,7 +53,8 @@ class UserControllerTest {
 
     @BeforeEach
     void setUp() {
-        controller = new UserController(userService, authService);
+        controller = new UserController(userService, authService,
+                new AuthMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
     }
 
     @Test
@@ -0,0 +1,20 @@
+-- V4__create_replica_heartbeat.sql
+-- One-row heartbeat written to the primary and read back from the read replica to measure replication lag
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE TABLE REPLICA_HEARTBEAT (
+        ID NUMBER(1) PRIMARY KEY CHECK (ID = 1),
+        BEAT_AT TIMESTAMP(6) NOT NULL
+    )';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN  -- ORA-00955: name is already used by an existing object
+            RAISE;
+        END IF;
+END;
+/
+
+MERGE INTO REPLICA_HEARTBEAT h
+USING (SELECT 1 AS ID FROM DUAL) s
+ON (h.ID = s.ID)
+WHEN NOT MATCHED THEN INSERT (ID, BEAT_AT) VALUES (1, SYSTIMESTAMP);
@@ -0,0 +1,45 @@
+-- V5__partition_login_audit.sql
+-- Monthly interval partitioning of LOGIN_AUDIT on CREATED_AT, so retention drops whole partitions
+-- instead of deleting rows, and lookups bounded by CREATED_AT prune to the months they cover.
+--   * LOGIN_AUDIT_P0 is the fixed range partition below 2020-01-01; Oracle creates one partition
+--     per month above it on first insert. It cannot be dropped, so retention skips it.
+--   * IX_LOGIN_AUDIT_CREATED_AT becomes LOCAL. IX_LOGIN_AUDIT_USER_ID is replaced by a LOCAL
+--     (USER_ID, CREATED_AT) index serving "logins by user in a time range" within each partition.
+--   * The primary key on ID stays a global index; partitions are dropped with
+--     UPDATE GLOBAL INDEXES so it stays usable.
+
+DECLARE
+    partitioned NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO partitioned FROM USER_PART_TABLES WHERE TABLE_NAME = 'LOGIN_AUDIT';
+    IF partitioned = 0 THEN
+        EXECUTE IMMEDIATE q'[
+            ALTER TABLE LOGIN_AUDIT MODIFY
+                PARTITION BY RANGE (CREATED_AT) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+                (PARTITION LOGIN_AUDIT_P0 VALUES LESS THAN (TIMESTAMP '2020-01-01 00:00:00'))
+                ONLINE
+                UPDATE INDEXES (IX_LOGIN_AUDIT_CREATED_AT LOCAL)
+        ]';
+    END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX IX_LOGIN_AUDIT_USER_CREATED ON LOGIN_AUDIT(USER_ID, CREATED_AT) LOCAL ONLINE';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN  -- ORA-00955: name is already used by an existing object
+            RAISE;
+        END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'DROP INDEX IX_LOGIN_AUDIT_USER_ID';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -1418 THEN  -- ORA-01418: specified index does not exist
+            RAISE;
+        END IF;
+END;
+/
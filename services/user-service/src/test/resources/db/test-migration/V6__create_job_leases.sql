@@ -0,0 +1,21 @@
+-- V6__create_job_leases.sql
+-- Leases for background jobs, so each job (or each hash slot of a job) runs on one replica at a time.
+-- A lease is held until EXPIRES_AT, which its holder pushes forward on every heartbeat; FENCING_TOKEN
+-- goes up on every takeover. Rows named 'member:<instance>' record which replicas are alive, for
+-- splitting slotted jobs evenly. Expired rows are reused in place, so the table stays small.
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE TABLE JOB_LEASES (
+        LEASE_NAME VARCHAR2(200) PRIMARY KEY,
+        HOLDER VARCHAR2(200) NOT NULL,
+        FENCING_TOKEN NUMBER(19) NOT NULL,
+        EXPIRES_AT TIMESTAMP(6) NOT NULL,
+        HEARTBEAT_AT TIMESTAMP(6) NOT NULL
+    )';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN  -- ORA-00955: name is already used by an existing object
+            RAISE;
+        END IF;
+END;
+/
@@ -0,0 +1,19 @@
+-- V7__key_replica_heartbeat_by_instance.sql
+-- Each user-service instance now owns its own heartbeat row. With one shared row, a beat written by an
+-- instance whose clock runs ahead made another instance's unreplicated beats look applied. The old row
+-- only ever held the latest beat, so the table is recreated rather than migrated.
+
+DECLARE
+    keyed NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO keyed FROM USER_TAB_COLUMNS
+    WHERE TABLE_NAME = 'REPLICA_HEARTBEAT' AND COLUMN_NAME = 'INSTANCE_ID';
+    IF keyed = 0 THEN
+        EXECUTE IMMEDIATE 'DROP TABLE REPLICA_HEARTBEAT';
+        EXECUTE IMMEDIATE 'CREATE TABLE REPLICA_HEARTBEAT (
+            INSTANCE_ID VARCHAR2(200) PRIMARY KEY,
+            BEAT_AT TIMESTAMP(6) NOT NULL
+        )';
+    END IF;
+END;
+/